@@ -141,6 +141,7 @@ public class ClientProcess {
         RuntimeSettings.useSeparateClassLoader = Properties.USE_SEPARATE_CLASSLOADER;
 		RuntimeSettings.className = Properties.TARGET_CLASS;
 		RuntimeSettings.useJEE = Properties.JEE;
+		RuntimeSettings.snapshotStaticState = Properties.SNAPSHOT_STATIC_STATE;
 		RuntimeSettings.applyUIDTransformation = true;
 		RuntimeSettings.isRunningASystemTest = Properties.IS_RUNNING_A_SYSTEM_TEST;
         MethodCallReplacementCache.resetSingleton();
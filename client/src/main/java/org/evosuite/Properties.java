@@ -171,6 +171,9 @@ public class Properties {
 	@Parameter(key = "dynamic_pool_size", group = "Test Creation", description = "Number of dynamic constants to keep")
 	public static int DYNAMIC_POOL_SIZE = 50;
 
+	@Parameter(key = "dynamic_pool_sampling", group = "Test Creation", description = "Once the dynamic pool of a type is full, only consider every n-th value observed at runtime")
+	public static int DYNAMIC_POOL_SAMPLING = 1;
+
 	@Parameter(key = "p_special_type_call", group = "Test Creation", description = "Probability of using a non-standard call on a special case (collection/numeric)")
     @DoubleValue(min = 0.0, max = 1.0)
 	public static double P_SPECIAL_TYPE_CALL = 0.05;
@@ -399,7 +402,9 @@ public class Properties {
 	public static boolean DSE_KEEP_ALL_TESTS = false;
 
 	public enum SolverType {
-		EVOSUITE_SOLVER, Z3_SOLVER, Z3_STR2_SOLVER, CVC4_SOLVER;
+		EVOSUITE_SOLVER, Z3_SOLVER, Z3_STR2_SOLVER, CVC4_SOLVER,
+		/** run the solvers of dse_portfolio_solvers concurrently */
+		PORTFOLIO_SOLVER;
 	}
 
 	@Parameter(key = "dse_solver", group = "DSE", description = "Specify which constraint solver to use. Note: external solver will need to be installed and cofigured separately")
@@ -414,6 +419,38 @@ public class Properties {
 	@Parameter(key = "cvc4_path", group = "DSE", description = "Indicates the path to the CVC4 solver")
 	public static String CVC4_PATH = null;
 
+	@Parameter(key = "dse_portfolio_solvers", group = "DSE", description = "Solvers that PORTFOLIO_SOLVER runs concurrently on each query, as a ':' separated list. External solvers whose path is not set are skipped")
+	public static SolverType[] DSE_PORTFOLIO_SOLVERS = new SolverType[] { SolverType.EVOSUITE_SOLVER,
+			SolverType.Z3_SOLVER, SolverType.CVC4_SOLVER };
+
+	@Parameter(key = "dse_portfolio_routing_races", group = "DSE", description = "Number of races on queries with the same types of constraints after which PORTFOLIO_SOLVER only runs the solver that won most of them. 0 means always race")
+	@IntValue(min = 0)
+	public static int DSE_PORTFOLIO_ROUTING_RACES = 20;
+
+	@Parameter(key = "solver_cache_size", group = "DSE", description = "Maximum number of constraint solver results kept in the solver cache")
+	@IntValue(min = 0)
+	public static int SOLVER_CACHE_SIZE = 10000;
+
+	@Parameter(key = "solver_cache_file", group = "DSE", description = "File from which constraint solver results are loaded and to which the solver_cache_size most recently used results are saved at the end of the search, e.g. one file per project. No file is used if empty")
+	public static String SOLVER_CACHE_FILE = null;
+
+	@Parameter(key = "dse_incremental_solver", group = "DSE", description = "Keep the constraint solver process alive between queries and reuse the common prefix of consecutive queries")
+	public static boolean DSE_INCREMENTAL_SOLVER = false;
+
+	@Parameter(key = "dse_path_cache", group = "DSE", description = "Reuse the path conditions of earlier concolic executions for tests that only differ after the statement at which these stopped with an exception, or are identical")
+	public static boolean DSE_PATH_CACHE = false;
+
+	@Parameter(key = "dse_path_cache_size", group = "DSE", description = "Maximum number of path conditions kept for dse_path_cache")
+	@IntValue(min = 0)
+	public static int DSE_PATH_CACHE_SIZE = 100;
+
+	@Parameter(key = "dse_fused_listeners", group = "DSE", description = "Forward each bytecode callback of concolic execution only to the listeners that handle it, through a single fused listener")
+	public static boolean DSE_FUSED_LISTENERS = true;
+
+	@Parameter(key = "dse_solver_threads", group = "DSE", description = "Number of constraint solver queries that the generational search of the DSE strategy solves concurrently. Queries to Z3 or CVC4 still run one at a time, as they share one incremental solver process")
+	@IntValue(min = 1)
+	public static int DSE_SOLVER_THREADS = 1;
+
 
 	// --------- LS ---------
 
@@ -798,6 +835,17 @@ public class Properties {
 	@Parameter(key = "ctg_seeds_ext", group = "Continuous Test Generation", description = "File extension for serialized test files")
 	public static String CTG_SEEDS_EXT = "seed";
 
+	public enum TestSerializationFormat {
+		// plain Java serialization of the test chromosomes
+		JAVA,
+		// versioned binary encoding of the statements, tests with assertions
+		// are stored with Java serialization
+		COMPACT
+	}
+
+	@Parameter(key = "test_serialization_format", group = "Continuous Test Generation", description = "Format used to save serialized tests. Files in either format can be loaded")
+	public static TestSerializationFormat TEST_SERIALIZATION_FORMAT = TestSerializationFormat.JAVA;
+
 	@Parameter(key = "ctg_project_info", group = "Continuous Test Generation", description = "XML file which stores stats about all CTG executions")
 	public static String CTG_PROJECT_INFO = "project_info.xml";
 
@@ -1035,6 +1083,12 @@ public class Properties {
 	@Parameter(key = "max_mutants_per_test", group = "Output", description = "How many mutants to use when trying to find assertions for a test")
 	public static int MAX_MUTANTS_PER_TEST = 100;
 
+	@Parameter(key = "split_mutant_execution", group = "Output", description = "When executing a test on a mutant to find assertions, only observe the statements from the first one that reaches the mutant")
+	public static boolean SPLIT_MUTANT_EXECUTION = false;
+
+	@Parameter(key = "batch_mutant_execution", group = "Output", description = "When looking for assertions, only execute a test on the mutants it infected in the execution on the original unit")
+	public static boolean BATCH_MUTANT_EXECUTION = true;
+
 	@Parameter(key = "max_mutants_per_method", group = "Output", description = "How many mutants can be inserted into a single method")
 	public static int MAX_MUTANTS_PER_METHOD = 700;
 
@@ -1154,6 +1208,12 @@ public class Properties {
 	@Parameter(key = "inheritance_file", description = "Cached version of inheritance tree")
 	public static String INHERITANCE_FILE = "";
 
+	@Parameter(key = "cache_inheritance_tree", description = "Cache the inheritance tree of the classpath in the temporary directory, so that later runs on an unchanged classpath do not have to analyze it again")
+	public static boolean CACHE_INHERITANCE_TREE = true;
+
+	@Parameter(key = "max_cache_size", description = "Maximum size in megabytes of each cache kept in the temporary directory. The least recently used entries are deleted beyond it")
+	public static int MAX_CACHE_SIZE = 256;
+
 	@Parameter(key = "branch_eval", description = "Jeremy's branch evaluation")
 	public static boolean BRANCH_EVAL = false;
 
@@ -1183,6 +1243,9 @@ public class Properties {
 	@Parameter(key = "instrumentation_skip_debug", description = "Skip debug information in bytecode instrumentation (needed for compatibility with classes transformed by Emma code instrumentation due to an ASM bug)")
 	public static boolean INSTRUMENTATION_SKIP_DEBUG = false;
 
+	@Parameter(key = "cache_instrumentation", description = "Keep the instrumented bytecode of classes other than the classes under test in the temporary directory, so that later clients can skip frame computation")
+	public static boolean CACHE_INSTRUMENTATION = true;
+
 	@Parameter(key = "instrument_parent", description = "Also count coverage goals in superclasses")
 	public static boolean INSTRUMENT_PARENT = false;
 
@@ -1211,6 +1274,9 @@ public class Properties {
 	@Parameter(key = "test_archive", description = "Use an archive of covered goals during test generation")
 	public static boolean TEST_ARCHIVE = true;
 
+	@Parameter(key = "incremental_suite_fitness", description = "Keep the values aggregated over the tests of a suite by the suite fitness functions, and only update them with the tests that changed")
+	public static boolean INCREMENTAL_SUITE_FITNESS = true;
+
 	@Parameter(key = "test_factory", description = "Which factory creates tests")
 	public static TestFactory TEST_FACTORY = TestFactory.ARCHIVE;
 
@@ -1348,6 +1414,25 @@ public class Properties {
     @Parameter(key = "max_loop_iterations", group = "Test Execution", description = "Max number of iterations allowed per loop. A negative value means no check is done.")
     public static long MAX_LOOP_ITERATIONS = RuntimeSettings.maxNumberOfIterationsPerLoop;
 
+	@Parameter(key = "primitive_branch_trace", group = "Test Execution", description = "Store branch distances of an execution trace in dense primitive arrays indexed by branch id rather than in synchronized maps")
+	public static boolean PRIMITIVE_BRANCH_TRACE = false;
+
+	@Parameter(key = "execution_lanes", group = "Test Execution", description = "Experimental: number of threads on which the tests of a population are executed concurrently. Lanes have their own traces, loop counters and virtual file systems, but share the static state of the SUT")
+	@IntValue(min = 1)
+	public static int EXECUTION_LANES = 1;
+
+	@Parameter(key = "method_handle_invocation", group = "Test Execution", description = "Invoke methods and constructors of the SUT in test statements through cached method handles instead of reflection")
+	public static boolean METHOD_HANDLE_INVOCATION = true;
+
+	@Parameter(key = "prefix_execution_cache", group = "Test Execution", description = "Reuse the results of earlier executions for tests that only differ after the statement at which these stopped with an exception, or are identical. Requires static state reset and mocking of non-determinism. Results are only reused while all execution observers store their records in the result, as those of the OUTPUT and INPUT criteria do")
+	public static boolean PREFIX_EXECUTION_CACHE = false;
+
+	@Parameter(key = "prefix_execution_cache_size", group = "Test Execution", description = "Maximum number of execution results kept for prefix_execution_cache")
+	public static int PREFIX_EXECUTION_CACHE_SIZE = 200;
+
+	@Parameter(key = "snapshot_static_state", group = "Test Execution", description = "Reset classes by restoring the values of their static fields after the first reset, if these are immutable and the static constructor does not change other classes, instead of calling static constructors")
+	public static boolean SNAPSHOT_STATIC_STATE = false;
+
     // ---------------------------------------------------------------
 	// Debugging
 
@@ -1545,6 +1630,24 @@ public class Properties {
 	@Parameter(key = "client_on_thread", group = "Runtime", description = "Run client process on same JVM of master in separate thread. To be used only for debugging purposes")
 	public static volatile boolean CLIENT_ON_THREAD = false;
 
+	@Parameter(key = "num_parallel_clients", group = "Runtime", description = "Number of client processes (islands) searching in parallel for tests of the same class. The islands periodically exchange tests, and the tests of all islands are merged at the end of the search")
+	public static int NUM_PARALLEL_CLIENTS = 1;
+
+	@Parameter(key = "client_index", group = "Runtime", description = "Index of this client process among the parallel clients. Set by the master process")
+	public static int CLIENT_INDEX = 0;
+
+	@Parameter(key = "migrants_iteration_frequency", group = "Runtime", description = "Number of iterations between two migrations of tests among parallel clients")
+	public static int MIGRANTS_ITERATION_FREQUENCY = 5;
+
+	@Parameter(key = "num_migrants", group = "Runtime", description = "Maximum number of tests a parallel client sends to the other clients in each migration")
+	public static int NUM_MIGRANTS = 5;
+
+	@Parameter(key = "island_algorithms", group = "Runtime", description = "Search algorithms assigned in turn to the parallel clients, separated by ':'. If empty, all clients use the algorithm set with 'algorithm'")
+	public static String[] ISLAND_ALGORITHMS = new String[] {};
+
+	@Parameter(key = "island_merge_timeout", group = "Runtime", description = "Seconds the first parallel client waits for the final tests of the other clients after its search")
+	public static int ISLAND_MERGE_TIMEOUT = 10;
+
 
 	@Parameter(key = "is_running_a_system_test", group = "Runtime", description = "Specify that a system test is running. To be used only for debugging purposes")
 	public static volatile boolean IS_RUNNING_A_SYSTEM_TEST = false;
@@ -2129,12 +2232,24 @@ public class Properties {
 				}
 
 				f.set(this, criteria);
+			} else if (f.getType().getComponentType().isEnum()) {
+				f.set(this, parseEnumArray(f.getType().getComponentType(), value));
 			}
 		} else {
 			f.set(null, value);
 		}
 	}
 
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Object parseEnumArray(Class<?> enumClass, String value) {
+		String[] values = value.split(":");
+		Object array = Array.newInstance(enumClass, values.length);
+		for (int i = 0; i < values.length; i++) {
+			Array.set(array, i, Enum.valueOf((Class<Enum>) enumClass, values[i].toUpperCase()));
+		}
+		return array;
+	}
+
 	/**
 	 * we need this strict function because Boolean.parseBoolean silently
 	 * ignores malformed strings
@@ -54,9 +54,12 @@ import org.evosuite.setup.ConcreteClassAnalyzer;
 import org.evosuite.setup.DependencyAnalysis;
 import org.evosuite.setup.TestCluster;
 import org.evosuite.setup.TestClusterGenerator;
+import org.evosuite.symbolic.ConcolicPathCache;
 import org.evosuite.symbolic.DSEStats;
 import org.evosuite.testcarver.extraction.CarvingManager;
+import org.evosuite.testcase.execution.ExecutionLanes;
 import org.evosuite.testcase.execution.ExecutionTracer;
+import org.evosuite.testcase.execution.PrefixExecutionCache;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.evosuite.testcase.execution.reset.ClassReInitializer;
 import org.evosuite.utils.ArrayUtil;
@@ -168,8 +171,11 @@ public class TestGenerationContext {
 		}
 
 		TestCaseExecutor.pullDown();
+		ExecutionLanes.pullDown();
 
 		ExecutionTracer.getExecutionTracer().clear();
+		PrefixExecutionCache.getInstance().clear();
+		ConcolicPathCache.getInstance().clear();
 
 		// TODO: BranchPool should not be static
 		BranchPool.getInstance(classLoader).reset();
@@ -31,6 +31,7 @@ import org.evosuite.coverage.FitnessFunctions;
 import org.evosuite.coverage.TestFitnessFactory;
 import org.evosuite.coverage.dataflow.DefUseCoverageSuiteFitness;
 import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
+import org.evosuite.ga.metaheuristics.MigrationListener;
 import org.evosuite.ga.stoppingconditions.StoppingCondition;
 import org.evosuite.junit.JUnitAnalyzer;
 import org.evosuite.junit.writer.TestSuiteWriter;
@@ -50,12 +51,15 @@ import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.statistics.StatisticsSender;
 import org.evosuite.strategy.*;
 import org.evosuite.symbolic.DSEStats;
+import org.evosuite.symbolic.solver.IncrementalSolverProcess;
+import org.evosuite.symbolic.solver.SolverCache;
 import org.evosuite.testcase.ConstantInliner;
 import org.evosuite.testcase.DefaultTestCase;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
 import org.evosuite.testcase.execution.EvosuiteError;
+import org.evosuite.testcase.execution.ExecutionLanes;
 import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testcase.execution.ExecutionTrace;
 import org.evosuite.testcase.execution.ExecutionTracer;
@@ -235,6 +239,13 @@ public class TestSuiteGenerator {
 
 		TestSuiteChromosome testCases = generateTests();
 
+		if (MigrationListener.isEnabled() && Properties.CLIENT_INDEX > 0) {
+			// The first client merges the tests of this client and writes the test suite
+			TestCaseExecutor.pullDown();
+			ExecutionLanes.pullDown();
+			return TestGenerationResultBuilder.buildSuccessResult();
+		}
+
 		postProcessTests(testCases);
 		ClientServices.getInstance().getClientNode().publishPermissionStatistics();
 		PermissionStatistics.getInstance().printStatistics(LoggingUtils.getEvoLogger());
@@ -243,6 +254,7 @@ public class TestSuiteGenerator {
 		TestGenerationResult result = writeJUnitTestsAndCreateResult(testCases);
 		writeJUnitFailingTests();
 		TestCaseExecutor.pullDown();
+		ExecutionLanes.pullDown();
 		/*
 		 * TODO: when we will have several processes running in parallel, we ll
 		 * need to handle the gathering of the statistics.
@@ -487,6 +499,10 @@ public class TestSuiteGenerator {
 
 		DSEStats.getInstance().trackSolverStatistics();
 
+		IncrementalSolverProcess.shutdownAll();
+
+		SolverCache.getInstance().saveCacheFile();
+
 		if (Properties.DSE_PROBABILITY > 0.0 && Properties.LOCAL_SEARCH_RATE > 0
 				&& Properties.LOCAL_SEARCH_PROBABILITY > 0.0) {
 			DSEStats.getInstance().logStatistics();
@@ -652,6 +668,17 @@ public class TestSuiteGenerator {
 		TestGenerationStrategy strategy = TestSuiteGeneratorHelper.getTestGenerationStrategy();
 		TestSuiteChromosome testSuite = strategy.generateTests();
 
+		if (MigrationListener.isEnabled()) {
+			if (Properties.CLIENT_INDEX > 0) {
+				ClientServices.getInstance().getClientNode().sendFinalSolutions(MigrationListener.getFinalSolutions(testSuite));
+			} else {
+				LoggingUtils.getEvoLogger().info("* Merging tests of " + Properties.NUM_PARALLEL_CLIENTS + " parallel clients");
+				List<TestChromosome> solutions = ClientServices.getInstance().getClientNode().waitForFinalSolutions(
+						Properties.NUM_PARALLEL_CLIENTS - 1, Properties.ISLAND_MERGE_TIMEOUT * 1000L);
+				testSuite = MigrationListener.mergeFinalSolutions(testSuite, solutions);
+			}
+		}
+
 		if (Properties.CHECK_CONTRACTS) {
 			TestCaseExecutor.getInstance().removeObserver(checker);
 		}
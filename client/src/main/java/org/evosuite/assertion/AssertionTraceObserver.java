@@ -51,6 +51,9 @@ public abstract class AssertionTraceObserver<T extends OutputTraceEntry> extends
 
 	protected OutputTrace<T> trace = new OutputTrace<T>();
 
+	/** Statements before this position are not observed */
+	protected int firstObservedPosition = 0;
+
 	protected boolean checkThread() {
 		return ExecutionTracer.isThreadNeqCurrentThread();
 	}
@@ -76,6 +79,9 @@ public abstract class AssertionTraceObserver<T extends OutputTraceEntry> extends
 	 *            a {@link org.evosuite.testcase.execution.Scope} object.
 	 */
 	protected void visitDependencies(Statement statement, Scope scope) {
+		if (statement.getPosition() < firstObservedPosition)
+			return;
+
 		Set<VariableReference> dependencies = currentTest.getDependencies(statement.getReturnValue());
 		
 		if(Properties.isRegression()){
@@ -112,6 +118,9 @@ public abstract class AssertionTraceObserver<T extends OutputTraceEntry> extends
 	 *            a {@link org.evosuite.testcase.execution.Scope} object.
 	 */
 	protected void visitReturnValue(Statement statement, Scope scope) {
+		if (statement.getPosition() < firstObservedPosition)
+			return;
+
 		
 		if(Properties.isRegression()){
 			Set<VariableReference> dependencies = currentTest.getDependencies(statement.getReturnValue());
@@ -220,6 +229,17 @@ public abstract class AssertionTraceObserver<T extends OutputTraceEntry> extends
 		// Do nothing
 	}
 
+	/**
+	 * Only observe the statements from the given position on. The trace has no
+	 * entries for the statements before.
+	 * 
+	 * @param position
+	 *            the position of the first observed statement
+	 */
+	public synchronized void setFirstObservedPosition(int position) {
+		this.firstObservedPosition = position;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.evosuite.testcase.ExecutionObserver#clear()
 	 */
@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.assertion;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.evosuite.testcase.execution.ExecutionObserver;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionTracer;
+import org.evosuite.testcase.execution.Scope;
+import org.evosuite.testcase.statements.Statement;
+
+/**
+ * Records for each mutant the first statement of a test that reached it.
+ * Before that statement the test behaves on the mutant exactly as on the
+ * original, so a mutant execution only needs to be observed from there on.
+ * 
+ * <p>
+ * Should be added after the other observers, so that mutants reached while
+ * they observe a statement are attributed to that statement.
+ * </p>
+ */
+public class MutantTouchObserver extends ExecutionObserver {
+
+	private final Map<Integer, Integer> firstTouchingStatements = new HashMap<Integer, Integer>();
+
+	@Override
+	public void output(int position, String output) {
+		// Do nothing
+	}
+
+	@Override
+	public void beforeStatement(Statement statement, Scope scope) {
+		// Do nothing
+	}
+
+	@Override
+	public synchronized void afterStatement(Statement statement, Scope scope,
+	        Throwable exception) {
+		Set<Integer> touched = ExecutionTracer.getExecutionTracer().getTouchedMutants();
+		if (touched.size() == firstTouchingStatements.size())
+			return;
+
+		int position = statement.getPosition();
+		for (Integer mutationId : touched) {
+			if (!firstTouchingStatements.containsKey(mutationId))
+				firstTouchingStatements.put(mutationId, position);
+		}
+	}
+
+	@Override
+	public void testExecutionFinished(ExecutionResult r, Scope s) {
+		// Do nothing
+	}
+
+	@Override
+	public synchronized void clear() {
+		firstTouchingStatements.clear();
+	}
+
+	/**
+	 * Position of the first statement that reached each mutant in the last
+	 * execution
+	 * 
+	 * @return a copy of the map from mutation id to statement position
+	 */
+	public synchronized Map<Integer, Integer> getFirstTouchingStatements() {
+		return new HashMap<Integer, Integer>(firstTouchingStatements);
+	}
+}
@@ -76,6 +76,21 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 	protected final static ArrayLengthObserver arrayLengthObserver = new ArrayLengthObserver();
 	protected final static ContainsTraceObserver containsTraceObserver = new ContainsTraceObserver();
 
+	private final static AssertionTraceObserver<?>[] traceObservers = { primitiveObserver, comparisonObserver,
+			sameObserver, inspectorObserver, fieldObserver, nullObserver, arrayObserver, arrayLengthObserver,
+			containsTraceObserver };
+
+	protected final static MutantTouchObserver touchObserver = new MutantTouchObserver();
+
+	/** The test last executed on the original unit */
+	private TestCase originalTest = null;
+
+	/** Statements of the original execution that first reached each mutant */
+	private Map<Integer, Integer> firstTouchingStatements = new HashMap<>();
+
+	/** Number of test executions on mutants */
+	protected int numMutantExecutions = 0;
+
 	protected final static Map<Mutation, Integer> timedOutMutations = new HashMap<Mutation, Integer>();
 
 	protected final static Map<Mutation, Integer> exceptionMutations = new HashMap<Mutation, Integer>();
@@ -102,6 +117,7 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 		TestCaseExecutor.getInstance().addObserver(arrayObserver);
 		TestCaseExecutor.getInstance().addObserver(arrayLengthObserver);
 		TestCaseExecutor.getInstance().addObserver(containsTraceObserver);
+		TestCaseExecutor.getInstance().addObserver(touchObserver);
 	}
 
 	/**
@@ -117,6 +133,13 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 	/**
 	 * Execute a test case on a mutant
 	 * 
+	 * <p>
+	 * With {@link Properties#SPLIT_MUTANT_EXECUTION}, the statements before
+	 * the first one that reached the mutant in the last execution of the same
+	 * test on the original unit are not observed: they behave the same on the
+	 * mutant, so their traces could not differ.
+	 * </p>
+	 * 
 	 * @param test
 	 *            The test case that should be executed
 	 * @param mutant
@@ -125,15 +148,16 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 	protected ExecutionResult runTest(TestCase test, Mutation mutant) {
 		ExecutionResult result = new ExecutionResult(test, mutant);
 		// resetObservers();
-		comparisonObserver.clear();
-		sameObserver.clear();
-		primitiveObserver.clear();
-		inspectorObserver.clear();
-		fieldObserver.clear();
-		nullObserver.clear();
-		arrayObserver.clear();
-		arrayLengthObserver.clear();
-		containsTraceObserver.clear();
+		int firstObservedPosition = 0;
+		if (mutant != null && Properties.SPLIT_MUTANT_EXECUTION && test == originalTest
+				&& firstTouchingStatements.containsKey(mutant.getId())) {
+			firstObservedPosition = firstTouchingStatements.get(mutant.getId());
+		}
+		for (AssertionTraceObserver<?> observer : traceObservers) {
+			observer.clear();
+			observer.setFirstObservedPosition(firstObservedPosition);
+		}
+		touchObserver.clear();
 		try {
 			logger.debug("Executing test");
 			if (mutant == null) {
@@ -143,6 +167,8 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 			}
 			result = TestCaseExecutor.getInstance().execute(test);
 			MutationObserver.deactivateMutation(mutant);
+			if (mutant != null)
+				numMutantExecutions++;
 
 			int num = test.size();
 			MaxStatementsStoppingCondition.statementsExecuted(num);
@@ -157,13 +183,47 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 			result.setTrace(arrayLengthObserver.getTrace(), ArrayLengthTraceEntry.class);
 			result.setTrace(containsTraceObserver.getTrace(), ContainsTraceEntry.class);
 
+			if (mutant == null) {
+				originalTest = test;
+				firstTouchingStatements = touchObserver.getFirstTouchingStatements();
+			}
+
 		} catch (Exception e) {
 			throw new Error(e);
+		} finally {
+			for (AssertionTraceObserver<?> observer : traceObservers) {
+				observer.setFirstObservedPosition(0);
+			}
 		}
 
 		return result;
 	}
 
+	/**
+	 * Determine whether a test needs to be executed on a mutant to find out if
+	 * it kills it
+	 * 
+	 * <p>
+	 * With {@link Properties#BATCH_MUTANT_EXECUTION}, the infection distances
+	 * of all mutants recorded in the execution on the original unit are used:
+	 * if the mutated expression never evaluated to a different value, the
+	 * mutant behaves exactly like the original and cannot be killed.
+	 * </p>
+	 * 
+	 * @param origResult
+	 *            The result of executing the test on the original unit
+	 * @param mutant
+	 *            The mutant in question
+	 * @return true if the test may kill the mutant
+	 */
+	protected boolean isInfected(ExecutionResult origResult, Mutation mutant) {
+		if (!Properties.BATCH_MUTANT_EXECUTION)
+			return true;
+
+		Double distance = origResult.getTrace().getMutationDistances().get(mutant.getId());
+		return distance != null && distance <= 0.0;
+	}
+
 	protected Criterion[] oldCriterion = Properties.CRITERION;
 
 	/**
@@ -221,6 +281,12 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 			LoggingUtils.getEvoLogger().info(
 					"* Resulting test suite's mutation score: " + NumberFormat.getPercentInstance().format(score));
 		}
+
+		ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Mutant_Executions,
+				numMutantExecutions);
+		if (!tkilled.isEmpty()) {
+			logger.info("Executions per killed mutant: " + (double) numMutantExecutions / (double) tkilled.size());
+		}
 	}
 
 	/**
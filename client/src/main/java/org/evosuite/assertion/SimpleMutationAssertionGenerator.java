@@ -185,6 +185,12 @@ public class SimpleMutationAssertionGenerator extends MutationAssertionGenerator
 					continue;
 				}
 			}
+			if (!isInfected(origResult, m)) {
+				// Not counted against the number of mutants per test
+				logger.debug("Skipping mutant not infected by the test");
+				numExecutedMutants--;
+				continue;
+			}
 			if (Properties.MAX_MUTANTS_PER_TEST > 0
 			        && numExecutedMutants > Properties.MAX_MUTANTS_PER_TEST)
 				break;
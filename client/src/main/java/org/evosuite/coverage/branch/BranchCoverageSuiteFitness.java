@@ -32,10 +32,13 @@ import org.evosuite.graphs.cfg.CFGMethodAdapter;
 import org.evosuite.testcase.ExecutableChromosome;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
+import org.evosuite.testcase.execution.BranchDistanceTable;
 import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testcase.statements.ConstructorStatement;
 import org.evosuite.testcase.statements.Statement;
 import org.evosuite.testsuite.AbstractTestSuiteChromosome;
+import org.evosuite.testsuite.TestSuiteAggregate;
+import org.evosuite.testsuite.TestSuiteAggregate.Combination;
 import org.evosuite.testsuite.TestSuiteFitnessFunction;
 import org.objectweb.asm.Type;
 import org.slf4j.Logger;
@@ -71,6 +74,12 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 	protected final Map<Integer, TestFitnessFunction> branchCoverageFalseMap = new LinkedHashMap<Integer, TestFitnessFunction>();
 	private final Map<String, TestFitnessFunction> branchlessMethodCoverageMap = new LinkedHashMap<String, TestFitnessFunction>();
 
+	// Channels of the aggregate of the tests of a suite
+	private static final int TRUE_DISTANCE = 0;
+	private static final int FALSE_DISTANCE = 1;
+	private static final int PREDICATE_COUNT = 2;
+	private static final int CALLED_METHODS = 3;
+
 	private final Set<Integer> toRemoveBranchesT = new LinkedHashSet<>();
 	private final Set<Integer> toRemoveBranchesF = new LinkedHashSet<>();
 	private final Set<String> toRemoveRootBranches = new LinkedHashSet<>();
@@ -234,85 +243,103 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 
 
 	protected void handleTrueDistances(TestChromosome test, ExecutionResult result, Map<Integer, Double> trueDistance) {
-		for (Entry<Integer, Double> entry : result.getTrace().getTrueDistances().entrySet()) {
-			if(!branchesId.contains(entry.getKey())||removedBranchesT.contains(entry.getKey())) continue;
-			if (!trueDistance.containsKey(entry.getKey()))
-				trueDistance.put(entry.getKey(), entry.getValue());
-			else {
-				trueDistance.put(entry.getKey(),
-						Math.min(trueDistance.get(entry.getKey()),
-								entry.getValue()));
-			}
-			BranchCoverageTestFitness goal = (BranchCoverageTestFitness) this.branchCoverageTrueMap.get(entry.getKey());
-			assert goal != null;
-			if ((Double.compare(entry.getValue(), 0.0) == 0)) {
-				test.getTestCase().addCoveredGoal(goal);
-				toRemoveBranchesT.add(entry.getKey());
-			}
-			if(Properties.TEST_ARCHIVE) {
-				Archive.getArchiveInstance().updateArchive(goal, test, entry.getValue());
+		BranchDistanceTable table = result.getTrace().getBranchDistanceTable();
+		if (table != null) {
+			for (int i = 0; i < table.getNumReached(); i++) {
+				int branch = table.getReachedBranch(i);
+				handleTrueDistance(test, branch, table.getTrueDistance(branch), trueDistance);
 			}
+			return;
 		}
+		for (Entry<Integer, Double> entry : result.getTrace().getTrueDistances().entrySet()) {
+			handleTrueDistance(test, entry.getKey(), entry.getValue(), trueDistance);
+		}
+	}
 
+	private void handleTrueDistance(TestChromosome test, int branch, double distance, Map<Integer, Double> trueDistance) {
+		if(!branchesId.contains(branch)||removedBranchesT.contains(branch)) return;
+		Double current = trueDistance.get(branch);
+		if (current == null || distance < current)
+			trueDistance.put(branch, distance);
+		BranchCoverageTestFitness goal = (BranchCoverageTestFitness) this.branchCoverageTrueMap.get(branch);
+		assert goal != null;
+		if ((Double.compare(distance, 0.0) == 0)) {
+			test.getTestCase().addCoveredGoal(goal);
+			toRemoveBranchesT.add(branch);
+		}
+		if(Properties.TEST_ARCHIVE) {
+			Archive.getArchiveInstance().updateArchive(goal, test, distance);
+		}
 	}
 
 	protected void handleFalseDistances(TestChromosome test, ExecutionResult result, Map<Integer, Double> falseDistance) {
-		for (Entry<Integer, Double> entry : result.getTrace().getFalseDistances().entrySet()) {
-			if(!branchesId.contains(entry.getKey())||removedBranchesF.contains(entry.getKey())) continue;
-			if (!falseDistance.containsKey(entry.getKey()))
-				falseDistance.put(entry.getKey(), entry.getValue());
-			else {
-				falseDistance.put(entry.getKey(),
-						Math.min(falseDistance.get(entry.getKey()),
-								entry.getValue()));
-			}
-			BranchCoverageTestFitness goal = (BranchCoverageTestFitness) this.branchCoverageFalseMap.get(entry.getKey());
-			assert goal != null;
-			if ((Double.compare(entry.getValue(), 0.0) == 0)) {
-				test.getTestCase().addCoveredGoal(goal);
-				toRemoveBranchesF.add(entry.getKey());
-			}
-			if(Properties.TEST_ARCHIVE) {
-				Archive.getArchiveInstance().updateArchive(goal, test, entry.getValue());
+		BranchDistanceTable table = result.getTrace().getBranchDistanceTable();
+		if (table != null) {
+			for (int i = 0; i < table.getNumReached(); i++) {
+				int branch = table.getReachedBranch(i);
+				handleFalseDistance(test, branch, table.getFalseDistance(branch), falseDistance);
 			}
+			return;
 		}
+		for (Entry<Integer, Double> entry : result.getTrace().getFalseDistances().entrySet()) {
+			handleFalseDistance(test, entry.getKey(), entry.getValue(), falseDistance);
+		}
+	}
 
+	private void handleFalseDistance(TestChromosome test, int branch, double distance, Map<Integer, Double> falseDistance) {
+		if(!branchesId.contains(branch)||removedBranchesF.contains(branch)) return;
+		Double current = falseDistance.get(branch);
+		if (current == null || distance < current)
+			falseDistance.put(branch, distance);
+		BranchCoverageTestFitness goal = (BranchCoverageTestFitness) this.branchCoverageFalseMap.get(branch);
+		assert goal != null;
+		if ((Double.compare(distance, 0.0) == 0)) {
+			test.getTestCase().addCoveredGoal(goal);
+			toRemoveBranchesF.add(branch);
+		}
+		if(Properties.TEST_ARCHIVE) {
+			Archive.getArchiveInstance().updateArchive(goal, test, distance);
+		}
 	}
 
 	/**
-	 * Iterate over all execution results and summarize statistics
+	 * Summarize the statistics of one execution result, and record the goals
+	 * it covers
 	 * 
-	 * @param results
-	 * @param predicateCount
-	 * @param callCount
-	 * @param trueDistance
-	 * @param falseDistance
-	 * @return
+	 * @param result
+	 * @param contribution
 	 */
-	private boolean analyzeTraces(AbstractTestSuiteChromosome<? extends ExecutableChromosome> suite, List<ExecutionResult> results,
-	        Map<Integer, Integer> predicateCount, Map<String, Integer> callCount,
-	        Map<Integer, Double> trueDistance, Map<Integer, Double> falseDistance) {
-		boolean hasTimeoutOrTestException = false;
-		for (ExecutionResult result : results) {
-			if (result.hasTimeout() || result.hasTestException()) {
-				hasTimeoutOrTestException = true;
-				continue;
-			}
+	private void analyzeTrace(ExecutionResult result, TestSuiteAggregate.Contribution contribution) {
+		TestChromosome test = new TestChromosome();
+		test.setTestCase(result.test);
+		test.setLastExecutionResult(result);
+		test.setChanged(false);
 
-			TestChromosome test = new TestChromosome();
-			test.setTestCase(result.test);
-			test.setLastExecutionResult(result);
-			test.setChanged(false);
+		Map<Integer, Integer> predicateCount = new LinkedHashMap<Integer, Integer>();
+		Map<String, Integer> callCount = new LinkedHashMap<String, Integer>();
+		Map<Integer, Double> trueDistance = new LinkedHashMap<Integer, Double>();
+		Map<Integer, Double> falseDistance = new LinkedHashMap<Integer, Double>();
+
+		handleBranchlessMethods(test, result, callCount);
+		handlePredicateCount(result, predicateCount);
+		handleTrueDistances(test, result, trueDistance);
+		handleFalseDistances(test, result, falseDistance);
 
-			handleBranchlessMethods(test, result, callCount);
-			handlePredicateCount(result, predicateCount);
-			handleTrueDistances(test, result, trueDistance);
-			handleFalseDistances(test, result, falseDistance);
+		// In case there were exceptions in a constructor
+		handleConstructorExceptions(test, result, callCount);
 
-			// In case there were exceptions in a constructor
-			handleConstructorExceptions(test, result, callCount);
+		for (Entry<Integer, Integer> entry : predicateCount.entrySet()) {
+			contribution.add(PREDICATE_COUNT, entry.getKey(), entry.getValue());
+		}
+		for (String method : callCount.keySet()) {
+			contribution.add(CALLED_METHODS, method, 1);
+		}
+		for (Entry<Integer, Double> entry : trueDistance.entrySet()) {
+			contribution.min(TRUE_DISTANCE, entry.getKey(), entry.getValue());
+		}
+		for (Entry<Integer, Double> entry : falseDistance.entrySet()) {
+			contribution.min(FALSE_DISTANCE, entry.getKey(), entry.getValue());
 		}
-		return hasTimeoutOrTestException;
 	}
 	
 	@Override
@@ -383,35 +410,38 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		double fitness = 0.0;
 
 		List<ExecutionResult> results = runTestSuite(suite);
-		Map<Integer, Double> trueDistance = new LinkedHashMap<Integer, Double>();
-		Map<Integer, Double> falseDistance = new LinkedHashMap<Integer, Double>();
-		Map<Integer, Integer> predicateCount = new LinkedHashMap<Integer, Integer>();
-		Map<String, Integer> callCount = new LinkedHashMap<String, Integer>();
+		boolean hasTimeoutOrTestException = hasTimeoutOrTestException(results);
 
-		// Collect stats in the traces 
-		boolean hasTimeoutOrTestException = analyzeTraces(suite, results, predicateCount,
-		                                                  callCount, trueDistance,
-		                                                  falseDistance);
+		// Collect stats in the traces, only analyzing the tests that changed
+		TestSuiteAggregate aggregate = aggregate(suite, results, newAggregate(), this::analyzeTrace);
 
 		// Collect branch distances of covered branches
 		int numCoveredBranches = 0;
+		int numExecutedBranches = 0;
+
+		for (Entry<Object, Double> entry : aggregate.getValues(PREDICATE_COUNT).entrySet()) {
+			// Goals may have been removed since the tests were analyzed
+			Integer key = (Integer) entry.getKey();
+			if (!branchesId.contains(key) || (removedBranchesT.contains(key) && removedBranchesF.contains(key)))
+				continue;
+			numExecutedBranches++;
 
-		for (Integer key : predicateCount.keySet()) {
-			
 			double df = 0.0;
 			double dt = 0.0;
-			int numExecuted = predicateCount.get(key);
+			int numExecuted = entry.getValue().intValue();
 			
 			if(removedBranchesT.contains(key))
 				numExecuted++;
 			if(removedBranchesF.contains(key))
 				numExecuted++;
 			
-			if (trueDistance.containsKey(key)) {
-				dt =  trueDistance.get(key);
+			Double trueDistance = removedBranchesT.contains(key) ? null : aggregate.getValue(TRUE_DISTANCE, key);
+			Double falseDistance = removedBranchesF.contains(key) ? null : aggregate.getValue(FALSE_DISTANCE, key);
+			if (trueDistance != null) {
+				dt = trueDistance;
 			}
-			if(falseDistance.containsKey(key)){
-				df = falseDistance.get(key);
+			if (falseDistance != null) {
+				df = falseDistance;
 			}
 			// If the branch predicate was only executed once, then add 1 
 			if (numExecuted == 1) {
@@ -420,20 +450,20 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 				fitness += normalize(df) + normalize(dt);
 			}
 
-			if (falseDistance.containsKey(key)&&(Double.compare(df, 0.0) == 0))
+			if (falseDistance != null && (Double.compare(df, 0.0) == 0))
 				numCoveredBranches++;
 
-			if (trueDistance.containsKey(key)&&(Double.compare(dt, 0.0) == 0))
+			if (trueDistance != null && (Double.compare(dt, 0.0) == 0))
 				numCoveredBranches++;
 		}
 		
 		// +1 for every branch that was not executed
-		fitness += 2 * (totalBranches - predicateCount.size());
+		fitness += 2 * (totalBranches - numExecutedBranches);
 
 		// Ensure all methods are called
 		int missingMethods = 0;
 		for (String e : methods) {
-			if (!callCount.containsKey(e)) {
+			if (aggregate.getValue(CALLED_METHODS, e) == null) {
 				fitness += 1.0;
 				missingMethods += 1;
 			}
@@ -444,7 +474,7 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		// Calculate coverage
 		int coverage = numCoveredBranches;
 		for (String e : branchlessMethodCoverageMap.keySet()) {
-			if (callCount.keySet().contains(e)) {
+			if (aggregate.getValue(CALLED_METHODS, e) != null) {
 				coverage++;
 			}
 
@@ -486,6 +516,10 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 	
 
 	
+	private static TestSuiteAggregate newAggregate() {
+		return new TestSuiteAggregate(Combination.MIN, Combination.MIN, Combination.SUM, Combination.SUM);
+	}
+
 	/*
 	 * Max branch coverage value
 	 */
@@ -25,6 +25,8 @@ import org.evosuite.testcase.ExecutableChromosome;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testsuite.AbstractTestSuiteChromosome;
+import org.evosuite.testsuite.TestSuiteAggregate;
+import org.evosuite.testsuite.TestSuiteAggregate.Combination;
 import org.evosuite.testsuite.TestSuiteFitnessFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,6 +44,9 @@ public class ExceptionCoverageSuiteFitness extends TestSuiteFitnessFunction {
 
 	private static Logger logger = LoggerFactory.getLogger(ExceptionCoverageSuiteFitness.class);
 
+	// Channel of the aggregate of the tests of a suite
+	private static final int EXCEPTIONS = 0;
+
     private static int maxExceptionsCovered = 0;
     
 
@@ -58,17 +63,11 @@ public class ExceptionCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		logger.trace("Calculating exception fitness");
 
 
-		/*
-		 * for each method in the SUT, we keep track of which kind of exceptions were thrown.
-		 * we distinguish between "implicit", "explicit" and "declared"
-		 */
-		Map<String, Set<Class<?>>> implicitTypesOfExceptions = new HashMap<>();
-        Map<String, Set<Class<?>>> explicitTypesOfExceptions = new HashMap<>();
-        Map<String, Set<Class<?>>> declaredTypesOfExceptions = new HashMap<>();
-
 		List<ExecutionResult> results = runTestSuite(suite);
 
-		calculateExceptionInfo(results,implicitTypesOfExceptions,explicitTypesOfExceptions,declaredTypesOfExceptions, this);
+		// Only the tests that changed are analyzed
+		TestSuiteAggregate aggregate = aggregate(suite, results, new TestSuiteAggregate(Combination.SUM),
+		                                         this::analyzeExceptions);
 		
 		if(Properties.TEST_ARCHIVE) {
 			// If we are using the archive, then fitness is by definition 0
@@ -79,8 +78,7 @@ public class ExceptionCoverageSuiteFitness extends TestSuiteFitnessFunction {
 			return 0.0;
 		}
 		
-		int nExc = getNumExceptions(implicitTypesOfExceptions) + getNumExceptions(explicitTypesOfExceptions) +
-                getNumExceptions(declaredTypesOfExceptions);
+		int nExc = aggregate.getValues(EXCEPTIONS).size();
 
         if (nExc > maxExceptionsCovered) {
             logger.info("(Exceptions) Best individual covers " + nExc + " exceptions");
@@ -113,6 +111,36 @@ public class ExceptionCoverageSuiteFitness extends TestSuiteFitnessFunction {
      * @param declaredTypesOfExceptions
 	 * @throws IllegalArgumentException
 	 */
+	/**
+	 * Record the exceptions of one execution result as keys of the form
+	 * (kind, method, exception class)
+	 */
+	private void analyzeExceptions(ExecutionResult result, TestSuiteAggregate.Contribution contribution) {
+		/*
+		 * for each method in the SUT, we keep track of which kind of exceptions were thrown.
+		 * we distinguish between "implicit", "explicit" and "declared"
+		 */
+		Map<String, Set<Class<?>>> implicitTypesOfExceptions = new HashMap<>();
+		Map<String, Set<Class<?>>> explicitTypesOfExceptions = new HashMap<>();
+		Map<String, Set<Class<?>>> declaredTypesOfExceptions = new HashMap<>();
+
+		calculateExceptionInfo(Collections.singletonList(result), implicitTypesOfExceptions,
+		                       explicitTypesOfExceptions, declaredTypesOfExceptions, this);
+
+		addExceptions(contribution, "implicit", implicitTypesOfExceptions);
+		addExceptions(contribution, "explicit", explicitTypesOfExceptions);
+		addExceptions(contribution, "declared", declaredTypesOfExceptions);
+	}
+
+	private static void addExceptions(TestSuiteAggregate.Contribution contribution, String kind,
+	                                  Map<String, Set<Class<?>>> exceptions) {
+		for (Map.Entry<String, Set<Class<?>>> entry : exceptions.entrySet()) {
+			for (Class<?> exceptionClass : entry.getValue()) {
+				contribution.add(EXCEPTIONS, Arrays.asList(kind, entry.getKey(), exceptionClass), 1);
+			}
+		}
+	}
+
 	public static void calculateExceptionInfo(List<ExecutionResult> results, 
 			Map<String, Set<Class<?>>> implicitTypesOfExceptions, Map<String, Set<Class<?>>> explicitTypesOfExceptions,
             Map<String, Set<Class<?>>> declaredTypesOfExceptions, ExceptionCoverageSuiteFitness contextFitness)
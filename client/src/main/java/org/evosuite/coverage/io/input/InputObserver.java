@@ -104,6 +104,22 @@ public class InputObserver extends ExecutionObserver {
         r.setInputGoals(inputCoverage);
     }
 
+    /* (non-Javadoc)
+     * @see org.evosuite.testcase.ExecutionObserver#copyForLane()
+     */
+    @Override
+    public ExecutionObserver copyForLane() {
+        return new InputObserver();
+    }
+
+    /* (non-Javadoc)
+     * @see org.evosuite.testcase.ExecutionObserver#isStoredInResult()
+     */
+    @Override
+    public boolean isStoredInResult() {
+        return true;
+    }
+
     /* (non-Javadoc)
      * @see org.evosuite.testcase.ExecutionObserver#clear()
      */
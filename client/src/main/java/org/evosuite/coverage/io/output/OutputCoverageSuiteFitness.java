@@ -19,11 +19,8 @@
  */
 package org.evosuite.coverage.io.output;
 
-import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import org.evosuite.Properties;
 import org.evosuite.ga.archive.Archive;
@@ -33,6 +30,8 @@ import org.evosuite.testcase.TestFitnessFunction;
 import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.evosuite.testsuite.AbstractTestSuiteChromosome;
+import org.evosuite.testsuite.TestSuiteAggregate;
+import org.evosuite.testsuite.TestSuiteAggregate.Combination;
 import org.evosuite.testsuite.TestSuiteFitnessFunction;
 
 /**
@@ -46,6 +45,9 @@ public class OutputCoverageSuiteFitness extends TestSuiteFitnessFunction {
     public final int totalGoals;
     private final Set<OutputCoverageTestFitness> outputCoverageGoals = new LinkedHashSet<OutputCoverageTestFitness>();
 
+    // Channel of the aggregate of the tests of a suite
+    private static final int DISTANCES = 0;
+
     private Set<OutputCoverageTestFitness> toRemoveGoals = new LinkedHashSet<>();
     private Set<OutputCoverageTestFitness> removedGoals  = new LinkedHashSet<>();
 
@@ -102,7 +104,8 @@ public class OutputCoverageSuiteFitness extends TestSuiteFitnessFunction {
             logger.info("Test suite has timed out, setting fitness to max value " + totalGoals);
             fitness = totalGoals;
         } else
-            fitness = computeDistance(results, setOfCoveredGoals);
+            fitness = computeDistance(aggregate(suite, results, new TestSuiteAggregate(Combination.MIN),
+                                                this::analyzeTrace), setOfCoveredGoals);
 
         int coveredGoals = setOfCoveredGoals.size() + removedGoals.size();
 
@@ -146,46 +149,39 @@ public class OutputCoverageSuiteFitness extends TestSuiteFitnessFunction {
         return true;
     }
 
-    public double computeDistance(List<ExecutionResult> results, Set<TestFitnessFunction> setOfCoveredGoals) {
+    /**
+     * Compute the distances of one execution result to the output goals, and
+     * record the goals it covers
+     */
+    private void analyzeTrace(ExecutionResult result, TestSuiteAggregate.Contribution contribution) {
+        TestChromosome test = new TestChromosome();
+        test.setTestCase(result.test);
+        test.setLastExecutionResult(result);
+        test.setChanged(false);
 
-        Map<OutputCoverageTestFitness, Double> mapDistances = new LinkedHashMap<OutputCoverageTestFitness, Double>();
         for (OutputCoverageTestFitness testFitness : this.outputCoverageGoals) {
-          mapDistances.put(testFitness, 1.0);
-        }
-
-        for (ExecutionResult result : results) {
-            if (result.hasTimeout() || result.hasTestException()) {
-                continue;
-            }
-
-            TestChromosome test = new TestChromosome();
-            test.setTestCase(result.test);
-            test.setLastExecutionResult(result);
-            test.setChanged(false);
+            double distance = testFitness.getFitness(test, result); // archive is updated by the TestFitnessFunction class
 
-            Iterator<OutputCoverageTestFitness> it = this.outputCoverageGoals.iterator();
-            while (it.hasNext()) {
-                OutputCoverageTestFitness testFitness = it.next();
+            contribution.min(DISTANCES, testFitness, distance);
 
-                if (!mapDistances.containsKey(testFitness)) {
-                    continue;
-                }
-
-                double distance = testFitness.getFitness(test, result); // archive is updated by the TestFitnessFunction class
-
-                mapDistances.put(testFitness, Math.min(distance, mapDistances.get(testFitness)));
-
-                if (distance == 0.0) {
-                    mapDistances.remove(testFitness);
-                    setOfCoveredGoals.add(testFitness); // helper to count the number of covered goals
-                    this.toRemoveGoals.add(testFitness); // goal to not be considered by the next iteration of the evolutionary algorithm
-                }
+            if (distance == 0.0) {
+                this.toRemoveGoals.add(testFitness); // goal to not be considered by the next iteration of the evolutionary algorithm
             }
         }
+    }
+
+    public double computeDistance(TestSuiteAggregate aggregate, Set<TestFitnessFunction> setOfCoveredGoals) {
 
         double distance = 0.0;
-        if (!mapDistances.isEmpty()) {
-            distance = mapDistances.values().stream().reduce(Double::sum).get().doubleValue();
+        for (OutputCoverageTestFitness testFitness : this.outputCoverageGoals) {
+            Double goalDistance = aggregate.getValue(DISTANCES, testFitness);
+            if (goalDistance == null) {
+                distance += 1.0;
+            } else if (goalDistance == 0.0) {
+                setOfCoveredGoals.add(testFitness); // helper to count the number of covered goals
+            } else {
+                distance += Math.min(goalDistance, 1.0);
+            }
         }
         return distance;
     }
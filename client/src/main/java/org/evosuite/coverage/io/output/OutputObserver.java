@@ -93,6 +93,22 @@ public class OutputObserver extends ExecutionObserver {
         r.setOutputGoals(outputCoverage);
     }
 
+    /* (non-Javadoc)
+     * @see org.evosuite.testcase.ExecutionObserver#copyForLane()
+     */
+    @Override
+    public ExecutionObserver copyForLane() {
+        return new OutputObserver();
+    }
+
+    /* (non-Javadoc)
+     * @see org.evosuite.testcase.ExecutionObserver#isStoredInResult()
+     */
+    @Override
+    public boolean isStoredInResult() {
+        return true;
+    }
+
     /* (non-Javadoc)
      * @see org.evosuite.testcase.ExecutionObserver#clear()
      */
@@ -33,6 +33,8 @@ import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
 import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testsuite.AbstractTestSuiteChromosome;
+import org.evosuite.testsuite.TestSuiteAggregate;
+import org.evosuite.testsuite.TestSuiteAggregate.Combination;
 import org.evosuite.testsuite.TestSuiteFitnessFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,6 +54,12 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
 	private final int numLines;
 	private final Map<Integer, TestFitnessFunction> lineGoals = new LinkedHashMap<>();
 
+	// Channels of the aggregate of the tests of a suite
+	private static final int TRUE_DISTANCE = 0;
+	private static final int FALSE_DISTANCE = 1;
+	private static final int PREDICATE_COUNT = 2;
+	private static final int COVERED_LINES = 3;
+
 	private final Set<Integer> removedLines = new LinkedHashSet<>();
 	private final Set<Integer> toRemoveLines = new LinkedHashSet<>();
 
@@ -114,33 +122,32 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
 	 * @param coveredLines
 	 * @return
 	 */
-	private boolean analyzeTraces(List<ExecutionResult> results, Set<Integer> coveredLines) {
-		boolean hasTimeoutOrTestException = false;
-
-		for (ExecutionResult result : results) {
-			if (result.hasTimeout() || result.hasTestException()) {
-				hasTimeoutOrTestException = true;
-				continue;
-			}
+	private void analyzeTrace(ExecutionResult result, TestSuiteAggregate.Contribution contribution) {
+		for (Entry<Integer, Integer> entry : result.getTrace().getPredicateExecutionCount().entrySet()) {
+			contribution.add(PREDICATE_COUNT, entry.getKey(), entry.getValue());
+		}
+		for (Entry<Integer, Double> entry : result.getTrace().getTrueDistances().entrySet()) {
+			contribution.min(TRUE_DISTANCE, entry.getKey(), entry.getValue());
+		}
+		for (Entry<Integer, Double> entry : result.getTrace().getFalseDistances().entrySet()) {
+			contribution.min(FALSE_DISTANCE, entry.getKey(), entry.getValue());
+		}
 
-			TestChromosome test = new TestChromosome();
-			test.setTestCase(result.test);
-			test.setLastExecutionResult(result);
-			test.setChanged(false);
+		TestChromosome test = new TestChromosome();
+		test.setTestCase(result.test);
+		test.setLastExecutionResult(result);
+		test.setChanged(false);
 
-			for (Integer goalID : this.lineGoals.keySet()) {
-				TestFitnessFunction goal = this.lineGoals.get(goalID);
+		for (Integer goalID : this.lineGoals.keySet()) {
+			TestFitnessFunction goal = this.lineGoals.get(goalID);
 
-				double fit = goal.getFitness(test, result); // archive is updated by the TestFitnessFunction class
+			double fit = goal.getFitness(test, result); // archive is updated by the TestFitnessFunction class
 
-				if (fit == 0.0) {
-					coveredLines.add(goalID); // helper to count the number of covered goals
-					this.toRemoveLines.add(goalID); // goal to not be considered by the next iteration of the evolutionary algorithm
-				}
+			if (fit == 0.0) {
+				contribution.add(COVERED_LINES, goalID, 1); // helper to count the number of covered goals
+				this.toRemoveLines.add(goalID); // goal to not be considered by the next iteration of the evolutionary algorithm
 			}
 		}
-
-		return hasTimeoutOrTestException;
 	}
 
 	/**
@@ -155,14 +162,23 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		double fitness = 0.0;
 
 		List<ExecutionResult> results = runTestSuite(suite);
-		fitness += getControlDependencyGuidance(results);
+		boolean hasTimeoutOrTestException = hasTimeoutOrTestException(results);
+		TestSuiteAggregate aggregate = aggregate(suite, results,
+		        new TestSuiteAggregate(Combination.MIN, Combination.MIN, Combination.SUM, Combination.SUM),
+		        this::analyzeTrace);
+
+		fitness += getControlDependencyGuidance(aggregate);
 		logger.info("Branch distances: "+fitness);
 
-		Set<Integer> coveredLines = new LinkedHashSet<>();
-		boolean hasTimeoutOrTestException = analyzeTraces(results, coveredLines);
+		// Lines may have been removed since the tests were analyzed
+		int numCoveredGoals = 0;
+		for (Object goalID : aggregate.getValues(COVERED_LINES).keySet()) {
+			if (this.lineGoals.containsKey(goalID))
+				numCoveredGoals++;
+		}
 
 		int totalLines = this.numLines;
-		int numCoveredLines = coveredLines.size() + this.removedLines.size();
+		int numCoveredLines = numCoveredGoals + this.removedLines.size();
 		
 		logger.debug("Covered " + numCoveredLines + " out of " + totalLines + " lines, "+removedLines.size() +" in archive");
 		fitness += normalize(totalLines - numCoveredLines);
@@ -267,50 +283,17 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		logger.info("Covering branches both: "+branchesToCoverBoth);
 	}
 
-	private double getControlDependencyGuidance(List<ExecutionResult> results) {
-		Map<Integer, Integer> predicateCount = new LinkedHashMap<Integer, Integer>();
-		Map<Integer, Double> trueDistance = new LinkedHashMap<Integer, Double>();
-		Map<Integer, Double> falseDistance = new LinkedHashMap<Integer, Double>();
+	private double getControlDependencyGuidance(TestSuiteAggregate aggregate) {
+		Map<Object, Double> predicateCount = aggregate.getValues(PREDICATE_COUNT);
+		Map<Object, Double> trueDistance = aggregate.getValues(TRUE_DISTANCE);
+		Map<Object, Double> falseDistance = aggregate.getValues(FALSE_DISTANCE);
 
-		for (ExecutionResult result : results) {
-			if (result.hasTimeout() || result.hasTestException()) {
-				continue;
-			}
-			for (Entry<Integer, Integer> entry : result.getTrace().getPredicateExecutionCount().entrySet()) {
-				if (!predicateCount.containsKey(entry.getKey()))
-					predicateCount.put(entry.getKey(), entry.getValue());
-				else {
-					predicateCount.put(entry.getKey(),
-							predicateCount.get(entry.getKey())
-							+ entry.getValue());
-				}
-			}
-			for (Entry<Integer, Double> entry : result.getTrace().getTrueDistances().entrySet()) {
-				if (!trueDistance.containsKey(entry.getKey()))
-					trueDistance.put(entry.getKey(), entry.getValue());
-				else {
-					trueDistance.put(entry.getKey(),
-							Math.min(trueDistance.get(entry.getKey()),
-									entry.getValue()));
-				}
-			}
-			for (Entry<Integer, Double> entry : result.getTrace().getFalseDistances().entrySet()) {
-				if (!falseDistance.containsKey(entry.getKey()))
-					falseDistance.put(entry.getKey(), entry.getValue());
-				else {
-					falseDistance.put(entry.getKey(),
-							Math.min(falseDistance.get(entry.getKey()),
-									entry.getValue()));
-				}
-			}
-		}
-		
 		double distance = 0.0;
 
 		for(Integer branchId : branchesToCoverBoth) {
 			if(!predicateCount.containsKey(branchId)) {
 				distance += 2.0;
-			} else if(predicateCount.get(branchId) == 1) {
+			} else if(predicateCount.get(branchId) == 1.0) {
 				distance += 1.0;
 			} else {
 				distance += normalize(trueDistance.get(branchId));
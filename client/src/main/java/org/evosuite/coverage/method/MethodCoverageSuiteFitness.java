@@ -33,6 +33,8 @@ import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testcase.statements.ConstructorStatement;
 import org.evosuite.testcase.statements.Statement;
 import org.evosuite.testsuite.AbstractTestSuiteChromosome;
+import org.evosuite.testsuite.TestSuiteAggregate;
+import org.evosuite.testsuite.TestSuiteAggregate.Combination;
 import org.evosuite.testsuite.TestSuiteFitnessFunction;
 import org.objectweb.asm.Type;
 import org.slf4j.Logger;
@@ -53,6 +55,9 @@ public class MethodCoverageSuiteFitness extends TestSuiteFitnessFunction {
 	protected final Map<String, TestFitnessFunction> methodCoverageMap = new LinkedHashMap<String, TestFitnessFunction>();
 	protected final int totalMethods;
 
+	// Channel of the aggregate of the tests of a suite
+	private static final int CALLED_METHODS = 0;
+
 	private Set<String> toRemoveMethods = new LinkedHashSet<>();
 	private Set<String> removedMethods  = new LinkedHashSet<>();
 
@@ -122,41 +127,36 @@ public class MethodCoverageSuiteFitness extends TestSuiteFitnessFunction {
 	}
 
 	/**
-	 * Iterate over all execution results and summarize statistics
+	 * Summarize the statistics of one execution result, and record the goals
+	 * it covers
 	 *
-	 * @param results
-	 * @param calledMethods
-	 * @return
+	 * @param result
+	 * @param contribution
 	 */
-	protected boolean analyzeTraces(List<ExecutionResult> results, Set<String> calledMethods) {
-		boolean hasTimeoutOrTestException = false;
+	protected void analyzeTrace(ExecutionResult result, TestSuiteAggregate.Contribution contribution) {
+		TestChromosome test = new TestChromosome();
+		test.setTestCase(result.test);
+		test.setLastExecutionResult(result);
+		test.setChanged(false);
 
-		for (ExecutionResult result : results) {
-			if (result.hasTimeout() || result.hasTestException()) {
-				hasTimeoutOrTestException = true;
-				continue;
-			}
-
-			TestChromosome test = new TestChromosome();
-			test.setTestCase(result.test);
-			test.setLastExecutionResult(result);
-			test.setChanged(false);
-
-			for (String methodName : this.methodCoverageMap.keySet()) {
-				TestFitnessFunction goal = this.methodCoverageMap.get(methodName);
+		Set<String> calledMethods = new LinkedHashSet<String>();
+		for (String methodName : this.methodCoverageMap.keySet()) {
+			TestFitnessFunction goal = this.methodCoverageMap.get(methodName);
 
-				double fit = goal.getFitness(test, result); // archive is updated by the TestFitnessFunction class
+			double fit = goal.getFitness(test, result); // archive is updated by the TestFitnessFunction class
 
-				if (fit == 0.0) {
-					calledMethods.add(methodName); // helper to count the number of covered goals
-					this.toRemoveMethods.add(methodName); // goal to not be considered by the next iteration of the evolutionary algorithm
-				}
+			if (fit == 0.0) {
+				calledMethods.add(methodName); // helper to count the number of covered goals
+				this.toRemoveMethods.add(methodName); // goal to not be considered by the next iteration of the evolutionary algorithm
 			}
+		}
+
+		// In case there were exceptions in a constructor
+		handleConstructorExceptions(test, result, calledMethods);
 
-			// In case there were exceptions in a constructor
-			handleConstructorExceptions(test, result, calledMethods);
+		for (String methodName : calledMethods) {
+			contribution.add(CALLED_METHODS, methodName, 1);
 		}
-		return hasTimeoutOrTestException;
 	}
 
 	/**
@@ -171,12 +171,20 @@ public class MethodCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		double fitness = 0.0;
 
 		List<ExecutionResult> results = runTestSuite(suite);
+		boolean hasTimeoutOrTestException = hasTimeoutOrTestException(results);
 
-		// Collect stats in the traces
-		Set<String> calledMethods = new LinkedHashSet<String>();
-		boolean hasTimeoutOrTestException = analyzeTraces(results, calledMethods);
+		// Collect stats in the traces, only analyzing the tests that changed
+		TestSuiteAggregate aggregate = aggregate(suite, results, new TestSuiteAggregate(Combination.SUM),
+		                                         this::analyzeTrace);
+
+		// Methods may have been removed since the tests were analyzed
+		int calledMethods = 0;
+		for (Object methodName : aggregate.getValues(CALLED_METHODS).keySet()) {
+			if (this.methodCoverageMap.containsKey(methodName))
+				calledMethods++;
+		}
 
-		int coveredMethods = calledMethods.size() + this.removedMethods.size();
+		int coveredMethods = calledMethods + this.removedMethods.size();
 		int missingMethods = this.totalMethods - coveredMethods;
 		assert (this.totalMethods == coveredMethods + missingMethods);
 		fitness = 1.0 * missingMethods;
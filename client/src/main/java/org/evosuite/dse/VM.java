@@ -87,6 +87,14 @@ public final class VM {
 		nrCallbacksMethodExploration += 1;
 	}
 
+	/**
+	 * @return the number of callbacks since the current execution was
+	 *         prepared
+	 */
+	public int getNrCallbacksPath() {
+		return nrCallbacksPath;
+	}
+
 	public boolean isStopped() {
 		return stopped;
 	}
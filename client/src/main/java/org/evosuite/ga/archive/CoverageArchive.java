@@ -19,9 +19,13 @@
  */
 package org.evosuite.ga.archive;
 
-import java.util.LinkedHashMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
-import java.util.Map;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import org.evosuite.Properties;
 import org.evosuite.ga.Chromosome;
@@ -48,15 +52,24 @@ public class CoverageArchive<F extends TestFitnessFunction, T extends TestChromo
   private static final Logger logger = LoggerFactory.getLogger(CoverageArchive.class);
 
   /**
-   * Map used to store all covered targets (keys of the map) and the corresponding covering
-   * solutions (values of the map)
+   * All targets, identified by their id in the order they were registered
    */
-  private final Map<F, T> covered = new LinkedHashMap<F, T>();
+  private final GoalIndex<F> targets = new GoalIndex<F>();
 
   /**
-   * Set used to store all targets that have not been covered yet
+   * Covering solution of each target (by id), or null if the target has not been covered yet
    */
-  private final Set<F> uncovered = new LinkedHashSet<F>();
+  private final List<T> solutions = new ArrayList<T>();
+
+  /**
+   * Ids of all covered targets
+   */
+  private final BitSet covered = new BitSet();
+
+  /**
+   * Ids of all covered targets in the order they were covered
+   */
+  private final List<Integer> coverageOrder = new ArrayList<Integer>();
 
   public static final CoverageArchive<TestFitnessFunction, TestChromosome> instance =
       new CoverageArchive<TestFitnessFunction, TestChromosome>();
@@ -68,21 +81,30 @@ public class CoverageArchive<F extends TestFitnessFunction, T extends TestChromo
   public void addTarget(F target) {
     assert target != null;
 
-    if (!this.uncovered.contains(target)) {
+    if (this.targets.getId(target) < 0) {
       logger.debug("Registering new target '" + target + "'");
-      this.uncovered.add(target);
+      this.register(target);
     }
 
     this.registerNonCoveredTargetOfAMethod(target);
   }
 
+  private int register(F target) {
+    int id = this.targets.register(target);
+    if (id == this.solutions.size()) {
+      this.solutions.add(null);
+    }
+    return id;
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   public void updateArchive(F target, T solution, double fitnessValue) {
     assert target != null;
-    assert this.covered.containsKey(target) || this.uncovered.contains(target) : "Unknown goal: "+target;
+    int id = this.targets.getId(target);
+    assert id >= 0 : "Unknown goal: "+target;
 
     if (fitnessValue > 0.0) {
       // as this type of archive only cares about covered targets, it ignores all
@@ -93,7 +115,10 @@ public class CoverageArchive<F extends TestFitnessFunction, T extends TestChromo
     boolean isNewCoveredTarget = false;
     boolean isNewSolutionBetterThanCurrent = false;
 
-    T currentSolution = this.covered.get(target);
+    if (id < 0) {
+      id = this.register(target);
+    }
+    T currentSolution = this.solutions.get(id);
 
     if (currentSolution == null) {
       logger.debug("Solution for non-covered target '" + target + "'");
@@ -105,13 +130,16 @@ public class CoverageArchive<F extends TestFitnessFunction, T extends TestChromo
     if (isNewCoveredTarget || isNewSolutionBetterThanCurrent) {
       // update the archive if a new target has been covered, or if solution covers already existing
       // covered targets but it has been considered a better solution
-      this.addToArchive(target, solution);
+      this.addToArchive(id, target, solution);
     }
   }
 
-  private void addToArchive(F target, T solution) {
-    this.uncovered.remove(target);
-    this.covered.put(target, solution);
+  private void addToArchive(int id, F target, T solution) {
+    if (!this.covered.get(id)) {
+      this.covered.set(id);
+      this.coverageOrder.add(id);
+    }
+    this.solutions.set(id, solution);
     this.removeNonCoveredTargetOfAMethod(target);
     this.hasBeenUpdated = true;
 
@@ -128,7 +156,7 @@ public class CoverageArchive<F extends TestFitnessFunction, T extends TestChromo
    */
   @Override
   public boolean isArchiveEmpty() {
-    return this.covered.isEmpty();
+    return this.coverageOrder.isEmpty();
   }
 
   /**
@@ -136,7 +164,7 @@ public class CoverageArchive<F extends TestFitnessFunction, T extends TestChromo
    */
   @Override
   public int getNumberOfTargets() {
-    return this.covered.keySet().size() + this.uncovered.size();
+    return this.targets.size();
   }
 
   /**
@@ -144,7 +172,7 @@ public class CoverageArchive<F extends TestFitnessFunction, T extends TestChromo
    */
   @Override
   public int getNumberOfCoveredTargets() {
-    return this.covered.size();
+    return this.coverageOrder.size();
   }
 
   /**
@@ -152,7 +180,34 @@ public class CoverageArchive<F extends TestFitnessFunction, T extends TestChromo
    */
   @Override
   public Set<F> getCoveredTargets() {
-    return this.covered.keySet();
+    return new AbstractSet<F>() {
+      @Override
+      public Iterator<F> iterator() {
+        final Iterator<Integer> ids = coverageOrder.iterator();
+        return new Iterator<F>() {
+          @Override
+          public boolean hasNext() {
+            return ids.hasNext();
+          }
+
+          @Override
+          public F next() {
+            return targets.getGoal(ids.next());
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return coverageOrder.size();
+      }
+
+      @SuppressWarnings("unchecked")
+      @Override
+      public boolean contains(Object o) {
+        return o instanceof TestFitnessFunction && hasSolution((F) o);
+      }
+    };
   }
 
   /**
@@ -160,7 +215,7 @@ public class CoverageArchive<F extends TestFitnessFunction, T extends TestChromo
    */
   @Override
   public int getNumberOfUncoveredTargets() {
-    return this.uncovered.size();
+    return this.targets.size() - this.coverageOrder.size();
   }
 
   /**
@@ -168,14 +223,44 @@ public class CoverageArchive<F extends TestFitnessFunction, T extends TestChromo
    */
   @Override
   public Set<F> getUncoveredTargets() {
-    return this.uncovered;
-  }
+    return new AbstractSet<F>() {
+      @Override
+      public Iterator<F> iterator() {
+        return new Iterator<F>() {
+          private int next = covered.nextClearBit(0);
+
+          @Override
+          public boolean hasNext() {
+            return this.next < targets.size();
+          }
+
+          @Override
+          public F next() {
+            if (!this.hasNext()) {
+              throw new NoSuchElementException();
+            }
+            F target = targets.getGoal(this.next);
+            this.next = covered.nextClearBit(this.next + 1);
+            return target;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return getNumberOfUncoveredTargets();
+      }
 
-  private Set<F> getTargets() {
-    Set<F> targets = new LinkedHashSet<F>();
-    targets.addAll(this.getCoveredTargets());
-    targets.addAll(this.getUncoveredTargets());
-    return targets;
+      @SuppressWarnings("unchecked")
+      @Override
+      public boolean contains(Object o) {
+        if (!(o instanceof TestFitnessFunction)) {
+          return false;
+        }
+        int id = targets.getId((F) o);
+        return id >= 0 && !covered.get(id);
+      }
+    };
   }
 
   /**
@@ -184,7 +269,7 @@ public class CoverageArchive<F extends TestFitnessFunction, T extends TestChromo
   @Override
   public boolean hasTarget(F target) {
     assert target != null;
-    return this.covered.containsKey(target) || this.uncovered.contains(target);
+    return this.targets.getId(target) >= 0;
   }
 
   /**
@@ -192,7 +277,7 @@ public class CoverageArchive<F extends TestFitnessFunction, T extends TestChromo
    */
   @Override
   public int getNumberOfSolutions() {
-    return this.covered.size();
+    return this.coverageOrder.size();
   }
 
   /**
@@ -200,7 +285,11 @@ public class CoverageArchive<F extends TestFitnessFunction, T extends TestChromo
    */
   @Override
   public Set<T> getSolutions() {
-    return new LinkedHashSet<T>(this.covered.values());
+    Set<T> solutions = new LinkedHashSet<T>();
+    for (int id : this.coverageOrder) {
+      solutions.add(this.solutions.get(id));
+    }
+    return solutions;
   }
 
   /**
@@ -217,8 +306,9 @@ public class CoverageArchive<F extends TestFitnessFunction, T extends TestChromo
   @Override
   public T getSolution(F target) {
     assert target != null;
-    assert this.covered.containsKey(target);
-    return this.covered.get(target);
+    int id = this.targets.getId(target);
+    assert id >= 0 && this.covered.get(id);
+    return id < 0 ? null : this.solutions.get(id);
   }
 
   /**
@@ -227,7 +317,8 @@ public class CoverageArchive<F extends TestFitnessFunction, T extends TestChromo
   @Override
   public boolean hasSolution(F target) {
     assert target != null;
-    return this.covered.containsKey(target);
+    int id = this.targets.getId(target);
+    return id >= 0 && this.covered.get(id);
   }
 
   /**
@@ -269,26 +360,24 @@ public class CoverageArchive<F extends TestFitnessFunction, T extends TestChromo
     // to avoid adding the same solution to 'mergedSolution' suite
     Set<T> solutionsSampledFromArchive = new LinkedHashSet<T>();
 
-    for (F target : this.getTargets()) {
-      // has target been covered? to answer it, we perform a local check rather than calling method
-      // {@link TestFitnessFunction.isCoveredBy} as it may perform a fitness evaluation to access
-      // whether that 'target' is covered or not (and therefore, it could be more expensive)
-      boolean isGoalCovered = false;
-      for (TestChromosome test : mergedSolution.getTestChromosomes()) {
-        if (test.getTestCase().isGoalCovered(target)) {
-          isGoalCovered = true;
-          break;
-        }
-      }
+    // has target been covered? to answer it, we perform a local check rather than calling method
+    // {@link TestFitnessFunction.isCoveredBy} as it may perform a fitness evaluation to access
+    // whether that 'target' is covered or not (and therefore, it could be more expensive)
+    BitSet coveredByMergedSolution = new BitSet(this.targets.size());
+    for (TestChromosome test : mergedSolution.getTestChromosomes()) {
+      this.markCoveredTargets(test, coveredByMergedSolution);
+    }
 
-      if (!isGoalCovered) {
-        T chromosome = this.covered.get(target);
+    // only targets covered by the archive can be added to the merged solution
+    for (int id : this.coverageOrder) {
+      if (!coveredByMergedSolution.get(id)) {
+        T chromosome = this.solutions.get(id);
 
-        // is there any solution in the archive that covers it, and has that solution not been
-        // considered yet?
-        if (chromosome != null && !solutionsSampledFromArchive.contains(chromosome)) {
+        // has the solution in the archive that covers it not been considered yet?
+        if (!solutionsSampledFromArchive.contains(chromosome)) {
           solutionsSampledFromArchive.add(chromosome);
           mergedSolution.addTest(chromosome);
+          this.markCoveredTargets(chromosome, coveredByMergedSolution);
         }
       }
     }
@@ -304,6 +393,16 @@ public class CoverageArchive<F extends TestFitnessFunction, T extends TestChromo
     return mergedSolution;
   }
 
+  @SuppressWarnings("unchecked")
+  private void markCoveredTargets(TestChromosome test, BitSet coveredTargets) {
+    for (TestFitnessFunction goal : test.getTestCase().getCoveredGoals()) {
+      int id = this.targets.getId((F) goal);
+      if (id >= 0) {
+        coveredTargets.set(id);
+      }
+    }
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -327,7 +426,9 @@ public class CoverageArchive<F extends TestFitnessFunction, T extends TestChromo
   @Override
   public void reset() {
     super.reset();
+    this.targets.clear();
+    this.solutions.clear();
     this.covered.clear();
-    this.uncovered.clear();
+    this.coverageOrder.clear();
   }
 }
@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.archive;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns dense integer ids (0, 1, 2, ...) to coverage goals in the order they are registered, so
+ * that the coverage state of goals can be kept in arrays and {@link java.util.BitSet}s instead of
+ * hash-based collections.
+ * 
+ * <p>
+ * Goals are mostly looked up with the same instances that were registered, which only requires an
+ * identity lookup. Equal goals that are different instances (e.g., exception goals created for each
+ * execution) get the id of the registered instance.
+ *
+ * @param <F> type of the goals
+ */
+public class GoalIndex<F> implements Serializable {
+
+  private static final long serialVersionUID = -2470290693914133264L;
+
+  private final List<F> goals = new ArrayList<F>();
+
+  private final Map<F, Integer> ids = new HashMap<F, Integer>();
+
+  private final Map<F, Integer> registeredInstances = new IdentityHashMap<F, Integer>();
+
+  /**
+   * Assigns the next id to {@code goal}, if it does not have one yet.
+   * 
+   * @param goal
+   * @return the id of the goal
+   */
+  public int register(F goal) {
+    int id = this.getId(goal);
+    if (id >= 0) {
+      return id;
+    }
+    id = this.goals.size();
+    this.goals.add(goal);
+    this.ids.put(goal, id);
+    this.registeredInstances.put(goal, id);
+    return id;
+  }
+
+  /**
+   * @param goal
+   * @return the id of the goal, or -1 if it has not been registered
+   */
+  public int getId(F goal) {
+    Integer id = this.registeredInstances.get(goal);
+    if (id == null) {
+      id = this.ids.get(goal);
+    }
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * @param id
+   * @return the goal registered with the given id
+   */
+  public F getGoal(int id) {
+    return this.goals.get(id);
+  }
+
+  /**
+   * @return number of registered goals, i.e., the next id
+   */
+  public int size() {
+    return this.goals.size();
+  }
+
+  public void clear() {
+    this.goals.clear();
+    this.ids.clear();
+    this.registeredInstances.clear();
+  }
+}
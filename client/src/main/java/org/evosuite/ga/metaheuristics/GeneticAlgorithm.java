@@ -52,6 +52,7 @@ import org.evosuite.ga.populationlimit.PopulationLimit;
 import org.evosuite.ga.stoppingconditions.MaxGenerationStoppingCondition;
 import org.evosuite.ga.stoppingconditions.StoppingCondition;
 import org.evosuite.symbolic.DSEStats;
+import org.evosuite.testcase.execution.ExecutionLanes;
 import org.evosuite.testcase.execution.ExecutionTracer;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.utils.ArrayUtil;
@@ -568,6 +569,10 @@ public abstract class GeneticAlgorithm<T extends Chromosome> implements SearchAl
 	protected void calculateFitnessAndSortPopulation() {
 		logger.debug("Calculating fitness for " + population.size() + " individuals");
 
+		if (ExecutionLanes.isEnabled() && !isFinished()) {
+			ExecutionLanes.preExecute(population, fitnessFunctions);
+		}
+
 		Iterator<T> iterator = population.iterator();
 		while (iterator.hasNext()) {
 			T c = iterator.next();
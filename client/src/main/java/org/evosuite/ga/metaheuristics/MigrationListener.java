@@ -0,0 +1,283 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.metaheuristics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.archive.Archive;
+import org.evosuite.rmi.ClientServices;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.TestFitnessFunction;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.evosuite.utils.Randomness;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exchanges tests with the other clients searching in parallel on the same
+ * class (island model).
+ *
+ * Every {@link Properties#MIGRANTS_ITERATION_FREQUENCY} iterations, up to
+ * {@link Properties#NUM_MIGRANTS} tests are sent to the other clients, taking
+ * first the archive solutions that were not sent yet, and otherwise the tests
+ * of the best individuals. Tests received from other clients are evaluated on
+ * the uncovered goals of the archive, and replace the worst individuals of
+ * the population.
+ *
+ * At the end of the search, all clients except the first one send their tests
+ * to the first client, which merges them into its test suite.
+ */
+public class MigrationListener implements SearchListener {
+
+	private static final Logger logger = LoggerFactory.getLogger(MigrationListener.class);
+
+	/** Archive solutions already sent to the other clients */
+	private final Set<TestChromosome> sent = Collections.newSetFromMap(new IdentityHashMap<TestChromosome, Boolean>());
+
+	/**
+	 * @return true if several clients search in parallel on the same class
+	 */
+	public static boolean isEnabled() {
+		return Properties.NUM_PARALLEL_CLIENTS > 1 && !Properties.CLIENT_ON_THREAD;
+	}
+
+	@Override
+	public void searchStarted(GeneticAlgorithm<?> algorithm) {
+		sent.clear();
+	}
+
+	@Override
+	public void iteration(GeneticAlgorithm<?> algorithm) {
+		List<TestChromosome> immigrants = ClientServices.getInstance().getClientNode().pollImmigrants();
+		if (!immigrants.isEmpty()) {
+			logger.debug("Received {} tests from other clients", immigrants.size());
+			immigrate(algorithm, immigrants);
+		}
+
+		int frequency = Properties.MIGRANTS_ITERATION_FREQUENCY;
+		if (frequency > 0 && algorithm.getAge() > 0 && algorithm.getAge() % frequency == 0) {
+			List<TestChromosome> emigrants = selectEmigrants(algorithm);
+			if (!emigrants.isEmpty()) {
+				ClientServices.getInstance().getClientNode().emigrate(emigrants);
+			}
+		}
+	}
+
+	@Override
+	public void searchFinished(GeneticAlgorithm<?> algorithm) {
+		// the final tests are exchanged after the search, see TestSuiteGenerator
+	}
+
+	@Override
+	public void fitnessEvaluation(Chromosome individual) {
+		// Nothing to do
+	}
+
+	@Override
+	public void modification(Chromosome individual) {
+		// Nothing to do
+	}
+
+	private List<TestChromosome> selectEmigrants(GeneticAlgorithm<?> algorithm) {
+		List<TestChromosome> emigrants = new ArrayList<TestChromosome>();
+		if (Properties.TEST_ARCHIVE) {
+			List<TestChromosome> solutions = new ArrayList<TestChromosome>();
+			for (TestChromosome solution : Archive.getArchiveInstance().getSolutions()) {
+				if (!sent.contains(solution) && isValid(solution))
+					solutions.add(solution);
+			}
+			Randomness.shuffle(solutions);
+			for (TestChromosome solution : solutions) {
+				if (emigrants.size() >= Properties.NUM_MIGRANTS)
+					break;
+				sent.add(solution);
+				emigrants.add(copy(solution));
+			}
+		}
+		for (TestChromosome test : getBestTests(algorithm)) {
+			if (emigrants.size() >= Properties.NUM_MIGRANTS)
+				break;
+			if (isValid(test))
+				emigrants.add(copy(test));
+		}
+		return emigrants;
+	}
+
+	private static List<TestChromosome> getBestTests(GeneticAlgorithm<?> algorithm) {
+		List<TestChromosome> tests = new ArrayList<TestChromosome>();
+		List<? extends Chromosome> population = algorithm.getPopulation();
+		if (population.isEmpty())
+			return tests;
+		Chromosome best = population.get(0);
+		if (best instanceof TestSuiteChromosome) {
+			tests.addAll(((TestSuiteChromosome) best).getTestChromosomes());
+			Randomness.shuffle(tests);
+		} else if (best instanceof TestChromosome) {
+			// the population is sorted, best individuals first
+			for (Chromosome individual : population) {
+				if (tests.size() >= Properties.NUM_MIGRANTS)
+					break;
+				tests.add((TestChromosome) individual);
+			}
+		}
+		return tests;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends Chromosome> void immigrate(GeneticAlgorithm<T> algorithm,
+	        List<TestChromosome> immigrants) {
+		addToArchive(immigrants);
+
+		List<T> population = algorithm.getPopulation();
+		if (population.isEmpty())
+			return;
+
+		if (population.get(0) instanceof TestSuiteChromosome) {
+			// the immigrants extend a copy of the best suite, which replaces the worst suite
+			TestSuiteChromosome suite = ((TestSuiteChromosome) population.get(0)).clone();
+			for (TestChromosome immigrant : immigrants) {
+				if (suite.size() >= Properties.MAX_SIZE)
+					break;
+				suite.addTest(immigrant);
+			}
+			evaluate(algorithm, (T) suite);
+			population.set(population.size() - 1, (T) suite);
+			if (algorithm.getFitnessFunction().isMaximizationFunction()) {
+				Collections.sort(population, Collections.reverseOrder());
+			} else {
+				Collections.sort(population);
+			}
+		} else if (population.get(0) instanceof TestChromosome) {
+			// the immigrants replace the worst tests, but at most half of the population
+			int replaced = 0;
+			for (TestChromosome immigrant : immigrants) {
+				if (replaced >= population.size() / 2)
+					break;
+				evaluate(algorithm, (T) immigrant);
+				population.set(population.size() - 1 - replaced, (T) immigrant);
+				replaced++;
+			}
+		}
+	}
+
+	private static <T extends Chromosome> void evaluate(GeneticAlgorithm<T> algorithm, T individual) {
+		for (FitnessFunction<T> fitnessFunction : algorithm.getFitnessFunctions()) {
+			fitnessFunction.getFitness(individual);
+		}
+	}
+
+	/**
+	 * Add tests to the archive for the uncovered goals they cover
+	 */
+	private static void addToArchive(List<TestChromosome> tests) {
+		if (!Properties.TEST_ARCHIVE)
+			return;
+
+		Archive<TestFitnessFunction, TestChromosome> archive = Archive.getArchiveInstance();
+		for (TestChromosome test : tests) {
+			for (TestFitnessFunction goal : new ArrayList<TestFitnessFunction>(archive.getUncoveredTargets())) {
+				double fitness = goal.getFitness(test);
+				if (fitness == 0.0)
+					archive.updateArchive(goal, test, fitness);
+			}
+		}
+	}
+
+	/**
+	 * @return copies of the tests of the suite and of the archive solutions,
+	 *         to be sent to the first client at the end of the search
+	 */
+	public static List<TestChromosome> getFinalSolutions(TestSuiteChromosome suite) {
+		Set<TestChromosome> solutions = new LinkedHashSet<TestChromosome>(suite.getTestChromosomes());
+		if (Properties.TEST_ARCHIVE) {
+			solutions.addAll(Archive.getArchiveInstance().getSolutions());
+		}
+		List<TestChromosome> copies = new ArrayList<TestChromosome>();
+		for (TestChromosome solution : solutions) {
+			if (isValid(solution))
+				copies.add(copy(solution));
+		}
+		return copies;
+	}
+
+	/**
+	 * Merge the final tests of the other clients into the suite of the first
+	 * client: tests covering goals not covered by the suite are added to it
+	 *
+	 * @return the merged suite
+	 */
+	public static TestSuiteChromosome mergeFinalSolutions(TestSuiteChromosome suite,
+	        List<TestChromosome> solutions) {
+		if (solutions.isEmpty())
+			return suite;
+
+		if (Properties.TEST_ARCHIVE) {
+			addToArchive(solutions);
+			return Archive.getArchiveInstance().mergeArchiveAndSolution(suite);
+		}
+
+		// without an archive, keep the tests that improve the fitness of the suite
+		TestSuiteChromosome merged = suite.clone();
+		double fitness = evaluate(merged);
+		for (TestChromosome solution : solutions) {
+			TestSuiteChromosome candidate = merged.clone();
+			candidate.addTest(solution);
+			double candidateFitness = evaluate(candidate);
+			if (candidateFitness < fitness) {
+				merged = candidate;
+				fitness = candidateFitness;
+			}
+		}
+		return merged;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static double evaluate(TestSuiteChromosome suite) {
+		double fitness = 0.0;
+		for (FitnessFunction<?> fitnessFunction : suite.getFitnessValues().keySet()) {
+			fitness += ((FitnessFunction<TestSuiteChromosome>) fitnessFunction).getFitness(suite);
+		}
+		return fitness;
+	}
+
+	private static boolean isValid(TestChromosome test) {
+		ExecutionResult result = test.getLastExecutionResult();
+		return result == null || !(result.hasTimeout() || result.hasTestException());
+	}
+
+	/**
+	 * Only the test is sent, the fitness values refer to the goals of this
+	 * client
+	 */
+	private static TestChromosome copy(TestChromosome test) {
+		TestChromosome copy = new TestChromosome();
+		copy.setTestCase(test.getTestCase().clone());
+		return copy;
+	}
+}
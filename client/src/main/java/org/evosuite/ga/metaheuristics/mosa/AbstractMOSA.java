@@ -52,6 +52,7 @@ import org.evosuite.ga.operators.selection.SelectionFunction;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
+import org.evosuite.testcase.execution.ExecutionLanes;
 import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testcase.secondaryobjectives.TestCaseSecondaryObjective;
 import org.evosuite.testcase.statements.ArrayStatement;
@@ -125,6 +126,8 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 	@SuppressWarnings("unchecked")
 	protected List<T> breedNextGeneration() {
 		List<T> offspringPopulation = new ArrayList<T>(Properties.POPULATION);
+		// with execution lanes the offspring are executed together at the end
+		boolean deferFitness = ExecutionLanes.isEnabled();
 		// we apply only Properties.POPULATION/2 iterations since in each generation
 		// we generate two offsprings
 		for (int i=0; i < Properties.POPULATION/2 && !isFinished(); i++){
@@ -151,7 +154,8 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 			if (offspring1.isChanged()) {
 				clearCachedResults(offspring1);
 				offspring1.updateAge(currentIteration);
-				calculateFitness(offspring1); 
+				if (!deferFitness)
+					calculateFitness(offspring1);
 				offspringPopulation.add(offspring1);
 			}
 
@@ -160,7 +164,8 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 			if (offspring2.isChanged()) {
 				clearCachedResults(offspring2);
 				offspring2.updateAge(currentIteration);
-				calculateFitness(offspring2);
+				if (!deferFitness)
+					calculateFitness(offspring2);
 				offspringPopulation.add(offspring2);
 			}	
 		}
@@ -176,10 +181,17 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 			}
 			if (tch.isChanged()) {
 				tch.updateAge(currentIteration);
-				calculateFitness(tch);
+				if (!deferFitness)
+					calculateFitness(tch);
 				offspringPopulation.add(tch);
 			}
 		}
+		if (deferFitness) {
+			ExecutionLanes.preExecute(offspringPopulation, fitnessFunctions);
+			for (T offspring : offspringPopulation) {
+				calculateFitness(offspring);
+			}
+		}
 		logger.info("Number of offsprings = {}", offspringPopulation.size());
 		return offspringPopulation;
 	}
@@ -305,6 +317,10 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 	protected void calculateFitness() {
 		logger.debug("Calculating fitness for " + population.size() + " individuals");
 
+		if (ExecutionLanes.isEnabled() && !isFinished()) {
+			ExecutionLanes.preExecute(population, fitnessFunctions);
+		}
+
 		Iterator<T> iterator = population.iterator();
 		while (iterator.hasNext()) {
 			T c = iterator.next();
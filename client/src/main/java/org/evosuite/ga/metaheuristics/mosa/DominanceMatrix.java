@@ -0,0 +1,172 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.metaheuristics.mosa;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.FitnessFunction;
+
+/**
+ * Fitness values of a set of solutions for a set of goals, stored as a
+ * primitive matrix so that dominance checks do not need to look up the
+ * fitness values of the chromosomes over and over again.
+ * 
+ * The dominance relation is the same as in
+ * {@link org.evosuite.ga.metaheuristics.mosa.comparators.MOSADominanceComparator}.
+ *
+ * @param <T>
+ */
+class DominanceMatrix<T extends Chromosome> {
+
+	/** values[i][k] is the fitness value of solution i for goal k */
+	private final double[][] values;
+
+	/**
+	 * @param solutions
+	 * @param goals the goals to consider for the dominance relation
+	 */
+	public DominanceMatrix(List<T> solutions, Set<FitnessFunction<T>> goals) {
+		values = new double[solutions.size()][goals.size()];
+		int k = 0;
+		for (FitnessFunction<T> goal : goals) {
+			for (int i = 0; i < solutions.size(); i++) {
+				values[i][k] = solutions.get(i).getFitness(goal);
+			}
+			k++;
+		}
+	}
+
+	/**
+	 * Only used for testing
+	 */
+	DominanceMatrix(double[][] values) {
+		this.values = values;
+	}
+
+	public int size() {
+		return values.length;
+	}
+
+	/**
+	 * @return -1, or 0, or 1 if solution i dominates solution j, both are
+	 *         non-dominated, or solution i is dominated by solution j,
+	 *         respectively.
+	 */
+	public int compare(int i, int j) {
+		double[] values1 = values[i];
+		double[] values2 = values[j];
+		boolean dominate1 = false;
+		boolean dominate2 = false;
+
+		for (int k = 0; k < values1.length; k++) {
+			if (values1[k] < values2[k]) {
+				if (dominate2)
+					return 0;
+				dominate1 = true;
+			} else if (values1[k] > values2[k]) {
+				if (dominate1)
+					return 0;
+				dominate2 = true;
+			}
+		}
+
+		if (dominate1 == dominate2)
+			return 0;
+		return dominate1 ? -1 : 1;
+	}
+
+	/**
+	 * Fast non-dominated sorting on the matrix. The fronts and the order of
+	 * the solutions within each front are the same as with the classic
+	 * algorithm by Deb et al.
+	 * 
+	 * @return the indices of the solutions in each front, best front first
+	 */
+	public int[][] getFronts() {
+		int n = values.length;
+
+		// dominateMe[i] contains the number of solutions dominating i
+		int[] dominateMe = new int[n];
+
+		// iDominate[k][0..numDominated[k]-1] contains the solutions dominated by k
+		int[][] iDominate = new int[n][];
+		int[] numDominated = new int[n];
+
+		for (int p = 0; p < n - 1; p++) {
+			for (int q = p + 1; q < n; q++) {
+				int flagDominate = compare(p, q);
+				if (flagDominate == -1) {
+					add(iDominate, numDominated, p, q);
+					dominateMe[q]++;
+				} else if (flagDominate == 1) {
+					add(iDominate, numDominated, q, p);
+					dominateMe[p]++;
+				}
+			}
+		}
+
+		// all fronts are stored one after the other
+		int[] sorted = new int[n];
+		int[] frontStart = new int[n + 1];
+		int end = 0;
+		for (int p = 0; p < n; p++) {
+			if (dominateMe[p] == 0)
+				sorted[end++] = p;
+		}
+
+		int numFronts = 0;
+		int start = 0;
+		while (end > start) {
+			frontStart[numFronts++] = start;
+			int frontEnd = end;
+			for (int i = start; i < frontEnd; i++) {
+				int p = sorted[i];
+				for (int j = 0; j < numDominated[p]; j++) {
+					int q = iDominate[p][j];
+					if (--dominateMe[q] == 0)
+						sorted[end++] = q;
+				}
+			}
+			start = frontEnd;
+		}
+		frontStart[numFronts] = end;
+
+		int[][] fronts = new int[numFronts][];
+		for (int f = 0; f < numFronts; f++) {
+			fronts[f] = Arrays.copyOfRange(sorted, frontStart[f], frontStart[f + 1]);
+		}
+		return fronts;
+	}
+
+	private static void add(int[][] lists, int[] sizes, int list, int value) {
+		int[] elements = lists[list];
+		if (elements == null) {
+			elements = new int[4];
+			lists[list] = elements;
+		} else if (sizes[list] == elements.length) {
+			elements = Arrays.copyOf(elements, elements.length * 2);
+			lists[list] = elements;
+		}
+		elements[sizes[list]++] = value;
+	}
+}
@@ -34,6 +34,7 @@ import org.evosuite.coverage.exception.ExceptionCoverageTestFitness;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.ChromosomeFactory;
 import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.archive.GoalIndex;
 import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
 import org.evosuite.ga.metaheuristics.lips.BudgetConsumptionMonitor;
 import org.evosuite.ga.metaheuristics.mosa.comparators.OnlyCrowdingComparator;
@@ -66,6 +67,9 @@ public class MOSA<T extends Chromosome> extends AbstractMOSA<T> {
 	/** Boolean vector to indicate whether each test goal is covered or not. **/
 	protected Set<FitnessFunction<T>> uncoveredGoals = new LinkedHashSet<FitnessFunction<T>>();
 
+	/** Test goals seen so far, used to detect newly derived exception goals **/
+	protected GoalIndex<FitnessFunction<T>> goals = new GoalIndex<FitnessFunction<T>>();
+
 	/** Crowding distance measure to use */
 	protected CrowdingDistance<T> distance = new CrowdingDistance<T>();
 	
@@ -162,9 +166,10 @@ public class MOSA<T extends Chromosome> extends AbstractMOSA<T> {
 			// for generated exceptions
 			List<ExceptionCoverageTestFitness> list = deriveCoveredExceptions(c);
 			for (ExceptionCoverageTestFitness exp : list){
+				boolean isNewGoal = this.goals.getId((FitnessFunction<T>) exp) < 0;
 				// new covered exceptions (goals) have to be added to the archive
 				updateArchive(c, (FitnessFunction<T>) exp);
-				if (!fitnessFunctions.contains(exp)){
+				if (isNewGoal){
 					// let's update the list of fitness functions 
 					this.fitnessFunctions.add((FitnessFunction<T>) exp);
 					// let's update the newly discovered exceptions to ExceptionCoverageFactory 
@@ -185,6 +190,7 @@ public class MOSA<T extends Chromosome> extends AbstractMOSA<T> {
 		// keep track of covered goals
 		for (FitnessFunction<T> goal : fitnessFunctions) {
 			uncoveredGoals.add(goal);
+			goals.register(goal);
 		}
 
 		//initialize population
@@ -235,8 +241,9 @@ public class MOSA<T extends Chromosome> extends AbstractMOSA<T> {
 
 		// store the test cases that are optimal for the test goal in the
 		// archive
-		if (archive.containsKey(covered)) {
-			TestChromosome existingSolution = (TestChromosome) this.archive.get(covered);
+		this.goals.register(covered);
+		T existingSolution = this.archive.get(covered);
+		if (existingSolution != null) {
 			// if the new solution is better (based on secondary criterion), then the archive must be updated
 			if (solution.compareSecondaryObjective(existingSolution) < 0) {
 				this.archive.put(covered, solution);
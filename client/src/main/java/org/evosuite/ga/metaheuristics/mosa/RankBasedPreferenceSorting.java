@@ -27,7 +27,6 @@ import java.util.Set;
 import org.evosuite.Properties;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
-import org.evosuite.ga.metaheuristics.mosa.comparators.MOSADominanceComparator;
 import org.evosuite.ga.metaheuristics.mosa.comparators.PreferenceSortingComparator;
 import org.evosuite.utils.Randomness;
 import org.slf4j.Logger;
@@ -64,14 +63,13 @@ public class RankBasedPreferenceSorting<T extends Chromosome> implements Ranking
 
 		if (zero_front.size() < Properties.POPULATION){
 			int rankedSolutions = zero_front.size();
-			MOSADominanceComparator<T> comparator =  new MOSADominanceComparator<T>(uncovered_goals);
 
 			List<T> remaining = new ArrayList<T>(solutions.size());
 			remaining.addAll(solutions);
 			remaining.removeAll(zero_front);
 			int front_index = 1;
 			while(rankedSolutions < Properties.POPULATION && remaining.size()>0){
-				List<T> new_front = getNonDominatedSolutions(remaining, comparator);
+				List<T> new_front = getNonDominatedSolutions(remaining, uncovered_goals);
 				fronts.put(front_index, new_front);
 				remaining.removeAll(new_front);
 				front_index++;
@@ -113,28 +111,34 @@ public class RankBasedPreferenceSorting<T extends Chromosome> implements Ranking
 		return list;
 	}
 
-	private List<T> getNonDominatedSolutions(List<T> solutions, MOSADominanceComparator<T> comparator){
-		List<T> front = new ArrayList<T>(solutions.size());
+	private List<T> getNonDominatedSolutions(List<T> solutions, Set<FitnessFunction<T>> goals){
+		DominanceMatrix<T> matrix = new DominanceMatrix<T>(solutions, goals);
+		// indices of the solutions in the front
+		int[] front = new int[solutions.size()];
+		int frontSize = 0;
 		boolean isDominated;
-		for (T p : solutions){
+		for (int p = 0; p < solutions.size(); p++){
 			isDominated = false;
-			List<T> dominatedSolutions = new ArrayList<T>(solutions.size());
-			for (T best : front){
-				int flag = comparator.compare(p, best);
-				if (flag == -1) {
-					dominatedSolutions.add(best);
-				}
-				if (flag == +1){
+			for (int i = 0; i < frontSize && !isDominated; i++){
+				if (matrix.compare(p, front[i]) == +1)
 					isDominated = true;
-				}	
 			}
 			if (isDominated)
 				continue;
 
-			front.add(p);
-			front.removeAll(dominatedSolutions);
+			// remove the solutions dominated by p
+			int remaining = 0;
+			for (int i = 0; i < frontSize; i++){
+				if (matrix.compare(p, front[i]) != -1)
+					front[remaining++] = front[i];
+			}
+			front[remaining] = p;
+			frontSize = remaining + 1;
 		}
-		return front;
+		List<T> nonDominated = new ArrayList<T>(frontSize);
+		for (int i = 0; i < frontSize; i++)
+			nonDominated.add(solutions.get(front[i]));
+		return nonDominated;
 	}
 
 	/* (non-Javadoc)
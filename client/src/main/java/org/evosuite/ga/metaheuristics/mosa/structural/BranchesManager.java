@@ -29,8 +29,8 @@ import java.util.Set;
 import org.evosuite.coverage.branch.BranchCoverageTestFitness;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
-import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.execution.ExecutionLanes;
 import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.slf4j.Logger;
@@ -91,10 +91,17 @@ public class BranchesManager<T extends Chromosome> extends StructuralGoalManager
 
 	public void calculateFitness(T c){
 		// run the test
-		TestCase test = ((TestChromosome) c).getTestCase();
-		ExecutionResult result = TestCaseExecutor.runTest(test);
-		((TestChromosome) c).setLastExecutionResult(result);
-		c.setChanged(false);
+		TestChromosome tch = (TestChromosome) c;
+		ExecutionResult result = null;
+		if (ExecutionLanes.isEnabled() && !tch.isChanged()) {
+			// already executed by the execution lanes
+			result = tch.getLastExecutionResult();
+		}
+		if (result == null) {
+			result = TestCaseExecutor.runTest(tch.getTestCase());
+			tch.setLastExecutionResult(result);
+			tch.setChanged(false);
+		}
 		
 		if (result.hasTimeout() || result.hasTestException()){
 			for (FitnessFunction<T> f : currentGoals)
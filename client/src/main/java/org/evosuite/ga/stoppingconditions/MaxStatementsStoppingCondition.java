@@ -67,7 +67,7 @@ public class MaxStatementsStoppingCondition extends StoppingConditionImpl {
 	 * @param num
 	 *            a int.
 	 */
-	public static void statementsExecuted(int num) {
+	public static synchronized void statementsExecuted(int num) {
 		currentStatement += num;
 	}
 
@@ -48,7 +48,7 @@ public class MaxTestsStoppingCondition extends StoppingConditionImpl {
 	/**
 	 * <p>testExecuted</p>
 	 */
-	public static void testExecuted() {
+	public static synchronized void testExecuted() {
 		numTests++;
 	}
 
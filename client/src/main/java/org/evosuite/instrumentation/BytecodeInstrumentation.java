@@ -33,6 +33,7 @@ import org.evosuite.instrumentation.testability.ComparisonTransformation;
 import org.evosuite.instrumentation.testability.ContainerTransformation;
 import org.evosuite.instrumentation.testability.StringTransformation;
 import org.evosuite.junit.writer.TestSuiteWriterUtils;
+import org.evosuite.runtime.LoopCounter;
 import org.evosuite.runtime.RuntimeSettings;
 import org.evosuite.runtime.instrumentation.*;
 import org.evosuite.seeding.PrimitiveClassAdapter;
@@ -164,6 +165,53 @@ public class BytecodeInstrumentation {
 
 		TransformationStatistics.reset();
 
+		if (isCacheable(classNameWithDots)) {
+			return transformCached(classLoader, className, classNameWithDots, reader, readFlags);
+		}
+		return transform(classLoader, className, classNameWithDots, reader, readFlags);
+	}
+
+	/**
+	 * Only classes that are neither analyzed nor transformed for testability
+	 * are cached: analysis also fills the CFG, branch and line pools, which
+	 * are not part of the bytecode
+	 */
+	private boolean isCacheable(String classNameWithDots) {
+		if (!Properties.CACHE_INSTRUMENTATION || Properties.TEST_CARVING || Properties.TT)
+			return false;
+
+		return !DependencyAnalysis.shouldAnalyze(classNameWithDots) && !isTargetClassName(classNameWithDots);
+	}
+
+	private byte[] transformCached(ClassLoader classLoader, String className, String classNameWithDots,
+	        ClassReader reader, int readFlags) {
+		InstrumentationCache cache = InstrumentationCache.getInstance();
+		String key = cache.getKey(className, reader.b);
+		if (key == null) {
+			return transform(classLoader, className, classNameWithDots, reader, readFlags);
+		}
+
+		LoopCounter loopCounter = LoopCounter.getInstance();
+		int firstLoopIndex = loopCounter.peekNewIndex();
+		InstrumentationCache.Entry entry = cache.get(key, firstLoopIndex);
+		if (entry != null) {
+			logger.debug("Using cached instrumentation of class " + classNameWithDots);
+			// The visitors register the class in the constant pool, the purity
+			// analysis, the loop counter etc., so they still need to see it.
+			// Only frame computation is skipped.
+			reader.accept(createVisitorChain(new ClassWriter(0), classLoader, className, classNameWithDots),
+			              readFlags);
+			return entry.getBytes();
+		}
+
+		byte[] bytes = transform(classLoader, className, classNameWithDots, reader, readFlags);
+		cache.put(key, new InstrumentationCache.Entry(bytes, firstLoopIndex,
+		        loopCounter.peekNewIndex() - firstLoopIndex));
+		return bytes;
+	}
+
+	private byte[] transform(ClassLoader classLoader, String className, String classNameWithDots,
+	        ClassReader reader, int readFlags) {
 		/*
 		 * To use COMPUTE_FRAMES we need to remove JSR commands. Therefore, we
 		 * have a JSRInlinerAdapter in NonTargetClassAdapter as well as
@@ -177,6 +225,59 @@ public class BytecodeInstrumentation {
 			cv = new TraceClassVisitor(cv, new PrintWriter(System.err));
 		}
 
+		cv = createVisitorChain(cv, classLoader, className, classNameWithDots);
+
+		// Testability Transformations
+		if (classNameWithDots.startsWith(Properties.PROJECT_PREFIX)
+				|| (!Properties.TARGET_CLASS_PREFIX.isEmpty()
+						&& classNameWithDots.startsWith(Properties.TARGET_CLASS_PREFIX))
+				|| shouldTransform(classNameWithDots)) {
+
+			ClassNode cn = new AnnotatedClassNode();
+			reader.accept(cn, readFlags);
+			logger.info("Starting transformation of " + className);
+
+			if (Properties.STRING_REPLACEMENT) {
+				StringTransformation st = new StringTransformation(cn);
+				if (isTargetClassName(classNameWithDots) || shouldTransform(classNameWithDots))
+					cn = st.transform();
+			}
+
+			ComparisonTransformation cmp = new ComparisonTransformation(cn);
+			if (isTargetClassName(classNameWithDots) || shouldTransform(classNameWithDots)) {
+				cn = cmp.transform();
+				ContainerTransformation ct = new ContainerTransformation(cn);
+				cn = ct.transform();
+			}
+
+			if (shouldTransform(classNameWithDots)) {
+				logger.info("Testability Transforming " + className);
+
+				BooleanTestabilityTransformation tt = new BooleanTestabilityTransformation(cn, classLoader);
+				try {
+					cn = tt.transform();
+				} catch (Throwable t) {
+					throw new Error(t);
+				}
+				logger.info("Testability Transformation done: " + className);
+			}
+
+			// -----
+			cn.accept(cv);
+
+			if (Properties.TEST_CARVING && TransformerUtil.isClassConsideredForInstrumentation(className)) {
+				return handleCarving(className, writer);
+			}
+
+		} else {
+			reader.accept(cv, readFlags);
+		}
+
+		return writer.toByteArray();
+	}
+
+	private ClassVisitor createVisitorChain(ClassVisitor cv, ClassLoader classLoader, String className,
+	        String classNameWithDots) {
 		if (Properties.RESET_STATIC_FIELDS) {
 			cv = new StaticAccessClassAdapter(cv, className);
 		}
@@ -248,53 +349,7 @@ public class BytecodeInstrumentation {
 				cv = new SerialVersionUIDAdder(cv);
 		}
 
-		// Testability Transformations
-		if (classNameWithDots.startsWith(Properties.PROJECT_PREFIX)
-				|| (!Properties.TARGET_CLASS_PREFIX.isEmpty()
-						&& classNameWithDots.startsWith(Properties.TARGET_CLASS_PREFIX))
-				|| shouldTransform(classNameWithDots)) {
-
-			ClassNode cn = new AnnotatedClassNode();
-			reader.accept(cn, readFlags);
-			logger.info("Starting transformation of " + className);
-
-			if (Properties.STRING_REPLACEMENT) {
-				StringTransformation st = new StringTransformation(cn);
-				if (isTargetClassName(classNameWithDots) || shouldTransform(classNameWithDots))
-					cn = st.transform();
-			}
-
-			ComparisonTransformation cmp = new ComparisonTransformation(cn);
-			if (isTargetClassName(classNameWithDots) || shouldTransform(classNameWithDots)) {
-				cn = cmp.transform();
-				ContainerTransformation ct = new ContainerTransformation(cn);
-				cn = ct.transform();
-			}
-
-			if (shouldTransform(classNameWithDots)) {
-				logger.info("Testability Transforming " + className);
-
-				BooleanTestabilityTransformation tt = new BooleanTestabilityTransformation(cn, classLoader);
-				try {
-					cn = tt.transform();
-				} catch (Throwable t) {
-					throw new Error(t);
-				}
-				logger.info("Testability Transformation done: " + className);
-			}
-
-			// -----
-			cn.accept(cv);
-
-			if (Properties.TEST_CARVING && TransformerUtil.isClassConsideredForInstrumentation(className)) {
-				return handleCarving(className, writer);
-			}
-
-		} else {
-			reader.accept(cv, readFlags);
-		}
-
-		return writer.toByteArray();
+		return cv;
 	}
 
 	private byte[] handleCarving(String className, ClassWriter writer) {
@@ -0,0 +1,335 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.apache.commons.io.FileUtils;
+import org.evosuite.Properties;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.utils.PersistentCacheUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent cache of instrumented bytecode, shared by all clients on the
+ * same machine. Entries are stored in the temporary directory and are named
+ * after a checksum of the original bytecode, of the properties that
+ * influence the instrumentation, of the EvoSuite build that produced them,
+ * and of the classpath of the project: frames are computed from the class
+ * hierarchy, so the bytes of a class depend on other classes too. The size
+ * of the cache is bounded by {@link Properties#MAX_CACHE_SIZE}, the least
+ * recently used entries are deleted first.
+ *
+ * <p>
+ * Instrumentation also registers information about the class in global
+ * state (constant pool, purity analysis, final classes, loop counters,...).
+ * The cache only stores the transformed bytes, so on a hit the caller still
+ * has to replay the visitors, but can skip frame computation and class
+ * writing, which is where most of the time goes.
+ *
+ * <p>
+ * Loop counter indices are part of the transformed bytes. An entry is
+ * therefore only valid if the loops of the class get the same indices as
+ * when it was stored.
+ */
+public class InstrumentationCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(InstrumentationCache.class);
+
+	private static final byte[] MAGIC = { 'E', 'V', 'I', 'C' };
+
+	/** Needs to be increased whenever the layout of an entry changes */
+	public static final int VERSION = 1;
+
+	private static final String cacheFolder = "EvoSuite_instrumentation";
+
+	private static InstrumentationCache instance = null;
+
+	private File directory;
+
+	private String classPath = null;
+
+	private String classPathFingerprint = null;
+
+	/** Bytes written since the size of the cache was last checked */
+	private long bytesSinceEviction = Long.MAX_VALUE;
+
+	private int hits = 0;
+
+	private int misses = 0;
+
+	/**
+	 * An instrumented class as stored in the cache
+	 */
+	public static class Entry {
+
+		private final byte[] bytes;
+
+		private final int firstLoopIndex;
+
+		private final int numLoops;
+
+		public Entry(byte[] bytes, int firstLoopIndex, int numLoops) {
+			this.bytes = bytes;
+			this.firstLoopIndex = firstLoopIndex;
+			this.numLoops = numLoops;
+		}
+
+		public byte[] getBytes() {
+			return bytes;
+		}
+
+		public int getFirstLoopIndex() {
+			return firstLoopIndex;
+		}
+
+		public int getNumLoops() {
+			return numLoops;
+		}
+
+		/**
+		 * @param nextLoopIndex
+		 *            the index the next instrumented loop would get
+		 * @return whether the loops in the cached bytes have the indices they
+		 *         would get now
+		 */
+		public boolean isValidFor(int nextLoopIndex) {
+			return numLoops == 0 || firstLoopIndex == nextLoopIndex;
+		}
+	}
+
+	private InstrumentationCache() {
+		this.directory = new File(FileUtils.getTempDirectory(), cacheFolder);
+	}
+
+	public static synchronized InstrumentationCache getInstance() {
+		if (instance == null)
+			instance = new InstrumentationCache();
+		return instance;
+	}
+
+	File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Only used for testing
+	 */
+	void setDirectory(File directory) {
+		this.directory = directory;
+		this.bytesSinceEviction = Long.MAX_VALUE;
+	}
+
+	public int getNumberOfHits() {
+		return hits;
+	}
+
+	public int getNumberOfMisses() {
+		return misses;
+	}
+
+	/**
+	 * @param className
+	 *            the name of the class in internal form
+	 * @param bytes
+	 *            the original bytecode
+	 * @return the key of the cache entry, or {@code null} if it cannot be
+	 *         computed
+	 */
+	public String getKey(String className, byte[] bytes) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			PersistentCacheUtils.update(digest, "" + VERSION);
+			PersistentCacheUtils.update(digest, PersistentCacheUtils.getBuildFingerprint());
+			PersistentCacheUtils.update(digest, getClassPathFingerprint());
+			PersistentCacheUtils.update(digest, getConfigurationFingerprint());
+			PersistentCacheUtils.update(digest, className);
+			digest.update(bytes);
+			return PersistentCacheUtils.toHex(digest.digest());
+		} catch (NoSuchAlgorithmException | IOException e) {
+			logger.warn("Cannot compute key for instrumentation cache: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * @param key
+	 * @param nextLoopIndex
+	 *            the index the next instrumented loop would get
+	 * @return the cached entry, or {@code null} if there is no entry that can
+	 *         be used
+	 */
+	public synchronized Entry get(String key, int nextLoopIndex) {
+		File file = getFile(key);
+		Entry entry = null;
+		if (file.exists()) {
+			try {
+				entry = read(Files.readAllBytes(file.toPath()));
+			} catch (IOException e) {
+				logger.warn("Error reading cached instrumentation {}: {}", file, e.getMessage());
+			}
+		}
+		if (entry == null || !entry.isValidFor(nextLoopIndex)) {
+			misses++;
+			return null;
+		}
+		hits++;
+		PersistentCacheUtils.touch(file);
+		return entry;
+	}
+
+	/**
+	 * Stores an entry. Entries are written to a temporary file first and
+	 * then moved, so that other clients never see partial entries. Listing
+	 * the cache is expensive, so its size is only checked on the first
+	 * write and then whenever a tenth of the limit has been written.
+	 *
+	 * @param key
+	 * @param entry
+	 */
+	public synchronized void put(String key, Entry entry) {
+		try {
+			if (!directory.exists() && !directory.mkdirs() && !directory.exists()) {
+				logger.warn("Cannot create folder {} for cached instrumentation", directory);
+				return;
+			}
+			File file = getFile(key);
+			File tmpFile = File.createTempFile(file.getName(), ".tmp", directory);
+			byte[] data = write(entry);
+			try {
+				Files.write(tmpFile.toPath(), data);
+				Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+				           StandardCopyOption.REPLACE_EXISTING);
+			} catch (IOException e) {
+				Files.deleteIfExists(tmpFile.toPath());
+				throw e;
+			}
+
+			long maxBytes = Properties.MAX_CACHE_SIZE * 1024L * 1024L;
+			if (bytesSinceEviction > maxBytes / 10) {
+				PersistentCacheUtils.evictLeastRecentlyUsed(directory, maxBytes);
+				bytesSinceEviction = 0;
+			}
+			bytesSinceEviction += data.length;
+		} catch (IOException e) {
+			logger.warn("Cannot cache instrumentation: {}", e.getMessage());
+		}
+	}
+
+	private File getFile(String key) {
+		return new File(directory, key + ".bin");
+	}
+
+	static byte[] write(Entry entry) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(entry.getBytes().length + 16);
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.write(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(entry.getFirstLoopIndex());
+		out.writeInt(entry.getNumLoops());
+		out.writeInt(entry.getBytes().length);
+		out.write(entry.getBytes());
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	static Entry read(byte[] data) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+		try {
+			byte[] magic = new byte[MAGIC.length];
+			in.readFully(magic);
+			if (!Arrays.equals(magic, MAGIC))
+				throw new IOException("Not an instrumentation cache entry");
+			int version = in.readInt();
+			if (version != VERSION)
+				throw new IOException("Unsupported instrumentation cache version " + version);
+			int firstLoopIndex = in.readInt();
+			int numLoops = in.readInt();
+			int length = in.readInt();
+			if (numLoops < 0 || length < 0 || length > in.available())
+				throw new IOException("Corrupted instrumentation cache entry");
+			byte[] bytes = new byte[length];
+			in.readFully(bytes);
+			return new Entry(bytes, firstLoopIndex, numLoops);
+		} catch (EOFException e) {
+			throw new IOException("Truncated instrumentation cache entry");
+		}
+	}
+
+	/**
+	 * Everything the instrumentation of a non-target class depends on
+	 * besides the class itself
+	 */
+	private static String getConfigurationFingerprint() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(Properties.RESET_STATIC_FIELDS).append(',');
+		sb.append(Properties.RESET_STATIC_FINAL_FIELDS).append(',');
+		sb.append(Properties.PURE_INSPECTORS).append(',');
+		sb.append(Properties.MAX_LOOP_ITERATIONS >= 0).append(',');
+		sb.append(Properties.INSTRUMENTATION_SKIP_DEBUG).append(',');
+		sb.append(Properties.MAKE_ACCESSIBLE).append(',');
+		sb.append(Properties.REPLACE_CALLS).append(',');
+		sb.append(Properties.VIRTUAL_FS).append(',');
+		sb.append(Properties.VIRTUAL_NET).append(',');
+		sb.append(RuntimeSettings.applyUIDTransformation).append(',');
+		sb.append(RuntimeSettings.mockJVMNonDeterminism).append(',');
+		sb.append(RuntimeSettings.mockSystemIn).append(',');
+		sb.append(RuntimeSettings.mockGUI).append(',');
+		sb.append(RuntimeSettings.useVFS).append(',');
+		sb.append(RuntimeSettings.useVNET).append(',');
+		sb.append(RuntimeSettings.useJEE).append(',');
+		sb.append(RuntimeSettings.resetStaticState).append(',');
+		sb.append(RuntimeSettings.maxNumberOfIterationsPerLoop);
+		return sb.toString();
+	}
+
+	/**
+	 * Computing the checksum of the classpath means reading all jars, so it
+	 * is only recomputed when the classpath changes
+	 */
+	private synchronized String getClassPathFingerprint() throws NoSuchAlgorithmException, IOException {
+		String currentClassPath = ClassPathHandler.getInstance().getTargetProjectClasspath();
+		if (classPathFingerprint == null || !Objects.equals(currentClassPath, classPath)) {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			// The hierarchy of JDK classes is part of the classpath as well
+			PersistentCacheUtils.update(digest, System.getProperty("java.home") + ":"
+			        + System.getProperty("java.version"));
+			PersistentCacheUtils.updateWithClassPath(digest,
+			        Arrays.asList(ClassPathHandler.getInstance().getClassPathElementsForTargetProject()));
+			classPathFingerprint = PersistentCacheUtils.toHex(digest.digest());
+			classPath = currentClassPath;
+		}
+		return classPathFingerprint;
+	}
+}
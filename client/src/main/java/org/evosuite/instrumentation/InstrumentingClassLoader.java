@@ -19,6 +19,7 @@
  */
 package org.evosuite.instrumentation;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -105,24 +106,49 @@ public class InstrumentingClassLoader extends ClassLoader {
 	
 	public Class<?> loadClassFromFile(String fullyQualifiedTargetClass, String fileName) throws ClassNotFoundException {
 
-		String className = fullyQualifiedTargetClass.replace('.', '/');
-
 		try(InputStream is = new FileInputStream(new File(fileName))) {
+			Class<?> result = defineClassFromStream(fullyQualifiedTargetClass, is);
+			logger.info("Loaded class " + fullyQualifiedTargetClass + " directly from "+fileName);
+			return result;
+		} catch (Throwable t) {
+			logger.info("Error while loading class " + fullyQualifiedTargetClass + " : " + t);
+			throw new ClassNotFoundException(t.getMessage(), t);
+		}
+	}
 
-			byte[] byteBuffer = getTransformedBytes(className, is);
-
-			createPackageDefinition(fullyQualifiedTargetClass);
-			Class<?> result = defineClass(fullyQualifiedTargetClass, byteBuffer, 0, byteBuffer.length);
-
-			classes.put(fullyQualifiedTargetClass, result);
+	/**
+	 * Define a class from bytecode that is only available in memory, e.g.
+	 * because it was just compiled
+	 * 
+	 * @param fullyQualifiedTargetClass
+	 * @param bytecode
+	 * @return
+	 * @throws ClassNotFoundException
+	 */
+	public Class<?> loadClassFromBytes(String fullyQualifiedTargetClass, byte[] bytecode) throws ClassNotFoundException {
 
-			logger.info("Loaded class " + fullyQualifiedTargetClass + " directly from "+fileName);
+		try(InputStream is = new ByteArrayInputStream(bytecode)) {
+			Class<?> result = defineClassFromStream(fullyQualifiedTargetClass, is);
+			logger.info("Loaded class " + fullyQualifiedTargetClass + " directly from memory");
 			return result;
 		} catch (Throwable t) {
 			logger.info("Error while loading class " + fullyQualifiedTargetClass + " : " + t);
 			throw new ClassNotFoundException(t.getMessage(), t);
 		}
 	}
+
+	private Class<?> defineClassFromStream(String fullyQualifiedTargetClass, InputStream is) throws IOException {
+
+		String className = fullyQualifiedTargetClass.replace('.', '/');
+
+		byte[] byteBuffer = getTransformedBytes(className, is);
+
+		createPackageDefinition(fullyQualifiedTargetClass);
+		Class<?> result = defineClass(fullyQualifiedTargetClass, byteBuffer, 0, byteBuffer.length);
+
+		classes.put(fullyQualifiedTargetClass, result);
+		return result;
+	}
 	
 	@Override
 	public Class<?> loadClass(String name) throws ClassNotFoundException {
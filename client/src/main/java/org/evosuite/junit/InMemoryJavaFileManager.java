@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.junit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+
+/**
+ * A file manager for the Java compiler that keeps the sources to compile and
+ * the resulting bytecode in memory, so that checking generated tests does not
+ * need to touch the disk.
+ * 
+ * <p>
+ * Dependencies (e.g. the SUT and the EvoSuite runtime) are still resolved
+ * through the wrapped standard file manager.
+ * </p>
+ */
+class InMemoryJavaFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+	/** Bytecode of all compiled classes, keyed by binary name */
+	private final Map<String, ByteArrayOutputStream> classes = new LinkedHashMap<>();
+
+	public InMemoryJavaFileManager(StandardJavaFileManager fileManager) {
+		super(fileManager);
+	}
+
+	/**
+	 * Create a compilation unit from source code held in memory
+	 * 
+	 * @param className
+	 *            fully qualified name of the (top level) class in the source
+	 * @param code
+	 *            the source code
+	 * @return
+	 */
+	public static JavaFileObject createSource(String className, String code) {
+		return new SourceFile(className, code);
+	}
+
+	@Override
+	public JavaFileObject getJavaFileForOutput(Location location, String className, Kind kind,
+	        FileObject sibling) {
+		return new ClassFile(className, kind);
+	}
+
+	/**
+	 * @return the bytecode of all classes compiled so far, keyed by binary
+	 *         name, in the order in which the compiler generated them
+	 */
+	public Map<String, byte[]> getCompiledClasses() {
+		Map<String, byte[]> result = new LinkedHashMap<>();
+		for (Map.Entry<String, ByteArrayOutputStream> entry : classes.entrySet()) {
+			result.put(entry.getKey(), entry.getValue().toByteArray());
+		}
+		return result;
+	}
+
+	private static URI createUri(String className, Kind kind) {
+		return URI.create("string:///" + className.replace('.', '/') + kind.extension);
+	}
+
+	private static class SourceFile extends SimpleJavaFileObject {
+
+		private final String code;
+
+		public SourceFile(String className, String code) {
+			super(createUri(className, Kind.SOURCE), Kind.SOURCE);
+			this.code = code;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return code;
+		}
+	}
+
+	private class ClassFile extends SimpleJavaFileObject {
+
+		private final String className;
+
+		public ClassFile(String className, Kind kind) {
+			super(createUri(className, kind), kind);
+			this.className = className;
+		}
+
+		@Override
+		public OutputStream openOutputStream() {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			classes.put(className, out);
+			return out;
+		}
+	}
+}
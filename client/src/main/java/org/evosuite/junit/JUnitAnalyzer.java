@@ -32,7 +32,6 @@ import javax.tools.JavaFileObject;
 import javax.tools.StandardJavaFileManager;
 import javax.tools.ToolProvider;
 
-import org.apache.commons.io.FileUtils;
 import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
 import org.evosuite.TimeController;
@@ -61,18 +60,17 @@ public class JUnitAnalyzer {
 
 	private static Logger logger = LoggerFactory.getLogger(JUnitAnalyzer.class);
 
-	private static int dirCounter = 0;
-
-	private static final String JAVA = ".java";
-	private static final String CLASS = ".class";
-
-	
 	private static NonInstrumentingClassLoader loader = new NonInstrumentingClassLoader();
 	
 	/**
 	 * Try to compile each test separately, and remove the ones that cannot be
 	 * compiled
 	 * 
+	 * <p>
+	 * Each test is written to its own compilation units, but all of them are
+	 * compiled in memory in a single batch, and compilation errors are traced
+	 * back to the tests whose units they were reported on
+	 * 
 	 * @param tests
 	 */
 	public static void removeTestsThatDoNotCompile(List<TestCase> tests) {
@@ -83,44 +81,57 @@ public class JUnitAnalyzer {
 			return;
 		}
 
-		Iterator<TestCase> iter = tests.iterator();
+		Map<String, String> sources = new LinkedHashMap<>();
+		Map<String, TestCase> sourceToTest = new HashMap<>();
 
-		while (iter.hasNext()) {
+		for (TestCase test : tests) {
 			if(!TimeController.getInstance().hasTimeToExecuteATestCase()) {
 				break;
 			}
 
-			TestCase test = iter.next();
+			List<TestCase> singleList = new ArrayList<TestCase>();
+			singleList.add(test);
+			Map<String, String> testSources = generateSources(singleList);
+			for (String className : testSources.keySet()) {
+				sourceToTest.put(className, test);
+			}
+			sources.putAll(testSources);
+		}
 
-			File dir = createNewTmpDir();
-			if (dir == null) {
-				logger.warn("Failed to create tmp dir");
-				return;
+		/*
+		 * Errors in some compilation units (e.g. syntax errors) can stop the
+		 * compiler before it checks the other units, so we have to compile
+		 * again whatever is left until the batch is clean
+		 */
+		while (!sources.isEmpty()) {
+			Set<String> failedSources = new LinkedHashSet<>();
+			if (compileTests(sources, failedSources) != null) {
+				break;
 			}
-			logger.debug("Created tmp folder: " + dir.getAbsolutePath());
 
-			try {
-				List<TestCase> singleList = new ArrayList<TestCase>();
-				singleList.add(test);
-				List<File> generated = compileTests(singleList, dir);
-				if (generated == null) {
+			if (failedSources.isEmpty()) {
+				// cannot blame any test in particular
+				failedSources.addAll(sources.keySet());
+			}
+
+			Set<TestCase> failedTests = new LinkedHashSet<>();
+			for (String className : failedSources) {
+				failedTests.add(sourceToTest.get(className));
+			}
+
+			for (TestCase test : failedTests) {
+				tests.remove(test);
+				String code = test.toCode();
+				logger.error("Failed to compile test case:\n" + code);
+			}
+
+			Iterator<Map.Entry<String, String>> iter = sources.entrySet().iterator();
+			while (iter.hasNext()) {
+				if (failedTests.contains(sourceToTest.get(iter.next().getKey()))) {
 					iter.remove();
-					String code = test.toCode();
-					logger.error("Failed to compile test case:\n" + code);
-				}
-			} finally {
-				//let's be sure we clean up all what we wrote on disk
-				if (dir != null) {
-					try {
-						FileUtils.deleteDirectory(dir);
-						logger.debug("Deleted tmp folder: " + dir.getAbsolutePath());
-					} catch (Exception e) {
-						logger.error("Cannot delete tmp dir: " + dir.getAbsolutePath(), e);
-					}
 				}
 			}
-
-		} // end of while
+		}
 	}
 
 	/**
@@ -143,16 +154,10 @@ public class JUnitAnalyzer {
 			return numUnstable;
 		}
 
-		File dir = createNewTmpDir();
-		if (dir == null) {
-			logger.error("Failed to create tmp dir");
-			return numUnstable;
-		}
-		logger.debug("Created tmp folder: " + dir.getAbsolutePath());
-
 		try {
-			List<File> generated = compileTests(tests, dir);
-			if (generated == null) {
+			Map<String, String> sources = generateSources(tests);
+			Map<String, byte[]> compiled = compileTests(sources, null);
+			if (compiled == null) {
 				/*
 				 * Note: in theory this shouldn't really happen, as check for compilation
 				 * is done before calling this method
@@ -168,14 +173,14 @@ public class JUnitAnalyzer {
 
             // Create a new classloader so that each test gets freshly loaded classes
 			loader = new NonInstrumentingClassLoader();
-            Class<?>[] testClasses = loadTests(generated);
+            Class<?>[] testClasses = loadTests(sources.keySet(), compiled);
 
-			if (testClasses == null) {
+			if (testClasses == null || testClasses.length == 0) {
 				logger.error("Found no classes for compiled tests");
 				return numUnstable;
 			}
 
-			JUnitResult result = runTests(testClasses, dir);
+			JUnitResult result = runTests(testClasses);
 
 			if (result.wasSuccessful()) {
 				return numUnstable; //everything is OK
@@ -254,24 +259,13 @@ public class JUnitAnalyzer {
 		} catch (Exception e) {
 			logger.error("" + e, e);
 			return numUnstable;
-		} finally {
-			//let's be sure we clean up all what we wrote on disk
-
-			if (dir != null) {
-				try {
-					FileUtils.deleteDirectory(dir);
-				} catch (Exception e) {
-					logger.warn("Cannot delete tmp dir: " + dir.getName(), e);
-				}
-			}
-
 		}
 
 		//if we arrive here, then it means at least one test was unstable
 		return numUnstable;
 	}
 
-	private static JUnitResult runTests(Class<?>[] testClasses, File testClassDir)
+	private static JUnitResult runTests(Class<?>[] testClasses)
 	        throws JUnitExecutionException {
 		return runJUnitOnCurrentProcess(testClasses);
 	}
@@ -341,7 +335,15 @@ public class JUnitAnalyzer {
 	// EvoSuite classloader, and thus cannot easily be re-loaded
 	private static int NUM = 0;
 
-	private static List<File> compileTests(List<TestCase> tests, File dir) {
+	/**
+	 * Generate the JUnit source code for the given tests, without writing
+	 * anything to disk
+	 * 
+	 * @param tests
+	 * @return the source code of each compilation unit, keyed by fully
+	 *         qualified class name
+	 */
+	private static Map<String, String> generateSources(List<TestCase> tests) {
 
 		TestSuiteWriter suite = new TestSuiteWriter();
 		suite.insertAllTests(tests);
@@ -351,84 +353,105 @@ public class JUnitAnalyzer {
 		String name = Properties.TARGET_CLASS.substring(beginIndex);
 		name += "_" +(NUM++) + "_tmp_" + Properties.JUNIT_SUFFIX ; //postfix
 
-		try {
-			//now generate the JUnit test case
-			List<File> generated = suite.writeTestSuite(name, dir.getAbsolutePath(), Collections.EMPTY_LIST);
-			for (File file : generated) {
-				if (!file.exists()) {
-					logger.error("Supposed to generate " + file
-					        + " but it does not exist");
-					return null;
-				}
-			}
+		String packagePrefix = Properties.CLASS_PREFIX;
+		if (!packagePrefix.isEmpty() && !packagePrefix.endsWith(".")) {
+			packagePrefix += ".";
+		}
 
-			//try to compile the test cases
-			JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-			if (compiler == null) {
-				logger.error("No Java compiler is available");
-				return null;
-			}
+		Map<String, String> sources = new LinkedHashMap<>();
+		Map<String, String> generated = suite.generateTestSuiteSources(name, Collections.emptyList());
+		for (Map.Entry<String, String> source : generated.entrySet()) {
+			sources.put(packagePrefix + source.getKey(), source.getValue());
+		}
+		return sources;
+	}
 
-			DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
-			Locale locale = Locale.getDefault();
-			Charset charset = Charset.forName("UTF-8");
-			StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics,
-			                                                                      locale,
-			                                                                      charset);
+	/**
+	 * Compile the given sources in memory, in one batch
+	 * 
+	 * @param sources
+	 *            source code keyed by fully qualified class name
+	 * @param failedSources
+	 *            if not null, the names of the sources on which compilation
+	 *            errors were reported are added to it
+	 * @return the bytecode of all compiled classes keyed by binary name, or
+	 *         {@code null} if compilation failed
+	 */
+	private static Map<String, byte[]> compileTests(Map<String, String> sources, Set<String> failedSources) {
 
-			Iterable<? extends JavaFileObject> compilationUnits = fileManager.getJavaFileObjectsFromFiles(generated);
+		//try to compile the test cases
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler == null) {
+			logger.error("No Java compiler is available");
+			return null;
+		}
 
-			List<String> optionList = new ArrayList<>();
-			String evosuiteCP = ClassPathHandler.getInstance().getEvoSuiteClassPath();
-			if(JarPathing.containsAPathingJar(evosuiteCP)){
-				evosuiteCP = JarPathing.expandPathingJars(evosuiteCP);
-			}
+		Map<JavaFileObject, String> compilationUnits = new LinkedHashMap<>();
+		for (Map.Entry<String, String> source : sources.entrySet()) {
+			compilationUnits.put(InMemoryJavaFileManager.createSource(source.getKey(), source.getValue()),
+			                     source.getKey());
+		}
 
-			String targetProjectCP = ClassPathHandler.getInstance().getTargetProjectClasspath();
-			if(JarPathing.containsAPathingJar(targetProjectCP)){
-				targetProjectCP = JarPathing.expandPathingJars(targetProjectCP);
-			}
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+		Locale locale = Locale.getDefault();
+		Charset charset = Charset.forName("UTF-8");
+		StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(diagnostics,
+		                                                                              locale,
+		                                                                              charset);
+
+		List<String> optionList = new ArrayList<>();
+		String evosuiteCP = ClassPathHandler.getInstance().getEvoSuiteClassPath();
+		if(JarPathing.containsAPathingJar(evosuiteCP)){
+			evosuiteCP = JarPathing.expandPathingJars(evosuiteCP);
+		}
 
-			String classpath = targetProjectCP + File.pathSeparator + evosuiteCP;
+		String targetProjectCP = ClassPathHandler.getInstance().getTargetProjectClasspath();
+		if(JarPathing.containsAPathingJar(targetProjectCP)){
+			targetProjectCP = JarPathing.expandPathingJars(targetProjectCP);
+		}
+
+		String classpath = targetProjectCP + File.pathSeparator + evosuiteCP;
 
-			optionList.addAll(Arrays.asList("-classpath", classpath));
+		optionList.addAll(Arrays.asList("-classpath", classpath));
+
+		try (InMemoryJavaFileManager fileManager = new InMemoryJavaFileManager(standardFileManager)) {
 
 			CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
-			                                        optionList, null, compilationUnits);
+			                                        optionList, null, compilationUnits.keySet());
 			boolean compiled = task.call();
-			fileManager.close();
 
 			if (!compiled) {
-				logger.error("Compilation failed on compilation units: "+ compilationUnits);
+				logger.error("Compilation failed on compilation units: "+ compilationUnits.values());
 				logger.error("Classpath: "+classpath);
-				//TODO remove
-				logger.error("evosuiteCP: "+evosuiteCP);
-
 
-				for (Diagnostic<?> diagnostic : diagnostics.getDiagnostics()) {
-					if (diagnostic.getMessage(null).startsWith("error while writing")) {
-						logger.error("Error is due to file permissions, ignoring...");
-						return generated;
+				Set<String> failed = new LinkedHashSet<>();
+				for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+					if (diagnostic.getKind() == Diagnostic.Kind.ERROR && diagnostic.getSource() != null
+					        && compilationUnits.containsKey(diagnostic.getSource())) {
+						failed.add(compilationUnits.get(diagnostic.getSource()));
 					}
 					logger.error("Diagnostic: " + diagnostic.getMessage(null) + ": "
 					        + diagnostic.getLineNumber());
 				}
 
 				StringBuffer buffer = new StringBuffer();
-				for (JavaFileObject sourceFile : compilationUnits) {
-					List<String> lines = FileUtils.readLines(new File(sourceFile.toUri().getPath()));
+				for (String className : (failed.isEmpty() ? sources.keySet() : failed)) {
+					buffer.append(className+"\n");
 
-					buffer.append(compilationUnits.iterator().next().toString()+"\n");
-
-					for (int i = 0; i < lines.size(); i++) {
-						buffer.append((i + 1) + ": " + lines.get(i) +"\n");
+					String[] lines = sources.get(className).split("\n");
+					for (int i = 0; i < lines.length; i++) {
+						buffer.append((i + 1) + ": " + lines[i] +"\n");
 					}
 				}
 				logger.error(buffer.toString());
+
+				if (failedSources != null) {
+					failedSources.addAll(failed);
+				}
 				return null;
 			}
 
-			return generated;
+			return fileManager.getCompiledClasses();
 
 		} catch (IOException e) {
 			logger.error("" + e, e);
@@ -436,28 +459,16 @@ public class JUnitAnalyzer {
 		}
 	}
 
-	protected static File createNewTmpDir() {
-		File dir = null;
-		String dirName = FileUtils.getTempDirectoryPath() + File.separator + "EvoSuite_"
-		        + (dirCounter++) + "_" + +System.currentTimeMillis();
-
-		//first create a tmp folder
-		dir = new File(dirName);
-		if (!dir.mkdirs()) {
-			logger.error("Cannot create tmp dir: " + dirName);
-			return null;
-		}
-
-		if (!dir.exists()) {
-			logger.error("Weird behavior: we created folder, but Java cannot determine if it exists? Folder: "
-			        + dirName);
-			return null;
-		}
-
-		return dir;
-	}
-
-	private static Class<?>[] loadTests(List<File> tests) {
+	/**
+	 * Load the compiled tests into the current verifying class loader
+	 * 
+	 * @param sourceClasses
+	 *            names of the classes that have their own compilation unit
+	 * @param compiled
+	 *            bytecode of all compiled classes, keyed by binary name
+	 * @return the test classes
+	 */
+	private static Class<?>[] loadTests(Set<String> sourceClasses, Map<String, byte[]> compiled) {
 
 		/*
 		 * Ideally, when we run a generated test case, it
@@ -471,67 +482,43 @@ public class JUnitAnalyzer {
 		 * non-instrumenting classloader to re-load the CUT, and so see
 		 * if the JavaAgent works properly.
 		 */
-		Class<?>[] testClasses = getClassesFromFiles(tests);
-		List<File> otherClasses = listOnlyFiles(tests);
+
 		/*
-		 * this is important to force the loading of all files generated
-		 * in the target folder.
-		 * If we do not do that, then we will miss all the anonymous classes 
+		 * first load only the scaffolding files
 		 */
-		getClassesFromFiles(otherClasses);
-
-		return testClasses;
-	}
-
-	private static List<File> listOnlyFiles(List<File> tests) throws IllegalArgumentException{
-		if(tests==null || tests.isEmpty()){
-			return null;
-		}
-
-		Set<String> classNames = new LinkedHashSet<>();
-		
-		File parentFolder = tests.get(0).getParentFile();
-		for(File file : tests){
-			if(!file.getParentFile().equals(parentFolder)){
-				throw new IllegalArgumentException("Tests file are not in the same folder");
+		for (String className : sourceClasses) {
+			if (isScaffolding(className)) {
+				loadClass(className, compiled.get(className));
 			}
-			classNames.add(removeFileExtension(file.getName()));
 		}
-		
+
+		List<Class<?>> classes = new ArrayList<>();
+
 		/*
-		 * if we already loaded a CUT due to its .java, do not want
-		 * to re-loaded it for a .class file that is in the same folder
+		 * once the scaffoldings are loaded, we can load the tests that
+		 * depend on them 
 		 */
-		
-		List<File> otherClasses = new LinkedList<>();
-		
-		for(File file : parentFolder.listFiles()){
-			String  name = removeFileExtension(file.getName());
-
-			if(classNames.contains(name)){
+		for (String className : sourceClasses) {
+			if (isScaffolding(className)) {
 				continue;
 			}
-			
-			classNames.add(name);
-			otherClasses.add(file);
-		}
-		
-		return otherClasses;
-	}
-	
-
-	private static String removeFileExtension(String str) {
-		if (str == null) {
-			return null;
+			Class<?> clazz = loadClass(className, compiled.get(className));
+			if (clazz != null) {
+				classes.add(clazz);
+			}
 		}
 
-		int pos = str.lastIndexOf(".");
-
-		if (pos == -1) {
-			return str;
+		/*
+		 * this is important to force the loading of all the other compiled
+		 * classes. If we do not do that, then we will miss all the anonymous classes 
+		 */
+		for (Map.Entry<String, byte[]> entry : compiled.entrySet()) {
+			if (!sourceClasses.contains(entry.getKey())) {
+				loadClass(entry.getKey(), entry.getValue());
+			}
 		}
 
-		return str.substring(0, pos);
+		return classes.toArray(new Class<?>[classes.size()]);
 	}
 
 	/**
@@ -544,8 +531,7 @@ public class JUnitAnalyzer {
 	 * </p>
 	 * 
 	 * <p>
-	 * Here we compile to a tmp folder, load and execute the test cases, and
-	 * then clean up (ie delete all generated files).
+	 * Here we compile in memory, and then load and execute the test cases.
 	 * </p>
 	 * 
 	 * @param tests
@@ -559,29 +545,24 @@ public class JUnitAnalyzer {
 			return true;
 		}
 
-		File dir = createNewTmpDir();
-		if (dir == null) {
-			logger.warn("Failed to create tmp dir");
-			return false;
-		}
-
 		try {
-			List<File> generated = compileTests(tests, dir);
-			if (generated == null) {
+			Map<String, String> sources = generateSources(tests);
+			Map<String, byte[]> compiled = compileTests(sources, null);
+			if (compiled == null) {
 				logger.warn("Failed to compile the test cases ");
 				return false;
 			}
 
 			//as last step, execute the generated/compiled test cases
 
-			Class<?>[] testClasses = loadTests(generated);
+			Class<?>[] testClasses = loadTests(sources.keySet(), compiled);
 
-			if (testClasses == null) {
+			if (testClasses == null || testClasses.length == 0) {
 				logger.error("Found no classes for compiled tests");
 				return false;
 			}
 
-			JUnitResult result = runTests(testClasses, dir);
+			JUnitResult result = runTests(testClasses);
 
 			if (!result.wasSuccessful()) {
 				logger.error("" + result.getFailureCount() + " test cases failed");
@@ -605,15 +586,6 @@ public class JUnitAnalyzer {
 		} catch (Exception e) {
 			logger.error("" + e, e);
 			return false;
-		} finally {
-			//let's be sure we clean up all what we wrote on disk
-			if (dir != null) {
-				try {
-					FileUtils.deleteDirectory(dir);
-				} catch (IOException e) {
-					logger.warn("Cannot delete tmp dir: " + dir.getName(), e);
-				}
-			}
 		}
 
 		logger.debug("Successfully compiled and run test cases generated for "
@@ -621,89 +593,22 @@ public class JUnitAnalyzer {
 		return true;
 	}
 
-	/**
-	 * Given a list of files representing .java/.class classes, load them (it
-	 * assumes the classpath to be correctly set)
-	 * 
-	 * @param files
-	 * @return
-	 */
-	private static Class<?>[] getClassesFromFiles(Collection<File> files) {
-		/*
-		 * first load only the scaffolding files
-		 */
-		for (File file : files) {
-			if(!isScaffolding(file)){
-				continue;
-			}
-			loadClass(file);			
-		}
-		
-		List<Class<?>> classes = new ArrayList<>();
-		
-		/*
-		 * once the scaffoldings are loaded, we can load the tests that
-		 * depend on them 
-		 */
-		for (File file : files) {
-			if(isScaffolding(file)){
-				continue;
-			}
-			Class<?> clazz = loadClass(file);
-			if(clazz != null){
-				classes.add(clazz);
-			}
-		}
-		
-		return classes.toArray(new Class<?>[classes.size()]);
-	}
-
-	private static boolean isScaffolding(File file){
-		String name = file.getName();
-		return name.endsWith("_"+Properties.SCAFFOLDING_SUFFIX+JAVA) || 
-				name.endsWith("_"+Properties.SCAFFOLDING_SUFFIX+CLASS);
+	private static boolean isScaffolding(String className){
+		return className.endsWith("_"+Properties.SCAFFOLDING_SUFFIX);
 	}
 	
-	private static Class<?> loadClass(File file){
-		if (!file.isFile()) {
-			return null;
-		}
-
-		String packagePrefix = Properties.CLASS_PREFIX;
-		if (!packagePrefix.isEmpty() && !packagePrefix.endsWith(".")) {
-			packagePrefix += ".";
-		}
-
-		String name = file.getName();
-
-		if (!name.endsWith(JAVA) && !name.endsWith(CLASS)) {
-			/*
-			 * this could happen when we scan a folder for all src/compiled
-			 * files
-			 */
+	private static Class<?> loadClass(String className, byte[] bytecode){
+		if (bytecode == null) {
+			logger.error("No bytecode was generated for " + className);
 			return null;
 		}
 
-		String fileName = file.getAbsolutePath();
-
-		if (name.endsWith(JAVA)) {
-			name = name.substring(0, name.length() - JAVA.length());
-			fileName = fileName.substring(0, fileName.length() - JAVA.length()) + ".class";
-		} else {
-			assert name.endsWith(CLASS);
-			name = name.substring(0, name.length() - CLASS.length());
-		}
-
-		String className = packagePrefix + name;
-
 		Class<?> testClass = null;
 		try {
 			logger.info("Loading class " + className);
-			//testClass = ((InstrumentingClassLoader) TestGenerationContext.getInstance().getClassLoaderForSUT()).loadClassFromFile(className,
-			testClass = loader.loadClassFromFile(className,fileName);
+			testClass = loader.loadClassFromBytes(className, bytecode);
 		} catch (ClassNotFoundException e) {
-			logger.error("Failed to load test case " + className + " from file "
-			        + file.getAbsolutePath() + " , error " + e, e);
+			logger.error("Failed to load test case " + className + " , error " + e, e);
 		}
 		return testClass;
 	}
@@ -744,6 +744,12 @@ public class Scaffolding {
 			bd.append(Sandbox.class.getName() + ".initializeSecurityManagerForSUT(); \n");
 		}
 
+		if (Properties.RESET_STATIC_FIELDS && Properties.SNAPSHOT_STATIC_STATE) {
+			// classes have to be reset the same way as during the search
+			bd.append(BLOCK_SPACE);
+			bd.append(RuntimeSettings.class.getName() + ".snapshotStaticState = true; \n");
+		}
+
 		if (wasSecurityException) {
 			bd.append(BLOCK_SPACE);
 			bd.append(EXECUTOR_SERVICE + " = Executors.newCachedThreadPool(); \n");
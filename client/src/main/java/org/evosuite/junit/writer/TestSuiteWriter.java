@@ -185,6 +185,32 @@ public class TestSuiteWriter implements Opcodes {
      */
     public List<File> writeTestSuite(String name, String directory, List<ExecutionResult> cachedResults) throws IllegalArgumentException {
 
+        Map<String, String> sources = generateTestSuiteSources(name, cachedResults);
+
+        List<File> generated = new ArrayList<File>();
+        String dir = TestSuiteWriterUtils.makeDirectory(directory);
+
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            File file = new File(dir + "/" + source.getKey() + ".java"); // e.g., dir/Foo_ESTest_0.java
+            FileIOUtils.writeFile(source.getValue(), file);
+            generated.add(file);
+        }
+
+        writeCoveredGoalsFile();
+
+        return generated;
+    }
+
+    /**
+     * Create the source code of the JUnit test suite for class, without
+     * writing anything to disk
+     *
+     * @param name Name of the class
+     * @return the source code of each generated compilation unit, keyed by
+     *         simple class name, in the order in which they are generated
+     */
+    public Map<String, String> generateTestSuiteSources(String name, List<ExecutionResult> cachedResults) throws IllegalArgumentException {
+
         if (name == null || name.isEmpty()) {
             throw new IllegalArgumentException("Empty test class name");
         }
@@ -195,8 +221,7 @@ public class TestSuiteWriter implements Opcodes {
             throw new IllegalArgumentException("Test classes should have name ending with 'Test'. Invalid input name: " + name);
         }
 
-        List<File> generated = new ArrayList<File>();
-        String dir = TestSuiteWriterUtils.makeDirectory(directory);
+        Map<String, String> sources = new LinkedHashMap<String, String>();
         String content = "";
 
         // Execute all tests
@@ -241,36 +266,28 @@ public class TestSuiteWriter implements Opcodes {
 
 
         if (Properties.OUTPUT_GRANULARITY == OutputGranularity.MERGED || testCases.size() == 0) {
-            File file = new File(dir + "/" + name + ".java");
             //executor.newObservers();
             content = getUnitTestsAllInSameFile(name, results);
-            FileIOUtils.writeFile(content, file);
-            generated.add(file);
+            sources.put(name, content);
         } else {
             for (int i = 0; i < testCases.size(); i++) {
-                File file = new File(dir + "/" + name + "_" + i + ".java"); // e.g., dir/Foo_ESTest_0.java
                 //executor.newObservers();
                 String testCode = getOneUnitTestInAFile(name, i, results);
-                FileIOUtils.writeFile(testCode, file);
+                sources.put(name + "_" + i, testCode);
                 content += testCode;
-                generated.add(file);
             }
         }
 
         if (Properties.TEST_SCAFFOLDING && !Properties.NO_RUNTIME_DEPENDENCY) {
             String scaffoldingName = Scaffolding.getFileName(name);
-            File file = new File(dir + "/" + scaffoldingName + ".java");
             String scaffoldingContent = Scaffolding.getScaffoldingFileContent(name, results,
                     TestSuiteWriterUtils.hasAnySecurityException(results));
-            FileIOUtils.writeFile(scaffoldingContent, file);
-            generated.add(file);
+            sources.put(scaffoldingName, scaffoldingContent);
             content += scaffoldingContent;
         }
 
-        writeCoveredGoalsFile();
-
         TestGenerationResultBuilder.getInstance().setTestSuiteCode(content);
-        return generated;
+        return sources;
     }
 
     /**
@@ -48,6 +48,7 @@ import org.evosuite.runtime.sandbox.Sandbox;
 import org.evosuite.setup.DependencyAnalysis;
 import org.evosuite.setup.TestCluster;
 import org.evosuite.statistics.RuntimeVariable;
+import org.evosuite.testcase.TestChromosome;
 import org.evosuite.utils.LoggingUtils;
 import org.evosuite.utils.Randomness;
 import org.evosuite.utils.FileIOUtils;
@@ -92,6 +93,23 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 
 	private Thread statisticsThread; 
 
+	/**
+	 * Tests to be sent to the other clients searching in parallel
+	 */
+	private final BlockingQueue<List<TestChromosome>> emigrants = new LinkedBlockingQueue<List<TestChromosome>>();
+
+	/**
+	 * Tests received from the other clients searching in parallel
+	 */
+	private final BlockingQueue<TestChromosome> immigrants = new LinkedBlockingQueue<TestChromosome>();
+
+	/**
+	 * Final tests of the other clients searching in parallel, one entry per client
+	 */
+	private final BlockingQueue<List<TestChromosome>> finalSolutions = new LinkedBlockingQueue<List<TestChromosome>>();
+
+	private Thread migrationThread;
+
 	//only for testing
 	protected ClientNodeImpl() {
 	}
@@ -100,9 +118,12 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 		this.registry = registry;
 		state = ClientState.NOT_STARTED;
 		/*
-		 * TODO: for now it is a constant because we have only one client
+		 * Clients searching in parallel are distinguished by their index
 		 */
-		clientRmiIdentifier = "ClientNode";
+		clientRmiIdentifier = ClientNodeRemote.RMI_SERVICE_NAME;
+		if (Properties.CLIENT_INDEX > 0) {
+			clientRmiIdentifier += Properties.CLIENT_INDEX;
+		}
 		doneLatch = new CountDownLatch(1);
 		finishedLatch = new CountDownLatch(1);
 	}
@@ -262,6 +283,68 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 		}
 	}
 
+	@Override
+	public void immigrate(List<TestChromosome> migrants) throws RemoteException {
+		immigrants.addAll(migrants);
+	}
+
+	@Override
+	public void collectFinalSolutions(String clientRmiIdentifier, List<TestChromosome> solutions)
+	        throws RemoteException {
+		logger.info("Received " + solutions.size() + " final tests from " + clientRmiIdentifier);
+		finalSolutions.offer(solutions);
+	}
+
+	@Override
+	public void emigrate(List<TestChromosome> migrants) {
+		/*
+		 * Sent by the migration thread, so the search does not wait for the other clients
+		 */
+		emigrants.offer(migrants);
+	}
+
+	@Override
+	public List<TestChromosome> pollImmigrants() {
+		List<TestChromosome> migrants = new ArrayList<TestChromosome>();
+		immigrants.drainTo(migrants);
+		return migrants;
+	}
+
+	@Override
+	public void sendFinalSolutions(List<TestChromosome> solutions) {
+		logger.info("Sending " + solutions.size() + " final tests to master process");
+
+		try {
+			masterNode.evosuite_collectFinalSolutions(clientRmiIdentifier, solutions);
+		} catch (RemoteException e) {
+			logger.error("Cannot send final tests to master", e);
+		}
+	}
+
+	@Override
+	public List<TestChromosome> waitForFinalSolutions(int numberOfClients, long timeoutInMs) {
+		List<TestChromosome> solutions = new ArrayList<TestChromosome>();
+		long end = System.currentTimeMillis() + timeoutInMs;
+		for (int received = 0; received < numberOfClients; received++) {
+			List<TestChromosome> next = null;
+			try {
+				long remaining = end - System.currentTimeMillis();
+				if (remaining > 0) {
+					next = finalSolutions.poll(remaining, TimeUnit.MILLISECONDS);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (next == null) {
+				logger.warn("Received the final tests of " + received + " out of " + numberOfClients
+				        + " parallel clients");
+				break;
+			}
+			solutions.addAll(next);
+		}
+		return solutions;
+	}
+
 	@Override
 	public void trackOutputVariable(RuntimeVariable variable, Object value) {
 		logger.info("Sending output variable to master process: "+variable+" = "+value);
@@ -337,6 +420,16 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 			statisticsThread = null;
 		}
 
+		if (migrationThread != null) {
+			migrationThread.interrupt();
+			try {
+				migrationThread.join(3000);
+			} catch (InterruptedException e) {
+				logger.error("Failed to stop migrationThread in time");
+			}
+			migrationThread = null;
+		}
+
 		changeState(ClientState.FINISHED);
 	}
 
@@ -369,6 +462,28 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 			Sandbox.addPrivilegedThread(statisticsThread);
 			statisticsThread.start();
 
+			if (Properties.NUM_PARALLEL_CLIENTS > 1) {
+				migrationThread = new Thread() {
+					@Override
+					public void run() {
+						while (!this.isInterrupted()) {
+							try {
+								List<TestChromosome> migrants = emigrants.take(); //this is blocking
+								masterNode.evosuite_migrate(clientRmiIdentifier, migrants);
+							} catch (InterruptedException e) {
+								break;
+							} catch (RemoteException e) {
+								logger.error("Error when sending migrants to master", e);
+								break;
+							}
+						}
+					}
+				};
+				migrationThread.setName("Migration sender in client process");
+				Sandbox.addPrivilegedThread(migrationThread);
+				migrationThread.start();
+			}
+
 		} catch (Exception e) {
 			logger.error("Error when connecting to master via RMI", e);
 			return false;
@@ -19,8 +19,11 @@
  */
 package org.evosuite.rmi.service;
 
+import java.util.List;
+
 import org.evosuite.ga.Chromosome;
 import org.evosuite.statistics.RuntimeVariable;
+import org.evosuite.testcase.TestChromosome;
 
 /**
  * Client Node view in the client process.
@@ -46,4 +49,26 @@ public interface ClientNodeLocal {
 	public void updateProperty(String propertyName, Object value);
 
 	public void waitUntilDone();
+
+	/**
+	 * Send tests to the other clients searching in parallel, without waiting for them
+	 */
+	public void emigrate(List<TestChromosome> migrants);
+
+	/**
+	 * @return the tests received from other clients since the last call
+	 */
+	public List<TestChromosome> pollImmigrants();
+
+	/**
+	 * Send the final tests of this client to the first client
+	 */
+	public void sendFinalSolutions(List<TestChromosome> solutions);
+
+	/**
+	 * Wait until the given number of clients sent their final tests, or the timeout expired
+	 * 
+	 * @return the final tests received
+	 */
+	public List<TestChromosome> waitForFinalSolutions(int numberOfClients, long timeoutInMs);
 }
@@ -21,6 +21,9 @@ package org.evosuite.rmi.service;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.List;
+
+import org.evosuite.testcase.TestChromosome;
 
 /**
  * Client Node view in the master process.
@@ -31,6 +34,12 @@ import java.rmi.RemoteException;
 
 public interface ClientNodeRemote extends Remote {
 
+	/**
+	 * RMI identifier of the first client. Further clients running in parallel
+	 * append their index to it
+	 */
+	public static final String RMI_SERVICE_NAME = "ClientNode";
+
 	public void startNewSearch() throws RemoteException;
 
 	public void cancelCurrentSearch() throws RemoteException;
@@ -50,4 +59,23 @@ public interface ClientNodeRemote extends Remote {
 	public void doDependencyAnalysis(String fileName) throws RemoteException;
 
 	public void printClassStatistics() throws RemoteException;
+
+	/**
+	 * Add tests found by another client searching in parallel on the same class
+	 * 
+	 * @param migrants
+	 * @throws RemoteException
+	 */
+	public void immigrate(List<TestChromosome> migrants) throws RemoteException;
+
+	/**
+	 * Receive the final tests of another client searching in parallel, to be
+	 * merged with the tests of this client
+	 * 
+	 * @param clientRmiIdentifier  the client that found the tests
+	 * @param solutions
+	 * @throws RemoteException
+	 */
+	public void collectFinalSolutions(String clientRmiIdentifier, List<TestChromosome> solutions)
+	        throws RemoteException;
 }
@@ -21,9 +21,12 @@ package org.evosuite.rmi.service;
 
 import java.rmi.RemoteException;
 import java.rmi.registry.Registry;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.evosuite.ga.Chromosome;
 import org.evosuite.statistics.RuntimeVariable;
+import org.evosuite.testcase.TestChromosome;
 
 public class DummyClientNodeImpl extends ClientNodeImpl {
 
@@ -98,6 +101,19 @@ public class DummyClientNodeImpl extends ClientNodeImpl {
 		
 	}
 
+	@Override
+	public void emigrate(List<TestChromosome> migrants) {
+	}
+
+	@Override
+	public void sendFinalSolutions(List<TestChromosome> solutions) {
+	}
+
+	@Override
+	public List<TestChromosome> waitForFinalSolutions(int numberOfClients, long timeoutInMs) {
+		return new ArrayList<TestChromosome>();
+	}
+
 	@Override
 	public String getClientRmiIdentifier() {
 		return "dummy";
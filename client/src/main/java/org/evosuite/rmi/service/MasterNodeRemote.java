@@ -27,6 +27,7 @@ import org.evosuite.Properties.NoSuchParameterException;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.result.TestGenerationResult;
 import org.evosuite.statistics.RuntimeVariable;
+import org.evosuite.testcase.TestChromosome;
 
 /**
  * Master Node view in the client process.  
@@ -55,4 +56,14 @@ public interface MasterNodeRemote extends Remote {
 	public void evosuite_flushStatisticsForClassChange(String clientRmiIdentifier) throws RemoteException;
 
 	public void evosuite_updateProperty(String clientRmiIdentifier, String propertyName, Object value) throws RemoteException, IllegalArgumentException, IllegalAccessException, NoSuchParameterException;
+
+	/**
+	 * Forward tests to all the other clients searching in parallel
+	 */
+	public void evosuite_migrate(String clientRmiIdentifier, List<TestChromosome> migrants) throws RemoteException;
+
+	/**
+	 * Forward the final tests of a client to the first client, which merges them into its test suite
+	 */
+	public void evosuite_collectFinalSolutions(String clientRmiIdentifier, List<TestChromosome> solutions) throws RemoteException;
 }
@@ -42,6 +42,11 @@ public class ConstantPoolManager {
 	 */
 	private static final int DYNAMIC_POOL_INDEX = 2;
 
+	/**
+	 * The dynamic pool if it supports adding primitive values without boxing
+	 */
+	private DynamicConstantPool dynamicPool;
+
 	private ConstantPoolManager() {
 		init();
 	}
@@ -54,6 +59,11 @@ public class ConstantPoolManager {
 			pools = new ConstantPool[]{new StaticConstantVariableProbabilityPool(), new StaticConstantVariableProbabilityPool(),
 					new DynamicConstantVariableProbabilityPool()};
 		}
+		if (pools[DYNAMIC_POOL_INDEX] instanceof DynamicConstantPool) {
+			dynamicPool = (DynamicConstantPool) pools[DYNAMIC_POOL_INDEX];
+		} else {
+			dynamicPool = null;
+		}
 
 		initDefaultProbabilities();
 	}
@@ -99,9 +109,52 @@ public class ConstantPoolManager {
 	}
 
 	public void addDynamicConstant(Object value) {
+		if (Properties.DYNAMIC_POOL <= 0.0)
+			return;
 		pools[DYNAMIC_POOL_INDEX].add(value);
 	}
 
+	/*
+	 * The instrumentation reports the operands of every comparison, so the
+	 * primitive variants must not box the value
+	 */
+
+	public void addDynamicConstant(int value) {
+		if (Properties.DYNAMIC_POOL <= 0.0)
+			return;
+		if (dynamicPool != null)
+			dynamicPool.addInt(value);
+		else
+			pools[DYNAMIC_POOL_INDEX].add(value);
+	}
+
+	public void addDynamicConstant(long value) {
+		if (Properties.DYNAMIC_POOL <= 0.0)
+			return;
+		if (dynamicPool != null)
+			dynamicPool.addLong(value);
+		else
+			pools[DYNAMIC_POOL_INDEX].add(value);
+	}
+
+	public void addDynamicConstant(float value) {
+		if (Properties.DYNAMIC_POOL <= 0.0)
+			return;
+		if (dynamicPool != null)
+			dynamicPool.addFloat(value);
+		else
+			pools[DYNAMIC_POOL_INDEX].add(value);
+	}
+
+	public void addDynamicConstant(double value) {
+		if (Properties.DYNAMIC_POOL <= 0.0)
+			return;
+		if (dynamicPool != null)
+			dynamicPool.addDouble(value);
+		else
+			pools[DYNAMIC_POOL_INDEX].add(value);
+	}
+
 	public ConstantPool getConstantPool() {
 		double p = Randomness.nextDouble();
 		double k = 0d;
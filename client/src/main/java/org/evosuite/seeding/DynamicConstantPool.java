@@ -28,37 +28,47 @@ import org.evosuite.utils.RandomAccessQueue;
 import org.objectweb.asm.Type;
 
 /**
+ * Values observed at runtime. Numbers and strings are kept in bounded ring
+ * buffers of primitive values, as they are added by the instrumentation at
+ * every comparison, and adding them must not allocate. Tests executed on
+ * several execution lanes add values concurrently.
+ * 
  * @author Gordon Fraser
  * 
  */
 public class DynamicConstantPool implements ConstantPool {
 
-	private final RandomAccessQueue<String> stringPool = new DefaultRandomAccessQueue<String>();
+	private final StringConstantRing stringPool = new StringConstantRing(Properties.DYNAMIC_POOL_SIZE,
+	        Properties.DYNAMIC_POOL_SAMPLING);
 
 	private final RandomAccessQueue<Type> typePool = new DefaultRandomAccessQueue<Type>();
 
-	private final RandomAccessQueue<Integer> intPool = new DefaultRandomAccessQueue<Integer>();
+	private final PrimitiveConstantRing intPool = new PrimitiveConstantRing(Properties.DYNAMIC_POOL_SIZE,
+	        Properties.DYNAMIC_POOL_SAMPLING);
 
-	private final RandomAccessQueue<Double> doublePool = new DefaultRandomAccessQueue<Double>();
+	private final PrimitiveConstantRing doublePool = new PrimitiveConstantRing(Properties.DYNAMIC_POOL_SIZE,
+	        Properties.DYNAMIC_POOL_SAMPLING);
 
-	private final RandomAccessQueue<Long> longPool = new DefaultRandomAccessQueue<Long>();
+	private final PrimitiveConstantRing longPool = new PrimitiveConstantRing(Properties.DYNAMIC_POOL_SIZE,
+	        Properties.DYNAMIC_POOL_SAMPLING);
 
-	private final RandomAccessQueue<Float> floatPool = new DefaultRandomAccessQueue<Float>();
+	private final PrimitiveConstantRing floatPool = new PrimitiveConstantRing(Properties.DYNAMIC_POOL_SIZE,
+	        Properties.DYNAMIC_POOL_SAMPLING);
 
 	public DynamicConstantPool() {
 		/*
 		 * all pools HAVE to be non-empty 
 		 */
-		stringPool.restrictedAdd("");
+		stringPool.add("");
 		if (Properties.TARGET_CLASS != null && !Properties.TARGET_CLASS.isEmpty()) {
 			typePool.restrictedAdd(Type.getObjectType(Properties.TARGET_CLASS));
 		} else {
 			typePool.restrictedAdd(Type.getType(Object.class));
 		}
-		intPool.restrictedAdd(0);
-		longPool.restrictedAdd(0L);
-		floatPool.restrictedAdd(0.0f);
-		doublePool.restrictedAdd(0.0);
+		intPool.add(0);
+		longPool.add(0L);
+		floatPool.add(Float.floatToIntBits(0.0f));
+		doublePool.add(Double.doubleToLongBits(0.0));
 	}
 
 	/* (non-Javadoc)
@@ -71,7 +81,9 @@ public class DynamicConstantPool implements ConstantPool {
 
 	@Override
 	public Type getRandomType() {
-		return typePool.getRandomValue();
+		synchronized (typePool) {
+			return typePool.getRandomValue();
+		}
 	}
 
 	/* (non-Javadoc)
@@ -79,7 +91,7 @@ public class DynamicConstantPool implements ConstantPool {
 	 */
 	@Override
 	public int getRandomInt() {
-		return intPool.getRandomValue();
+		return (int) intPool.getRandomValue();
 	}
 
 	/* (non-Javadoc)
@@ -87,7 +99,7 @@ public class DynamicConstantPool implements ConstantPool {
 	 */
 	@Override
 	public float getRandomFloat() {
-		return floatPool.getRandomValue();
+		return Float.intBitsToFloat((int) floatPool.getRandomValue());
 	}
 
 	/* (non-Javadoc)
@@ -95,7 +107,7 @@ public class DynamicConstantPool implements ConstantPool {
 	 */
 	@Override
 	public double getRandomDouble() {
-		return doublePool.getRandomValue();
+		return Double.longBitsToDouble(doublePool.getRandomValue());
 	}
 
 	/* (non-Javadoc)
@@ -106,6 +118,40 @@ public class DynamicConstantPool implements ConstantPool {
 		return longPool.getRandomValue();
 	}
 
+	public void addInt(int value) {
+		if (!Properties.RESTRICT_POOL || Math.abs(value) < Properties.MAX_INT) {
+			intPool.add(value);
+		}
+	}
+
+	public void addLong(long value) {
+		if (!Properties.RESTRICT_POOL || Math.abs(value) < Properties.MAX_INT) {
+			longPool.add(value);
+		}
+	}
+
+	public void addFloat(float value) {
+		if (!Properties.RESTRICT_POOL || Math.abs(value) < Properties.MAX_INT) {
+			floatPool.add(Float.floatToIntBits(value));
+		}
+	}
+
+	public void addDouble(double value) {
+		if (!Properties.RESTRICT_POOL || Math.abs(value) < Properties.MAX_INT) {
+			doublePool.add(Double.doubleToLongBits(value));
+		}
+	}
+
+	public void addString(String string) {
+		if(string.length() > Properties.MAX_STRING)
+			return;
+		// String literals are constrained to 65535 bytes 
+		// as they are stored in the constant pool
+		if (string.length() > 65535)
+			return;
+		stringPool.add(string);
+	}
+
 	/* (non-Javadoc)
 	 * @see org.evosuite.primitives.ConstantPool#add(java.lang.Object)
 	 */
@@ -116,66 +162,54 @@ public class DynamicConstantPool implements ConstantPool {
 			return;
 
 		if (object instanceof String) {
-			String string = (String) object;
-			if(string.length() > Properties.MAX_STRING)
-				return;
-			// String literals are constrained to 65535 bytes 
-			// as they are stored in the constant pool
-			if (string.length() > 65535)
-				return;
-			stringPool.restrictedAdd(string);
+			addString((String) object);
 		} else if (object instanceof Type) {
-			typePool.restrictedAdd((Type) object);
-		}
-
-		else if (object instanceof Integer) {
-			if (Properties.RESTRICT_POOL) {
-				int val = (Integer) object;
-				if (Math.abs(val) < Properties.MAX_INT) {
-					intPool.restrictedAdd((Integer) object);
-				}
-			} else {
-				intPool.restrictedAdd((Integer) object);
+			synchronized (typePool) {
+				typePool.restrictedAdd((Type) object);
 			}
+		} else if (object instanceof Integer) {
+			addInt((Integer) object);
 		} else if (object instanceof Long) {
-			if (Properties.RESTRICT_POOL) {
-				long val = (Long) object;
-				if (Math.abs(val) < Properties.MAX_INT) {
-					longPool.restrictedAdd((Long) object);
-				}
-			} else {
-				longPool.restrictedAdd((Long) object);
-			}
+			addLong((Long) object);
 		} else if (object instanceof Float) {
-			if (Properties.RESTRICT_POOL) {
-				float val = (Float) object;
-				if (Math.abs(val) < Properties.MAX_INT) {
-					floatPool.restrictedAdd((Float) object);
-				}
-			} else {
-				floatPool.restrictedAdd((Float) object);
-			}
+			addFloat((Float) object);
 		} else if (object instanceof Double) {
-			if (Properties.RESTRICT_POOL) {
-				double val = (Double) object;
-				if (Math.abs(val) < Properties.MAX_INT) {
-					doublePool.restrictedAdd((Double) object);
-				}
-			} else {
-				doublePool.restrictedAdd((Double) object);
-			}
+			addDouble((Double) object);
 		}
 	}
 
 	@Override
 	public String toString() {
+		StringBuilder strings = new StringBuilder("[ ");
+		for (int i = 0; i < stringPool.size(); i++) {
+			strings.append(stringPool.get(i)).append(" ");
+		}
+		strings.append("]");
+
+		StringBuilder ints = new StringBuilder("[ ");
+		StringBuilder longs = new StringBuilder("[ ");
+		StringBuilder floats = new StringBuilder("[ ");
+		StringBuilder doubles = new StringBuilder("[ ");
+		for (int i = 0; i < intPool.size(); i++) {
+			ints.append((int) intPool.get(i)).append(" ");
+		}
+		for (int i = 0; i < longPool.size(); i++) {
+			longs.append(longPool.get(i)).append(" ");
+		}
+		for (int i = 0; i < floatPool.size(); i++) {
+			floats.append(Float.intBitsToFloat((int) floatPool.get(i))).append(" ");
+		}
+		for (int i = 0; i < doublePool.size(); i++) {
+			doubles.append(Double.longBitsToDouble(doublePool.get(i))).append(" ");
+		}
+
 		String res = "DynamicConstantPool:{";
-		res += "stringPool=" + stringPool.toString() + " ; ";
+		res += "stringPool=" + strings + " ; ";
 		res += "typePool=" + typePool.toString() + " ; ";
-		res += "intPool=" + intPool.toString() + " ; ";
-		res += "longPool=" + longPool.toString() + " ; ";
-		res += "floatPool=" + floatPool.toString() + " ; ";
-		res += "doublePool=" + doublePool.toString() + "}";	
+		res += "intPool=" + ints.append("]") + " ; ";
+		res += "longPool=" + longs.append("]") + " ; ";
+		res += "floatPool=" + floats.append("]") + " ; ";
+		res += "doublePool=" + doubles.append("]") + "}";	
 		return res;
 	}
 
@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.seeding;
+
+import org.evosuite.utils.Randomness;
+
+/**
+ * Bounded pool of distinct primitive values observed at runtime. Values are
+ * kept as raw bits in a ring buffer, so adding a value does not allocate;
+ * once the ring is full, new values replace the oldest ones.
+ *
+ * <p>
+ * Floating point values are compared by their bits, which is the same
+ * notion of equality as {@link Double#equals(Object)}.
+ *
+ * <p>
+ * Tests executed on several execution lanes add values concurrently, so all
+ * methods are synchronized.
+ */
+class PrimitiveConstantRing {
+
+	private final long[] values;
+
+	private int size = 0;
+
+	/** Position of the oldest value once the ring is full */
+	private int oldest = 0;
+
+	private final int sampling;
+
+	private int probes = 0;
+
+	/**
+	 * @param capacity
+	 *            maximum number of values
+	 * @param sampling
+	 *            once the ring is full, only every n-th value is considered
+	 */
+	PrimitiveConstantRing(int capacity, int sampling) {
+		this.values = new long[Math.max(1, capacity)];
+		this.sampling = Math.max(1, sampling);
+	}
+
+	/**
+	 * @param bits
+	 * @return whether the value was added
+	 */
+	synchronized boolean add(long bits) {
+		if (size == values.length && sampling > 1) {
+			if (++probes < sampling)
+				return false;
+			probes = 0;
+		}
+		for (int i = 0; i < size; i++) {
+			if (values[i] == bits)
+				return false;
+		}
+		if (size < values.length) {
+			values[size++] = bits;
+		} else {
+			values[oldest] = bits;
+			oldest = (oldest + 1) % values.length;
+		}
+		return true;
+	}
+
+	synchronized long getRandomValue() {
+		return values[Randomness.nextInt(size)];
+	}
+
+	synchronized int size() {
+		return size;
+	}
+
+	synchronized long get(int index) {
+		return values[(oldest + index) % size];
+	}
+}
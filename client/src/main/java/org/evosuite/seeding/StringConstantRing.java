@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.seeding;
+
+import org.evosuite.utils.Randomness;
+
+/**
+ * Bounded pool of distinct strings observed at runtime, kept in a ring
+ * buffer together with their hash codes; once the ring is full, new values
+ * replace the oldest ones.
+ *
+ * <p>
+ * Tests executed on several execution lanes add values concurrently, so all
+ * methods are synchronized.
+ */
+class StringConstantRing {
+
+	private final String[] values;
+
+	private final int[] hashes;
+
+	private int size = 0;
+
+	/** Position of the oldest value once the ring is full */
+	private int oldest = 0;
+
+	private final int sampling;
+
+	private int probes = 0;
+
+	/**
+	 * @param capacity
+	 *            maximum number of values
+	 * @param sampling
+	 *            once the ring is full, only every n-th value is considered
+	 */
+	StringConstantRing(int capacity, int sampling) {
+		this.values = new String[Math.max(1, capacity)];
+		this.hashes = new int[values.length];
+		this.sampling = Math.max(1, sampling);
+	}
+
+	/**
+	 * @param value
+	 * @return whether the value was added
+	 */
+	synchronized boolean add(String value) {
+		if (size == values.length && sampling > 1) {
+			if (++probes < sampling)
+				return false;
+			probes = 0;
+		}
+		int hash = value.hashCode();
+		for (int i = 0; i < size; i++) {
+			if (hashes[i] == hash && values[i].equals(value))
+				return false;
+		}
+		int position;
+		if (size < values.length) {
+			position = size++;
+		} else {
+			position = oldest;
+			oldest = (oldest + 1) % values.length;
+		}
+		values[position] = value;
+		hashes[position] = hash;
+		return true;
+	}
+
+	synchronized String getRandomValue() {
+		return values[Randomness.nextInt(size)];
+	}
+
+	synchronized int size() {
+		return size;
+	}
+
+	synchronized String get(int index) {
+		return values[(oldest + index) % size];
+	}
+}
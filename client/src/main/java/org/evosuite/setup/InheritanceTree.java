@@ -209,4 +209,25 @@ public class InheritanceTree {
 		return inheritanceGraph.vertexSet().size();
 	}
 
+	// Raw access to the data, for InheritanceTreeIndex
+
+	DirectedMultigraph<String, DefaultEdge> getInheritanceGraph() {
+		return inheritanceGraph;
+	}
+
+	Set<String> getInterfacesSet() {
+		initialiseMap();
+		return interfacesSet;
+	}
+
+	Set<String> getAbstractClassesSet() {
+		initialiseMap();
+		return abstractClassesSet;
+	}
+
+	Map<String, Set<String>> getAnalyzedMethods() {
+		initialiseMap();
+		return analyzedMethods;
+	}
+
 }
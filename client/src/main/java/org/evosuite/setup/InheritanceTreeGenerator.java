@@ -23,6 +23,10 @@
 package org.evosuite.setup;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.regex.Pattern;
 import java.util.zip.GZIPInputStream;
@@ -30,6 +34,7 @@ import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
+import org.apache.commons.io.FileUtils;
 import org.evosuite.PackageInfo;
 import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
@@ -37,6 +42,7 @@ import org.evosuite.classpath.ResourceList;
 import org.evosuite.rmi.ClientServices;
 import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.utils.LoggingUtils;
+import org.evosuite.utils.PersistentCacheUtils;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.ClassNode;
@@ -59,6 +65,8 @@ public class InheritanceTreeGenerator {
 	private static final String jdkFile =  "JDK_inheritance.xml";
 	private static final String shadedJdkFile = "JDK_inheritance_shaded.xml";
 
+	private static final String cacheFolder = "EvoSuite_inheritance";
+
 	/**
 	 * Iterate over items in classpath and analyze them
 	 * 
@@ -78,6 +86,23 @@ public class InheritanceTreeGenerator {
 			}
 		}
 		
+		long startTime = System.currentTimeMillis();
+		File cacheFile = null;
+		if (Properties.CACHE_INHERITANCE_TREE) {
+			cacheFile = getCacheFile(classPath);
+			if (cacheFile != null && cacheFile.exists()) {
+				try {
+					InheritanceTree tree = InheritanceTreeIndex.read(cacheFile);
+					PersistentCacheUtils.touch(cacheFile);
+					logger.info("Inheritance tree loaded from cache {} in {}ms", cacheFile,
+					            System.currentTimeMillis() - startTime);
+					return tree;
+				} catch (IOException e) {
+					logger.warn("Error loading cached inheritance tree: {}", e.getMessage());
+				}
+			}
+		}
+
 		logger.debug("Reading JDK data");
 		InheritanceTree inheritanceTree = readJDKData();
         if(inheritanceTree==null){
@@ -104,9 +129,65 @@ public class InheritanceTreeGenerator {
 
 			// analyze(inheritanceTree, classPathEntry);
 		}
+		logger.info("Inheritance tree created in {}ms", System.currentTimeMillis() - startTime);
+
+		if (cacheFile != null) {
+			writeCachedInheritanceTree(inheritanceTree, cacheFile);
+		}
 		return inheritanceTree;
 	}
 
+	/**
+	 * The cache file for an inheritance tree is named after a checksum of the
+	 * EvoSuite build, of the JDK data, and of the content of all entries of
+	 * the classpath, so that any change in one of them leads to a new
+	 * analysis
+	 * 
+	 * @param classPath
+	 * @return {@code null} if the checksum cannot be computed
+	 */
+	private static File getCacheFile(List<String> classPath) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			PersistentCacheUtils.update(digest, "" + InheritanceTreeIndex.VERSION);
+			PersistentCacheUtils.update(digest, "" + PackageInfo.isCurrentlyShaded());
+			PersistentCacheUtils.update(digest, PersistentCacheUtils.getBuildFingerprint());
+			PersistentCacheUtils.update(digest, PersistentCacheUtils.getResourceFingerprint(
+			        InheritanceTreeGenerator.class.getResource(getJDKDataResource())));
+			PersistentCacheUtils.updateWithClassPath(digest, classPath);
+
+			String name = PersistentCacheUtils.toHex(digest.digest()) + ".bin";
+			return new File(FileUtils.getTempDirectory(), cacheFolder + File.separator + name);
+
+		} catch (NoSuchAlgorithmException | IOException e) {
+			logger.warn("Cannot compute checksum of the classpath: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	private static void writeCachedInheritanceTree(InheritanceTree inheritanceTree, File cacheFile) {
+		try {
+			File folder = cacheFile.getParentFile();
+			if (!folder.exists() && !folder.mkdirs() && !folder.exists()) {
+				logger.warn("Cannot create folder {} for cached inheritance trees", folder);
+				return;
+			}
+			// Several clients might analyze the same classpath at the same time
+			File tmpFile = File.createTempFile(cacheFile.getName(), ".tmp", folder);
+			InheritanceTreeIndex.write(inheritanceTree, tmpFile);
+			try {
+				Files.move(tmpFile.toPath(), cacheFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				Files.deleteIfExists(tmpFile.toPath());
+				throw e;
+			}
+			logger.info("Cached inheritance tree in {}", cacheFile);
+			PersistentCacheUtils.evictLeastRecentlyUsed(folder, Properties.MAX_CACHE_SIZE * 1024L * 1024L);
+		} catch (IOException e) {
+			logger.warn("Cannot cache inheritance tree: {}", e.getMessage());
+		}
+	}
+
 	/**
 	 * Create inheritance tree only for the classes passed as parameter
 	 * 
@@ -439,17 +520,20 @@ public class InheritanceTreeGenerator {
 		}
 	}
 
+	private static String getJDKDataResource() {
+		if(! PackageInfo.isCurrentlyShaded()) {
+			return "/" + jdkFile;
+		} else {
+			return "/" + shadedJdkFile;
+		}
+	}
+
 	public static InheritanceTree readJDKData() {
 		XStream xstream = new XStream();
 		XStream.setupDefaultSecurity(xstream);
 		xstream.allowTypesByWildcard(new String[] {"org.evosuite.**", "org.jgrapht.**"});
 
-		String fileName;
-		if(! PackageInfo.isCurrentlyShaded()) {
-			fileName = "/" + jdkFile;
-		} else {
-			fileName = "/" + shadedJdkFile;
-		}
+		String fileName = getJDKDataResource();
 
 		InputStream inheritance = InheritanceTreeGenerator.class.getResourceAsStream(fileName);
 
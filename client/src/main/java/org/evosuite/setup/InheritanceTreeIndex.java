@@ -0,0 +1,261 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.setup;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.DirectedMultigraph;
+
+/**
+ * Compact binary encoding of an {@link InheritanceTree}, which is much faster
+ * to load than the XStream XML representation.
+ * 
+ * <p>
+ * The index starts with {@link #MAGIC} and the format {@link #VERSION},
+ * followed by a table of all class names and method signatures. Everything
+ * after the table refers to strings by their index only:
+ * <ul>
+ * <li>the classes (vertices of the inheritance graph)</li>
+ * <li>the inheritance edges, as pairs of supertype and subtype</li>
+ * <li>the interfaces and the abstract classes</li>
+ * <li>for each analyzed class, its method signatures</li>
+ * </ul>
+ * All numbers are big-endian 32 bit integers, so an index file can be mapped
+ * into memory and decoded in place.
+ * </p>
+ */
+public final class InheritanceTreeIndex {
+
+	static final byte[] MAGIC = { 'E', 'V', 'I', 'T' };
+
+	/** Increase whenever the encoding changes */
+	static final int VERSION = 1;
+
+	private InheritanceTreeIndex() {
+	}
+
+	/**
+	 * Write the index of the given tree
+	 * 
+	 * @param tree
+	 * @param output
+	 *            is not closed
+	 * @throws IOException
+	 */
+	public static void write(InheritanceTree tree, OutputStream output) throws IOException {
+		DirectedMultigraph<String, DefaultEdge> graph = tree.getInheritanceGraph();
+
+		Map<String, Integer> strings = new LinkedHashMap<>();
+		for (String className : graph.vertexSet()) {
+			intern(strings, className);
+		}
+		for (String className : tree.getInterfacesSet()) {
+			intern(strings, className);
+		}
+		for (String className : tree.getAbstractClassesSet()) {
+			intern(strings, className);
+		}
+		for (Map.Entry<String, Set<String>> entry : tree.getAnalyzedMethods().entrySet()) {
+			intern(strings, entry.getKey());
+			for (String method : entry.getValue()) {
+				intern(strings, method);
+			}
+		}
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+		out.write(MAGIC);
+		out.writeInt(VERSION);
+
+		out.writeInt(strings.size());
+		for (String string : strings.keySet()) {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+
+		out.writeInt(graph.vertexSet().size());
+		for (String className : graph.vertexSet()) {
+			out.writeInt(strings.get(className));
+		}
+
+		out.writeInt(graph.edgeSet().size());
+		for (DefaultEdge edge : graph.edgeSet()) {
+			out.writeInt(strings.get(graph.getEdgeSource(edge)));
+			out.writeInt(strings.get(graph.getEdgeTarget(edge)));
+		}
+
+		writeSet(out, strings, tree.getInterfacesSet());
+		writeSet(out, strings, tree.getAbstractClassesSet());
+
+		out.writeInt(tree.getAnalyzedMethods().size());
+		for (Map.Entry<String, Set<String>> entry : tree.getAnalyzedMethods().entrySet()) {
+			out.writeInt(strings.get(entry.getKey()));
+			writeSet(out, strings, entry.getValue());
+		}
+		out.flush();
+	}
+
+	/**
+	 * Write the index of the given tree to a file
+	 * 
+	 * @param tree
+	 * @param file
+	 * @throws IOException
+	 */
+	public static void write(InheritanceTree tree, File file) throws IOException {
+		try (OutputStream output = Files.newOutputStream(file.toPath())) {
+			write(tree, output);
+		}
+	}
+
+	/**
+	 * Read an index file by mapping it into memory
+	 * 
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 *             if the file cannot be read or is not a valid index
+	 */
+	public static InheritanceTree read(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * Read an index from a stream, e.g. a resource within a jar, which cannot
+	 * be mapped into memory
+	 * 
+	 * @param input
+	 *            is not closed
+	 * @return
+	 * @throws IOException
+	 *             if the stream cannot be read or is not a valid index
+	 */
+	public static InheritanceTree read(InputStream input) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+		byte[] buffer = new byte[1 << 16];
+		int read;
+		while ((read = input.read(buffer)) != -1) {
+			bytes.write(buffer, 0, read);
+		}
+		return read(ByteBuffer.wrap(bytes.toByteArray()));
+	}
+
+	/**
+	 * Decode an index
+	 * 
+	 * @param buffer
+	 * @return
+	 * @throws IOException
+	 *             if the buffer does not contain a valid index
+	 */
+	public static InheritanceTree read(ByteBuffer buffer) throws IOException {
+		try {
+			byte[] magic = new byte[MAGIC.length];
+			buffer.get(magic);
+			if (!Arrays.equals(magic, MAGIC)) {
+				throw new IOException("Not an inheritance tree index");
+			}
+			int version = buffer.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported inheritance tree index version " + version);
+			}
+
+			String[] strings = new String[buffer.getInt()];
+			for (int i = 0; i < strings.length; i++) {
+				byte[] bytes = new byte[buffer.getInt()];
+				buffer.get(bytes);
+				strings[i] = new String(bytes, StandardCharsets.UTF_8);
+			}
+
+			InheritanceTree tree = new InheritanceTree();
+			DirectedMultigraph<String, DefaultEdge> graph = tree.getInheritanceGraph();
+
+			int numClasses = buffer.getInt();
+			for (int i = 0; i < numClasses; i++) {
+				graph.addVertex(strings[buffer.getInt()]);
+			}
+
+			int numEdges = buffer.getInt();
+			for (int i = 0; i < numEdges; i++) {
+				String source = strings[buffer.getInt()];
+				String target = strings[buffer.getInt()];
+				graph.addEdge(source, target);
+			}
+
+			readSet(buffer, strings, tree.getInterfacesSet());
+			readSet(buffer, strings, tree.getAbstractClassesSet());
+
+			Map<String, Set<String>> analyzedMethods = tree.getAnalyzedMethods();
+			int numAnalyzed = buffer.getInt();
+			for (int i = 0; i < numAnalyzed; i++) {
+				String className = strings[buffer.getInt()];
+				Set<String> methods = new LinkedHashSet<>();
+				readSet(buffer, strings, methods);
+				analyzedMethods.put(className, methods);
+			}
+
+			return tree;
+
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+			throw new IOException("Corrupt inheritance tree index", e);
+		}
+	}
+
+	private static void intern(Map<String, Integer> strings, String string) {
+		if (!strings.containsKey(string)) {
+			strings.put(string, strings.size());
+		}
+	}
+
+	private static void writeSet(DataOutputStream out, Map<String, Integer> strings, Set<String> set)
+	        throws IOException {
+		out.writeInt(set.size());
+		for (String string : set) {
+			out.writeInt(strings.get(string));
+		}
+	}
+
+	private static void readSet(ByteBuffer buffer, String[] strings, Set<String> set) {
+		int size = buffer.getInt();
+		for (int i = 0; i < size; i++) {
+			set.add(strings[buffer.getInt()]);
+		}
+	}
+}
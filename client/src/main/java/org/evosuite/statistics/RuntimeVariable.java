@@ -85,10 +85,16 @@ public enum RuntimeVariable {
 	Covered_Goals,       
 	/** Number of mutants */
 	Mutants,            
+	/** Number of test executions on mutants during assertion generation */
+	Mutant_Executions,
 	/** Total number of statements executed */
 	Statements_Executed,
 	/** The total number of tests executed during the search */
 	Tests_Executed, 
+	/** Fraction of test executions answered by the prefix execution cache */
+	Prefix_Cache_Hit_Rate,
+	/** Number of statements not executed thanks to the prefix execution cache */
+	Prefix_Cache_Saved_Statements,
 	/** The total number of fitness evaluations during the search */
 	Fitness_Evaluations,
 	/** Number of generations the search algorithm has been evolving */
@@ -377,6 +383,10 @@ public enum RuntimeVariable {
 	NumberOfUsefulNewTests,
 	/** How many SAT queries led to Unuseful (i.e. no better fitness) new tests*/ 
 	NumberOfUnusefulNewTests,
+	/** How many concolic executions were skipped because the path condition was cached */
+	NumberOfSavedConcolicExecutions,
+	/** Average time (ms) of concolic execution and solving per explored (i.e. negated) branch condition */
+	TimePerExploredBranch,
 	
 	/* -------------------------------------------------------------------- */
 	/** Search budget needed to reach the maximum coverage */ 
@@ -271,6 +271,9 @@ public class PropertiesSuiteGAFactory extends PropertiesSearchAlgorithmFactory<T
 		if (Properties.NEW_STATISTICS)
 			ga.addListener(new StatisticsListener());
 
+		if (MigrationListener.isEnabled())
+			ga.addListener(new MigrationListener());
+
 		// How to select candidates for reproduction
 		SelectionFunction<TestSuiteChromosome> selectionFunction = getSelectionFunction();
 		selectionFunction.setMaximize(false);
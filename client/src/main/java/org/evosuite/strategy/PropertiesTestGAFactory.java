@@ -203,6 +203,9 @@ public class PropertiesTestGAFactory extends PropertiesSearchAlgorithmFactory<Te
 		if (Properties.NEW_STATISTICS)
 			ga.addListener(new org.evosuite.statistics.StatisticsListener());
 
+		if (MigrationListener.isEnabled())
+			ga.addListener(new MigrationListener());
+
 		// How to select candidates for reproduction
 		SelectionFunction<TestChromosome> selection_function = getSelectionFunction();
 		selection_function.setMaximize(false);
@@ -42,6 +42,7 @@ import org.evosuite.ga.stoppingconditions.ZeroFitnessStoppingCondition;
 import org.evosuite.setup.TestCluster;
 import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.testcase.TestFitnessFunction;
+import org.evosuite.testcase.execution.PrefixExecutionCache;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.testsuite.TestSuiteFitnessFunction;
 import org.evosuite.utils.LoggingUtils;
@@ -75,6 +76,10 @@ public abstract class TestGenerationStrategy {
     protected void sendExecutionStatistics() {
         ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Statements_Executed, MaxStatementsStoppingCondition.getNumExecutedStatements());
         ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Tests_Executed, MaxTestsStoppingCondition.getNumExecutedTests());
+        if (Properties.PREFIX_EXECUTION_CACHE) {
+            ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Prefix_Cache_Hit_Rate, PrefixExecutionCache.getInstance().getHitRate());
+            ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Prefix_Cache_Saved_Statements, PrefixExecutionCache.getInstance().getSavedStatements());
+        }
     }
     
     /**
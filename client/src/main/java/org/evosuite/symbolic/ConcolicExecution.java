@@ -30,6 +30,7 @@ import org.evosuite.symbolic.expr.ExpressionExecutor;
 import org.evosuite.symbolic.instrument.ConcolicInstrumentingClassLoader;
 import org.evosuite.symbolic.vm.ArithmeticVM;
 import org.evosuite.symbolic.vm.CallVM;
+import org.evosuite.symbolic.vm.FusedVM;
 import org.evosuite.symbolic.vm.HeapVM;
 import org.evosuite.symbolic.vm.JumpVM;
 import org.evosuite.symbolic.vm.LocalsVM;
@@ -83,6 +84,18 @@ public abstract class ConcolicExecution {
 
 		logger.debug("Preparing concolic execution");
 
+		DefaultTestCase originalTestCase = null;
+		if (ConcolicPathCache.isApplicable()) {
+			List<BranchCondition> cachedPathCondition = ConcolicPathCache.getInstance().get(defaultTestCase);
+			if (cachedPathCondition != null) {
+				logger.debug("Reusing path condition of an equivalent test");
+				DSEStats.getInstance().reportConcolicExecutionSaved();
+				return cachedPathCondition;
+			}
+			// the test is changed to the instrumenting class loader below
+			originalTestCase = defaultTestCase.clone();
+		}
+
 		/**
 		 * Prepare DSC configuration
 		 */
@@ -98,13 +111,25 @@ public abstract class ConcolicExecution {
 		 * VM listeners
 		 */
 		List<IVM> listeners = new ArrayList<IVM>();
-		listeners.add(new CallVM(env, classLoader));
-		listeners.add(new JumpVM(env, pc));
-		listeners.add(new HeapVM(env, pc, classLoader));
-		listeners.add(new LocalsVM(env));
-		listeners.add(new ArithmeticVM(env, pc));
-		listeners.add(new OtherVM(env));
-		listeners.add(new SymbolicFunctionVM(env, pc));
+		CallVM callVM = new CallVM(env, classLoader);
+		JumpVM jumpVM = new JumpVM(env, pc);
+		HeapVM heapVM = new HeapVM(env, pc, classLoader);
+		LocalsVM localsVM = new LocalsVM(env);
+		ArithmeticVM arithmeticVM = new ArithmeticVM(env, pc);
+		OtherVM otherVM = new OtherVM(env);
+		SymbolicFunctionVM symbolicFunctionVM = new SymbolicFunctionVM(env, pc);
+		if (Properties.DSE_FUSED_LISTENERS) {
+			listeners.add(new FusedVM(callVM, jumpVM, heapVM, localsVM, arithmeticVM, otherVM,
+					symbolicFunctionVM));
+		} else {
+			listeners.add(callVM);
+			listeners.add(jumpVM);
+			listeners.add(heapVM);
+			listeners.add(localsVM);
+			listeners.add(arithmeticVM);
+			listeners.add(otherVM);
+			listeners.add(symbolicFunctionVM);
+		}
 		VM.getInstance().setListeners(listeners);
 		VM.getInstance().prepareConcolicExecution();
 
@@ -153,6 +178,10 @@ public abstract class ConcolicExecution {
 		logger.debug("Cleaning concolic execution");
 		TestCaseExecutor.getInstance().setExecutionObservers(originalExecutionObservers);
 
+		if (originalTestCase != null) {
+			ConcolicPathCache.getInstance().put(originalTestCase, result, branches);
+		}
+
 		return branches;
 	}
 
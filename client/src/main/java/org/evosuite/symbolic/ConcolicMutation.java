@@ -19,17 +19,12 @@
  */
 package org.evosuite.symbolic;
 
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
-import org.evosuite.symbolic.expr.BinaryExpression;
 import org.evosuite.symbolic.expr.Constraint;
-import org.evosuite.symbolic.expr.Expression;
-import org.evosuite.symbolic.expr.UnaryExpression;
-import org.evosuite.symbolic.expr.Variable;
+import org.evosuite.symbolic.solver.ConstraintSlicer;
 import org.evosuite.symbolic.solver.SolverCache;
 import org.evosuite.symbolic.solver.Solver;
 import org.evosuite.symbolic.solver.SolverFactory;
@@ -94,7 +89,8 @@ public class ConcolicMutation {
 
 		int size = constraints.size();
 		if (size > 0) {
-			constraints = reduce(constraints);
+			constraints = ConstraintSlicer.slice(constraints);
+			DSEStats.getInstance().reportNewSlice(size, constraints.size());
 			// logger.info("Reduced constraints from " + size + " to " +
 			// constraints.size());
 			// logger.info("Now solving: " + constraints);
@@ -169,68 +165,4 @@ public class ConcolicMutation {
 		}
 		return null;
 	}
-
-	/**
-	 * Apply cone of influence reduction to constraints with respect to the last
-	 * constraint in the list
-	 * 
-	 * @param constraints
-	 * @return
-	 */
-	private static List<Constraint<?>> reduce(List<Constraint<?>> constraints) {
-
-		Constraint<?> target = constraints.get(constraints.size() - 1);
-		Set<Variable<?>> dependencies = getVariables(target);
-
-		LinkedList<Constraint<?>> coi = new LinkedList<Constraint<?>>();
-		coi.add(target);
-
-		for (int i = constraints.size() - 2; i >= 0; i--) {
-			Constraint<?> constraint = constraints.get(i);
-			Set<Variable<?>> variables = getVariables(constraint);
-			for (Variable<?> var : dependencies) {
-				if (variables.contains(var)) {
-					dependencies.addAll(variables);
-					coi.addFirst(constraint);
-					break;
-				}
-			}
-		}
-		return coi;
-	}
-
-	/**
-	 * Determine the set of variable referenced by this constraint
-	 * 
-	 * @param constraint
-	 * @return
-	 */
-	private static Set<Variable<?>> getVariables(Constraint<?> constraint) {
-		Set<Variable<?>> variables = new HashSet<Variable<?>>();
-		getVariables(constraint.getLeftOperand(), variables);
-		getVariables(constraint.getRightOperand(), variables);
-		return variables;
-	}
-
-	/**
-	 * Recursively determine constraints in expression
-	 * 
-	 * @param expr
-	 * @param variables
-	 */
-	private static void getVariables(Expression<?> expr, Set<Variable<?>> variables) {
-		if (expr instanceof Variable<?>) {
-			variables.add((Variable<?>) expr);
-		} else if (expr instanceof BinaryExpression<?>) {
-			BinaryExpression<?> bin = (BinaryExpression<?>) expr;
-			getVariables(bin.getLeftOperand(), variables);
-			getVariables(bin.getRightOperand(), variables);
-		} else if (expr instanceof UnaryExpression<?>) {
-			UnaryExpression<?> un = (UnaryExpression<?>) expr;
-			getVariables(un.getOperand(), variables);
-		} else if (expr instanceof Constraint<?>) {
-			// ignore
-
-		}
-	}
 }
@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.TestPrefixCache;
+
+/**
+ * Cache of the path conditions collected by concolic execution.
+ * 
+ * <p>
+ * DSE repeatedly executes variants of the same test concolically, e.g. when
+ * it is applied to a test again after the previous attempt did not improve
+ * the fitness. Path conditions are keyed on the executed statements, see
+ * {@link TestPrefixCache}.
+ * 
+ * <p>
+ * Symbolic execution cannot be resumed in the middle of a test, as the
+ * symbolic heap refers to the concrete objects of the execution that created
+ * it. Tests that differ before the end of the cached prefix are therefore
+ * executed from the start.
+ *
+ * <p>
+ * Like {@link org.evosuite.testcase.execution.PrefixExecutionCache}, path
+ * conditions are only reused if executions are deterministic, otherwise a
+ * test could get the path condition of a path it does not take.
+ */
+public class ConcolicPathCache {
+
+	private static ConcolicPathCache instance = null;
+
+	private final TestPrefixCache<List<BranchCondition>> pathConditions = new TestPrefixCache<>(
+	        () -> Properties.DSE_PATH_CACHE_SIZE);
+
+	private ConcolicPathCache() {
+	}
+
+	public static synchronized ConcolicPathCache getInstance() {
+		if (instance == null)
+			instance = new ConcolicPathCache();
+		return instance;
+	}
+
+	/**
+	 * @return whether path conditions are currently reused
+	 */
+	public static boolean isApplicable() {
+		return Properties.DSE_PATH_CACHE && Properties.DSE_PATH_CACHE_SIZE > 0
+				&& TestPrefixCache.isExecutionDeterministic();
+	}
+
+	/**
+	 * @param test
+	 * @return the path condition of an earlier concolic execution that is
+	 *         equivalent to the execution of {@code test}, or {@code null}
+	 */
+	public synchronized List<BranchCondition> get(TestCase test) {
+		List<BranchCondition> pathCondition = pathConditions.get(test);
+		return pathCondition == null ? null : new ArrayList<>(pathCondition);
+	}
+
+	/**
+	 * Keep the path condition collected by executing {@code test}
+	 * 
+	 * @param test
+	 *            the test as it was before the execution
+	 * @param result
+	 *            the result of the concolic execution
+	 * @param pathCondition
+	 */
+	public synchronized void put(TestCase test, ExecutionResult result, List<BranchCondition> pathCondition) {
+		if (result.hasTimeout() || result.hasTestException()) {
+			return;
+		}
+
+		pathConditions.put(test, result, prefix -> new ArrayList<>(pathCondition));
+	}
+
+	/**
+	 * Tests refer to the classes of the current class loader, entries need to
+	 * be discarded when it changes
+	 */
+	public synchronized void clear() {
+		pathConditions.clear();
+	}
+
+	public synchronized int size() {
+		return pathConditions.size();
+	}
+}
@@ -19,9 +19,19 @@
  */
 package org.evosuite.symbolic;
 
+import java.util.Collection;
+
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.IntegerConstraint;
+import org.evosuite.symbolic.expr.RealConstraint;
+import org.evosuite.symbolic.expr.StringConstraint;
+
 public class ConstraintTypeCounter {
 
-	private final int[] countersByType = new int[8];
+	/** Number of different keys for the types of constraints in a query */
+	public static final int NUMBER_OF_KEYS = 8;
+
+	private final int[] countersByType = new int[NUMBER_OF_KEYS];
 
 	private static final int INTEGER_CONSTRAINT_KEY = 0b001;
 	private static final int REAL_CONSTRAINT_KEY = 0b010;
@@ -48,6 +58,42 @@ public class ConstraintTypeCounter {
 		return key;
 	}
 
+	/**
+	 * @param constraints
+	 * @return the key of the combination of integer, real and string
+	 *         constraints in a query, smaller than {@link #NUMBER_OF_KEYS}
+	 */
+	public static int getKey(Collection<Constraint<?>> constraints) {
+		boolean hasIntegerConstraint = false;
+		boolean hasRealConstraint = false;
+		boolean hasStringConstraint = false;
+		for (Constraint<?> constraint : constraints) {
+			if (constraint instanceof StringConstraint) {
+				hasStringConstraint = true;
+			} else if (constraint instanceof IntegerConstraint) {
+				hasIntegerConstraint = true;
+			} else if (constraint instanceof RealConstraint) {
+				hasRealConstraint = true;
+			}
+		}
+		return getKey(hasIntegerConstraint, hasRealConstraint, hasStringConstraint);
+	}
+
+	/**
+	 * @param key
+	 * @return e.g. <code>integer+string</code>
+	 */
+	public static String getKeyName(int key) {
+		StringBuilder name = new StringBuilder();
+		if ((key & INTEGER_CONSTRAINT_KEY) != 0)
+			name.append("integer");
+		if ((key & REAL_CONSTRAINT_KEY) != 0)
+			name.append(name.length() > 0 ? "+" : "").append("real");
+		if ((key & STRING_CONSTRAINT_KEY) != 0)
+			name.append(name.length() > 0 ? "+" : "").append("string");
+		return name.length() > 0 ? name.toString() : "none";
+	}
+
 	public void clear() {
 		for (int i = 0; i < countersByType.length; i ++) {
 			countersByType[i] = 0;
@@ -31,6 +31,7 @@ import org.evosuite.symbolic.expr.Constraint;
 import org.evosuite.symbolic.expr.IntegerConstraint;
 import org.evosuite.symbolic.expr.RealConstraint;
 import org.evosuite.symbolic.expr.StringConstraint;
+import org.evosuite.symbolic.solver.PortfolioSolver;
 import org.evosuite.symbolic.solver.SolverCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -75,7 +76,10 @@ public class DSEStats {
 	private long nrOfSolutionWithNoImprovement = 0;
 	private long nrOfNewTestFound = 0;
 	private long totalSolvingTimeMillis = 0;
+	private long nrOfSolverQueries = 0;
 	private long totalConcolicExecutionTimeMillis = 0;
+	private long nrOfConcolicExecutions = 0;
+	private long nrOfSavedConcolicExecutions = 0;
 	private int constraintTooLongCounter = 0;
 	private int max_path_condition_length;
 	private int min_path_condition_length;
@@ -87,6 +91,10 @@ public class DSEStats {
 	private int path_condition_count = 0;
 	private final List<Boolean> changes = new LinkedList<Boolean>();
 	private final ConstraintTypeCounter constraintTypeCounter = new ConstraintTypeCounter();
+	private final PowerOfTwoHistogram querySizeHistogram = new PowerOfTwoHistogram();
+	private final PowerOfTwoHistogram solvingTimeHistogram = new PowerOfTwoHistogram();
+	private long nrOfConstraintsBeforeSlicing = 0;
+	private long nrOfConstraintsAfterSlicing = 0;
 
 	public void reportNewUNSAT() {
 		nrOfUNSATs++;
@@ -178,6 +186,12 @@ public class DSEStats {
 		logConstraintTypeStatistics();
 		logger.info("");
 
+		if (Properties.DSE_SOLVER == Properties.SolverType.PORTFOLIO_SOLVER) {
+			logger.info("");
+			logPortfolioStatistics();
+			logger.info("");
+		}
+
 	}
 
 	private void logAdaptationStatistics() {
@@ -214,14 +228,58 @@ public class DSEStats {
 			percentFormat.setMaximumFractionDigits(1);
 			String hit_rate_str = percentFormat.format(SolverCache.getInstance().getHitRate());
 			logger.info(String.format("* DSE)   Cache hit rate: %s", hit_rate_str));
+
+			logger.info(String.format("* DSE)   Hits by UNSAT subsumption: %s",
+					SolverCache.getInstance().getNumberOfSubsumptionHits()));
+		}
+	}
+
+	private void logPortfolioStatistics() {
+		logger.info("* DSE) Portfolio Solver Statistics");
+		for (int key = 0; key < ConstraintTypeCounter.NUMBER_OF_KEYS; key++) {
+			long races = PortfolioSolver.getNumberOfRaces(key);
+			if (races == 0)
+				continue;
+			StringBuilder wins = new StringBuilder();
+			for (Properties.SolverType solverType : Properties.SolverType.values()) {
+				long numberOfWins = PortfolioSolver.getNumberOfWins(key, solverType);
+				if (numberOfWins > 0)
+					wins.append(" ").append(solverType).append("=").append(numberOfWins);
+			}
+			logger.info(String.format("* DSE)   %s: %s races, wins:%s", ConstraintTypeCounter.getKeyName(key), races,
+					wins));
 		}
 	}
 
 	private void logTimeStatistics() {
 		logger.info("* DSE) Time Statistics");
 		logger.info(String.format("* DSE)   Time spent solving constraints: %sms", totalSolvingTimeMillis));
+		if (nrOfSolverQueries > 0) {
+			logger.info(String.format("* DSE)   Average solving time per query: %.2fms",
+					(double) totalSolvingTimeMillis / nrOfSolverQueries));
+		}
+		if (totalSolvingTimeMillis > 0) {
+			logger.info(String.format("* DSE)   Solver queries per second: %.2f",
+					nrOfSolverQueries * 1000.0 / totalSolvingTimeMillis));
+		}
+		logger.info(String.format("* DSE)   Solving time histogram (ms): %s", solvingTimeHistogram));
 		logger.info(String.format("* DSE)   Time spent executing test concolically: %sms",
 				totalConcolicExecutionTimeMillis));
+		logger.info(String.format("* DSE)   Concolic executions: %s (%s saved by path cache)",
+				nrOfConcolicExecutions, nrOfSavedConcolicExecutions));
+		if (nrOfSolverQueries > 0) {
+			logger.info(String.format("* DSE)   Average time per explored branch: %.2fms", getTimePerExploredBranch()));
+		}
+	}
+
+	/**
+	 * Concolic execution and solving time per branch condition that was
+	 * negated and given to the solver
+	 */
+	private double getTimePerExploredBranch() {
+		if (nrOfSolverQueries == 0)
+			return 0.0;
+		return (double) (totalConcolicExecutionTimeMillis + totalSolvingTimeMillis) / nrOfSolverQueries;
 	}
 
 	private  void logSolverStatistics() {
@@ -328,6 +386,11 @@ public class DSEStats {
 		logger.info(String.format("* DSE)   max path condition length: %s", max_path_condition_length));
 		logger.info(String.format("* DSE)   min path condition length: %s", min_path_condition_length));
 		logger.info(String.format("* DSE)   avg path condition length: %s", avg_path_condition_length));
+		logger.info(String.format("* DSE)   query length histogram: %s", querySizeHistogram));
+		if (nrOfConstraintsBeforeSlicing > 0) {
+			logger.info(String.format("* DSE)   constraints removed by slicing: %s of %s",
+					nrOfConstraintsBeforeSlicing - nrOfConstraintsAfterSlicing, nrOfConstraintsBeforeSlicing));
+		}
 	}
 
 	private int getConstraintTooLongCounter() {
@@ -359,6 +422,7 @@ public class DSEStats {
 		}
 
 		path_condition_count++;
+		querySizeHistogram.add(constraints.size());
 
 		for (Constraint<?> c : constraints) {
 			if (constraint_count == 0) {
@@ -415,6 +479,38 @@ public class DSEStats {
 	 */
 	public void reportNewSolvingTime(long solvingTimeMillis) {
 		totalSolvingTimeMillis += solvingTimeMillis;
+		nrOfSolverQueries++;
+		solvingTimeHistogram.add(solvingTimeMillis);
+	}
+
+	/**
+	 * Reports a query that was reduced to the constraints the negated branch
+	 * condition depends on
+	 * 
+	 * @param constraintsBefore
+	 *            the number of constraints before slicing
+	 * @param constraintsAfter
+	 *            the number of constraints sent to the solver
+	 */
+	public void reportNewSlice(int constraintsBefore, int constraintsAfter) {
+		nrOfConstraintsBeforeSlicing += constraintsBefore;
+		nrOfConstraintsAfterSlicing += constraintsAfter;
+	}
+
+	/**
+	 * @return number of constraints per query reported with
+	 *         {@link #reportNewConstraints(Collection)}
+	 */
+	public PowerOfTwoHistogram getQuerySizeHistogram() {
+		return querySizeHistogram;
+	}
+
+	/**
+	 * @return solving times in milliseconds reported with
+	 *         {@link #reportNewSolvingTime(long)}
+	 */
+	public PowerOfTwoHistogram getSolvingTimeHistogram() {
+		return solvingTimeHistogram;
 	}
 
 	/**
@@ -425,6 +521,23 @@ public class DSEStats {
 	 */
 	public void reportNewConcolicExecutionTime(long concolicExecutionTimeMillis) {
 		totalConcolicExecutionTimeMillis += concolicExecutionTimeMillis;
+		nrOfConcolicExecutions++;
+	}
+
+	/**
+	 * Reports a concolic execution that was not needed because the path
+	 * condition was taken from the {@link ConcolicPathCache}
+	 */
+	public void reportConcolicExecutionSaved() {
+		nrOfSavedConcolicExecutions++;
+	}
+
+	public long getNumberOfConcolicExecutions() {
+		return nrOfConcolicExecutions;
+	}
+
+	public long getNumberOfSavedConcolicExecutions() {
+		return nrOfSavedConcolicExecutions;
 	}
 
 	public void reportConstraintTooLong(int size) {
@@ -489,6 +602,10 @@ public class DSEStats {
 
 		trackOutputVariable(RuntimeVariable.NumberOfUnusefulNewTests, getUnusefulTests());
 
+		trackOutputVariable(RuntimeVariable.NumberOfSavedConcolicExecutions, nrOfSavedConcolicExecutions);
+
+		trackOutputVariable(RuntimeVariable.TimePerExploredBranch, getTimePerExploredBranch());
+
 	}
 
 	private void trackOutputVariable(RuntimeVariable var, Object value) {
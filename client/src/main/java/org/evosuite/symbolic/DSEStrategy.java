@@ -23,7 +23,6 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
@@ -33,21 +32,27 @@ import org.evosuite.coverage.TestFitnessFactory;
 import org.evosuite.ga.FitnessFunction;
 import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
 import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
+import org.evosuite.ga.stoppingconditions.StoppingCondition;
 import org.evosuite.result.TestGenerationResultBuilder;
 import org.evosuite.rmi.ClientServices;
 import org.evosuite.rmi.service.ClientState;
+import org.evosuite.setup.TestUsageChecker;
 import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.strategy.PropertiesSuiteGAFactory;
 import org.evosuite.strategy.TestGenerationStrategy;
-import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestFitnessFunction;
-import org.evosuite.testcase.execution.ExecutionTracer;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.PrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.testsuite.TestSuiteFitnessFunction;
 import org.evosuite.testsuite.similarity.DiversityObserver;
 import org.evosuite.utils.ArrayUtil;
 import org.evosuite.utils.LoggingUtils;
 import org.evosuite.utils.Randomness;
+import org.evosuite.utils.generic.GenericMethod;
 
 public class DSEStrategy extends TestGenerationStrategy {
 
@@ -82,7 +87,7 @@ public class DSEStrategy extends TestGenerationStrategy {
 			LoggingUtils.getEvoLogger().info("* Starting evolution");
 			ClientServices.getInstance().getClientNode().changeState(ClientState.SEARCH);
 
-			testSuite = generateSuite();
+			testSuite = generateSuite(fitnessFunctions);
 		} else {
 			zeroFitness.setFinished();
 			testSuite = new TestSuiteChromosome();
@@ -118,21 +123,54 @@ public class DSEStrategy extends TestGenerationStrategy {
 
 	}
 
-	private TestSuiteChromosome generateSuite() {
+	private TestSuiteChromosome generateSuite(List<TestSuiteFitnessFunction> fitnessFunctions) {
 		final Class<?> targetClass = Properties.getTargetClassAndDontInitialise();
 		final Set<Method> staticMethods = getStaticMethods(targetClass);
-		TestSuiteChromosome result = new TestSuiteChromosome();
+
+		StoppingCondition stoppingCondition = getStoppingCondition();
+		stoppingCondition.reset();
+		GenerationalSearch search = new GenerationalSearch(stoppingCondition);
 		for (Method staticMethod : staticMethods) {
-			List<TestChromosome> testCases = generateTests(staticMethod);
-			result.addTests(testCases);
+			DefaultTestCase initialTest = buildInitialTest(staticMethod);
+			if (initialTest != null) {
+				search.addInitialTest(initialTest);
+			}
+		}
+
+		TestSuiteChromosome result = new TestSuiteChromosome();
+		for (TestCase test : search.search()) {
+			result.addTest(test);
+		}
+		for (TestSuiteFitnessFunction fitnessFunction : fitnessFunctions) {
+			fitnessFunction.getFitness(result);
 		}
 		return result;
 	}
 
-	private List<TestChromosome> generateTests(Method staticMethod) {
-		List<TestChromosome> testCases = new LinkedList<TestChromosome>();
-		// TODO DSE Algorithm goes here
-		return testCases;
+	/**
+	 * Builds a test that calls the static method with default values
+	 * 
+	 * @param staticMethod
+	 * @return <code>null</code> if a parameter has a type that is not
+	 *         supported by the concolic execution
+	 */
+	private static DefaultTestCase buildInitialTest(Method staticMethod) {
+		if (!TestUsageChecker.canUse(staticMethod)) {
+			return null;
+		}
+		DefaultTestCase test = new DefaultTestCase();
+		List<VariableReference> parameters = new ArrayList<VariableReference>();
+		for (Class<?> parameterType : staticMethod.getParameterTypes()) {
+			if (!parameterType.isPrimitive() && !parameterType.equals(String.class)) {
+				return null;
+			}
+			PrimitiveStatement<?> statement = PrimitiveStatement.getPrimitiveStatement(test, parameterType);
+			parameters.add(test.addStatement(statement));
+		}
+		MethodStatement methodStatement = new MethodStatement(test,
+				new GenericMethod(staticMethod, staticMethod.getDeclaringClass()), null, parameters);
+		test.addStatement(methodStatement);
+		return test;
 	}
 
 	private List<TestFitnessFunction> getGoals(boolean verbose) {
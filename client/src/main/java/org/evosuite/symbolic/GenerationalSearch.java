@@ -0,0 +1,363 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.stoppingconditions.StoppingCondition;
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.IsolatedConcreteValues;
+import org.evosuite.symbolic.solver.Solver;
+import org.evosuite.symbolic.solver.SolverCache;
+import org.evosuite.symbolic.solver.SolverFactory;
+import org.evosuite.symbolic.solver.SolverResult;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testcase.localsearch.DSETestGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generational search over the path conditions of concolic executions, as in
+ * SAGE (Godefroid et al., Automated Whitebox Fuzz Testing, NDSS 2008).
+ * 
+ * <p>
+ * Each executed test contributes one candidate per branch condition of its
+ * path condition at or after its bound: the path condition up to that branch
+ * condition, with the branch condition negated. A test derived from the
+ * candidate at index <code>i</code> gets the bound <code>i+1</code>, so that
+ * it does not negate the conditions that its parent already negated.
+ * 
+ * <p>
+ * All candidates are kept in a single worklist. Candidates that negate a
+ * branch that is not yet covered in both directions come first, ordered by
+ * the branch distance of the uncovered direction in the execution of the
+ * test they were derived from. The priority of a candidate is updated when
+ * it reaches the head of the worklist, as other tests may have covered its
+ * branch in the meantime.
+ * 
+ * <p>
+ * Path prefixes are identified by a hash of the branches and comparators
+ * along the path. A candidate is dropped if its prefix was already followed
+ * by an executed test or by another candidate.
+ * 
+ * <p>
+ * Up to {@link Properties#DSE_SOLVER_THREADS} candidates are solved
+ * concurrently. Tests are always executed in the calling thread.
+ */
+public class GenerationalSearch {
+
+	private static final Logger logger = LoggerFactory.getLogger(GenerationalSearch.class);
+
+	private static final long HASH_PRIME = 0x100000001b3L;
+
+	private static final class Candidate {
+
+		/** The test from which the candidate was derived */
+		private final TestCase test;
+
+		private final PathCondition pathCondition;
+
+		/** The index of the branch condition to negate */
+		private final int conditionIndex;
+
+		/** The number of branches first covered by the test */
+		private final int newGoals;
+
+		/** Insertion order, to break ties */
+		private final long order;
+
+		private boolean targetUncovered;
+
+		private double distance;
+
+		private Candidate(TestCase test, PathCondition pathCondition, int conditionIndex, int newGoals, long order) {
+			this.test = test;
+			this.pathCondition = pathCondition;
+			this.conditionIndex = conditionIndex;
+			this.newGoals = newGoals;
+			this.order = order;
+		}
+
+		private int getBranchIndex() {
+			return pathCondition.get(conditionIndex).getBranchIndex();
+		}
+	}
+
+	private static int compare(Candidate c1, Candidate c2) {
+		if (c1.targetUncovered != c2.targetUncovered)
+			return c1.targetUncovered ? -1 : 1;
+		if (c1.targetUncovered && c1.distance != c2.distance)
+			return Double.compare(c1.distance, c2.distance);
+		if (c1.newGoals != c2.newGoals)
+			return Integer.compare(c2.newGoals, c1.newGoals);
+		return Long.compare(c1.order, c2.order);
+	}
+
+	private final StoppingCondition stoppingCondition;
+
+	private final PriorityQueue<Candidate> worklist = new PriorityQueue<>(11, GenerationalSearch::compare);
+
+	/** Hashes of the path prefixes that were executed or are in the worklist */
+	private final Set<Long> exploredPrefixes = new HashSet<>();
+
+	private final Set<Integer> coveredTrueBranches = new HashSet<>();
+
+	private final Set<Integer> coveredFalseBranches = new HashSet<>();
+
+	/** Tests that covered new branches, and the initial tests */
+	private final List<TestCase> tests = new ArrayList<>();
+
+	private long candidateCount = 0;
+
+	private int skippedCandidates = 0;
+
+	public GenerationalSearch(StoppingCondition stoppingCondition) {
+		this.stoppingCondition = stoppingCondition;
+	}
+
+	/**
+	 * Executes a test from which the search starts. The test is always part
+	 * of the result.
+	 * 
+	 * @param test
+	 *            a test whose primitive values are the symbolic inputs
+	 */
+	public void addInitialTest(TestCase test) {
+		// tests that cover new branches are added by execute
+		if (execute(test, 0) == 0)
+			tests.add(test);
+	}
+
+	/**
+	 * Negates branch conditions until the worklist is empty or the stopping
+	 * condition is reached
+	 * 
+	 * @return the initial tests and all tests that covered new branches
+	 */
+	public List<TestCase> search() {
+		int threads = Properties.DSE_SOLVER_THREADS;
+		ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+		try {
+			while (!worklist.isEmpty() && !stoppingCondition.isFinished()) {
+				List<Candidate> batch = new ArrayList<>(threads);
+				List<List<Constraint<?>>> queries = new ArrayList<>(threads);
+				while (batch.size() < threads) {
+					Candidate candidate = pollCandidate();
+					if (candidate == null)
+						break;
+					List<Constraint<?>> query = DSETestGenerator.buildQuery(candidate.pathCondition,
+							candidate.conditionIndex);
+					if (query.isEmpty())
+						continue;
+					DSEStats.getInstance().reportNewConstraints(query);
+					batch.add(candidate);
+					queries.add(query);
+				}
+
+				SolverResult[] results = solve(queries, executor);
+				for (int i = 0; i < batch.size(); i++) {
+					if (stoppingCondition.isFinished())
+						break;
+					handleResult(batch.get(i), results[i]);
+				}
+			}
+		} finally {
+			if (executor != null)
+				executor.shutdownNow();
+		}
+		logger.info("Generational search finished with {} tests, {} candidates left, {} duplicate prefixes",
+				tests.size(), worklist.size(), skippedCandidates);
+		return tests;
+	}
+
+	/**
+	 * @return the number of branch conditions that still can be negated
+	 */
+	public int getWorklistSize() {
+		return worklist.size();
+	}
+
+	/**
+	 * @return the number of branches covered in either direction
+	 */
+	public int getNumberOfCoveredGoals() {
+		return coveredTrueBranches.size() + coveredFalseBranches.size();
+	}
+
+	/**
+	 * Removes the candidate with the highest priority. Candidates whose
+	 * branch was covered after they were added are moved back.
+	 */
+	private Candidate pollCandidate() {
+		Candidate candidate;
+		while ((candidate = worklist.poll()) != null) {
+			if (candidate.targetUncovered && isCoveredTwoWays(candidate.getBranchIndex())) {
+				candidate.targetUncovered = false;
+				worklist.add(candidate);
+				continue;
+			}
+			return candidate;
+		}
+		return null;
+	}
+
+	private SolverResult[] solve(List<List<Constraint<?>>> queries, ExecutorService executor) {
+		SolverResult[] results = new SolverResult[queries.size()];
+		long[] solvingTimes = new long[queries.size()];
+		if (executor == null || queries.size() == 1) {
+			for (int i = 0; i < queries.size(); i++) {
+				results[i] = solve(queries.get(i), solvingTimes, i);
+			}
+		} else {
+			List<Future<SolverResult>> futures = new ArrayList<>(queries.size());
+			for (int i = 0; i < queries.size(); i++) {
+				final int index = i;
+				// Solvers write to the concrete values of the variables
+				futures.add(executor.submit(
+						() -> IsolatedConcreteValues.call(() -> solve(queries.get(index), solvingTimes, index))));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					results[i] = futures.get(i).get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				} catch (ExecutionException e) {
+					logger.debug("Error while solving query: {}", e.getCause().toString());
+				}
+			}
+		}
+		for (long solvingTime : solvingTimes) {
+			DSEStats.getInstance().reportNewSolvingTime(solvingTime);
+		}
+		return results;
+	}
+
+	private static SolverResult solve(List<Constraint<?>> query, long[] solvingTimes, int index) {
+		Solver solver = SolverFactory.getInstance().buildNewSolver();
+		long startSolvingTime = System.currentTimeMillis();
+		SolverResult result = SolverCache.getInstance().solve(solver, query);
+		solvingTimes[index] = System.currentTimeMillis() - startSolvingTime;
+		return result;
+	}
+
+	private void handleResult(Candidate candidate, SolverResult result) {
+		if (result == null) {
+			logger.debug("Found no result");
+		} else if (result.isUNSAT()) {
+			logger.debug("Found UNSAT result");
+			DSEStats.getInstance().reportNewUNSAT();
+		} else {
+			logger.debug("Found SAT result");
+			DSEStats.getInstance().reportNewSAT();
+			Map<String, Object> model = result.getModel();
+			TestCase newTest = DSETestGenerator.updateTest(candidate.test, model);
+			if (execute(newTest, candidate.conditionIndex + 1) > 0) {
+				DSEStats.getInstance().reportNewTestUseful();
+			} else {
+				DSEStats.getInstance().reportNewTestUnuseful();
+			}
+		}
+	}
+
+	/**
+	 * Executes the test concretely and concolically, and adds the candidates
+	 * from its path condition
+	 * 
+	 * @param test
+	 * @param bound
+	 *            the index of the first branch condition that may be negated
+	 * @return the number of branches first covered by the test
+	 */
+	private int execute(TestCase test, int bound) {
+		ExecutionResult result = TestCaseExecutor.runTest(test);
+		int newGoals = 0;
+		for (Integer branch : result.getTrace().getCoveredTrueBranches()) {
+			if (coveredTrueBranches.add(branch))
+				newGoals++;
+		}
+		for (Integer branch : result.getTrace().getCoveredFalseBranches()) {
+			if (coveredFalseBranches.add(branch))
+				newGoals++;
+		}
+		if (newGoals > 0)
+			tests.add(test);
+
+		List<BranchCondition> branchConditions = ConcolicExecution.executeConcolic((DefaultTestCase) test.clone());
+		PathCondition pathCondition = new PathCondition(branchConditions);
+
+		long prefix = 0;
+		for (int i = 0; i < pathCondition.size(); i++) {
+			BranchCondition condition = pathCondition.get(i);
+			Comparator comparator = condition.getConstraint().getComparator();
+			if (i >= bound) {
+				long negatedPrefix = hash(prefix, condition, comparator.not());
+				if (exploredPrefixes.add(negatedPrefix)) {
+					Candidate candidate = new Candidate(test, pathCondition, i, newGoals, candidateCount++);
+					setPriority(candidate, result);
+					worklist.add(candidate);
+				} else {
+					skippedCandidates++;
+				}
+			}
+			prefix = hash(prefix, condition, comparator);
+			exploredPrefixes.add(prefix);
+		}
+		return newGoals;
+	}
+
+	private void setPriority(Candidate candidate, ExecutionResult result) {
+		int branch = candidate.getBranchIndex();
+		candidate.targetUncovered = !isCoveredTwoWays(branch);
+		if (candidate.targetUncovered) {
+			Map<Integer, Double> distances = coveredTrueBranches.contains(branch)
+					? result.getTrace().getFalseDistances() : result.getTrace().getTrueDistances();
+			Double distance = distances.get(branch);
+			candidate.distance = distance == null ? Double.MAX_VALUE : distance;
+		}
+	}
+
+	private boolean isCoveredTwoWays(int branch) {
+		return coveredTrueBranches.contains(branch) && coveredFalseBranches.contains(branch);
+	}
+
+	private static long hash(long prefix, BranchCondition condition, Comparator comparator) {
+		long hash = prefix;
+		hash = (hash ^ condition.getClassName().hashCode()) * HASH_PRIME;
+		hash = (hash ^ condition.getMethodName().hashCode()) * HASH_PRIME;
+		hash = (hash ^ condition.getBranchIndex()) * HASH_PRIME;
+		hash = (hash ^ comparator.ordinal()) * HASH_PRIME;
+		return hash;
+	}
+}
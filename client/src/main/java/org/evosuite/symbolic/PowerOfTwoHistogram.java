@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic;
+
+/**
+ * Histogram of non-negative values with one bucket per power of two: 0, 1,
+ * 2-3, 4-7, 8-15, ...
+ */
+public class PowerOfTwoHistogram {
+
+	private final long[] counts = new long[Long.SIZE];
+
+	public void add(long value) {
+		counts[getBucket(value)]++;
+	}
+
+	/**
+	 * @param value
+	 * @return 0 for values up to 0, otherwise the number of bits of the value
+	 */
+	public static int getBucket(long value) {
+		if (value <= 0)
+			return 0;
+		return Long.SIZE - Long.numberOfLeadingZeros(value);
+	}
+
+	public long getCount(int bucket) {
+		return counts[bucket];
+	}
+
+	public long getTotalCount() {
+		long total = 0;
+		for (long count : counts) {
+			total += count;
+		}
+		return total;
+	}
+
+	public void clear() {
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = 0;
+		}
+	}
+
+	/**
+	 * @return the non-empty buckets, e.g. <code>0:2 1:5 4-7:1</code>
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int bucket = 0; bucket < counts.length; bucket++) {
+			if (counts[bucket] == 0)
+				continue;
+			if (sb.length() > 0)
+				sb.append(' ');
+			if (bucket <= 1) {
+				sb.append(bucket);
+			} else {
+				long min = 1L << (bucket - 1);
+				long max = (1L << bucket) - 1;
+				sb.append(min).append('-').append(max);
+			}
+			sb.append(':').append(counts[bucket]);
+		}
+		return sb.toString();
+	}
+}
@@ -68,9 +68,15 @@ public abstract class AbstractExpression<T> implements Expression<T> {
 		return containsSymbolicVariable;
 	}
 
-	/** {@inheritDoc} */
+	/**
+	 * While a thread is isolated, the value of a variable can be private to
+	 * the current thread, see {@link IsolatedConcreteValues}
+	 */
 	@Override
+	@SuppressWarnings("unchecked")
 	public final T getConcreteValue() {
+		if (IsolatedConcreteValues.isActive() && this instanceof Variable)
+			return IsolatedConcreteValues.get((Variable<T>) this, concreteValue);
 		return concreteValue;
 	}
 
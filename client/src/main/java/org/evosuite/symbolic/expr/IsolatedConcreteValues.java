@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.expr;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concrete values of variables that are private to a thread.
+ *
+ * <p>
+ * Solvers change the concrete values of the variables of a query while they
+ * search for a solution (e.g., the AVM of the EvoSuite solver, or the check
+ * of a model). Queries that are solved concurrently usually share variables,
+ * as they come from the same path condition. Inside {@link #call(Callable)},
+ * changes to the concrete values of variables are only visible to the
+ * current thread, and are discarded at the end.
+ */
+public final class IsolatedConcreteValues {
+
+	/** Values changed by the current thread, by variable name */
+	private static final ThreadLocal<Map<String, Object>> values = new ThreadLocal<Map<String, Object>>();
+
+	/** Avoids the thread local lookup if no thread is isolated */
+	private static final AtomicInteger isolatedThreads = new AtomicInteger();
+
+	private IsolatedConcreteValues() {
+		/* only static methods */
+	}
+
+	/**
+	 * Calls the task with concrete values that are private to the current
+	 * thread
+	 *
+	 * @param task
+	 * @return the result of the task
+	 * @throws Exception
+	 *             if the task throws an exception
+	 */
+	public static <T> T call(Callable<T> task) throws Exception {
+		if (values.get() != null)
+			return task.call();
+
+		values.set(new HashMap<String, Object>());
+		isolatedThreads.incrementAndGet();
+		try {
+			return task.call();
+		} finally {
+			isolatedThreads.decrementAndGet();
+			values.remove();
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if any thread is inside
+	 *         {@link #call(Callable)}. Otherwise the concrete values of all
+	 *         variables are shared and need no lookup.
+	 */
+	public static boolean isActive() {
+		return isolatedThreads.get() != 0;
+	}
+
+	/**
+	 * @param variable
+	 * @param sharedValue
+	 *            the concrete value stored in the variable
+	 * @return the value of the variable for the current thread
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T get(Variable<T> variable, T sharedValue) {
+		if (isolatedThreads.get() == 0)
+			return sharedValue;
+		Map<String, Object> isolated = values.get();
+		if (isolated == null)
+			return sharedValue;
+		String name = variable.getName();
+		if (!isolated.containsKey(name))
+			return sharedValue;
+		return (T) isolated.get(name);
+	}
+
+	/**
+	 * @param variable
+	 * @param value
+	 * @return <code>true</code> if the value was stored for the current thread
+	 *         only, <code>false</code> if it needs to be stored in the
+	 *         variable
+	 */
+	public static boolean set(Variable<?> variable, Object value) {
+		if (isolatedThreads.get() == 0)
+			return false;
+		Map<String, Object> isolated = values.get();
+		if (isolated == null)
+			return false;
+		isolated.put(variable.getName(), value);
+		return true;
+	}
+}
@@ -24,6 +24,7 @@ import java.util.Set;
 
 import org.evosuite.symbolic.expr.AbstractExpression;
 import org.evosuite.symbolic.expr.ExpressionVisitor;
+import org.evosuite.symbolic.expr.IsolatedConcreteValues;
 import org.evosuite.symbolic.expr.Variable;
 
 public final class IntegerVariable extends AbstractExpression<Long> implements
@@ -67,7 +68,8 @@ public final class IntegerVariable extends AbstractExpression<Long> implements
 	 *            a {@link java.lang.Long} object.
 	 */
 	public void setConcreteValue(Long con) {
-		this.concreteValue = con;
+		if (!IsolatedConcreteValues.set(this, con))
+			this.concreteValue = con;
 	}
 
 	/** {@inheritDoc} */
@@ -91,7 +93,7 @@ public final class IntegerVariable extends AbstractExpression<Long> implements
 	/** {@inheritDoc} */
 	@Override
 	public String toString() {
-		return this.name + "(" + concreteValue + ")";
+		return this.name + "(" + getConcreteValue() + ")";
 	}
 
 	/** {@inheritDoc} */
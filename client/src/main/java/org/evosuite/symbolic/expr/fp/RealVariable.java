@@ -24,6 +24,7 @@ import java.util.Set;
 
 import org.evosuite.symbolic.expr.AbstractExpression;
 import org.evosuite.symbolic.expr.ExpressionVisitor;
+import org.evosuite.symbolic.expr.IsolatedConcreteValues;
 import org.evosuite.symbolic.expr.Variable;
 
 public final class RealVariable extends AbstractExpression<Double> implements RealValue,
@@ -64,7 +65,8 @@ public final class RealVariable extends AbstractExpression<Double> implements Re
 	 *            a double.
 	 */
 	public final void setConcreteValue(double conV) {
-		this.concreteValue = conV;
+		if (!IsolatedConcreteValues.set(this, conV))
+			this.concreteValue = conV;
 	}
 
 	/** {@inheritDoc} */
@@ -88,7 +90,7 @@ public final class RealVariable extends AbstractExpression<Double> implements Re
 	/** {@inheritDoc} */
 	@Override
 	public String toString() {
-		return this.name + "(" + concreteValue + ")";
+		return this.name + "(" + getConcreteValue() + ")";
 	}
 
 	/** {@inheritDoc} */
@@ -27,6 +27,7 @@ import java.util.Set;
 
 import org.evosuite.symbolic.expr.AbstractExpression;
 import org.evosuite.symbolic.expr.ExpressionVisitor;
+import org.evosuite.symbolic.expr.IsolatedConcreteValues;
 import org.evosuite.symbolic.expr.Variable;
 
 /**
@@ -74,7 +75,8 @@ public final class StringVariable extends AbstractExpression<String> implements
 	 *            the concValue to set
 	 */
 	public void setConcreteValue(String concValue) {
-		this.concreteValue = concValue;
+		if (!IsolatedConcreteValues.set(this, concValue))
+			this.concreteValue = concValue;
 	}
 
 	/*
@@ -122,7 +124,7 @@ public final class StringVariable extends AbstractExpression<String> implements
 	/** {@inheritDoc} */
 	@Override
 	public String toString() {
-		String asciiPrintableString = removeNonAsciiPrintable(concreteValue);
+		String asciiPrintableString = removeNonAsciiPrintable(getConcreteValue());
 		return name + "(\"" + asciiPrintableString.replace("\n", "").replace(" ", "")
 		        + "\")";
 	}
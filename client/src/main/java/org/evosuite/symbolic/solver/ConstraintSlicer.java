@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Variable;
+
+/**
+ * Computes the slice of a query that the last constraint (usually the
+ * negated branch condition) depends on.
+ *
+ * <p>
+ * Two constraints depend on each other if they share a variable, directly or
+ * through other constraints. The constraints are partitioned into
+ * independent sets with a union-find over their variables, and only the set
+ * of the last constraint is sent to the solver. The other constraints are
+ * satisfied by the concrete values of the execution the path condition was
+ * collected from, and the solver never changes these values, as they do not
+ * appear in its model. Slicing makes queries smaller, and queries that only
+ * differ in independent constraints share the same entry in the
+ * {@link SolverCache}.
+ */
+public final class ConstraintSlicer {
+
+	private ConstraintSlicer() {
+		/* only static methods */
+	}
+
+	/**
+	 * @param constraints
+	 * @return the constraints the last constraint depends on, including the
+	 *         last constraint, in their original order. The slice is empty if
+	 *         the last constraint has no variables.
+	 */
+	public static List<Constraint<?>> slice(List<Constraint<?>> constraints) {
+		List<Constraint<?>> slice = new ArrayList<Constraint<?>>();
+		if (constraints.isEmpty())
+			return slice;
+
+		Map<String, Integer> ids = new HashMap<String, Integer>();
+		int[][] variables = new int[constraints.size()][];
+		for (int i = 0; i < constraints.size(); i++) {
+			Set<Variable<?>> constraintVariables = constraints.get(i).getVariables();
+			int[] constraintIds = new int[constraintVariables.size()];
+			int j = 0;
+			for (Variable<?> variable : constraintVariables) {
+				Integer id = ids.get(variable.getName());
+				if (id == null) {
+					id = ids.size();
+					ids.put(variable.getName(), id);
+				}
+				constraintIds[j++] = id;
+			}
+			variables[i] = constraintIds;
+		}
+
+		int[] targetIds = variables[constraints.size() - 1];
+		if (targetIds.length == 0)
+			return slice;
+
+		UnionFind unionFind = new UnionFind(ids.size());
+		for (int[] constraintIds : variables) {
+			for (int j = 1; j < constraintIds.length; j++) {
+				unionFind.union(constraintIds[0], constraintIds[j]);
+			}
+		}
+
+		int target = unionFind.find(targetIds[0]);
+		for (int i = 0; i < constraints.size(); i++) {
+			if (variables[i].length > 0 && unionFind.find(variables[i][0]) == target)
+				slice.add(constraints.get(i));
+		}
+		return slice;
+	}
+
+	/**
+	 * Union by size with path halving
+	 */
+	private static final class UnionFind {
+
+		private final int[] parent;
+
+		private final int[] size;
+
+		private UnionFind(int n) {
+			parent = new int[n];
+			size = new int[n];
+			for (int i = 0; i < n; i++) {
+				parent[i] = i;
+				size[i] = 1;
+			}
+		}
+
+		private int find(int x) {
+			while (parent[x] != x) {
+				parent[x] = parent[parent[x]];
+				x = parent[x];
+			}
+			return x;
+		}
+
+		private void union(int x, int y) {
+			int rootX = find(x);
+			int rootY = find(y);
+			if (rootX == rootY)
+				return;
+			if (size[rootX] < size[rootY]) {
+				int tmp = rootX;
+				rootX = rootY;
+				rootY = tmp;
+			}
+			parent[rootY] = rootX;
+			size[rootX] += size[rootY];
+		}
+	}
+}
@@ -0,0 +1,325 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An SMT-LIB solver process that is kept alive between queries.
+ *
+ * Each assertion of a query is asserted in its own push level. When the next
+ * query starts with the same assertions, only the levels after the shared
+ * prefix are popped, so the solver keeps what it learned about the prefix.
+ * Declarations are made at the first level that is new, and re-made after
+ * they were popped.
+ *
+ * The end of the output of each command is recognized by an echo command
+ * following it. If the solver does not answer in time, the process is killed
+ * and a new one is started on the next query. A caller that is interrupted
+ * (e.g., because another solver answered first) still waits for the output of
+ * its query, so that the process can be reused, and keeps its interrupt
+ * status.
+ */
+public final class IncrementalSolverProcess {
+
+	private static final Logger logger = LoggerFactory.getLogger(IncrementalSolverProcess.class);
+
+	private static final String END_MARKER = "evosuite-end-of-output";
+
+	/** Put in the output queue at the end of the stream, compared by identity */
+	private static final String END_OF_STREAM = new String("end of stream");
+
+	/** Additional time the solver may take beyond its own timeout */
+	private static final long GRACE_PERIOD_MILLIS = 1000;
+
+	private static final Map<String, IncrementalSolverProcess> processes = new HashMap<String, IncrementalSolverProcess>();
+
+	/**
+	 * @param command
+	 *            the command line starting the solver in incremental mode
+	 *            reading from stdin
+	 * @param preamble
+	 *            commands sent once after the solver was started (e.g.,
+	 *            set-logic)
+	 * @return the process for this command, started on first use
+	 */
+	public static synchronized IncrementalSolverProcess getInstance(String command, String preamble) {
+		String key = command + "\n" + preamble;
+		IncrementalSolverProcess process = processes.get(key);
+		if (process == null) {
+			process = new IncrementalSolverProcess(command, preamble);
+			processes.put(key, process);
+		}
+		return process;
+	}
+
+	/**
+	 * Terminate all solver processes
+	 */
+	public static synchronized void shutdownAll() {
+		for (IncrementalSolverProcess process : processes.values()) {
+			process.kill();
+		}
+		processes.clear();
+	}
+
+	private static final class Level {
+
+		final String assertion;
+
+		final List<String> declaredNames = new ArrayList<String>();
+
+		Level(String assertion) {
+			this.assertion = assertion;
+		}
+	}
+
+	private final String command;
+
+	private final String preamble;
+
+	private Process process = null;
+
+	private Writer stdin = null;
+
+	private BlockingQueue<String> stdout = null;
+
+	private final List<Level> levels = new ArrayList<Level>();
+
+	/** Declarations of the current levels, by declared name */
+	private final Map<String, String> declared = new HashMap<String, String>();
+
+	private int numberOfQueries = 0;
+
+	private int numberOfReusedAssertions = 0;
+
+	private IncrementalSolverProcess(String command, String preamble) {
+		this.command = command;
+		this.preamble = preamble;
+	}
+
+	/**
+	 * Check the satisfiability of the conjunction of the assertions
+	 *
+	 * @param options
+	 *            commands sent before the query (e.g., a timeout)
+	 * @param declarations
+	 *            declaration commands by declared name, in the order in which
+	 *            they have to be sent
+	 * @param assertions
+	 *            the assert commands
+	 * @param timeoutMillis
+	 *            time after which the process is killed
+	 * @return the output of the solver for check-sat, followed by the output
+	 *         of get-model if the result was sat
+	 */
+	public synchronized String checkSat(List<String> options, Map<String, String> declarations,
+	        List<String> assertions, long timeoutMillis) throws IOException, SolverTimeoutException,
+	        SolverErrorException {
+		long deadline = System.currentTimeMillis() + timeoutMillis + GRACE_PERIOD_MILLIS;
+		if (process == null)
+			start(deadline);
+
+		int common = getSharedPrefixLength(declarations, assertions);
+		numberOfQueries++;
+		numberOfReusedAssertions += common;
+
+		StringBuilder commands = new StringBuilder();
+		if (common < levels.size()) {
+			commands.append("(pop ").append(levels.size() - common).append(")\n");
+			while (levels.size() > common) {
+				Level level = levels.remove(levels.size() - 1);
+				for (String name : level.declaredNames)
+					declared.remove(name);
+			}
+		}
+		for (String option : options) {
+			commands.append(option).append('\n');
+		}
+		for (int i = common; i < assertions.size(); i++) {
+			Level level = new Level(assertions.get(i));
+			commands.append("(push 1)\n");
+			if (i == common) {
+				for (Map.Entry<String, String> declaration : declarations.entrySet()) {
+					if (!declared.containsKey(declaration.getKey())) {
+						commands.append(declaration.getValue()).append('\n');
+						declared.put(declaration.getKey(), declaration.getValue());
+						level.declaredNames.add(declaration.getKey());
+					}
+				}
+			}
+			commands.append(level.assertion).append('\n');
+			levels.add(level);
+		}
+		send(commands.toString(), deadline);
+
+		String result = send("(check-sat)\n", deadline).trim();
+		if (result.equals("sat")) {
+			String model = send("(get-model)\n", deadline);
+			return result + "\n" + model;
+		}
+		return result + "\n";
+	}
+
+	/**
+	 * Length of the prefix of the assertions that is already asserted, with
+	 * the same declarations
+	 */
+	private int getSharedPrefixLength(Map<String, String> declarations, List<String> assertions) {
+		int common = 0;
+		while (common < levels.size() && common < assertions.size()) {
+			Level level = levels.get(common);
+			if (!level.assertion.equals(assertions.get(common)))
+				break;
+			boolean sameDeclarations = true;
+			for (String name : level.declaredNames) {
+				String declaration = declarations.get(name);
+				if (declaration != null && !declaration.equals(declared.get(name))) {
+					sameDeclarations = false;
+					break;
+				}
+			}
+			if (!sameDeclarations)
+				break;
+			common++;
+		}
+		return common;
+	}
+
+	public int getNumberOfQueries() {
+		return numberOfQueries;
+	}
+
+	/**
+	 * @return number of assertions that were not sent again, because they were
+	 *         part of the prefix shared with the previous query
+	 */
+	public int getNumberOfReusedAssertions() {
+		return numberOfReusedAssertions;
+	}
+
+	private void start(long deadline) throws IOException, SolverTimeoutException, SolverErrorException {
+		logger.debug("Starting solver process {}", command);
+		ProcessBuilder builder = new ProcessBuilder(command.trim().split("\\s+"));
+		builder.redirectErrorStream(true);
+		process = builder.start();
+		stdin = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+
+		final BufferedReader reader = new BufferedReader(
+		        new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+		final BlockingQueue<String> lines = new LinkedBlockingQueue<String>();
+		stdout = lines;
+		Thread pump = new Thread("SolverOutputReader") {
+			@Override
+			public void run() {
+				try {
+					String line;
+					while ((line = reader.readLine()) != null) {
+						lines.add(line);
+					}
+				} catch (IOException e) {
+					// process was killed
+				}
+				lines.add(END_OF_STREAM);
+			}
+		};
+		pump.setDaemon(true);
+		pump.start();
+
+		send(preamble, deadline);
+	}
+
+	/**
+	 * Send commands and collect the output they produce
+	 */
+	private String send(String commands, long deadline) throws IOException, SolverTimeoutException,
+	        SolverErrorException {
+		try {
+			stdin.write(commands);
+			stdin.write("(echo \"" + END_MARKER + "\")\n");
+			stdin.flush();
+		} catch (IOException e) {
+			kill();
+			throw e;
+		}
+
+		StringBuilder output = new StringBuilder();
+		boolean interrupted = false;
+		try {
+			while (true) {
+				String line;
+				try {
+					long remaining = deadline - System.currentTimeMillis();
+					line = remaining > 0 ? stdout.poll(remaining, TimeUnit.MILLISECONDS) : null;
+				} catch (InterruptedException e) {
+					interrupted = true;
+					continue;
+				}
+				if (line == null) {
+					logger.debug("Solver did not answer in time, killing it");
+					kill();
+					throw new SolverTimeoutException();
+				}
+				if (line == END_OF_STREAM) {
+					kill();
+					throw new IOException("Solver process terminated");
+				}
+				String trimmed = line.trim();
+				if (trimmed.equals(END_MARKER) || trimmed.equals("\"" + END_MARKER + "\""))
+					break;
+				if (trimmed.startsWith("(error")) {
+					kill();
+					throw new SolverErrorException("Solver reported an error: " + trimmed);
+				}
+				output.append(line).append('\n');
+			}
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+		return output.toString();
+	}
+
+	private void kill() {
+		if (process != null) {
+			process.destroy();
+		}
+		process = null;
+		stdin = null;
+		stdout = null;
+		levels.clear();
+		declared.clear();
+	}
+}
@@ -0,0 +1,546 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.evosuite.symbolic.expr.BinaryExpression;
+import org.evosuite.symbolic.expr.Cast;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Expression;
+import org.evosuite.symbolic.expr.ExpressionVisitor;
+import org.evosuite.symbolic.expr.MultipleExpression;
+import org.evosuite.symbolic.expr.UnaryExpression;
+import org.evosuite.symbolic.expr.Variable;
+import org.evosuite.symbolic.expr.bv.IntegerBinaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerComparison;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerUnaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.expr.bv.RealComparison;
+import org.evosuite.symbolic.expr.bv.RealToIntegerCast;
+import org.evosuite.symbolic.expr.bv.RealUnaryToIntegerExpression;
+import org.evosuite.symbolic.expr.bv.StringBinaryComparison;
+import org.evosuite.symbolic.expr.bv.StringBinaryToIntegerExpression;
+import org.evosuite.symbolic.expr.bv.StringMultipleComparison;
+import org.evosuite.symbolic.expr.bv.StringMultipleToIntegerExpression;
+import org.evosuite.symbolic.expr.bv.StringToIntegerCast;
+import org.evosuite.symbolic.expr.bv.StringUnaryToIntegerExpression;
+import org.evosuite.symbolic.expr.fp.IntegerToRealCast;
+import org.evosuite.symbolic.expr.fp.RealBinaryExpression;
+import org.evosuite.symbolic.expr.fp.RealConstant;
+import org.evosuite.symbolic.expr.fp.RealUnaryExpression;
+import org.evosuite.symbolic.expr.fp.RealVariable;
+import org.evosuite.symbolic.expr.reader.StringReaderExpr;
+import org.evosuite.symbolic.expr.ref.GetFieldExpression;
+import org.evosuite.symbolic.expr.ref.ReferenceConstant;
+import org.evosuite.symbolic.expr.ref.ReferenceVariable;
+import org.evosuite.symbolic.expr.str.IntegerToStringCast;
+import org.evosuite.symbolic.expr.str.RealToStringCast;
+import org.evosuite.symbolic.expr.str.StringBinaryExpression;
+import org.evosuite.symbolic.expr.str.StringConstant;
+import org.evosuite.symbolic.expr.str.StringMultipleExpression;
+import org.evosuite.symbolic.expr.str.StringUnaryExpression;
+import org.evosuite.symbolic.expr.str.StringVariable;
+import org.evosuite.symbolic.expr.token.HasMoreTokensExpr;
+import org.evosuite.symbolic.expr.token.NewTokenizerExpr;
+import org.evosuite.symbolic.expr.token.NextTokenizerExpr;
+import org.evosuite.symbolic.expr.token.StringNextTokenExpr;
+import org.evosuite.symbolic.expr.token.TokenizerExpr;
+
+/**
+ * Canonical form of a conjunction of constraints, used as key of the
+ * {@link SolverCache}.
+ *
+ * The constraints are printed to an unambiguous textual form, duplicates are
+ * removed, and they are sorted by their form with all variable names erased.
+ * Variables are then renamed to v0, v1, ... in order of their first
+ * occurrence, so that two conjunctions that only differ in the order of
+ * the constraints or in the names of the variables usually get the same key.
+ * Two conjunctions with the same key are always equivalent up to renaming.
+ */
+final class NormalizedConstraints {
+
+	private final String key;
+
+	/** Original variable name to canonical variable name */
+	private final Map<String, String> renaming;
+
+	/** The conjuncts with the original variable names */
+	private final Set<String> conjuncts;
+
+	/** False if the constraints refer to objects of the current JVM */
+	private final boolean persistable;
+
+	private NormalizedConstraints(String key, Map<String, String> renaming, Set<String> conjuncts,
+	        boolean persistable) {
+		this.key = key;
+		this.renaming = renaming;
+		this.conjuncts = conjuncts;
+		this.persistable = persistable;
+	}
+
+	public static NormalizedConstraints normalize(Collection<Constraint<?>> constraints) {
+		// Print with original names, which also removes duplicates
+		Printer original = new Printer(Printer.ORIGINAL);
+		Map<String, Constraint<?>> distinct = new HashMap<String, Constraint<?>>();
+		Set<String> conjuncts = new LinkedHashSet<String>();
+		for (Constraint<?> constraint : constraints) {
+			String conjunct = original.print(constraint);
+			if (conjuncts.add(conjunct))
+				distinct.put(conjunct, constraint);
+		}
+
+		// Sort by shape, ties are broken by the original form, which is
+		// deterministic but not independent of the variable names
+		final Printer anonymous = new Printer(Printer.ANONYMOUS);
+		final Map<String, String> shapes = new HashMap<String, String>();
+		List<String> sorted = new ArrayList<String>(conjuncts);
+		for (String conjunct : sorted) {
+			shapes.put(conjunct, anonymous.print(distinct.get(conjunct)));
+		}
+		Collections.sort(sorted, (c1, c2) -> {
+			int result = shapes.get(c1).compareTo(shapes.get(c2));
+			return result != 0 ? result : c1.compareTo(c2);
+		});
+
+		Printer canonical = new Printer(Printer.CANONICAL);
+		StringBuilder key = new StringBuilder();
+		for (String conjunct : sorted) {
+			if (key.length() > 0)
+				key.append(" && ");
+			key.append(canonical.print(distinct.get(conjunct)));
+		}
+
+		return new NormalizedConstraints(key.toString(), canonical.renaming,
+		        Collections.unmodifiableSet(conjuncts), original.persistable);
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public Set<String> getConjuncts() {
+		return conjuncts;
+	}
+
+	public boolean isPersistable() {
+		return persistable;
+	}
+
+	/**
+	 * Rename the variables of a model of the original constraints to the
+	 * canonical names. Values of unknown variables are dropped.
+	 */
+	public Map<String, Object> toCanonicalModel(Map<String, Object> model) {
+		Map<String, Object> result = new HashMap<String, Object>();
+		for (Map.Entry<String, Object> entry : model.entrySet()) {
+			String name = renaming.get(entry.getKey());
+			if (name != null)
+				result.put(name, entry.getValue());
+		}
+		return result;
+	}
+
+	/**
+	 * Rename the variables of a model of the canonical constraints to the
+	 * original names
+	 */
+	public Map<String, Object> toOriginalModel(Map<String, Object> canonicalModel) {
+		Map<String, Object> result = new HashMap<String, Object>();
+		for (Map.Entry<String, String> entry : renaming.entrySet()) {
+			if (canonicalModel.containsKey(entry.getValue()))
+				result.put(entry.getKey(), canonicalModel.get(entry.getValue()));
+		}
+		return result;
+	}
+
+	/**
+	 * Appends a string literal that can be read back by
+	 * {@link #unescape(String)} and contains no whitespace other than blanks
+	 */
+	static void escape(String value, StringBuilder buffer) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '\\':
+				buffer.append("\\\\");
+				break;
+			case '"':
+				buffer.append("\\\"");
+				break;
+			case '\n':
+				buffer.append("\\n");
+				break;
+			case '\r':
+				buffer.append("\\r");
+				break;
+			case '\t':
+				buffer.append("\\t");
+				break;
+			default:
+				buffer.append(c);
+			}
+		}
+	}
+
+	static String unescape(String value) {
+		StringBuilder buffer = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '\\' && i + 1 < value.length()) {
+				char next = value.charAt(++i);
+				switch (next) {
+				case 'n':
+					buffer.append('\n');
+					break;
+				case 'r':
+					buffer.append('\r');
+					break;
+				case 't':
+					buffer.append('\t');
+					break;
+				default:
+					buffer.append(next);
+				}
+			} else {
+				buffer.append(c);
+			}
+		}
+		return buffer.toString();
+	}
+
+	/**
+	 * Prints expressions in prefix notation, distinguishing all node types,
+	 * operators and constants
+	 */
+	private static final class Printer implements ExpressionVisitor<Void, StringBuilder> {
+
+		static final int ORIGINAL = 0;
+
+		static final int ANONYMOUS = 1;
+
+		static final int CANONICAL = 2;
+
+		private final int mode;
+
+		final Map<String, String> renaming = new HashMap<String, String>();
+
+		boolean persistable = true;
+
+		Printer(int mode) {
+			this.mode = mode;
+		}
+
+		String print(Constraint<?> constraint) {
+			StringBuilder buffer = new StringBuilder();
+			buffer.append('(').append(constraint.getClass().getSimpleName()).append(' ');
+			buffer.append(constraint.getComparator().name()).append(' ');
+			constraint.getLeftOperand().accept(this, buffer);
+			buffer.append(' ');
+			constraint.getRightOperand().accept(this, buffer);
+			buffer.append(')');
+			return buffer.toString();
+		}
+
+		private void variable(String type, Variable<?> variable, StringBuilder buffer) {
+			buffer.append('(').append(type).append(' ');
+			switch (mode) {
+			case ANONYMOUS:
+				buffer.append('_');
+				break;
+			case CANONICAL:
+				String name = renaming.get(variable.getName());
+				if (name == null) {
+					name = "v" + renaming.size();
+					renaming.put(variable.getName(), name);
+				}
+				buffer.append(name);
+				break;
+			default:
+				buffer.append('"');
+				escape(variable.getName(), buffer);
+				buffer.append('"');
+			}
+			if (variable instanceof ReferenceVariable) {
+				// The bounds are the concrete object
+				buffer.append(' ').append(((ReferenceVariable) variable).getClassName());
+			} else {
+				buffer.append(' ');
+				constant(variable.getMinValue(), buffer);
+				buffer.append(' ');
+				constant(variable.getMaxValue(), buffer);
+			}
+			buffer.append(')');
+		}
+
+		private void constant(Object value, StringBuilder buffer) {
+			if (value instanceof String) {
+				buffer.append('"');
+				escape((String) value, buffer);
+				buffer.append('"');
+			} else {
+				buffer.append(value);
+			}
+		}
+
+		private void node(String name, StringBuilder buffer, Expression<?>... children) {
+			buffer.append('(').append(name);
+			for (Expression<?> child : children) {
+				buffer.append(' ');
+				if (child == null)
+					buffer.append("null");
+				else
+					child.accept(this, buffer);
+			}
+			buffer.append(')');
+		}
+
+		private Void binary(Expression<?> n, BinaryExpression<?> e, StringBuilder buffer) {
+			node(n.getClass().getSimpleName() + " " + e.getOperator().name(), buffer,
+			     e.getLeftOperand(), e.getRightOperand());
+			return null;
+		}
+
+		private Void unary(Expression<?> n, UnaryExpression<?> e, StringBuilder buffer) {
+			node(n.getClass().getSimpleName() + " " + e.getOperator().name(), buffer,
+			     e.getOperand());
+			return null;
+		}
+
+		private Void cast(Expression<?> n, Cast<?> e, StringBuilder buffer) {
+			node(n.getClass().getSimpleName(), buffer, e.getArgument());
+			return null;
+		}
+
+		private Void multiple(Expression<?> n, MultipleExpression<?> e, StringBuilder buffer) {
+			List<Expression<?>> children = new ArrayList<Expression<?>>();
+			children.add(e.getLeftOperand());
+			children.add(e.getRightOperand());
+			children.addAll(e.getOther());
+			node(n.getClass().getSimpleName() + " " + e.getOperator().name(), buffer,
+			     children.toArray(new Expression<?>[children.size()]));
+			return null;
+		}
+
+		private Void tokenizer(Expression<?> n, TokenizerExpr tokenizer, StringBuilder buffer) {
+			node(n.getClass().getSimpleName() + " " + tokenizer.getNextTokenCount(), buffer,
+			     tokenizer.getString(), tokenizer.getDelimiter());
+			return null;
+		}
+
+		@Override
+		public Void visit(IntegerBinaryExpression n, StringBuilder arg) {
+			return binary(n, n, arg);
+		}
+
+		@Override
+		public Void visit(IntegerComparison n, StringBuilder arg) {
+			node("IntegerComparison", arg, n.getLeftOperant(), n.getRightOperant());
+			return null;
+		}
+
+		@Override
+		public Void visit(IntegerConstant n, StringBuilder arg) {
+			arg.append(n.getConcreteValue());
+			return null;
+		}
+
+		@Override
+		public Void visit(IntegerUnaryExpression n, StringBuilder arg) {
+			return unary(n, n, arg);
+		}
+
+		@Override
+		public Void visit(IntegerVariable n, StringBuilder arg) {
+			variable("I", n, arg);
+			return null;
+		}
+
+		@Override
+		public Void visit(RealComparison n, StringBuilder arg) {
+			node("RealComparison", arg, n.getLeftOperant(), n.getRightOperant());
+			return null;
+		}
+
+		@Override
+		public Void visit(RealToIntegerCast n, StringBuilder arg) {
+			return cast(n, n, arg);
+		}
+
+		@Override
+		public Void visit(RealUnaryToIntegerExpression n, StringBuilder arg) {
+			return unary(n, n, arg);
+		}
+
+		@Override
+		public Void visit(StringBinaryComparison n, StringBuilder arg) {
+			node("StringBinaryComparison " + n.getOperator().name(), arg, n.getLeftOperand(),
+			     n.getRightOperand());
+			return null;
+		}
+
+		@Override
+		public Void visit(StringBinaryToIntegerExpression n, StringBuilder arg) {
+			return binary(n, n, arg);
+		}
+
+		@Override
+		public Void visit(StringMultipleComparison n, StringBuilder arg) {
+			return multiple(n, n, arg);
+		}
+
+		@Override
+		public Void visit(StringMultipleToIntegerExpression n, StringBuilder arg) {
+			return multiple(n, n, arg);
+		}
+
+		@Override
+		public Void visit(StringToIntegerCast n, StringBuilder arg) {
+			return cast(n, n, arg);
+		}
+
+		@Override
+		public Void visit(StringUnaryToIntegerExpression n, StringBuilder arg) {
+			return unary(n, n, arg);
+		}
+
+		@Override
+		public Void visit(IntegerToRealCast n, StringBuilder arg) {
+			return cast(n, n, arg);
+		}
+
+		@Override
+		public Void visit(RealBinaryExpression n, StringBuilder arg) {
+			return binary(n, n, arg);
+		}
+
+		@Override
+		public Void visit(RealConstant n, StringBuilder arg) {
+			arg.append(n.getConcreteValue());
+			return null;
+		}
+
+		@Override
+		public Void visit(RealUnaryExpression n, StringBuilder arg) {
+			return unary(n, n, arg);
+		}
+
+		@Override
+		public Void visit(RealVariable n, StringBuilder arg) {
+			variable("R", n, arg);
+			return null;
+		}
+
+		@Override
+		public Void visit(StringReaderExpr n, StringBuilder arg) {
+			node("StringReaderExpr " + n.getReaderPosition(), arg, n.getString());
+			return null;
+		}
+
+		@Override
+		public Void visit(IntegerToStringCast n, StringBuilder arg) {
+			return cast(n, n, arg);
+		}
+
+		@Override
+		public Void visit(RealToStringCast n, StringBuilder arg) {
+			return cast(n, n, arg);
+		}
+
+		@Override
+		public Void visit(StringBinaryExpression n, StringBuilder arg) {
+			return binary(n, n, arg);
+		}
+
+		@Override
+		public Void visit(StringConstant n, StringBuilder arg) {
+			constant(n.getConcreteValue(), arg);
+			return null;
+		}
+
+		@Override
+		public Void visit(StringMultipleExpression n, StringBuilder arg) {
+			return multiple(n, n, arg);
+		}
+
+		@Override
+		public Void visit(StringUnaryExpression n, StringBuilder arg) {
+			return unary(n, n, arg);
+		}
+
+		@Override
+		public Void visit(StringVariable n, StringBuilder arg) {
+			variable("S", n, arg);
+			return null;
+		}
+
+		@Override
+		public Void visit(HasMoreTokensExpr n, StringBuilder arg) {
+			node("HasMoreTokensExpr", arg, n.getTokenizerExpr());
+			return null;
+		}
+
+		@Override
+		public Void visit(NewTokenizerExpr n, StringBuilder arg) {
+			return tokenizer(n, n, arg);
+		}
+
+		@Override
+		public Void visit(NextTokenizerExpr n, StringBuilder arg) {
+			return tokenizer(n, n, arg);
+		}
+
+		@Override
+		public Void visit(StringNextTokenExpr n, StringBuilder arg) {
+			node("StringNextTokenExpr", arg, n.getTokenizerExpr());
+			return null;
+		}
+
+		@Override
+		public Void visit(ReferenceConstant r, StringBuilder arg) {
+			// Identity hash codes are only meaningful within this JVM
+			persistable = false;
+			arg.append("(ReferenceConstant ").append(r.getClassName()).append(' ')
+			        .append(r.getConcIdentityHashCode()).append(')');
+			return null;
+		}
+
+		@Override
+		public Void visit(ReferenceVariable r, StringBuilder arg) {
+			persistable = false;
+			variable("O", r, arg);
+			return null;
+		}
+
+		@Override
+		public Void visit(GetFieldExpression r, StringBuilder arg) {
+			node("GetFieldExpression " + r.getFieldName(), arg, r.getReceiverExpr());
+			return null;
+		}
+	}
+}
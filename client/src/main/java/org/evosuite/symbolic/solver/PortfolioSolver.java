@@ -0,0 +1,268 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import org.evosuite.Properties;
+import org.evosuite.Properties.SolverType;
+import org.evosuite.symbolic.ConstraintTypeCounter;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.IsolatedConcreteValues;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs several solvers concurrently on the same query and returns the first
+ * SAT or proven UNSAT result. An UNSAT result of a solver that just gave up
+ * (see {@link SolverResult#isIncomplete()}) does not win, it is only returned
+ * if no other solver finds a result. The AVM of the other solvers is cancelled by
+ * interrupting its thread. External solvers are not interrupted, as their
+ * process would have to be restarted (see {@link IncrementalSolverProcess}),
+ * and their result is ignored.
+ *
+ * <p>
+ * Each solver works on concrete values of the variables that are private to
+ * its thread (see {@link IsolatedConcreteValues}), so that the AVM of one
+ * solver does not interfere with the model check of another.
+ *
+ * <p>
+ * The winner of each race is recorded per combination of integer, real and
+ * string constraints in the query (see {@link ConstraintTypeCounter}). After
+ * {@link Properties#DSE_PORTFOLIO_ROUTING_RACES} races on a combination,
+ * queries with that combination are only given to the solver that won most
+ * often. If that solver fails, all solvers race again.
+ */
+public class PortfolioSolver extends Solver {
+
+	private static final Logger logger = LoggerFactory.getLogger(PortfolioSolver.class);
+
+	/** Shared by all portfolios, threads are only kept while they are used */
+	private static final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "PortfolioSolver");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/** Races by key of constraint types */
+	private static final long[] races = new long[ConstraintTypeCounter.NUMBER_OF_KEYS];
+
+	/** Wins by key of constraint types and solver */
+	private static final long[][] wins = new long[ConstraintTypeCounter.NUMBER_OF_KEYS][SolverType.values().length];
+
+	private static final class Answer {
+
+		private final SolverType solverType;
+
+		private final SolverResult result;
+
+		private Answer(SolverType solverType, SolverResult result) {
+			this.solverType = solverType;
+			this.result = result;
+		}
+	}
+
+	private final List<SolverType> solverTypes;
+
+	private final Function<SolverType, Solver> solverFactory;
+
+	/**
+	 * @param solverTypes
+	 *            the solvers to run. External solvers whose path is not set
+	 *            are skipped.
+	 */
+	public PortfolioSolver(Collection<SolverType> solverTypes) {
+		this(getAvailableSolvers(solverTypes), solverType -> SolverFactory.getInstance().buildNewSolver(solverType));
+	}
+
+	/**
+	 * Only used for testing
+	 */
+	PortfolioSolver(List<SolverType> solverTypes, Function<SolverType, Solver> solverFactory) {
+		if (solverTypes.isEmpty())
+			throw new IllegalArgumentException("A portfolio needs at least one solver");
+		this.solverTypes = solverTypes;
+		this.solverFactory = solverFactory;
+	}
+
+	private static List<SolverType> getAvailableSolvers(Collection<SolverType> solverTypes) {
+		List<SolverType> available = new ArrayList<SolverType>();
+		for (SolverType solverType : solverTypes) {
+			if (available.contains(solverType) || !isAvailable(solverType))
+				continue;
+			available.add(solverType);
+		}
+		if (available.isEmpty()) {
+			logger.warn("No solver of the portfolio is available, using the EvoSuite solver");
+			available.add(SolverType.EVOSUITE_SOLVER);
+		}
+		return available;
+	}
+
+	private static boolean isAvailable(SolverType solverType) {
+		switch (solverType) {
+		case Z3_SOLVER:
+			return Properties.Z3_PATH != null;
+		case Z3_STR2_SOLVER:
+			return Properties.Z3_STR2_PATH != null;
+		case CVC4_SOLVER:
+			return Properties.CVC4_PATH != null;
+		case PORTFOLIO_SOLVER:
+			return false;
+		default:
+			return true;
+		}
+	}
+
+	@Override
+	public SolverResult solve(Collection<Constraint<?>> constraints) throws SolverTimeoutException, IOException,
+			SolverParseException, SolverEmptyQueryException, SolverErrorException {
+
+		int key = ConstraintTypeCounter.getKey(constraints);
+		SolverType route = getRoute(key, solverTypes);
+		if (route != null) {
+			try {
+				SolverResult result = solverFactory.apply(route).solve(constraints);
+				if (!result.isIncomplete())
+					return result;
+				logger.debug("{} gave up on a routed query, racing all solvers", route);
+			} catch (SolverTimeoutException | IOException | SolverParseException | SolverErrorException e) {
+				logger.debug("{} failed on a routed query, racing all solvers: {}", route, e.toString());
+			}
+		}
+
+		if (solverTypes.size() == 1) {
+			return solverFactory.apply(solverTypes.get(0)).solve(constraints);
+		}
+		return race(constraints, key);
+	}
+
+	private SolverResult race(Collection<Constraint<?>> constraints, int key) throws SolverTimeoutException,
+			IOException, SolverParseException, SolverEmptyQueryException, SolverErrorException {
+
+		CompletionService<Answer> completionService = new ExecutorCompletionService<Answer>(executor);
+		List<Future<Answer>> futures = new ArrayList<Future<Answer>>(solverTypes.size());
+		for (SolverType solverType : solverTypes) {
+			futures.add(completionService.submit(() -> IsolatedConcreteValues.call(
+					() -> new Answer(solverType, solverFactory.apply(solverType).solve(constraints)))));
+		}
+
+		SolverResult incompleteResult = null;
+		Throwable failure = null;
+		try {
+			for (int i = 0; i < futures.size(); i++) {
+				Future<Answer> future = completionService.take();
+				try {
+					Answer answer = future.get();
+					if (answer.result.isIncomplete()) {
+						incompleteResult = answer.result;
+						continue;
+					}
+					reportWin(key, answer.solverType);
+					logger.debug("{} won the race", answer.solverType);
+					return answer.result;
+				} catch (ExecutionException e) {
+					if (failure == null)
+						failure = e.getCause();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SolverTimeoutException();
+		} finally {
+			for (int i = 0; i < futures.size(); i++) {
+				futures.get(i).cancel(solverTypes.get(i) == SolverType.EVOSUITE_SOLVER);
+			}
+		}
+
+		if (incompleteResult != null)
+			return incompleteResult;
+		if (failure instanceof SolverTimeoutException)
+			throw (SolverTimeoutException) failure;
+		if (failure instanceof IOException)
+			throw (IOException) failure;
+		if (failure instanceof SolverParseException)
+			throw (SolverParseException) failure;
+		if (failure instanceof SolverEmptyQueryException)
+			throw (SolverEmptyQueryException) failure;
+		if (failure instanceof SolverErrorException)
+			throw (SolverErrorException) failure;
+		if (failure instanceof RuntimeException)
+			throw (RuntimeException) failure;
+		throw new SolverErrorException("No solver of the portfolio found a result: " + failure);
+	}
+
+	private static synchronized SolverType getRoute(int key, List<SolverType> solverTypes) {
+		int routingRaces = Properties.DSE_PORTFOLIO_ROUTING_RACES;
+		if (routingRaces == 0 || races[key] < routingRaces)
+			return null;
+
+		SolverType best = null;
+		for (SolverType solverType : solverTypes) {
+			if (best == null || wins[key][solverType.ordinal()] > wins[key][best.ordinal()])
+				best = solverType;
+		}
+		return best;
+	}
+
+	private static synchronized void reportWin(int key, SolverType solverType) {
+		races[key]++;
+		wins[key][solverType.ordinal()]++;
+	}
+
+	/**
+	 * @param key
+	 *            see {@link ConstraintTypeCounter#getKey(Collection)}
+	 * @return the number of races on queries with these types of constraints
+	 */
+	public static synchronized long getNumberOfRaces(int key) {
+		return races[key];
+	}
+
+	/**
+	 * @param key
+	 *            see {@link ConstraintTypeCounter#getKey(Collection)}
+	 * @param solverType
+	 * @return the number of races the solver won on queries with these types
+	 *         of constraints
+	 */
+	public static synchronized long getNumberOfWins(int key, SolverType solverType) {
+		return wins[key][solverType.ordinal()];
+	}
+
+	public static synchronized void clearStatistics() {
+		for (int key = 0; key < races.length; key++) {
+			races[key] = 0;
+			for (int i = 0; i < wins[key].length; i++) {
+				wins[key][i] = 0;
+			}
+		}
+	}
+}
@@ -19,33 +19,88 @@
  */
 package org.evosuite.symbolic.solver;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.evosuite.Properties;
 import org.evosuite.symbolic.expr.Constraint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Cache of solver results.
+ *
+ * <ul>
+ * <li>Results are keyed on the {@link NormalizedConstraints} of the query, so
+ * a query that only differs from a cached one in the order of the constraints
+ * or the names of the variables is a hit.</li>
+ * <li>The cache keeps the {@link Properties#SOLVER_CACHE_SIZE} most recently
+ * used results.</li>
+ * <li>A query that contains all constraints of a cached UNSAT query is
+ * UNSAT, and is answered without calling the solver.</li>
+ * <li>If {@link Properties#SOLVER_CACHE_FILE} is set, results are loaded from
+ * that file, and the most recently used results are saved to it by
+ * {@link #saveCacheFile()}, so that they can be reused by later runs on the
+ * same project.</li>
+ * </ul>
+ */
 public final class SolverCache {
 
+	private static final Logger logger = LoggerFactory.getLogger(SolverCache.class);
+
+	private static final String SAT = "SAT";
+
+	private static final String UNSAT = "UNSAT";
+
+	private static final String SEPARATOR = "\t";
+
 	/**
-	 * 
+	 * Can be called from several threads at once. The solver itself is
+	 * called outside of the lock on the cache. UNSAT results that were not
+	 * proven (see {@link SolverResult#isIncomplete()}) are not cached.
+	 *
 	 * @param solver
 	 * @param constraints
-	 * @return 
+	 * @return
 	 */
 	public SolverResult solve(Solver solver, Collection<Constraint<?>> constraints) {
-		if (hasCachedResult(constraints)) {
-			SolverResult cached_solution = getCachedResult();
-			return cached_solution;
+		NormalizedConstraints normalized = NormalizedConstraints.normalize(constraints);
+		synchronized (this) {
+			loadCacheFile();
+			if (hasCachedResult(normalized)) {
+				SolverResult cached_solution = getCachedResult();
+				return cached_solution;
+			}
 		}
 
 		SolverResult solverResult;
 		try {
 			solverResult = solver.solve(constraints);
-			if (solverResult.isUNSAT()) {
-				addUNSAT(constraints, solverResult);
-			} else {
-				addSAT(constraints, solverResult);
+			synchronized (this) {
+				if (solverResult.isSAT()) {
+					addSAT(normalized, solverResult);
+				} else if (!solverResult.isIncomplete()) {
+					addUNSAT(normalized, solverResult);
+				}
 			}
 		} catch (SolverTimeoutException | IOException | SolverParseException | SolverEmptyQueryException
 				| SolverErrorException e) {
@@ -58,20 +113,69 @@ public final class SolverCache {
 
 	private static final SolverCache instance = new SolverCache();
 
-	private HashMap<Collection<Constraint<?>>, SolverResult> cached_solver_results = new HashMap<Collection<Constraint<?>>, SolverResult>();
+	/** Canonical constraints to results over the canonical variable names */
+	private final LinkedHashMap<String, SolverResult> cached_solver_results = new LinkedHashMap<String, SolverResult>(
+			16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, SolverResult> eldest) {
+			return size() > Properties.SOLVER_CACHE_SIZE;
+		}
+	};
+
+	/**
+	 * Conjuncts of UNSAT queries with original variable names, in LRU order.
+	 * The value is the smallest conjunct, under which the query is indexed.
+	 */
+	private final LinkedHashMap<Set<String>, String> unsat_conjunctions = new LinkedHashMap<Set<String>, String>(
+			16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Set<String>, String> eldest) {
+			if (size() > Properties.SOLVER_CACHE_SIZE) {
+				removeFromUNSATIndex(eldest.getKey(), eldest.getValue());
+				return true;
+			}
+			return false;
+		}
+	};
+
+	/** Smallest conjunct to the UNSAT queries containing it */
+	private final Map<String, List<Set<String>>> unsat_index = new HashMap<String, List<Set<String>>>();
+
 	private int cached_sat_result_count = 0;
 	private int cached_unsat_result_count = 0;
 
-	public int getNumberOfUNSATs() {
+	public synchronized int getNumberOfUNSATs() {
 		return cached_unsat_result_count;
 	}
 
-	public int getNumberOfSATs() {
+	public synchronized int getNumberOfSATs() {
 		return cached_sat_result_count;
 	}
 
 	private int number_of_accesses = 0;
 	private int number_of_hits = 0;
+	private int number_of_subsumption_hits = 0;
+
+	/** The file results were loaded from */
+	private String loaded_cache_file = null;
+
+	/** Lines of the cache file by key, in LRU order */
+	private final LinkedHashMap<String, String> persisted_lines = new LinkedHashMap<String, String>(16, 0.75f,
+			true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+			return size() > Properties.SOLVER_CACHE_SIZE;
+		}
+	};
+
+	/** Whether results were added since the cache file was loaded or saved */
+	private boolean cache_file_changed = false;
 
 	private SolverCache() {
 		/* empty constructor */
@@ -81,40 +185,117 @@ public final class SolverCache {
 		return instance;
 	}
 
-	private void addUNSAT(Collection<Constraint<?>> unsat_constraints, SolverResult unsatResult) {
-		cached_solver_results.put(unsat_constraints, unsatResult);
+	private void addUNSAT(NormalizedConstraints unsat_constraints, SolverResult unsatResult) {
+		putUNSAT(unsat_constraints.getKey(), unsat_constraints.getConjuncts());
 		cached_unsat_result_count++;
+		if (unsat_constraints.isPersistable())
+			addLine(UNSAT, unsat_constraints.getKey(), unsat_constraints.getConjuncts());
 	}
 
-	private void addSAT(Collection<Constraint<?>> sat_constraints, SolverResult satResult) {
-		cached_solver_results.put(sat_constraints, satResult);
+	private void addSAT(NormalizedConstraints sat_constraints, SolverResult satResult) {
+		Map<String, Object> model = sat_constraints.toCanonicalModel(satResult.getModel());
+		cached_solver_results.put(sat_constraints.getKey(), SolverResult.newSAT(model));
 		cached_sat_result_count++;
+		if (sat_constraints.isPersistable()) {
+			List<String> values = encodeModel(model);
+			if (values != null)
+				addLine(SAT, sat_constraints.getKey(), values);
+		}
+	}
+
+	private void putUNSAT(String key, Set<String> conjuncts) {
+		cached_solver_results.put(key, SolverResult.newUNSAT());
+		if (conjuncts.isEmpty() || unsat_conjunctions.containsKey(conjuncts))
+			return;
+
+		String smallest = null;
+		for (String conjunct : conjuncts) {
+			if (smallest == null || conjunct.compareTo(smallest) < 0)
+				smallest = conjunct;
+		}
+		List<Set<String>> queries = unsat_index.get(smallest);
+		if (queries == null) {
+			queries = new ArrayList<Set<String>>();
+			unsat_index.put(smallest, queries);
+		}
+		queries.add(conjuncts);
+		unsat_conjunctions.put(conjuncts, smallest);
+	}
+
+	private void removeFromUNSATIndex(Set<String> conjuncts, String smallest) {
+		List<Set<String>> queries = unsat_index.get(smallest);
+		if (queries != null) {
+			queries.remove(conjuncts);
+			if (queries.isEmpty())
+				unsat_index.remove(smallest);
+		}
+	}
+
+	/**
+	 * Find a cached UNSAT query whose constraints are all contained in the
+	 * given constraints
+	 */
+	private Set<String> findUNSATSubset(Set<String> conjuncts) {
+		for (String conjunct : conjuncts) {
+			List<Set<String>> queries = unsat_index.get(conjunct);
+			if (queries == null)
+				continue;
+			for (Set<String> query : queries) {
+				if (query.size() <= conjuncts.size() && conjuncts.containsAll(query))
+					return query;
+			}
+		}
+		return null;
 	}
 
 	private boolean valid_cached_solution = false;
 	private SolverResult cached_solution = null;
 
-	private boolean hasCachedResult(Collection<Constraint<?>> constraints) {
+	private boolean hasCachedResult(NormalizedConstraints constraints) {
 		number_of_accesses++;
 
-		if (this.cached_solver_results.containsKey(constraints)) {
+		SolverResult result = this.cached_solver_results.get(constraints.getKey());
+		if (result != null) {
+			// refresh the LRU position of the line in the cache file
+			persisted_lines.get(constraints.getKey());
 			valid_cached_solution = true;
-			cached_solution = this.cached_solver_results.get(constraints);
+			if (result.isSAT())
+				cached_solution = SolverResult.newSAT(constraints.toOriginalModel(result.getModel()));
+			else
+				cached_solution = result;
 			number_of_hits++;
 			return true;
-		} else {
-			valid_cached_solution = false;
-			return false;
 		}
+
+		Set<String> unsatSubset = findUNSATSubset(constraints.getConjuncts());
+		if (unsatSubset != null) {
+			// refresh the LRU position of the subset
+			unsat_conjunctions.get(unsatSubset);
+			valid_cached_solution = true;
+			cached_solution = SolverResult.newUNSAT();
+			number_of_hits++;
+			number_of_subsumption_hits++;
+			return true;
+		}
+
+		valid_cached_solution = false;
+		return false;
 	}
 
-	public double getHitRate() {
+	public synchronized double getHitRate() {
 		return (double) this.number_of_hits / (double) this.number_of_accesses;
 	}
 
+	/**
+	 * @return number of queries answered by a cached UNSAT subset
+	 */
+	public synchronized int getNumberOfSubsumptionHits() {
+		return number_of_subsumption_hits;
+	}
+
 	/**
 	 * If not in cache returns IllegalArgumentException()
-	 * 
+	 *
 	 * @param constraints
 	 * @return
 	 */
@@ -128,4 +309,169 @@ public final class SolverCache {
 		return this.cached_solution;
 	}
 
+	private static List<String> encodeModel(Map<String, Object> model) {
+		List<String> values = new ArrayList<String>();
+		for (Map.Entry<String, Object> entry : model.entrySet()) {
+			Object value = entry.getValue();
+			String encoded;
+			if (value instanceof Long) {
+				encoded = "L" + value;
+			} else if (value instanceof Double) {
+				encoded = "D" + value;
+			} else if (value instanceof String) {
+				StringBuilder buffer = new StringBuilder("S");
+				NormalizedConstraints.escape((String) value, buffer);
+				encoded = buffer.toString();
+			} else {
+				return null;
+			}
+			values.add(entry.getKey());
+			values.add(encoded);
+		}
+		return values;
+	}
+
+	private static Object decodeValue(String encoded) {
+		String value = encoded.substring(1);
+		switch (encoded.charAt(0)) {
+		case 'L':
+			return Long.valueOf(value);
+		case 'D':
+			return Double.valueOf(value);
+		case 'S':
+			return NormalizedConstraints.unescape(value);
+		default:
+			throw new IllegalArgumentException("Unknown value " + encoded);
+		}
+	}
+
+	private void loadCacheFile() {
+		String fileName = Properties.SOLVER_CACHE_FILE;
+		if (fileName == null || fileName.isEmpty() || fileName.equals(loaded_cache_file))
+			return;
+		loaded_cache_file = fileName;
+		persisted_lines.clear();
+		cache_file_changed = false;
+
+		File file = new File(fileName);
+		if (!file.exists())
+			return;
+
+		int count = 0;
+		try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split(SEPARATOR, -1);
+				if (fields.length < 2)
+					continue;
+				try {
+					if (fields[0].equals(UNSAT)) {
+						Set<String> conjuncts = new HashSet<String>();
+						for (int i = 2; i < fields.length; i++)
+							conjuncts.add(fields[i]);
+						putUNSAT(fields[1], conjuncts);
+						persisted_lines.put(fields[1], line);
+						count++;
+					} else if (fields[0].equals(SAT) && fields.length % 2 == 0) {
+						Map<String, Object> model = new HashMap<String, Object>();
+						for (int i = 2; i < fields.length; i += 2)
+							model.put(fields[i], decodeValue(fields[i + 1]));
+						cached_solver_results.put(fields[1], SolverResult.newSAT(model));
+						persisted_lines.put(fields[1], line);
+						count++;
+					}
+				} catch (IllegalArgumentException e) {
+					logger.debug("Ignoring invalid solver cache entry: {}", line);
+				}
+			}
+		} catch (IOException e) {
+			logger.warn("Could not read solver cache " + fileName + ": " + e.getMessage());
+		}
+		logger.debug("Loaded {} solver results from {}", count, fileName);
+	}
+
+	private void addLine(String type, String key, Collection<String> values) {
+		String fileName = Properties.SOLVER_CACHE_FILE;
+		if (fileName == null || fileName.isEmpty())
+			return;
+
+		StringBuilder line = new StringBuilder(type).append(SEPARATOR).append(key);
+		Iterator<String> iterator = values.iterator();
+		while (iterator.hasNext()) {
+			line.append(SEPARATOR).append(iterator.next());
+		}
+		persisted_lines.put(key, line.toString());
+		cache_file_changed = true;
+	}
+
+	/**
+	 * Save the {@link Properties#SOLVER_CACHE_SIZE} most recently used results
+	 * to {@link Properties#SOLVER_CACHE_FILE}. Results that other processes
+	 * saved to the file since it was loaded are kept, if there is room. The
+	 * processes sharing the file are serialized through a lock file, and the
+	 * file is replaced by a complete new version.
+	 */
+	public synchronized void saveCacheFile() {
+		String fileName = Properties.SOLVER_CACHE_FILE;
+		if (fileName == null || fileName.isEmpty() || !fileName.equals(loaded_cache_file) || !cache_file_changed)
+			return;
+
+		File file = new File(fileName).getAbsoluteFile();
+		File directory = file.getParentFile();
+		directory.mkdirs();
+		File lockFile = new File(directory, file.getName() + ".lock");
+		try (FileChannel channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE); FileLock lock = channel.lock()) {
+			LinkedHashMap<String, String> lines = readLines(file);
+			for (Map.Entry<String, String> entry : persisted_lines.entrySet()) {
+				// ours are more recent than those in the file
+				lines.remove(entry.getKey());
+				lines.put(entry.getKey(), entry.getValue());
+			}
+
+			int oldest = lines.size() - Properties.SOLVER_CACHE_SIZE;
+			File temp = File.createTempFile(file.getName(), ".tmp", directory);
+			try {
+				try (PrintWriter writer = new PrintWriter(new FileWriter(temp))) {
+					for (String line : lines.values()) {
+						if (oldest-- > 0)
+							continue;
+						writer.println(line);
+					}
+				}
+				try {
+					Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+							StandardCopyOption.ATOMIC_MOVE);
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+			} finally {
+				temp.delete();
+			}
+			cache_file_changed = false;
+		} catch (IOException e) {
+			logger.warn("Could not write solver cache " + fileName + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * @return the lines of the cache file by key, in the order of the file
+	 */
+	private static LinkedHashMap<String, String> readLines(File file) throws IOException {
+		LinkedHashMap<String, String> lines = new LinkedHashMap<String, String>();
+		if (!file.exists())
+			return lines;
+		try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split(SEPARATOR, -1);
+				if (fields.length < 2)
+					continue;
+				lines.remove(fields[1]);
+				lines.put(fields[1], line);
+			}
+		}
+		return lines;
+	}
+
 }
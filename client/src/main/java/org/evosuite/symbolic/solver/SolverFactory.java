@@ -19,6 +19,8 @@
  */
 package org.evosuite.symbolic.solver;
 
+import java.util.Arrays;
+
 import org.evosuite.Properties;
 import org.evosuite.symbolic.solver.avm.EvoSuiteSolver;
 import org.evosuite.symbolic.solver.cvc4.CVC4Solver;
@@ -34,7 +36,11 @@ public class SolverFactory {
 	}
 
 	public Solver buildNewSolver() {
-		switch (Properties.DSE_SOLVER) {
+		return buildNewSolver(Properties.DSE_SOLVER);
+	}
+
+	public Solver buildNewSolver(Properties.SolverType solverType) {
+		switch (solverType) {
 		case Z3_SOLVER:
 			return new Z3Solver(true);
 		case Z3_STR2_SOLVER:
@@ -44,6 +50,8 @@ public class SolverFactory {
 			solver.setRewriteNonLinearConstraints(true);
 			return solver;
 		}
+		case PORTFOLIO_SOLVER:
+			return new PortfolioSolver(Arrays.asList(Properties.DSE_PORTFOLIO_SOLVERS));
 		case EVOSUITE_SOLVER:
 		default:
 			return new EvoSuiteSolver();
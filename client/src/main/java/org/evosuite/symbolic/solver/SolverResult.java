@@ -32,17 +32,28 @@ public class SolverResult {
 
 	private final Map<String, Object> model;
 
-	private SolverResult(SolverResultType t, Map<String, Object> model) {
+	private final boolean incomplete;
+
+	private SolverResult(SolverResultType t, Map<String, Object> model, boolean incomplete) {
 		this.resultType = t;
 		this.model = model;
+		this.incomplete = incomplete;
 	}
 
 	public static SolverResult newUNSAT() {
-		return new SolverResult(SolverResultType.UNSAT, null);
+		return new SolverResult(SolverResultType.UNSAT, null, false);
+	}
+
+	/**
+	 * An UNSAT result of a solver that gave up without proving that the
+	 * constraints are unsatisfiable (e.g., the AVM not finding a solution)
+	 */
+	public static SolverResult newIncompleteUNSAT() {
+		return new SolverResult(SolverResultType.UNSAT, null, true);
 	}
 
 	public static SolverResult newSAT(Map<String, Object> values) {
-		return new SolverResult(SolverResultType.SAT, values);
+		return new SolverResult(SolverResultType.SAT, values, false);
 	}
 
 	public boolean isSAT() {
@@ -73,6 +84,14 @@ public class SolverResult {
 
 	}
 
+	/**
+	 * @return true if this is an UNSAT result that was not proven, see
+	 *         {@link #newIncompleteUNSAT()}
+	 */
+	public boolean isIncomplete() {
+		return incomplete;
+	}
+
 	public String toString() {
 		StringBuffer buff = new StringBuffer();
 		buff.append(resultType + "\n");
@@ -22,6 +22,8 @@ package org.evosuite.symbolic.solver;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
 
 import org.evosuite.utils.ProcessLauncher;
 import org.evosuite.utils.ProcessTimeoutException;
@@ -65,5 +67,26 @@ public abstract class SubProcessSolver extends Solver {
 
 	}
 
+	/**
+	 * Solves a query with a solver process that is kept alive between
+	 * queries, see {@link IncrementalSolverProcess}
+	 *
+	 * @return the output of check-sat, followed by the model if the result
+	 *         was sat
+	 */
+	protected static String launchIncrementalProcess(String solverCmd, String preamble, List<String> options,
+			Map<String, String> declarations, List<String> assertions, long hard_timeout)
+			throws IOException, SolverTimeoutException, SolverErrorException {
+
+		IncrementalSolverProcess process = IncrementalSolverProcess.getInstance(solverCmd, preamble);
+		long solver_start_time_millis = System.currentTimeMillis();
+		try {
+			return process.checkSat(options, declarations, assertions, hard_timeout);
+		} finally {
+			long solver_end_time_millis = System.currentTimeMillis();
+			logger.debug("Incremental solver execution time was {}ms",
+					solver_end_time_millis - solver_start_time_millis);
+		}
+	}
 
 }
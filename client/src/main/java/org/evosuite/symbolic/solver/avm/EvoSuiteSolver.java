@@ -72,7 +72,7 @@ public final class EvoSuiteSolver extends Solver {
 				long currentTimeMillis = System.currentTimeMillis();
 
 				long elapsed_solving_time = currentTimeMillis - startTimeMillis;
-				if (elapsed_solving_time > timeout) {
+				if (elapsed_solving_time > timeout || Thread.currentThread().isInterrupted()) {
 					throw new SolverTimeoutException();
 				}
 
@@ -118,7 +118,7 @@ public final class EvoSuiteSolver extends Solver {
 		} else {
 			setConcreteValues(variables, initialValues);
 			log.debug("Returning null, search was not successful");
-			SolverResult unsatResult = SolverResult.newUNSAT();
+			SolverResult unsatResult = SolverResult.newIncompleteUNSAT();
 			return unsatResult;
 		}
 
@@ -38,7 +38,8 @@ abstract class VariableAVM {
 
 	protected boolean isFinished() {
 		long current_time = System.currentTimeMillis();
-		return (current_time - start_time) > timeout;
+		// a portfolio cancels the solvers that lost the race by interrupting them
+		return (current_time - start_time) > timeout || Thread.currentThread().isInterrupted();
 	}
 	
 	public abstract boolean applyAVM() throws SolverTimeoutException;
@@ -19,6 +19,11 @@
  */
 package org.evosuite.symbolic.solver.cvc4;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.evosuite.symbolic.solver.smt.SmtAssertion;
 import org.evosuite.symbolic.solver.smt.SmtCheckSatQuery;
 import org.evosuite.symbolic.solver.smt.SmtExpr;
@@ -33,50 +38,74 @@ class CVC4QueryPrinter {
 	public String print(SmtCheckSatQuery smtQuery) {
 		StringBuffer buff = new StringBuffer();
 		buff.append("\n");
+		buff.append(printPreamble());
+
+		for (String declaration : printDeclarations(smtQuery).values()) {
+			buff.append(declaration);
+			buff.append("\n");
+		}
+
+		for (String assertion : printAssertions(smtQuery)) {
+			buff.append(assertion);
+			buff.append("\n");
+		}
+
+		buff.append("(check-sat)");
+		buff.append("\n");
+
+		buff.append("(get-model)");
+		buff.append("\n");
+
+		buff.append("(exit)");
+		buff.append("\n");
+
+		return buff.toString();
+
+	}
+
+	public String printPreamble() {
+		StringBuffer buff = new StringBuffer();
 		buff.append("(set-logic " + CVC4_LOGIC + ")");
 		buff.append("\n");
 		buff.append("(set-option :produce-models true)");
 		buff.append("\n");
 		buff.append("(set-option :strings-exp true)");
 		buff.append("\n");
+		return buff.toString();
+	}
 
+	/**
+	 * @return the declare-fun and define-fun commands by function name
+	 */
+	public Map<String, String> printDeclarations(SmtCheckSatQuery smtQuery) {
+		Map<String, String> declarations = new LinkedHashMap<String, String>();
 		for (SmtFunctionDeclaration functionDeclaration : smtQuery
 				.getFunctionDeclarations()) {
 			String str = String.format("(declare-fun %s () %s)",
 					functionDeclaration.getFunctionName(),
 					functionDeclaration.getFunctionSort());
-			buff.append(str);
-			buff.append("\n");
+			declarations.put(functionDeclaration.getFunctionName(), str);
 		}
 
 		for (SmtFunctionDefinition functionDeclaration : smtQuery
 				.getFunctionDefinitions()) {
-			String str = String.format("(define-fun %s)",
-					functionDeclaration.getFunctionDefinition());
-			buff.append(str);
-			buff.append("\n");
+			String definition = functionDeclaration.getFunctionDefinition().trim();
+			String str = String.format("(define-fun %s)", definition);
+			declarations.put(definition.split("\\s+", 2)[0], str);
 		}
+		return declarations;
+	}
 
+	public List<String> printAssertions(SmtCheckSatQuery smtQuery) {
+		List<String> assertions = new ArrayList<String>();
 		SmtExprPrinter printer = new SmtExprPrinter();
 		for (SmtAssertion smtAssertion : smtQuery.getAssertions()) {
 			SmtExpr smtExpr = smtAssertion.getFormula();
 			String smtExprStr = smtExpr.accept(printer, null);
 
 			String str = String.format("(assert %s)", smtExprStr);
-			buff.append(str);
-			buff.append("\n");
+			assertions.add(str);
 		}
-
-		buff.append("(check-sat)");
-		buff.append("\n");
-
-		buff.append("(get-model)");
-		buff.append("\n");
-
-		buff.append("(exit)");
-		buff.append("\n");
-
-		return buff.toString();
-
+		return assertions;
 	}
 }
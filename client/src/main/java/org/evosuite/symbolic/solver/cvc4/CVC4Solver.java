@@ -22,6 +22,7 @@ package org.evosuite.symbolic.solver.cvc4;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -129,14 +130,21 @@ public final class CVC4Solver extends SubProcessSolver {
 		logger.debug("CVC4 Query:");
 		logger.debug(smtQueryStr);
 
-		String cvc4Cmd = buildCVC4cmd(cvcTimeout);
-
-		ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+		String cvc4Cmd = buildCVC4cmd(cvcTimeout, Properties.DSE_INCREMENTAL_SOLVER);
 
 		try {
-			launchNewProcess(cvc4Cmd, smtQueryStr, (int) cvcTimeout, stdout);
+			String cvc4ResultStr;
+			if (Properties.DSE_INCREMENTAL_SOLVER) {
+				cvc4ResultStr = launchIncrementalProcess(cvc4Cmd, printer.printPreamble(),
+						Collections.<String> emptyList(), printer.printDeclarations(smtQuery),
+						printer.printAssertions(smtQuery), cvcTimeout);
+			} else {
+				ByteArrayOutputStream stdout = new ByteArrayOutputStream();
 
-			String cvc4ResultStr = stdout.toString("UTF-8");
+				launchNewProcess(cvc4Cmd, smtQueryStr, (int) cvcTimeout, stdout);
+
+				cvc4ResultStr = stdout.toString("UTF-8");
+			}
 
 			if (cvc4ResultStr.startsWith("unsat") && cvc4ResultStr.contains(
 					"(error \"Cannot get the current model unless immediately preceded by SAT/INVALID or UNKNOWN response.\")")) {
@@ -250,7 +258,7 @@ public final class CVC4Solver extends SubProcessSolver {
 
 	}
 
-	private static String buildCVC4cmd(long cvcTimeout) {
+	private static String buildCVC4cmd(long cvcTimeout, boolean incremental) {
 		String cmd = Properties.CVC4_PATH;
 		cmd += "  --rewrite-divk"; // rewrite-divk rewrites division (or
 									// modulus) by a constant value
@@ -274,7 +282,12 @@ public final class CVC4Solver extends SubProcessSolver {
 		 * More details on both of these points can be found in Sections 5.2 -
 		 * 5.4 of http://homepage.cs.uiowa.edu/~ajreynol/thesis.pdf.
 		 */
-		cmd += " --tlimit=" + cvcTimeout; // set timeout to cvcTimeout
+		if (incremental) {
+			cmd += " --incremental"; // process keeps reading queries from stdin
+			cmd += " --tlimit-per=" + cvcTimeout; // set timeout per query
+		} else {
+			cmd += " --tlimit=" + cvcTimeout; // set timeout to cvcTimeout
+		}
 		return cmd;
 	}
 
@@ -19,6 +19,11 @@
  */
 package org.evosuite.symbolic.solver.z3;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.evosuite.symbolic.solver.smt.SmtAssertion;
 import org.evosuite.symbolic.solver.smt.SmtCheckSatQuery;
 import org.evosuite.symbolic.solver.smt.SmtConstantDeclaration;
@@ -30,25 +35,16 @@ class Z3QueryPrinter {
 	public String print(SmtCheckSatQuery smtQuery, long timeout) {
 
 		StringBuffer buff = new StringBuffer();
-		buff.append("(set-option :timeout " + timeout + ")");
+		buff.append(printTimeout(timeout));
 		buff.append("\n");
 
-		for (SmtConstantDeclaration constantDeclaration : smtQuery
-				.getConstantDeclarations()) {
-			String str = String.format("(declare-const %s %s)",
-					constantDeclaration.getConstantName(),
-					constantDeclaration.getConstantSort());
-			buff.append(str);
+		for (String declaration : printDeclarations(smtQuery).values()) {
+			buff.append(declaration);
 			buff.append("\n");
 		}
 
-		SmtExprPrinter printer = new SmtExprPrinter();
-		for (SmtAssertion assertionDeclaration : smtQuery.getAssertions()) {
-
-			SmtExpr formula = assertionDeclaration.getFormula();
-			String formulaStr = formula.accept(printer, null);
-			String str = String.format("(assert %s)", formulaStr);
-			buff.append(str);
+		for (String assertion : printAssertions(smtQuery)) {
+			buff.append(assertion);
 			buff.append("\n");
 		}
 
@@ -63,4 +59,36 @@ class Z3QueryPrinter {
 
 		return buff.toString();
 	}
+
+	public String printTimeout(long timeout) {
+		return "(set-option :timeout " + timeout + ")";
+	}
+
+	/**
+	 * @return the declaration commands by declared name
+	 */
+	public Map<String, String> printDeclarations(SmtCheckSatQuery smtQuery) {
+		Map<String, String> declarations = new LinkedHashMap<String, String>();
+		for (SmtConstantDeclaration constantDeclaration : smtQuery
+				.getConstantDeclarations()) {
+			String str = String.format("(declare-const %s %s)",
+					constantDeclaration.getConstantName(),
+					constantDeclaration.getConstantSort());
+			declarations.put(constantDeclaration.getConstantName(), str);
+		}
+		return declarations;
+	}
+
+	public List<String> printAssertions(SmtCheckSatQuery smtQuery) {
+		List<String> assertions = new ArrayList<String>();
+		SmtExprPrinter printer = new SmtExprPrinter();
+		for (SmtAssertion assertionDeclaration : smtQuery.getAssertions()) {
+
+			SmtExpr formula = assertionDeclaration.getFormula();
+			String formulaStr = formula.accept(printer, null);
+			String str = String.format("(assert %s)", formulaStr);
+			assertions.add(str);
+		}
+		return assertions;
+	}
 }
@@ -22,6 +22,7 @@ package org.evosuite.symbolic.solver.z3;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -99,11 +100,19 @@ public class Z3Solver extends SubProcessSolver {
 		}
 		String z3Cmd = Properties.Z3_PATH + " -smt2 -in";
 
-		ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+		String z3ResultStr;
+		if (Properties.DSE_INCREMENTAL_SOLVER) {
+			z3ResultStr = launchIncrementalProcess(z3Cmd, "",
+					Collections.singletonList(printer.printTimeout(hard_timeout)),
+					printer.printDeclarations(smtCheckSatQuery), printer.printAssertions(smtCheckSatQuery),
+					hard_timeout);
+		} else {
+			ByteArrayOutputStream stdout = new ByteArrayOutputStream();
 
-		launchNewProcess(z3Cmd, smtQueryStr, (int) hard_timeout, stdout);
+			launchNewProcess(z3Cmd, smtQueryStr, (int) hard_timeout, stdout);
 
-		String z3ResultStr = stdout.toString("UTF-8");
+			z3ResultStr = stdout.toString("UTF-8");
+		}
 
 		Map<String, Object> initialValues = getConcreteValues(variables);
 		Z3ResultParser resultParser;
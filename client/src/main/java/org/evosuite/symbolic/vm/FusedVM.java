@@ -0,0 +1,1055 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.vm;
+
+import org.evosuite.dse.AbstractVM;
+
+/**
+ * The listeners of concolic execution fused into a single listener.
+ * 
+ * <p>
+ * With separate listeners, {@link org.evosuite.dse.VM} calls each callback
+ * on all of them, although most callbacks are only handled by one of them
+ * and are no-ops in the others. This listener only forwards each callback to
+ * the listeners that handle it, in the same order as they are registered in
+ * {@link org.evosuite.symbolic.ConcolicExecution}. As the fields have the
+ * concrete (final) types of the listeners, the calls are monomorphic and can
+ * be inlined.
+ * 
+ * <p>
+ * When a listener starts handling a new callback, the callback has to be
+ * forwarded here as well (FusedVMTest checks this).
+ */
+public final class FusedVM extends AbstractVM {
+	private final CallVM callVM;
+	private final JumpVM jumpVM;
+	private final HeapVM heapVM;
+	private final LocalsVM localsVM;
+	private final ArithmeticVM arithmeticVM;
+	private final OtherVM otherVM;
+	private final SymbolicFunctionVM symbolicFunctionVM;
+
+	public FusedVM(CallVM callVM, JumpVM jumpVM, HeapVM heapVM, LocalsVM localsVM, ArithmeticVM arithmeticVM,
+			OtherVM otherVM, SymbolicFunctionVM symbolicFunctionVM) {
+		this.callVM = callVM;
+		this.jumpVM = jumpVM;
+		this.heapVM = heapVM;
+		this.localsVM = localsVM;
+		this.arithmeticVM = arithmeticVM;
+		this.otherVM = otherVM;
+		this.symbolicFunctionVM = symbolicFunctionVM;
+	}
+
+	@Override
+	public void CALLER_STACK_PARAM(int nr, int calleeLocalsIndex, int value) {
+		callVM.CALLER_STACK_PARAM(nr, calleeLocalsIndex, value);
+		symbolicFunctionVM.CALLER_STACK_PARAM(nr, calleeLocalsIndex, value);
+	}
+
+	@Override
+	public void CALLER_STACK_PARAM(int nr, int calleeLocalsIndex, boolean value) {
+		callVM.CALLER_STACK_PARAM(nr, calleeLocalsIndex, value);
+		symbolicFunctionVM.CALLER_STACK_PARAM(nr, calleeLocalsIndex, value);
+	}
+
+	@Override
+	public void CALLER_STACK_PARAM(int nr, int calleeLocalsIndex, short value) {
+		callVM.CALLER_STACK_PARAM(nr, calleeLocalsIndex, value);
+		symbolicFunctionVM.CALLER_STACK_PARAM(nr, calleeLocalsIndex, value);
+	}
+
+	@Override
+	public void CALLER_STACK_PARAM(int nr, int calleeLocalsIndex, byte value) {
+		callVM.CALLER_STACK_PARAM(nr, calleeLocalsIndex, value);
+		symbolicFunctionVM.CALLER_STACK_PARAM(nr, calleeLocalsIndex, value);
+	}
+
+	@Override
+	public void CALLER_STACK_PARAM(int nr, int calleeLocalsIndex, char value) {
+		callVM.CALLER_STACK_PARAM(nr, calleeLocalsIndex, value);
+		symbolicFunctionVM.CALLER_STACK_PARAM(nr, calleeLocalsIndex, value);
+	}
+
+	@Override
+	public void CALLER_STACK_PARAM(int nr, int calleeLocalsIndex, long value) {
+		callVM.CALLER_STACK_PARAM(nr, calleeLocalsIndex, value);
+		symbolicFunctionVM.CALLER_STACK_PARAM(nr, calleeLocalsIndex, value);
+	}
+
+	@Override
+	public void CALLER_STACK_PARAM(int nr, int calleeLocalsIndex, float value) {
+		callVM.CALLER_STACK_PARAM(nr, calleeLocalsIndex, value);
+		symbolicFunctionVM.CALLER_STACK_PARAM(nr, calleeLocalsIndex, value);
+	}
+
+	@Override
+	public void CALLER_STACK_PARAM(int nr, int calleeLocalsIndex, double value) {
+		callVM.CALLER_STACK_PARAM(nr, calleeLocalsIndex, value);
+		symbolicFunctionVM.CALLER_STACK_PARAM(nr, calleeLocalsIndex, value);
+	}
+
+	@Override
+	public void CALLER_STACK_PARAM(int nr, int calleeLocalsIndex, Object value) {
+		callVM.CALLER_STACK_PARAM(nr, calleeLocalsIndex, value);
+		symbolicFunctionVM.CALLER_STACK_PARAM(nr, calleeLocalsIndex, value);
+	}
+
+	@Override
+	public void METHOD_BEGIN(int access, String className, String methName, String methDesc) {
+		callVM.METHOD_BEGIN(access, className, methName, methDesc);
+	}
+
+	@Override
+	public void METHOD_MAXS(String className, String methName, String methDesc, int maxStack, int maxLocals) {
+		callVM.METHOD_MAXS(className, methName, methDesc, maxStack, maxLocals);
+	}
+
+	@Override
+	public void METHOD_BEGIN_PARAM(int nr, int calleeLocalsIndex, int value) {
+		callVM.METHOD_BEGIN_PARAM(nr, calleeLocalsIndex, value);
+	}
+
+	@Override
+	public void METHOD_BEGIN_PARAM(int nr, int calleeLocalsIndex, boolean value) {
+		callVM.METHOD_BEGIN_PARAM(nr, calleeLocalsIndex, value);
+	}
+
+	@Override
+	public void METHOD_BEGIN_PARAM(int nr, int calleeLocalsIndex, short value) {
+		callVM.METHOD_BEGIN_PARAM(nr, calleeLocalsIndex, value);
+	}
+
+	@Override
+	public void METHOD_BEGIN_PARAM(int nr, int calleeLocalsIndex, byte value) {
+		callVM.METHOD_BEGIN_PARAM(nr, calleeLocalsIndex, value);
+	}
+
+	@Override
+	public void METHOD_BEGIN_PARAM(int nr, int calleeLocalsIndex, char value) {
+		callVM.METHOD_BEGIN_PARAM(nr, calleeLocalsIndex, value);
+	}
+
+	@Override
+	public void METHOD_BEGIN_PARAM(int nr, int calleeLocalsIndex, long value) {
+		callVM.METHOD_BEGIN_PARAM(nr, calleeLocalsIndex, value);
+	}
+
+	@Override
+	public void METHOD_BEGIN_PARAM(int nr, int calleeLocalsIndex, float value) {
+		callVM.METHOD_BEGIN_PARAM(nr, calleeLocalsIndex, value);
+	}
+
+	@Override
+	public void METHOD_BEGIN_PARAM(int nr, int calleeLocalsIndex, double value) {
+		callVM.METHOD_BEGIN_PARAM(nr, calleeLocalsIndex, value);
+	}
+
+	@Override
+	public void METHOD_BEGIN_PARAM(int nr, int calleeLocalsIndex, Object value) {
+		callVM.METHOD_BEGIN_PARAM(nr, calleeLocalsIndex, value);
+	}
+
+	@Override
+	public void METHOD_BEGIN_RECEIVER(Object value) {
+		callVM.METHOD_BEGIN_RECEIVER(value);
+	}
+
+	@Override
+	public void CALL_RESULT(String owner, String name, String desc) {
+		callVM.CALL_RESULT(owner, name, desc);
+		symbolicFunctionVM.CALL_RESULT(owner, name, desc);
+	}
+
+	@Override
+	public void CALL_RESULT(boolean res, String owner, String name, String desc) {
+		callVM.CALL_RESULT(res, owner, name, desc);
+		symbolicFunctionVM.CALL_RESULT(res, owner, name, desc);
+	}
+
+	@Override
+	public void CALL_RESULT(int res, String owner, String name, String desc) {
+		callVM.CALL_RESULT(res, owner, name, desc);
+		symbolicFunctionVM.CALL_RESULT(res, owner, name, desc);
+	}
+
+	@Override
+	public void CALL_RESULT(long res, String owner, String name, String desc) {
+		callVM.CALL_RESULT(res, owner, name, desc);
+		symbolicFunctionVM.CALL_RESULT(res, owner, name, desc);
+	}
+
+	@Override
+	public void CALL_RESULT(double res, String owner, String name, String desc) {
+		callVM.CALL_RESULT(res, owner, name, desc);
+		symbolicFunctionVM.CALL_RESULT(res, owner, name, desc);
+	}
+
+	@Override
+	public void CALL_RESULT(float res, String owner, String name, String desc) {
+		callVM.CALL_RESULT(res, owner, name, desc);
+		symbolicFunctionVM.CALL_RESULT(res, owner, name, desc);
+	}
+
+	@Override
+	public void CALL_RESULT(Object res, String owner, String name, String desc) {
+		callVM.CALL_RESULT(res, owner, name, desc);
+		symbolicFunctionVM.CALL_RESULT(res, owner, name, desc);
+	}
+
+	@Override
+	public void HANDLER_BEGIN(int access, String className, String methName, String methDesc) {
+		callVM.HANDLER_BEGIN(access, className, methName, methDesc);
+	}
+
+	@Override
+	public void NOP() {
+		localsVM.NOP();
+	}
+
+	@Override
+	public void ACONST_NULL() {
+		localsVM.ACONST_NULL();
+	}
+
+	@Override
+	public void ICONST_M1() {
+		localsVM.ICONST_M1();
+	}
+
+	@Override
+	public void ICONST_0() {
+		localsVM.ICONST_0();
+	}
+
+	@Override
+	public void ICONST_1() {
+		localsVM.ICONST_1();
+	}
+
+	@Override
+	public void ICONST_2() {
+		localsVM.ICONST_2();
+	}
+
+	@Override
+	public void ICONST_3() {
+		localsVM.ICONST_3();
+	}
+
+	@Override
+	public void ICONST_4() {
+		localsVM.ICONST_4();
+	}
+
+	@Override
+	public void ICONST_5() {
+		localsVM.ICONST_5();
+	}
+
+	@Override
+	public void LCONST_0() {
+		localsVM.LCONST_0();
+	}
+
+	@Override
+	public void LCONST_1() {
+		localsVM.LCONST_1();
+	}
+
+	@Override
+	public void FCONST_0() {
+		localsVM.FCONST_0();
+	}
+
+	@Override
+	public void FCONST_1() {
+		localsVM.FCONST_1();
+	}
+
+	@Override
+	public void FCONST_2() {
+		localsVM.FCONST_2();
+	}
+
+	@Override
+	public void DCONST_0() {
+		localsVM.DCONST_0();
+	}
+
+	@Override
+	public void DCONST_1() {
+		localsVM.DCONST_1();
+	}
+
+	@Override
+	public void BIPUSH(int value) {
+		localsVM.BIPUSH(value);
+	}
+
+	@Override
+	public void SIPUSH(int value) {
+		localsVM.SIPUSH(value);
+	}
+
+	@Override
+	public void LDC(String x) {
+		localsVM.LDC(x);
+	}
+
+	@Override
+	public void LDC(Class<?> x) {
+		localsVM.LDC(x);
+	}
+
+	@Override
+	public void LDC(int x) {
+		localsVM.LDC(x);
+	}
+
+	@Override
+	public void LDC(float x) {
+		localsVM.LDC(x);
+	}
+
+	@Override
+	public void LDC2_W(long x) {
+		localsVM.LDC2_W(x);
+	}
+
+	@Override
+	public void LDC2_W(double x) {
+		localsVM.LDC2_W(x);
+	}
+
+	@Override
+	public void ILOAD(int i) {
+		localsVM.ILOAD(i);
+	}
+
+	@Override
+	public void LLOAD(int i) {
+		localsVM.LLOAD(i);
+	}
+
+	@Override
+	public void FLOAD(int i) {
+		localsVM.FLOAD(i);
+	}
+
+	@Override
+	public void DLOAD(int i) {
+		localsVM.DLOAD(i);
+	}
+
+	@Override
+	public void ALOAD(int i) {
+		localsVM.ALOAD(i);
+	}
+
+	@Override
+	public void IALOAD(Object receiver, int index) {
+		heapVM.IALOAD(receiver, index);
+	}
+
+	@Override
+	public void LALOAD(Object receiver, int index) {
+		heapVM.LALOAD(receiver, index);
+	}
+
+	@Override
+	public void FALOAD(Object receiver, int index) {
+		heapVM.FALOAD(receiver, index);
+	}
+
+	@Override
+	public void DALOAD(Object receiver, int index) {
+		heapVM.DALOAD(receiver, index);
+	}
+
+	@Override
+	public void AALOAD(Object receiver, int index) {
+		heapVM.AALOAD(receiver, index);
+	}
+
+	@Override
+	public void BALOAD(Object receiver, int index) {
+		heapVM.BALOAD(receiver, index);
+	}
+
+	@Override
+	public void CALOAD(Object receiver, int index) {
+		heapVM.CALOAD(receiver, index);
+	}
+
+	@Override
+	public void SALOAD(Object receiver, int index) {
+		heapVM.SALOAD(receiver, index);
+	}
+
+	@Override
+	public void ISTORE(int i) {
+		localsVM.ISTORE(i);
+	}
+
+	@Override
+	public void LSTORE(int i) {
+		localsVM.LSTORE(i);
+	}
+
+	@Override
+	public void FSTORE(int i) {
+		localsVM.FSTORE(i);
+	}
+
+	@Override
+	public void DSTORE(int i) {
+		localsVM.DSTORE(i);
+	}
+
+	@Override
+	public void ASTORE(int i) {
+		localsVM.ASTORE(i);
+	}
+
+	@Override
+	public void IASTORE(Object receiver, int index) {
+		heapVM.IASTORE(receiver, index);
+	}
+
+	@Override
+	public void LASTORE(Object receiver, int index) {
+		heapVM.LASTORE(receiver, index);
+	}
+
+	@Override
+	public void FASTORE(Object receiver, int index) {
+		heapVM.FASTORE(receiver, index);
+	}
+
+	@Override
+	public void DASTORE(Object receiver, int index) {
+		heapVM.DASTORE(receiver, index);
+	}
+
+	@Override
+	public void AASTORE(Object receiver, int index) {
+		heapVM.AASTORE(receiver, index);
+	}
+
+	@Override
+	public void BASTORE(Object receiver, int index) {
+		heapVM.BASTORE(receiver, index);
+	}
+
+	@Override
+	public void CASTORE(Object receiver, int index) {
+		heapVM.CASTORE(receiver, index);
+	}
+
+	@Override
+	public void SASTORE(Object receiver, int index) {
+		heapVM.SASTORE(receiver, index);
+	}
+
+	@Override
+	public void POP() {
+		arithmeticVM.POP();
+	}
+
+	@Override
+	public void POP2() {
+		arithmeticVM.POP2();
+	}
+
+	@Override
+	public void DUP() {
+		arithmeticVM.DUP();
+	}
+
+	@Override
+	public void DUP_X1() {
+		arithmeticVM.DUP_X1();
+	}
+
+	@Override
+	public void DUP_X2() {
+		arithmeticVM.DUP_X2();
+	}
+
+	@Override
+	public void DUP2() {
+		arithmeticVM.DUP2();
+	}
+
+	@Override
+	public void DUP2_X1() {
+		arithmeticVM.DUP2_X1();
+	}
+
+	@Override
+	public void DUP2_X2() {
+		arithmeticVM.DUP2_X2();
+	}
+
+	@Override
+	public void SWAP() {
+		arithmeticVM.SWAP();
+	}
+
+	@Override
+	public void IADD() {
+		arithmeticVM.IADD();
+	}
+
+	@Override
+	public void LADD() {
+		arithmeticVM.LADD();
+	}
+
+	@Override
+	public void FADD() {
+		arithmeticVM.FADD();
+	}
+
+	@Override
+	public void DADD() {
+		arithmeticVM.DADD();
+	}
+
+	@Override
+	public void ISUB() {
+		arithmeticVM.ISUB();
+	}
+
+	@Override
+	public void LSUB() {
+		arithmeticVM.LSUB();
+	}
+
+	@Override
+	public void FSUB() {
+		arithmeticVM.FSUB();
+	}
+
+	@Override
+	public void DSUB() {
+		arithmeticVM.DSUB();
+	}
+
+	@Override
+	public void IMUL() {
+		arithmeticVM.IMUL();
+	}
+
+	@Override
+	public void LMUL() {
+		arithmeticVM.LMUL();
+	}
+
+	@Override
+	public void FMUL() {
+		arithmeticVM.FMUL();
+	}
+
+	@Override
+	public void DMUL() {
+		arithmeticVM.DMUL();
+	}
+
+	@Override
+	public void IDIV(int rhs) {
+		arithmeticVM.IDIV(rhs);
+	}
+
+	@Override
+	public void LDIV(long rhs) {
+		arithmeticVM.LDIV(rhs);
+	}
+
+	@Override
+	public void FDIV(float rhs) {
+		arithmeticVM.FDIV(rhs);
+	}
+
+	@Override
+	public void DDIV(double rhs) {
+		arithmeticVM.DDIV(rhs);
+	}
+
+	@Override
+	public void IREM(int rhs) {
+		arithmeticVM.IREM(rhs);
+	}
+
+	@Override
+	public void LREM(long rhs) {
+		arithmeticVM.LREM(rhs);
+	}
+
+	@Override
+	public void FREM(float rhs) {
+		arithmeticVM.FREM(rhs);
+	}
+
+	@Override
+	public void DREM(double rhs) {
+		arithmeticVM.DREM(rhs);
+	}
+
+	@Override
+	public void INEG() {
+		arithmeticVM.INEG();
+	}
+
+	@Override
+	public void LNEG() {
+		arithmeticVM.LNEG();
+	}
+
+	@Override
+	public void FNEG() {
+		arithmeticVM.FNEG();
+	}
+
+	@Override
+	public void DNEG() {
+		arithmeticVM.DNEG();
+	}
+
+	@Override
+	public void ISHL() {
+		arithmeticVM.ISHL();
+	}
+
+	@Override
+	public void LSHL() {
+		arithmeticVM.LSHL();
+	}
+
+	@Override
+	public void ISHR() {
+		arithmeticVM.ISHR();
+	}
+
+	@Override
+	public void LSHR() {
+		arithmeticVM.LSHR();
+	}
+
+	@Override
+	public void IUSHR() {
+		arithmeticVM.IUSHR();
+	}
+
+	@Override
+	public void LUSHR() {
+		arithmeticVM.LUSHR();
+	}
+
+	@Override
+	public void IAND() {
+		arithmeticVM.IAND();
+	}
+
+	@Override
+	public void LAND() {
+		arithmeticVM.LAND();
+	}
+
+	@Override
+	public void IOR() {
+		arithmeticVM.IOR();
+	}
+
+	@Override
+	public void LOR() {
+		arithmeticVM.LOR();
+	}
+
+	@Override
+	public void IXOR() {
+		arithmeticVM.IXOR();
+	}
+
+	@Override
+	public void LXOR() {
+		arithmeticVM.LXOR();
+	}
+
+	@Override
+	public void IINC(int i, int value) {
+		arithmeticVM.IINC(i, value);
+	}
+
+	@Override
+	public void I2L() {
+		arithmeticVM.I2L();
+	}
+
+	@Override
+	public void I2F() {
+		arithmeticVM.I2F();
+	}
+
+	@Override
+	public void I2D() {
+		arithmeticVM.I2D();
+	}
+
+	@Override
+	public void L2I() {
+		arithmeticVM.L2I();
+	}
+
+	@Override
+	public void L2F() {
+		arithmeticVM.L2F();
+	}
+
+	@Override
+	public void L2D() {
+		arithmeticVM.L2D();
+	}
+
+	@Override
+	public void F2I() {
+		arithmeticVM.F2I();
+	}
+
+	@Override
+	public void F2L() {
+		arithmeticVM.F2L();
+	}
+
+	@Override
+	public void F2D() {
+		arithmeticVM.F2D();
+	}
+
+	@Override
+	public void D2I() {
+		arithmeticVM.D2I();
+	}
+
+	@Override
+	public void D2L() {
+		arithmeticVM.D2L();
+	}
+
+	@Override
+	public void D2F() {
+		arithmeticVM.D2F();
+	}
+
+	@Override
+	public void I2B() {
+		arithmeticVM.I2B();
+	}
+
+	@Override
+	public void I2C() {
+		arithmeticVM.I2C();
+	}
+
+	@Override
+	public void I2S() {
+		arithmeticVM.I2S();
+	}
+
+	@Override
+	public void LCMP() {
+		arithmeticVM.LCMP();
+	}
+
+	@Override
+	public void FCMPL() {
+		arithmeticVM.FCMPL();
+	}
+
+	@Override
+	public void FCMPG() {
+		arithmeticVM.FCMPG();
+	}
+
+	@Override
+	public void DCMPL() {
+		arithmeticVM.DCMPL();
+	}
+
+	@Override
+	public void DCMPG() {
+		arithmeticVM.DCMPG();
+	}
+
+	@Override
+	public void IFEQ(String className, String methNane, int branchIndex, int param) {
+		jumpVM.IFEQ(className, methNane, branchIndex, param);
+	}
+
+	@Override
+	public void IFNE(String className, String methNane, int branchIndex, int param) {
+		jumpVM.IFNE(className, methNane, branchIndex, param);
+	}
+
+	@Override
+	public void IFLT(String className, String methNane, int branchIndex, int param) {
+		jumpVM.IFLT(className, methNane, branchIndex, param);
+	}
+
+	@Override
+	public void IFGE(String className, String methNane, int branchIndex, int param) {
+		jumpVM.IFGE(className, methNane, branchIndex, param);
+	}
+
+	@Override
+	public void IFGT(String className, String methNane, int branchIndex, int param) {
+		jumpVM.IFGT(className, methNane, branchIndex, param);
+	}
+
+	@Override
+	public void IFLE(String className, String methNane, int branchIndex, int param) {
+		jumpVM.IFLE(className, methNane, branchIndex, param);
+	}
+
+	@Override
+	public void IF_ICMPEQ(String className, String methNane, int branchIndex, int left, int right) {
+		jumpVM.IF_ICMPEQ(className, methNane, branchIndex, left, right);
+	}
+
+	@Override
+	public void IF_ICMPNE(String className, String methNane, int branchIndex, int left, int right) {
+		jumpVM.IF_ICMPNE(className, methNane, branchIndex, left, right);
+	}
+
+	@Override
+	public void IF_ICMPLT(String className, String methNane, int branchIndex, int left, int right) {
+		jumpVM.IF_ICMPLT(className, methNane, branchIndex, left, right);
+	}
+
+	@Override
+	public void IF_ICMPGE(String className, String methNane, int branchIndex, int left, int right) {
+		jumpVM.IF_ICMPGE(className, methNane, branchIndex, left, right);
+	}
+
+	@Override
+	public void IF_ICMPGT(String className, String methNane, int branchIndex, int left, int right) {
+		jumpVM.IF_ICMPGT(className, methNane, branchIndex, left, right);
+	}
+
+	@Override
+	public void IF_ICMPLE(String className, String methNane, int branchIndex, int left, int right) {
+		jumpVM.IF_ICMPLE(className, methNane, branchIndex, left, right);
+	}
+
+	@Override
+	public void IF_ACMPEQ(String className, String methNane, int branchIndex, Object left, Object right) {
+		jumpVM.IF_ACMPEQ(className, methNane, branchIndex, left, right);
+	}
+
+	@Override
+	public void IF_ACMPNE(String className, String methNane, int branchIndex, Object left, Object right) {
+		jumpVM.IF_ACMPNE(className, methNane, branchIndex, left, right);
+	}
+
+	@Override
+	public void GOTO() {
+		jumpVM.GOTO();
+	}
+
+	@Override
+	public void JSR() {
+		jumpVM.JSR();
+	}
+
+	@Override
+	public void RET() {
+		jumpVM.RET();
+	}
+
+	@Override
+	public void TABLESWITCH(String className, String methName, int branchIndex, int target, int min, int max) {
+		jumpVM.TABLESWITCH(className, methName, branchIndex, target, min, max);
+	}
+
+	@Override
+	public void LOOKUPSWITCH(String className, String methName, int branchIndex, int target, int[] goals) {
+		jumpVM.LOOKUPSWITCH(className, methName, branchIndex, target, goals);
+	}
+
+	@Override
+	public void IRETURN() {
+		callVM.IRETURN();
+	}
+
+	@Override
+	public void LRETURN() {
+		callVM.LRETURN();
+	}
+
+	@Override
+	public void FRETURN() {
+		callVM.FRETURN();
+	}
+
+	@Override
+	public void DRETURN() {
+		callVM.DRETURN();
+	}
+
+	@Override
+	public void ARETURN() {
+		callVM.ARETURN();
+	}
+
+	@Override
+	public void RETURN() {
+		callVM.RETURN();
+	}
+
+	@Override
+	public void GETSTATIC(String owner, String name, String desc) {
+		heapVM.GETSTATIC(owner, name, desc);
+	}
+
+	@Override
+	public void PUTSTATIC(String owner, String name, String desc) {
+		heapVM.PUTSTATIC(owner, name, desc);
+	}
+
+	@Override
+	public void GETFIELD(Object receiver, String owner, String name, String desc) {
+		heapVM.GETFIELD(receiver, owner, name, desc);
+	}
+
+	@Override
+	public void PUTFIELD(Object receiver, String owner, String name, String desc) {
+		heapVM.PUTFIELD(receiver, owner, name, desc);
+	}
+
+	@Override
+	public void INVOKESTATIC(String owner, String name, String desc) {
+		callVM.INVOKESTATIC(owner, name, desc);
+		symbolicFunctionVM.INVOKESTATIC(owner, name, desc);
+	}
+
+	@Override
+	public void INVOKESPECIAL(String owner, String name, String desc) {
+		callVM.INVOKESPECIAL(owner, name, desc);
+		symbolicFunctionVM.INVOKESPECIAL(owner, name, desc);
+	}
+
+	@Override
+	public void INVOKESPECIAL(Object receiver, String owner, String name, String desc) {
+		callVM.INVOKESPECIAL(receiver, owner, name, desc);
+		symbolicFunctionVM.INVOKESPECIAL(receiver, owner, name, desc);
+	}
+
+	@Override
+	public void INVOKEVIRTUAL(Object receiver, String owner, String name, String desc) {
+		callVM.INVOKEVIRTUAL(receiver, owner, name, desc);
+		symbolicFunctionVM.INVOKEVIRTUAL(receiver, owner, name, desc);
+	}
+
+	@Override
+	public void INVOKEINTERFACE(Object receiver, String owner, String name, String desc) {
+		callVM.INVOKEINTERFACE(receiver, owner, name, desc);
+		symbolicFunctionVM.INVOKEINTERFACE(receiver, owner, name, desc);
+	}
+
+	@Override
+	public void UNUSED() {
+		otherVM.UNUSED();
+	}
+
+	@Override
+	public void NEW(String typeName) {
+		heapVM.NEW(typeName);
+	}
+
+	@Override
+	public void NEWARRAY(int length, Class<?> componentType) {
+		heapVM.NEWARRAY(length, componentType);
+	}
+
+	@Override
+	public void ANEWARRAY(int length, String typeName) {
+		heapVM.ANEWARRAY(length, typeName);
+	}
+
+	@Override
+	public void ARRAYLENGTH(Object reference) {
+		heapVM.ARRAYLENGTH(reference);
+	}
+
+	@Override
+	public void ATHROW(Throwable object) {
+		jumpVM.ATHROW(object);
+	}
+
+	@Override
+	public void CHECKCAST(Object reference, String typeName) {
+		heapVM.CHECKCAST(reference, typeName);
+	}
+
+	@Override
+	public void INSTANCEOF(Object reference, String typeName) {
+		heapVM.INSTANCEOF(reference, typeName);
+	}
+
+	@Override
+	public void MONITORENTER() {
+		otherVM.MONITORENTER();
+	}
+
+	@Override
+	public void MONITOREXIT() {
+		otherVM.MONITOREXIT();
+	}
+
+	@Override
+	public void WIDE() {
+		otherVM.WIDE();
+	}
+
+	@Override
+	public void MULTIANEWARRAY(String arrayTypeDesc, int nrDimensions) {
+		heapVM.MULTIANEWARRAY(arrayTypeDesc, nrDimensions);
+	}
+
+	@Override
+	public void IFNULL(String className, String methNane, int branchIndex, Object param) {
+		jumpVM.IFNULL(className, methNane, branchIndex, param);
+	}
+
+	@Override
+	public void IFNONNULL(String className, String methNane, int branchIndex, Object param) {
+		jumpVM.IFNONNULL(className, methNane, branchIndex, param);
+	}
+
+	@Override
+	public void GOTO_W() {
+		jumpVM.GOTO_W();
+	}
+
+	@Override
+	public void JSR_W() {
+		jumpVM.JSR_W();
+	}
+}
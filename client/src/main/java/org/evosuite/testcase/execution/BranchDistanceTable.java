@@ -0,0 +1,201 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Dense storage of the branch distances observed during one test execution.
+ * Distances are kept in primitive arrays indexed by the actual branch id
+ * assigned by the {@link org.evosuite.coverage.branch.BranchPool}, so that
+ * recording a passed branch neither boxes values nor takes a lock. The table
+ * is only ever written by the thread executing the test.
+ *
+ * Branch ids that were reached are additionally kept in insertion order, so
+ * that iterating and clearing the table only costs the number of reached
+ * branches, not the number of known branches.
+ */
+public class BranchDistanceTable implements Cloneable {
+
+	private double[] trueDistances;
+
+	private double[] falseDistances;
+
+	private double[] trueDistancesSum;
+
+	private double[] falseDistancesSum;
+
+	private boolean[] reached;
+
+	/** Reached branch ids, in the order they were first reached */
+	private int[] reachedIds;
+
+	private int numReached = 0;
+
+	/**
+	 * @param capacity
+	 *            the expected highest branch id, the table grows if a larger id
+	 *            is passed
+	 */
+	public BranchDistanceTable(int capacity) {
+		int size = Math.max(capacity + 1, 16);
+		trueDistances = new double[size];
+		falseDistances = new double[size];
+		trueDistancesSum = new double[size];
+		falseDistancesSum = new double[size];
+		reached = new boolean[size];
+		reachedIds = new int[16];
+	}
+
+	/**
+	 * Record one evaluation of the given branch
+	 *
+	 * @param branch
+	 * @param trueDistance
+	 * @param falseDistance
+	 */
+	public void update(int branch, double trueDistance, double falseDistance) {
+		if (branch >= reached.length)
+			grow(branch);
+
+		if (!reached[branch]) {
+			reached[branch] = true;
+			if (numReached == reachedIds.length)
+				reachedIds = Arrays.copyOf(reachedIds, reachedIds.length * 2);
+			reachedIds[numReached++] = branch;
+			trueDistances[branch] = trueDistance;
+			falseDistances[branch] = falseDistance;
+			trueDistancesSum[branch] = trueDistance;
+			falseDistancesSum[branch] = falseDistance;
+		} else {
+			if (trueDistance < trueDistances[branch])
+				trueDistances[branch] = trueDistance;
+			if (falseDistance < falseDistances[branch])
+				falseDistances[branch] = falseDistance;
+			trueDistancesSum[branch] += trueDistance;
+			falseDistancesSum[branch] += falseDistance;
+		}
+	}
+
+	private void grow(int branch) {
+		int size = Math.max(branch + 1, reached.length * 2);
+		trueDistances = Arrays.copyOf(trueDistances, size);
+		falseDistances = Arrays.copyOf(falseDistances, size);
+		trueDistancesSum = Arrays.copyOf(trueDistancesSum, size);
+		falseDistancesSum = Arrays.copyOf(falseDistancesSum, size);
+		reached = Arrays.copyOf(reached, size);
+	}
+
+	/**
+	 * @return the number of distinct branches that were reached
+	 */
+	public int getNumReached() {
+		return numReached;
+	}
+
+	/**
+	 * @param index
+	 *            position in [0, getNumReached())
+	 * @return the id of the index-th reached branch
+	 */
+	public int getReachedBranch(int index) {
+		return reachedIds[index];
+	}
+
+	public boolean isReached(int branch) {
+		return branch >= 0 && branch < reached.length && reached[branch];
+	}
+
+	/**
+	 * Minimal true distance of a reached branch
+	 */
+	public double getTrueDistance(int branch) {
+		return trueDistances[branch];
+	}
+
+	/**
+	 * Minimal false distance of a reached branch
+	 */
+	public double getFalseDistance(int branch) {
+		return falseDistances[branch];
+	}
+
+	public double getTrueDistanceSum(int branch) {
+		return trueDistancesSum[branch];
+	}
+
+	public double getFalseDistanceSum(int branch) {
+		return falseDistancesSum[branch];
+	}
+
+	/**
+	 * Forget all reached branches, keeping the allocated arrays
+	 */
+	public void clear() {
+		for (int i = 0; i < numReached; i++) {
+			reached[reachedIds[i]] = false;
+		}
+		numReached = 0;
+	}
+
+	public Map<Integer, Double> getTrueDistances() {
+		return toMap(trueDistances);
+	}
+
+	public Map<Integer, Double> getFalseDistances() {
+		return toMap(falseDistances);
+	}
+
+	public Map<Integer, Double> getTrueDistancesSum() {
+		return toMap(trueDistancesSum);
+	}
+
+	public Map<Integer, Double> getFalseDistancesSum() {
+		return toMap(falseDistancesSum);
+	}
+
+	private Map<Integer, Double> toMap(double[] values) {
+		Map<Integer, Double> map = new LinkedHashMap<Integer, Double>(numReached * 2);
+		for (int i = 0; i < numReached; i++) {
+			int branch = reachedIds[i];
+			map.put(branch, values[branch]);
+		}
+		return map;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public BranchDistanceTable clone() {
+		try {
+			BranchDistanceTable copy = (BranchDistanceTable) super.clone();
+			copy.trueDistances = trueDistances.clone();
+			copy.falseDistances = falseDistances.clone();
+			copy.trueDistancesSum = trueDistancesSum.clone();
+			copy.falseDistancesSum = falseDistancesSum.clone();
+			copy.reached = reached.clone();
+			copy.reachedIds = reachedIds.clone();
+			return copy;
+		} catch (CloneNotSupportedException e) {
+			throw new Error(e);
+		}
+	}
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.runtime.vfs.VirtualFileSystem;
+import org.evosuite.testcase.TestCase;
+
+/**
+ * One of several isolated lanes on which tests are executed concurrently.
+ * 
+ * <p>
+ * A lane owns a dispatcher thread which is bound to its own
+ * {@link ExecutionTracer}, {@link LoopCounter} and {@link VirtualFileSystem},
+ * and its own {@link TestCaseExecutor}. The test execution threads of that
+ * executor are created by the dispatcher thread and inherit these bindings, as
+ * do the threads spawned by the SUT.
+ * </p>
+ */
+public class ExecutionLane {
+
+	/** Name used for the dispatcher threads of the lanes */
+	public static final String EXECUTION_LANE_THREAD = "EXECUTION_LANE";
+
+	private final int id;
+
+	private final ExecutorService dispatcher;
+
+	/** Only accessed on the dispatcher thread */
+	private TestCaseExecutor executor;
+
+	ExecutionLane(final int id) {
+		this.id = id;
+		this.dispatcher = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, EXECUTION_LANE_THREAD + "_" + id);
+				thread.setDaemon(true);
+				Sandbox.addPrivilegedThread(thread);
+				return thread;
+			}
+		});
+		waitFor(dispatcher.submit(new Callable<Void>() {
+			@Override
+			public Void call() {
+				ExecutionTracer.bindNewInstanceToCurrentThread();
+				LoopCounter.bindNewInstanceToCurrentThread();
+				VirtualFileSystem.bindNewInstanceToCurrentThread();
+				executor = new TestCaseExecutor(true);
+				return null;
+			}
+		}));
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * Execute tests from a list shared with other lanes until it is exhausted
+	 * 
+	 * @param tests
+	 *            the tests to execute
+	 * @param next
+	 *            index of the next test to execute, shared by all lanes
+	 * @param results
+	 *            the execution result of the test at position i is stored at
+	 *            position i
+	 * @param observers
+	 *            the observers of this lane, not shared with other lanes
+	 * @return a future that completes when there are no tests left
+	 */
+	Future<?> executeShared(final List<TestCase> tests, final AtomicInteger next,
+	        final ExecutionResult[] results, final Set<ExecutionObserver> observers) {
+		return dispatcher.submit(new Runnable() {
+			@Override
+			public void run() {
+				executor.setExecutionObservers(observers);
+				int position;
+				while ((position = next.getAndIncrement()) < tests.size()) {
+					results[position] = executor.execute(tests.get(position));
+				}
+			}
+		});
+	}
+
+	/**
+	 * Stop the threads of this lane
+	 */
+	void shutdown() {
+		dispatcher.submit(new Runnable() {
+			@Override
+			public void run() {
+				executor.shutdown();
+				ExecutionTracer.unbindCurrentThread();
+				LoopCounter.unbindCurrentThread();
+				VirtualFileSystem.unbindCurrentThread();
+			}
+		});
+		dispatcher.shutdown();
+	}
+
+	private static void waitFor(Future<?> future) {
+		try {
+			future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			throw new Error(e.getCause());
+		}
+	}
+}
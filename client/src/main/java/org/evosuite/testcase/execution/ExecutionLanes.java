@@ -0,0 +1,258 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
+import org.evosuite.runtime.Runtime;
+import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.runtime.util.JOptionPaneInputs;
+import org.evosuite.runtime.util.SystemInUtil;
+import org.evosuite.testcase.ExecutableChromosome;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.TestFitnessFunction;
+import org.evosuite.testcase.execution.reset.ClassReInitializer;
+import org.evosuite.testsuite.AbstractTestSuiteChromosome;
+import org.evosuite.testsuite.TestSuiteFitnessFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes the tests of a population concurrently on
+ * {@link Properties#EXECUTION_LANES} {@link ExecutionLane}s.
+ *
+ * <p>
+ * Results are stored as last execution result of the test chromosomes, so that
+ * the fitness functions evaluated afterwards on the search thread do not
+ * execute them again. Each lane has its own trace, scope, loop counters and
+ * virtual file system. The SUT and its static state, the sandbox and the JVM
+ * wide mocks (e.g. Random, System.in) are shared by all lanes and are reset
+ * once per batch, after all lanes finished their tests. This is only sound for
+ * classes whose tests do not interfere through static state.
+ * </p>
+ *
+ * <p>
+ * Each lane observes its tests with copies of the observers of
+ * {@link TestCaseExecutor#getInstance()} (see
+ * {@link ExecutionObserver#copyForLane()}). If one of the observers cannot be
+ * copied, the tests are left to be executed one after the other by the
+ * fitness functions.
+ * </p>
+ */
+public class ExecutionLanes {
+
+	private static final Logger logger = LoggerFactory.getLogger(ExecutionLanes.class);
+
+	private static ExecutionLanes instance = null;
+
+	private final List<ExecutionLane> lanes = new ArrayList<ExecutionLane>();
+
+	private ExecutionLanes(int numLanes) {
+		for (int i = 0; i < numLanes; i++) {
+			lanes.add(new ExecutionLane(i));
+		}
+		logger.info("Executing tests on " + numLanes + " lanes");
+	}
+
+	/**
+	 * @return true if tests should be executed on more than one lane
+	 */
+	public static boolean isEnabled() {
+		return Properties.EXECUTION_LANES > 1;
+	}
+
+	public static synchronized ExecutionLanes getInstance() {
+		if (instance == null || instance.lanes.size() != Properties.EXECUTION_LANES) {
+			pullDown();
+			instance = new ExecutionLanes(Properties.EXECUTION_LANES);
+		}
+		return instance;
+	}
+
+	/**
+	 * Stop all lane threads
+	 */
+	public static synchronized void pullDown() {
+		if (instance != null) {
+			for (ExecutionLane lane : instance.lanes) {
+				lane.shutdown();
+			}
+			instance = null;
+		}
+	}
+
+	public int getNumberOfLanes() {
+		return lanes.size();
+	}
+
+	/**
+	 * Execute all tests of the individuals that have changed since their last
+	 * execution, unless one of the fitness functions executes tests in its own
+	 * way (e.g. on mutants), in which case nothing is done
+	 *
+	 * @param individuals
+	 *            test or test suite chromosomes
+	 * @param fitnessFunctions
+	 *            the fitness functions that will be evaluated on the
+	 *            individuals
+	 */
+	public static void preExecute(Collection<? extends Chromosome> individuals,
+	        Collection<? extends FitnessFunction<?>> fitnessFunctions) {
+		for (FitnessFunction<?> fitnessFunction : fitnessFunctions) {
+			if (!usesDefaultExecution(fitnessFunction))
+				return;
+		}
+
+		List<TestChromosome> tests = new ArrayList<TestChromosome>();
+		for (Chromosome individual : individuals) {
+			if (individual instanceof AbstractTestSuiteChromosome<?>) {
+				for (ExecutableChromosome test : ((AbstractTestSuiteChromosome<?>) individual).getTestChromosomes()) {
+					addIfExecutable(test, tests);
+				}
+			} else {
+				addIfExecutable(individual, tests);
+			}
+		}
+		getInstance().execute(tests);
+	}
+
+	private static void addIfExecutable(Chromosome individual, List<TestChromosome> tests) {
+		// Subclasses such as regression tests are executed differently
+		if (individual.getClass() == TestChromosome.class)
+			tests.add((TestChromosome) individual);
+	}
+
+	private static boolean usesDefaultExecution(FitnessFunction<?> fitnessFunction) {
+		Class<?> executor;
+		if (fitnessFunction instanceof TestSuiteFitnessFunction)
+			executor = TestSuiteFitnessFunction.class;
+		else if (fitnessFunction instanceof TestFitnessFunction)
+			executor = TestFitnessFunction.class;
+		else
+			return false;
+		try {
+			return fitnessFunction.getClass().getMethod("runTest", TestCase.class).getDeclaringClass() == executor;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Execute all tests that have changed since their last execution, and
+	 * store the results in the chromosomes. Nothing is done if the observers
+	 * of the test executor cannot be copied to the lanes.
+	 *
+	 * @param chromosomes
+	 *            a {@link java.util.List} object.
+	 */
+	public void execute(List<TestChromosome> chromosomes) {
+		List<TestChromosome> toExecute = new ArrayList<TestChromosome>();
+		List<TestCase> tests = new ArrayList<TestCase>();
+		for (TestChromosome chromosome : chromosomes) {
+			if (chromosome.isChanged() || chromosome.getLastExecutionResult() == null) {
+				toExecute.add(chromosome);
+				tests.add(chromosome.getTestCase());
+			}
+		}
+		if (tests.isEmpty())
+			return;
+
+		List<Set<ExecutionObserver>> laneObservers = copyObservers();
+		if (laneObservers == null)
+			return;
+
+		ExecutionResult[] results = new ExecutionResult[tests.size()];
+		AtomicInteger next = new AtomicInteger(0);
+		List<Future<?>> futures = new ArrayList<Future<?>>(lanes.size());
+
+		// JVM wide state is reset once for the whole batch
+		Runtime.getInstance().resetRuntime();
+		SystemInUtil.getInstance().initForTestCase();
+		JOptionPaneInputs.getInstance().initForTestCase();
+		Sandbox.goingToExecuteSUTCode();
+		try {
+			for (int i = 0; i < lanes.size(); i++) {
+				futures.add(lanes.get(i).executeShared(tests, next, results, laneObservers.get(i)));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			logger.error("TG: Exception caught: ", e.getCause());
+			throw new Error(e.getCause());
+		} finally {
+			Sandbox.doneWithExecutingSUTCode();
+		}
+
+		if (Properties.RESET_STATIC_FIELDS) {
+			// only now, as resetting a class while another lane uses it would
+			// change the outcome of that test
+			for (int i = 0; i < results.length; i++) {
+				if (results[i] != null)
+					ClassReInitializer.getInstance().reInitializeClassesAfterTestExecution(tests.get(i), results[i]);
+			}
+		}
+
+		for (int i = 0; i < results.length; i++) {
+			if (results[i] == null)
+				continue;
+			TestChromosome chromosome = toExecute.get(i);
+			chromosome.setLastExecutionResult(results[i]);
+			chromosome.setChanged(false);
+			MaxStatementsStoppingCondition.statementsExecuted(results[i].getExecutedStatements());
+		}
+	}
+
+	/**
+	 * @return the observers of each lane, or null if an observer of the test
+	 *         executor cannot be copied
+	 */
+	private List<Set<ExecutionObserver>> copyObservers() {
+		Set<ExecutionObserver> observers = TestCaseExecutor.getInstance().getExecutionObservers();
+		List<Set<ExecutionObserver>> laneObservers = new ArrayList<Set<ExecutionObserver>>(lanes.size());
+		for (int i = 0; i < lanes.size(); i++) {
+			Set<ExecutionObserver> copies = new LinkedHashSet<ExecutionObserver>();
+			for (ExecutionObserver observer : observers) {
+				ExecutionObserver copy = observer.copyForLane();
+				if (copy == null) {
+					logger.debug("Observer {} cannot be copied, not using lanes", observer.getClass().getName());
+					return null;
+				}
+				copies.add(copy);
+			}
+			laneObservers.add(copies);
+		}
+		return laneObservers;
+	}
+}
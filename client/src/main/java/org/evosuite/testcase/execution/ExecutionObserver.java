@@ -116,6 +116,31 @@ public abstract class ExecutionObserver {
 	 */
 	public abstract void clear();
 
+	/**
+	 * Tests executed on several {@link ExecutionLane}s are observed by a copy
+	 * of each observer per lane. Only observers whose results of a test only
+	 * depend on that test, and that do not use {@link #getCurrentTest()}, can
+	 * be copied.
+	 *
+	 * @return a new observer of the same kind without results, or
+	 *         <code>null</code> if tests need to be executed one after the
+	 *         other to be observed
+	 */
+	public ExecutionObserver copyForLane() {
+		return null;
+	}
+
+	/**
+	 * @return <code>true</code> if all this observer records about a test is
+	 *         stored in its {@link ExecutionResult} by
+	 *         {@link #testExecutionFinished(ExecutionResult, Scope)}, so that
+	 *         the result of an equivalent earlier execution can be reused
+	 *         instead of executing the test (see {@link PrefixExecutionCache})
+	 */
+	public boolean isStoredInResult() {
+		return false;
+	}
+
 	/**
 	 * Determine the set of variables that somehow lead to this statement
 	 * 
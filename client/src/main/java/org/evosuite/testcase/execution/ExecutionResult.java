@@ -25,6 +25,8 @@ import org.evosuite.coverage.io.output.OutputCoverageGoal;
 import org.evosuite.coverage.mutation.Mutation;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testsuite.TestSuiteAggregate;
+import org.evosuite.testsuite.TestSuiteFitnessFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -97,6 +99,13 @@ public class ExecutionResult implements Cloneable {
 
     private Map<Integer, Set<OutputCoverageGoal>> outputGoals = new LinkedHashMap<>();
 
+	/**
+	 * Contributions of this result to the aggregates of suite fitness
+	 * functions, by fitness function. Contributions do not change, so they
+	 * are shared with the copies of this result.
+	 */
+	private Map<TestSuiteFitnessFunction, TestSuiteAggregate.Contribution> contributions = null;
+
 	// experiment .. tried to remember intermediately calculated ControlFlowDistances .. no real speed up
 	//	public Map<Branch, ControlFlowDistance> intermediateDistances;
 
@@ -284,6 +293,7 @@ public class ExecutionResult implements Cloneable {
 			throw new IllegalArgumentException("Trace cannot be null");
 		}
 		this.trace = trace;
+		this.contributions = null;
 	}
 
 	/**
@@ -442,10 +452,28 @@ public class ExecutionResult implements Cloneable {
 			copy.readProperties.addAll(readProperties);
 		}
 		copy.wasAnyPropertyWritten = wasAnyPropertyWritten;
+		if (contributions != null) {
+			copy.contributions = new IdentityHashMap<>(contributions);
+		}
 
 		return copy;
 	}
 
+	/**
+	 * @return the contribution of this result to the aggregate of the fitness
+	 *         function, or null if it was not computed yet
+	 */
+	public TestSuiteAggregate.Contribution getContribution(TestSuiteFitnessFunction fitness) {
+		return contributions == null ? null : contributions.get(fitness);
+	}
+
+	public void setContribution(TestSuiteFitnessFunction fitness, TestSuiteAggregate.Contribution contribution) {
+		if (contributions == null) {
+			contributions = new IdentityHashMap<>();
+		}
+		contributions.put(fitness, contribution);
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public String toString() {
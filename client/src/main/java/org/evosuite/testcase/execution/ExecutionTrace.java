@@ -553,6 +553,16 @@ public interface ExecutionTrace {
 	 */
 	Map<Integer, Double> getTrueDistancesSum();
 
+	/**
+	 * <p>
+	 * getBranchDistanceTable
+	 * </p>
+	 * 
+	 * @return the dense branch distances of this trace, or null if the
+	 *         distances are only available as maps
+	 */
+	BranchDistanceTable getBranchDistanceTable();
+
 	/**
 	 * <p>
 	 * getPassedUses
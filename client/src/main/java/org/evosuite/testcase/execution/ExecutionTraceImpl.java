@@ -107,6 +107,14 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	/** Constant <code>traceCoverage=true</code> */
 	public static boolean traceCoverage = true;
 
+	/**
+	 * A trace is normally only written by the thread executing the test (see
+	 * {@link ExecutionTracer#setThread(Thread)}), so its collections need no
+	 * locking. Only when the caller thread is not checked, threads spawned by
+	 * the SUT write into the same trace concurrently.
+	 */
+	private static volatile boolean sharedBetweenThreads = false;
+
 	private static void checkSaneCall(MethodCall call) {
 		if (!((call.trueDistanceTrace.size() == call.falseDistanceTrace.size())
 				&& (call.falseDistanceTrace.size() == call.defuseCounterTrace.size())
@@ -148,6 +156,34 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		return traceCalls;
 	}
 
+	/**
+	 * Whether traces created from now on are written by more than one thread
+	 * 
+	 * @param shared
+	 *            a boolean.
+	 */
+	static void setSharedBetweenThreads(boolean shared) {
+		sharedBetweenThreads = shared;
+	}
+
+	private static <K, V> Map<K, V> newMap() {
+		if (sharedBetweenThreads)
+			return Collections.synchronizedMap(new HashMap<K, V>());
+		return new HashMap<K, V>();
+	}
+
+	private static <T> List<T> newList() {
+		if (sharedBetweenThreads)
+			return Collections.synchronizedList(new ArrayList<T>());
+		return new ArrayList<T>();
+	}
+
+	private static <T> Set<T> newSet() {
+		if (sharedBetweenThreads)
+			return Collections.synchronizedSet(new HashSet<T>());
+		return new HashSet<T>();
+	}
+
 	/**
 	 * <p>
 	 * enableTraceCoverage
@@ -196,74 +232,64 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	private List<BranchEval> branchesTrace = new ArrayList<BranchEval>();
 
 	// Coverage information
-	public Map<String, Map<String, Map<Integer, Integer>>> coverage = Collections
-			.synchronizedMap(new HashMap<String, Map<String, Map<Integer, Integer>>>());
+	public Map<String, Map<String, Map<Integer, Integer>>> coverage = newMap();
 
-	public Map<Integer, Integer> coveredFalse = Collections.synchronizedMap(new HashMap<Integer, Integer>());
+	public Map<Integer, Integer> coveredFalse = newMap();
 
-	public Map<String, Integer> coveredMethods = Collections.synchronizedMap(new HashMap<String, Integer>());
+	public Map<String, Integer> coveredMethods = newMap();
 
-	public Map<String, Integer> coveredBranchlessMethods = Collections.synchronizedMap(new HashMap<String, Integer>());
+	public Map<String, Integer> coveredBranchlessMethods = newMap();
 
-	public Map<Integer, Integer> coveredPredicates = Collections.synchronizedMap(new HashMap<Integer, Integer>());
+	public Map<Integer, Integer> coveredPredicates = newMap();
 
-	public Map<Integer, Integer> coveredTrue = Collections.synchronizedMap(new HashMap<Integer, Integer>());
+	public Map<Integer, Integer> coveredTrue = newMap();
 
-	public Map<Integer, Integer> coveredDefs = Collections.synchronizedMap(new HashMap<Integer, Integer>());
+	public Map<Integer, Integer> coveredDefs = newMap();
 
-	public Map<Integer, Map<CallContext, Double>> coveredTrueContext = Collections
-			.synchronizedMap(new HashMap<Integer, Map<CallContext, Double>>());
+	public Map<Integer, Map<CallContext, Double>> coveredTrueContext = newMap();
 
-	public Map<Integer, Map<CallContext, Double>> coveredFalseContext = Collections
-			.synchronizedMap(new HashMap<Integer, Map<CallContext, Double>>());
+	public Map<Integer, Map<CallContext, Double>> coveredFalseContext = newMap();
 
-	public Map<Integer, Map<CallContext, Integer>> coveredPredicateContext = Collections
-			.synchronizedMap(new HashMap<Integer, Map<CallContext, Integer>>());
+	public Map<Integer, Map<CallContext, Integer>> coveredPredicateContext = newMap();
 
-	public Map<String, Map<CallContext, Integer>> coveredMethodContext = Collections
-			.synchronizedMap(new HashMap<String, Map<CallContext, Integer>>());
+	public Map<String, Map<CallContext, Integer>> coveredMethodContext = newMap();
 
 	// number of seen Definitions and uses for indexing purposes
 	private int duCounter = 0;
 	// The last explicitly thrown exception is kept here
 	private Throwable explicitException = null;
 
-	public Map<Integer, Double> falseDistances = Collections.synchronizedMap(new HashMap<Integer, Double>());
-	private final Map<Integer, Double> falseDistancesSum = Collections.synchronizedMap(new HashMap<Integer, Double>());
+	public Map<Integer, Double> falseDistances = newMap();
+	private final Map<Integer, Double> falseDistancesSum = newMap();
 	// finished_calls;
-	public List<MethodCall> finishedCalls = Collections.synchronizedList(new ArrayList<MethodCall>());
-	public Map<Integer, Object> knownCallerObjects = Collections.synchronizedMap(new HashMap<Integer, Object>());
+	public List<MethodCall> finishedCalls = newList();
+	public Map<Integer, Object> knownCallerObjects = newMap();
 	// to differentiate between different MethodCalls
 	private int methodId = 0;
-	public Map<Integer, Double> mutantDistances = Collections.synchronizedMap(new HashMap<Integer, Double>());
+	public Map<Integer, Double> mutantDistances = newMap();
 	// for defuse-coverage it is important to keep track of all the objects that
 	// called the ExecutionTracer
 	private int objectCounter = 0;
 	// for each Variable-Name these maps hold the data for which objectID
 	// at which time (duCounter) which Definition or Use was passed
-	public Map<String, HashMap<Integer, HashMap<Integer, Integer>>> passedDefinitions = Collections
-			.synchronizedMap(new HashMap<String, HashMap<Integer, HashMap<Integer, Integer>>>());
-	public Map<String, HashMap<Integer, HashMap<Integer, Integer>>> passedUses = Collections
-			.synchronizedMap(new HashMap<String, HashMap<Integer, HashMap<Integer, Integer>>>());
+	public Map<String, HashMap<Integer, HashMap<Integer, Integer>>> passedDefinitions = newMap();
+	public Map<String, HashMap<Integer, HashMap<Integer, Integer>>> passedUses = newMap();
 
-	public Map<String, HashMap<Integer, HashMap<Integer, Object>>> passedDefinitionObject = Collections
-			.synchronizedMap(new HashMap<String, HashMap<Integer, HashMap<Integer, Object>>>());
-	public Map<String, HashMap<Integer, HashMap<Integer, Object>>> passedUseObject = Collections
-			.synchronizedMap(new HashMap<String, HashMap<Integer, HashMap<Integer, Object>>>());
+	public Map<String, HashMap<Integer, HashMap<Integer, Object>>> passedDefinitionObject = newMap();
+	public Map<String, HashMap<Integer, HashMap<Integer, Object>>> passedUseObject = newMap();
 
 	private int proxyCount = 1;
 	// Data information
-	public Map<String, Map<String, Map<Integer, Integer>>> returnData = Collections
-			.synchronizedMap(new HashMap<String, Map<String, Map<Integer, Integer>>>());
+	public Map<String, Map<String, Map<Integer, Integer>>> returnData = newMap();
 
 	// active calls
 	LinkedList<MethodCall> stack = new LinkedList<>();
 
-	public Set<Integer> touchedMutants = Collections.synchronizedSet(new HashSet<Integer>());
+	public Set<Integer> touchedMutants = newSet();
 
-	public Map<Integer, Double> trueDistances = Collections.synchronizedMap(new HashMap<Integer, Double>());
+	public Map<Integer, Double> trueDistances = newMap();
 
-	private final Map<Integer, Double> trueDistancesSum = Collections.synchronizedMap(new HashMap<Integer, Double>());
+	private final Map<Integer, Double> trueDistancesSum = newMap();
 
 	public static Set<Integer> gradientBranches = Collections.synchronizedSet(new HashSet<Integer>());
 
@@ -452,6 +478,28 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 			}
 		}
 
+		updateBranchDistances(branch, true_distance, false_distance);
+
+		if (!disableContext && (Properties.INSTRUMENT_CONTEXT || Properties.INSTRUMENT_METHOD_CALLS
+				|| ArrayUtil.contains(Properties.CRITERION, Criterion.IBRANCH)
+				|| ArrayUtil.contains(Properties.CRITERION, Criterion.CBRANCH))) {
+			updateBranchContextMaps(branch, true_distance, false_distance);
+		}
+
+		// This requires a lot of memory and should not really be used
+		if (Properties.BRANCH_EVAL) {
+			branchesTrace.add(new BranchEval(branch, true_distance, false_distance));
+		}
+	}
+
+	/**
+	 * Update the minimal and summed true/false distances of the branch
+	 * 
+	 * @param branch
+	 * @param true_distance
+	 * @param false_distance
+	 */
+	protected void updateBranchDistances(int branch, double true_distance, double false_distance) {
 		if (!trueDistances.containsKey(branch))
 			trueDistances.put(branch, true_distance);
 		else
@@ -471,17 +519,6 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 			falseDistancesSum.put(branch, false_distance);
 		else
 			falseDistancesSum.put(branch, falseDistancesSum.get(branch) + false_distance);
-
-		if (!disableContext && (Properties.INSTRUMENT_CONTEXT || Properties.INSTRUMENT_METHOD_CALLS
-				|| ArrayUtil.contains(Properties.CRITERION, Criterion.IBRANCH)
-				|| ArrayUtil.contains(Properties.CRITERION, Criterion.CBRANCH))) {
-			updateBranchContextMaps(branch, true_distance, false_distance);
-		}
-
-		// This requires a lot of memory and should not really be used
-		if (Properties.BRANCH_EVAL) {
-			branchesTrace.add(new BranchEval(branch, true_distance, false_distance));
-		}
 	}
 
 	/**
@@ -570,6 +607,17 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		coveredPredicateContext = new HashMap<Integer, Map<CallContext, Integer>>();
 	}
 
+	/**
+	 * Create an empty trace of the same kind as this one, used by
+	 * {@link #clone()}
+	 * 
+	 * @return a {@link org.evosuite.testcase.execution.ExecutionTraceImpl}
+	 *         object.
+	 */
+	protected ExecutionTraceImpl newEmptyTrace() {
+		return new ExecutionTraceImpl();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -578,7 +626,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	@Override
 	public ExecutionTraceImpl clone() {
 
-		ExecutionTraceImpl copy = new ExecutionTraceImpl();
+		ExecutionTraceImpl copy = newEmptyTrace();
 		for (MethodCall call : finishedCalls) {
 			copy.finishedCalls.add(call.clone());
 		}
@@ -1574,11 +1622,11 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
 		}
 		ret.append("\nTrue distances: ");
-		for (Entry<Integer, Double> entry : trueDistances.entrySet()) {
+		for (Entry<Integer, Double> entry : getTrueDistances().entrySet()) {
 			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
 		}
 		ret.append("\nFalse distances: ");
-		for (Entry<Integer, Double> entry : falseDistances.entrySet()) {
+		for (Entry<Integer, Double> entry : getFalseDistances().entrySet()) {
 			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
 		}
 		return ret.toString();
@@ -1674,6 +1722,12 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		return trueDistancesSum;
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public BranchDistanceTable getBranchDistanceTable() {
+		return null;
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public Map<String, HashMap<Integer, HashMap<Integer, Integer>>> getPassedUses() {
@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.evosuite.Properties;
 import org.evosuite.coverage.dataflow.DefUse;
 import org.evosuite.setup.CallContext;
 import org.evosuite.testcase.execution.ExecutionTraceImpl.BranchEval;
@@ -48,7 +49,10 @@ public class ExecutionTraceProxy implements ExecutionTrace, Cloneable {
 	 * </p>
 	 */
 	public ExecutionTraceProxy() {
-		this.trace = new ExecutionTraceImpl();
+		if (Properties.PRIMITIVE_BRANCH_TRACE)
+			this.trace = new PrimitiveBranchExecutionTrace();
+		else
+			this.trace = new ExecutionTraceImpl();
 	}
 
 	/**
@@ -638,6 +642,12 @@ public class ExecutionTraceProxy implements ExecutionTrace, Cloneable {
 		return trace.getTrueDistancesSum();
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public BranchDistanceTable getBranchDistanceTable() {
+		return trace.getBranchDistanceTable();
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public Map<String, HashMap<Integer, HashMap<Integer, Integer>>> getPassedUses() {
@@ -20,6 +20,7 @@
 package org.evosuite.testcase.execution;
 
 import java.util.Map;
+import java.util.Set;
 
 import org.evosuite.coverage.dataflow.DefUsePool;
 import org.evosuite.coverage.dataflow.Definition;
@@ -42,6 +43,16 @@ public class ExecutionTracer {
 
 	private static ExecutionTracer instance = null;
 
+	/**
+	 * Tracers bound to threads, e.g. those of the parallel execution lanes (see
+	 * {@link ExecutionLane}). Threads spawned by the SUT inherit the tracer of
+	 * the thread that created them.
+	 */
+	private static final InheritableThreadLocal<ExecutionTracer> threadTracer = new InheritableThreadLocal<ExecutionTracer>();
+
+	/** Avoid the thread local lookup unless there are thread bound tracers */
+	private static volatile boolean hasThreadTracers = false;
+
 	/**
 	 * We need to disable the execution tracer sometimes, e.g. when calling
 	 * equals in the branch distance function
@@ -62,7 +73,7 @@ public class ExecutionTracer {
 	 * If a thread of a test case survives for some reason (e.g. long call to
 	 * external library), then we don't want its data in the current trace
 	 */
-	private static volatile Thread currentThread = null;
+	private volatile Thread currentThread = null;
 
 	/**
 	 * <p>
@@ -73,7 +84,7 @@ public class ExecutionTracer {
 	 *            a {@link java.lang.Thread} object.
 	 */
 	public static void setThread(Thread thread) {
-		currentThread = thread;
+		getExecutionTracer().currentThread = thread;
 	}
 
 	/**
@@ -131,6 +142,7 @@ public class ExecutionTracer {
 	 */
 	public static void setCheckCallerThread(boolean checkCallerThread) {
 		ExecutionTracer.checkCallerThread = checkCallerThread;
+		ExecutionTraceImpl.setSharedBetweenThreads(!checkCallerThread);
 	}
 
 	/**
@@ -183,12 +195,72 @@ public class ExecutionTracer {
 	 * @return a {@link org.evosuite.testcase.execution.ExecutionTracer} object.
 	 */
 	public static ExecutionTracer getExecutionTracer() {
+		if (hasThreadTracers) {
+			ExecutionTracer tracer = threadTracer.get();
+			if (tracer != null)
+				return tracer;
+		}
 		if (instance == null) {
 			instance = new ExecutionTracer();
 		}
 		return instance;
 	}
 
+	/**
+	 * Give the current thread (and all threads it creates) its own tracer, so
+	 * that it records into its own trace while other threads execute tests
+	 * 
+	 * @return the tracer bound to the current thread
+	 */
+	public static ExecutionTracer bindNewInstanceToCurrentThread() {
+		ExecutionTracer tracer = new ExecutionTracer();
+		tracer.disabled = getExecutionTracer().disabled;
+		threadTracer.set(tracer);
+		hasThreadTracers = true;
+		return tracer;
+	}
+
+	/**
+	 * Leave the current tracer, and the trace it records, to the thread of a
+	 * timed out test that could not be stopped, and continue with a new tracer
+	 * recording the calling thread. Traces are not synchronized, so the old
+	 * trace must not be read while that thread may still write to it.
+	 * 
+	 * @return the new tracer
+	 */
+	public static ExecutionTracer leaveToSurvivingThread() {
+		ExecutionTracer old = getExecutionTracer();
+		ExecutionTracer tracer = new ExecutionTracer();
+		tracer.disabled = old.disabled;
+		tracer.currentThread = Thread.currentThread();
+		if (hasThreadTracers && threadTracer.get() == old)
+			threadTracer.set(tracer);
+		else
+			instance = tracer;
+		return tracer;
+	}
+
+	/**
+	 * Make the current thread use the shared tracer again
+	 */
+	public static void unbindCurrentThread() {
+		threadTracer.remove();
+	}
+
+	/**
+	 * Tracer the instrumentation callbacks of the current thread record into,
+	 * looked up only once per callback
+	 * 
+	 * @return null if the tracer is disabled or the current thread is not the
+	 *         one executing the test
+	 */
+	private static ExecutionTracer getRecordingTracer() {
+		ExecutionTracer tracer = getExecutionTracer();
+		if (tracer.disabled || !tracer.isRecordingThread())
+			return null;
+		return tracer;
+	}
+
 	/**
 	 * Reset for new execution
 	 */
@@ -206,10 +278,15 @@ public class ExecutionTracer {
 	 * @return
 	 */
 	public static boolean isThreadNeqCurrentThread() {
+		return !getExecutionTracer().isRecordingThread();
+	}
+
+	private boolean isRecordingThread() {
 		if (!checkCallerThread) {
-			return false;
+			return true;
 		}
-		if (currentThread == null) {
+		Thread thread = currentThread;
+		if (thread == null) {
 			logger.error("CurrentThread has not been set!");
 			Map<Thread, StackTraceElement[]> map = Thread.getAllStackTraces();
 			for (Thread t : map.keySet()) {
@@ -219,9 +296,10 @@ public class ExecutionTracer {
 				}
 				logger.error(msg);
 			}
-			currentThread = Thread.currentThread();
+			thread = Thread.currentThread();
+			currentThread = thread;
 		}
-		return Thread.currentThread() != currentThread;
+		return Thread.currentThread() == thread;
 	}
 
 	/**
@@ -238,6 +316,17 @@ public class ExecutionTracer {
 		// return copy;
 	}
 
+	/**
+	 * Mutants reached so far by the current execution. Unlike
+	 * {@link #getTrace()} this does not finish the pending calls, so it can
+	 * be used while the test is executing.
+	 * 
+	 * @return the ids of the touched mutants
+	 */
+	public Set<Integer> getTouchedMutants() {
+		return trace.getTouchedMutants();
+	}
+
 	/**
 	 * Return the last explicitly thrown exception
 	 * 
@@ -261,15 +350,11 @@ public class ExecutionTracer {
 	 */
 	public static void enteredMethod(String classname, String methodname, Object caller)
 	        throws TestCaseExecutor.TimeoutExceeded {
-		ExecutionTracer tracer = getExecutionTracer();
-
-		if (tracer.disabled)
-			return;
-
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getRecordingTracer();
+		if (tracer == null)
 			return;
 
-		checkTimeout();
+		checkTimeout(tracer);
 
 		//logger.trace("Entering method " + classname + "." + methodname);
 		tracer.trace.enteredMethod(classname, methodname, caller);
@@ -286,11 +371,8 @@ public class ExecutionTracer {
 	 *            a {@link java.lang.String} object.
 	 */
 	public static void returnValue(int value, String className, String methodName) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
-			return;
-
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getRecordingTracer();
+		if (tracer == null)
 			return;
 
 		//logger.trace("Return value: " + value);
@@ -308,10 +390,7 @@ public class ExecutionTracer {
 	 *            a {@link java.lang.String} object.
 	 */
 	public static void returnValue(Object value, String className, String methodName) {
-		if (isThreadNeqCurrentThread())
-			return;
-
-		if (!ExecutionTracer.isEnabled())
+		if (getRecordingTracer() == null)
 			return;
 
 		if (value == null) {
@@ -362,11 +441,8 @@ public class ExecutionTracer {
 	 *            a {@link java.lang.String} object.
 	 */
 	public static void leftMethod(String classname, String methodname) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
-			return;
-
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getRecordingTracer();
+		if (tracer == null)
 			return;
 
 		tracer.trace.exitMethod(classname, methodname);
@@ -381,6 +457,10 @@ public class ExecutionTracer {
 		if (tracer.disabled)
 			return;
 
+		checkTimeout(tracer);
+	}
+
+	private static void checkTimeout(ExecutionTracer tracer) {
 		if (tracer.killSwitch) {
 			// logger.info("Raising TimeoutException as kill switch is active - passedLine");
 			if(!isInStaticInit())
@@ -407,14 +487,11 @@ public class ExecutionTracer {
 	 *            a {@link java.lang.String} object.
 	 */
 	public static void passedLine(String className, String methodName, int line) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
-			return;
-
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getRecordingTracer();
+		if (tracer == null)
 			return;
 
-		checkTimeout();
+		checkTimeout(tracer);
 
 		tracer.trace.linePassed(className, methodName, line);
 	}
@@ -432,11 +509,8 @@ public class ExecutionTracer {
 	 *            a int.
 	 */
 	public static void passedUnconditionalBranch(int opcode, int branch, int bytecode_id) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
-			return;
-
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getRecordingTracer();
+		if (tracer == null)
 			return;
 
 		// Add current branch to control trace
@@ -457,15 +531,12 @@ public class ExecutionTracer {
 	 */
 	public static void passedBranch(int val, int opcode, int branch, int bytecode_id) {
 
-		ExecutionTracer tracer = getExecutionTracer();
+		ExecutionTracer tracer = getRecordingTracer();
 		// logger.info("passedBranch val="+val+", opcode="+opcode+", branch="+branch+", bytecode_id="+bytecode_id);
-		if (tracer.disabled)
+		if (tracer == null)
 			return;
 
-		if (isThreadNeqCurrentThread())
-			return;
-
-		checkTimeout();
+		checkTimeout(tracer);
 
 		ConstantPoolManager.getInstance().addDynamicConstant(val);
 
@@ -519,14 +590,11 @@ public class ExecutionTracer {
 	}
 
 	public static void passedPutStatic(String classNameWithDots, String fieldName) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
-			return;
-
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getRecordingTracer();
+		if (tracer == null)
 			return;
 
-		checkTimeout();
+		checkTimeout(tracer);
 		
 		tracer.trace.putStaticPassed(classNameWithDots, fieldName);
 	}
@@ -560,14 +628,11 @@ public class ExecutionTracer {
 	 * @param fieldName
 	 */
 	public static void passedGetStatic(String classNameWithDots, String fieldName) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
-			return;
-
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getRecordingTracer();
+		if (tracer == null)
 			return;
 
-		checkTimeout();
+		checkTimeout(tracer);
 
 		tracer.trace.getStaticPassed(classNameWithDots, fieldName);
 	}
@@ -589,14 +654,11 @@ public class ExecutionTracer {
 	 */
 	public static void passedBranch(int val1, int val2, int opcode, int branch,
 	        int bytecode_id) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
+		ExecutionTracer tracer = getRecordingTracer();
+		if (tracer == null)
 			return;
 
-		if (isThreadNeqCurrentThread())
-			return;
-
-		checkTimeout();
+		checkTimeout(tracer);
 		
 		ConstantPoolManager.getInstance().addDynamicConstant(val1);
 		ConstantPoolManager.getInstance().addDynamicConstant(val2);
@@ -670,14 +732,11 @@ public class ExecutionTracer {
 	 */
 	public static void passedBranch(Object val1, Object val2, int opcode, int branch,
 	        int bytecode_id) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
+		ExecutionTracer tracer = getRecordingTracer();
+		if (tracer == null)
 			return;
 
-		if (isThreadNeqCurrentThread())
-			return;
-
-		checkTimeout();
+		checkTimeout(tracer);
 
 		// logger.trace("Called passedBranch3 with opcode "
 		//        + AbstractVisitor.OPCODES[opcode]); // +", val1="+val1+", val2="+val2+" in branch "+branch);
@@ -737,14 +796,11 @@ public class ExecutionTracer {
 	 *            a int.
 	 */
 	public static void passedBranch(Object val, int opcode, int branch, int bytecode_id) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
-			return;
-
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getRecordingTracer();
+		if (tracer == null)
 			return;
 
-		checkTimeout();
+		checkTimeout(tracer);
 
 		double distance_true = 0;
 		double distance_false = 0;
@@ -778,11 +834,8 @@ public class ExecutionTracer {
 	 *            a int.
 	 */
 	public static void passedDefinition(Object object, Object caller, int defID) {
-		if (isThreadNeqCurrentThread())
-			return;
-
-		ExecutionTracer tracer = getExecutionTracer();
-		if (!tracer.disabled)
+		ExecutionTracer tracer = getRecordingTracer();
+		if (tracer != null)
 			tracer.trace.definitionPassed(object, caller, defID);
 	}
 
@@ -796,11 +849,8 @@ public class ExecutionTracer {
 	 */
 	public static void passedUse(Object object, Object caller, int useID) {
 
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
-			return;
-
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getRecordingTracer();
+		if (tracer == null)
 			return;
 
 		tracer.trace.usePassed(object, caller, useID);
@@ -817,11 +867,8 @@ public class ExecutionTracer {
 	 * @param defuseId
 	 */
 	public static void passedFieldMethodCall(Object callee, Object caller, int defuseId) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
-			return;
-
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getRecordingTracer();
+		if (tracer == null)
 			return;
 
 		if (DefUsePool.isKnownAsDefinition(defuseId)) {
@@ -847,14 +894,11 @@ public class ExecutionTracer {
 	 *            a int.
 	 */
 	public static void passedMutation(double distance, int mutationId) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
+		ExecutionTracer tracer = getRecordingTracer();
+		if (tracer == null)
 			return;
 
-		if (isThreadNeqCurrentThread())
-			return;
-
-		checkTimeout();
+		checkTimeout(tracer);
 
 		tracer.trace.mutationPassed(mutationId, distance);
 	}
@@ -873,14 +917,11 @@ public class ExecutionTracer {
 	 */
 	public static void exceptionThrown(Object exception, String className,
 	        String methodName) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
+		ExecutionTracer tracer = getRecordingTracer();
+		if (tracer == null)
 			return;
 
-		if (isThreadNeqCurrentThread())
-			return;
-
-		checkTimeout();
+		checkTimeout(tracer);
 
 		tracer.trace.setExplicitException((Throwable) exception);
 
@@ -892,14 +933,11 @@ public class ExecutionTracer {
 	 * </p>
 	 */
 	public static void statementExecuted() {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
-			return;
-
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getRecordingTracer();
+		if (tracer == null)
 			return;
 
-		checkTimeout();
+		checkTimeout(tracer);
 
 		tracer.num_statements++;
 	}
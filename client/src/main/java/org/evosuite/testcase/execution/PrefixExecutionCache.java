@@ -0,0 +1,171 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.evosuite.Properties;
+import org.evosuite.coverage.mutation.MutationObserver;
+import org.evosuite.testcase.TestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of execution results keyed on the sequence of executed statements,
+ * see {@link TestPrefixCache}. An offspring that only differs from an
+ * already executed test after the statement that threw an exception gets
+ * the result of that test.
+ *
+ * <p>
+ * Reusing results is only sound if executions are deterministic, i.e., if
+ * static state is reset after each test and the runtime mocks replace
+ * non-deterministic calls (time, random numbers, file system). Results with
+ * timeouts or security exceptions, of unstable tests, or obtained while a
+ * mutant was active are never cached.
+ *
+ * <p>
+ * Results are only reused while all execution observers store what they
+ * record in the result (see {@link ExecutionObserver#isStoredInResult()}),
+ * e.g., for the OUTPUT and INPUT criteria. The cached results are discarded
+ * when the kinds of observers change.
+ */
+public class PrefixExecutionCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(PrefixExecutionCache.class);
+
+	private static PrefixExecutionCache instance = null;
+
+	private final TestPrefixCache<ExecutionResult> results = new TestPrefixCache<>(
+	        () -> Properties.PREFIX_EXECUTION_CACHE_SIZE);
+
+	private int lookups = 0;
+
+	private int hits = 0;
+
+	private long savedStatements = 0;
+
+	/** Classes of the observers whose records are part of the cached results */
+	private Set<Class<?>> observerClasses = new HashSet<>();
+
+	private PrefixExecutionCache() {
+	}
+
+	public static synchronized PrefixExecutionCache getInstance() {
+		if (instance == null)
+			instance = new PrefixExecutionCache();
+		return instance;
+	}
+
+	/**
+	 * @param observers
+	 *            the observers of the test executor
+	 * @return whether results can currently be reused
+	 */
+	public static boolean isApplicable(Collection<ExecutionObserver> observers) {
+		if (!Properties.PREFIX_EXECUTION_CACHE || !TestPrefixCache.isExecutionDeterministic()
+				|| MutationObserver.activeMutation != -1)
+			return false;
+		for (ExecutionObserver observer : observers) {
+			if (!observer.isStoredInResult())
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Discard the cached results if they were recorded by other kinds of
+	 * observers
+	 */
+	private void checkObservers(Collection<ExecutionObserver> observers) {
+		Set<Class<?>> classes = new HashSet<>();
+		for (ExecutionObserver observer : observers) {
+			classes.add(observer.getClass());
+		}
+		if (!classes.equals(observerClasses)) {
+			results.clear();
+			observerClasses = classes;
+		}
+	}
+
+	/**
+	 * @param test
+	 * @param observers
+	 *            the observers of the test executor
+	 * @return a copy of the result of an earlier execution that is equivalent
+	 *         to the execution of {@code test}, or {@code null}
+	 */
+	public synchronized ExecutionResult get(TestCase test, Collection<ExecutionObserver> observers) {
+		checkObservers(observers);
+		lookups++;
+		ExecutionResult cached = results.get(test);
+		if (cached == null)
+			return null;
+
+		hits++;
+		savedStatements += cached.getExecutedStatements();
+
+		ExecutionResult result = cached.clone();
+		result.setTest(test);
+		result.setExecutedStatements(cached.getExecutedStatements());
+		result.setSecurityException(cached.hasSecurityException());
+		return result;
+	}
+
+	/**
+	 * Keep the result of executing {@code test}, if it can be reused
+	 *
+	 * @param test
+	 * @param result
+	 * @param observers
+	 *            the observers of the test executor
+	 */
+	public synchronized void put(TestCase test, ExecutionResult result, Collection<ExecutionObserver> observers) {
+		checkObservers(observers);
+		if (test.isUnstable() || result.getTrace() == null || result.hasTimeout() || result.hasSecurityException()) {
+			return;
+		}
+
+		results.put(test, result, prefix -> {
+			ExecutionResult copy = result.clone();
+			copy.setTest(prefix);
+			copy.setExecutedStatements(result.getExecutedStatements());
+			return copy;
+		});
+	}
+
+	/**
+	 * Results refer to the classes of the current class loader, and need to
+	 * be discarded when it changes
+	 */
+	public synchronized void clear() {
+		logger.debug("Clearing prefix execution cache after {} hits in {} lookups", hits, lookups);
+		results.clear();
+	}
+
+	public synchronized double getHitRate() {
+		return lookups == 0 ? 0.0 : (double) hits / lookups;
+	}
+
+	public synchronized long getSavedStatements() {
+		return savedStatements;
+	}
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.evosuite.TestGenerationContext;
+import org.evosuite.coverage.branch.BranchPool;
+
+/**
+ * Execution trace that keeps branch distances in a
+ * {@link BranchDistanceTable} instead of the synchronized maps of
+ * {@link ExecutionTraceImpl}. Enabled with
+ * {@link org.evosuite.Properties#PRIMITIVE_BRANCH_TRACE}.
+ *
+ * The map based accessors are still supported, but they create a copy of the
+ * distances on each call; fitness functions on the hot path should use
+ * {@link #getBranchDistanceTable()} instead.
+ */
+public class PrimitiveBranchExecutionTrace extends ExecutionTraceImpl {
+
+	private final BranchDistanceTable distances;
+
+	/**
+	 * Creates a trace sized for the branches currently known to the
+	 * {@link BranchPool} of the class loader of the SUT
+	 */
+	public PrimitiveBranchExecutionTrace() {
+		this(new BranchDistanceTable(BranchPool.getInstance(
+		        TestGenerationContext.getInstance().getClassLoaderForSUT()).getBranchCounter()));
+	}
+
+	private PrimitiveBranchExecutionTrace(BranchDistanceTable distances) {
+		super();
+		this.distances = distances;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected void updateBranchDistances(int branch, double true_distance, double false_distance) {
+		distances.update(branch, true_distance, false_distance);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected ExecutionTraceImpl newEmptyTrace() {
+		return new PrimitiveBranchExecutionTrace(distances.clone());
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void clear() {
+		super.clear();
+		distances.clear();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public BranchDistanceTable getBranchDistanceTable() {
+		return distances;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Integer> getCoveredTrueBranches() {
+		Set<Integer> covered = new HashSet<Integer>();
+		for (int i = 0; i < distances.getNumReached(); i++) {
+			int branch = distances.getReachedBranch(i);
+			if (distances.getTrueDistance(branch) == 0.0)
+				covered.add(branch);
+		}
+		return covered;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Integer> getCoveredFalseBranches() {
+		Set<Integer> covered = new HashSet<Integer>();
+		for (int i = 0; i < distances.getNumReached(); i++) {
+			int branch = distances.getReachedBranch(i);
+			if (distances.getFalseDistance(branch) == 0.0)
+				covered.add(branch);
+		}
+		return covered;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public double getTrueDistance(int branchId) {
+		if (!distances.isReached(branchId))
+			throw new IllegalArgumentException("Branch " + branchId + " was not reached");
+		return distances.getTrueDistance(branchId);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public double getFalseDistance(int branchId) {
+		if (!distances.isReached(branchId))
+			throw new IllegalArgumentException("Branch " + branchId + " was not reached");
+		return distances.getFalseDistance(branchId);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean hasTrueDistance(int predicateId) {
+		return distances.isReached(predicateId);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean hasFalseDistance(int predicateId) {
+		return distances.isReached(predicateId);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getTrueDistances() {
+		return distances.getTrueDistances();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getFalseDistances() {
+		return distances.getFalseDistances();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getTrueDistancesSum() {
+		return distances.getTrueDistancesSum();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getFalseDistancesSum() {
+		return distances.getFalseDistancesSum();
+	}
+}
@@ -37,11 +37,13 @@ import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
 import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
 import org.evosuite.runtime.LoopCounter;
 import org.evosuite.runtime.Runtime;
+import org.evosuite.runtime.RuntimeSettings;
 import org.evosuite.runtime.javaee.db.DBManager;
 import org.evosuite.runtime.sandbox.PermissionStatistics;
 import org.evosuite.runtime.sandbox.Sandbox;
 import org.evosuite.runtime.util.JOptionPaneInputs;
 import org.evosuite.runtime.util.SystemInUtil;
+import org.evosuite.runtime.vfs.VirtualFileSystem;
 import org.evosuite.setup.TestCluster;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.execution.reset.ClassReInitializer;
@@ -80,6 +82,19 @@ public class TestCaseExecutor implements ThreadFactory {
 
 	private static TestCaseExecutor instance = null;
 
+	/**
+	 * Guards the state shared by all executors when tests run on several
+	 * {@link ExecutionLane}s at the same time
+	 */
+	private static final Object sharedStateLock = new Object();
+
+	/**
+	 * Executors of parallel lanes leave the sandbox, the JVM wide runtime
+	 * state and the static state of the SUT to the {@link ExecutionLanes} that
+	 * run them
+	 */
+	private final boolean lane;
+
 	private ExecutorService executor;
 
 	private Thread currentThread = null;
@@ -150,10 +165,32 @@ public class TestCaseExecutor implements ThreadFactory {
 	}
 
 	private TestCaseExecutor() {
+		this(false);
+	}
+
+	/**
+	 * Executor for one of several parallel {@link ExecutionLane}s
+	 * 
+	 * @param lane
+	 *            whether the executor runs tests concurrently with other
+	 *            executors
+	 */
+	TestCaseExecutor(boolean lane) {
+		this.lane = lane;
 		executor = Executors.newSingleThreadExecutor(this);
 		newObservers();
 	}
 
+	/**
+	 * Stop the thread of a lane executor
+	 */
+	void shutdown() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
 	public static class TimeoutExceeded extends RuntimeException {
 		private static final long serialVersionUID = -5314228165430676893L;
 	}
@@ -273,10 +310,30 @@ public class TestCaseExecutor implements ThreadFactory {
 	 * @return a {@link org.evosuite.testcase.execution.ExecutionResult} object.
 	 */
 	public ExecutionResult execute(TestCase tc, int timeout) {
+		// Observers need to see the statements being executed, unless
+		// their records are part of the cached result
+		boolean useCache = !lane && PrefixExecutionCache.isApplicable(observers);
+		if (useCache) {
+			ExecutionResult cached = PrefixExecutionCache.getInstance().get(tc, observers);
+			if (cached != null) {
+				// Reused results count against the search budget like real
+				// executions, the executed statements are counted by runTest
+				MaxTestsStoppingCondition.testExecuted();
+				synchronized (sharedStateLock) {
+					testsExecuted++;
+				}
+				return cached;
+			}
+		}
+
 		Scope scope = new Scope();
 		ExecutionResult result = execute(tc, scope, timeout);
+		if (useCache) {
+			PrefixExecutionCache.getInstance().put(tc, result, observers);
+		}
 
-		if (Properties.RESET_STATIC_FIELDS) {
+		// lanes share the static state, ExecutionLanes resets it once all lanes are done
+		if (Properties.RESET_STATIC_FIELDS && !lane) {
 			logger.debug("Resetting classes after execution");
 			ClassReInitializer.getInstance().reInitializeClassesAfterTestExecution(tc, result);
 		}
@@ -298,9 +355,13 @@ public class TestCaseExecutor implements ThreadFactory {
 
 		// TODO: Re-insert!
 		resetObservers();
-		ExecutionObserver.setCurrentTest(tc);
+		if (!lane) {
+			ExecutionObserver.setCurrentTest(tc);
+			Runtime.getInstance().resetRuntime();
+		} else {
+			resetLaneRuntime();
+		}
 		MaxTestsStoppingCondition.testExecuted();
-		Runtime.getInstance().resetRuntime();
 
 		long startTime = System.currentTimeMillis();
 
@@ -324,16 +385,19 @@ public class TestCaseExecutor implements ThreadFactory {
 
 			ExecutionResult result = null;
 
-			// important to call it before setting up the sandbox
-			SystemInUtil.getInstance().initForTestCase();
-			JOptionPaneInputs.getInstance().initForTestCase();
+			if (!lane) {
+				// important to call it before setting up the sandbox
+				SystemInUtil.getInstance().initForTestCase();
+				JOptionPaneInputs.getInstance().initForTestCase();
 
-			Sandbox.goingToExecuteSUTCode();
+				Sandbox.goingToExecuteSUTCode();
+			}
 			TestGenerationContext.getInstance().goingToExecuteSUTCode();
 			try {
 				result = handler.execute(callable, executor, timeout, Properties.CPU_TIMEOUT);
 			} finally {
-				Sandbox.doneWithExecutingSUTCode();
+				if (!lane)
+					Sandbox.doneWithExecutingSUTCode();
 				TestGenerationContext.getInstance().doneWithExecutingSUTCode();
 			}
 
@@ -351,8 +415,10 @@ public class TestCaseExecutor implements ThreadFactory {
 			 */
 
 			long endTime = System.currentTimeMillis();
-			timeExecuted += endTime - startTime;
-			testsExecuted++;
+			synchronized (sharedStateLock) {
+				timeExecuted += endTime - startTime;
+				testsExecuted++;
+			}
 			return result;
 		} catch (ThreadDeath t) {
 			logger.warn("Caught ThreadDeath during test execution");
@@ -464,6 +530,19 @@ public class TestCaseExecutor implements ThreadFactory {
 					} catch (Throwable t) {
 						logger.info("Throwable: " + t);
 					}
+					try {
+						currentThread.join(Properties.SHUTDOWN_TIMEOUT);
+					} catch (InterruptedException e) {
+						logger.info("Interrupted");
+					}
+					if (currentThread.isAlive()) {
+						// the trace is not synchronized, and the surviving
+						// thread may still be writing to it
+						logger.info("Thread survived, discarding its trace.");
+						ExecutionTracer.leaveToSurvivingThread();
+					} else {
+						ExecutionTracer.setThread(Thread.currentThread());
+					}
 					ExecutionTracer.disable();
 					executor = Executors.newSingleThreadExecutor(this);
 				}
@@ -474,7 +553,7 @@ public class TestCaseExecutor implements ThreadFactory {
 			ExecutionTracer.disable();
 
 			// TODO: If this is true, is this problematic?
-			if (Sandbox.isOnAndExecutingSUTCode()) {
+			if (!lane && Sandbox.isOnAndExecutingSUTCode()) {
 				Sandbox.doneWithExecutingSUTCode();
 				TestGenerationContext.getInstance().doneWithExecutingSUTCode();
 			}
@@ -493,8 +572,22 @@ public class TestCaseExecutor implements ThreadFactory {
 		} finally {
 			if (threadGroup != null)
 				PermissionStatistics.getInstance().countThreads(threadGroup.activeCount());
-			TestCluster.getInstance().handleRuntimeAccesses(tc);
+			synchronized (sharedStateLock) {
+				TestCluster.getInstance().handleRuntimeAccesses(tc);
+			}
+		}
+	}
+
+	/**
+	 * Lanes only reset the parts of the runtime they own, the JVM wide mocks
+	 * are reset by {@link ExecutionLanes} before a batch of tests
+	 */
+	private void resetLaneRuntime() {
+		if (RuntimeSettings.useVFS) {
+			VirtualFileSystem.getInstance().resetSingleton();
+			VirtualFileSystem.getInstance().init();
 		}
+		LoopCounter.getInstance().reset();
 	}
 
 	private boolean isInStaticInit() {
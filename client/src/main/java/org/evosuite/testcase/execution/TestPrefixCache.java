@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+
+import org.evosuite.Properties;
+import org.evosuite.testcase.TestCase;
+
+/**
+ * Least recently used cache of values derived from the execution of a test,
+ * keyed on the sequence of executed statements.
+ *
+ * <p>
+ * Execution stops at the first exception, so the execution of a test does
+ * not depend on the statements after that exception: a test that only
+ * differs from an already executed test after the statement that threw the
+ * exception has exactly the same execution. Tests that were executed
+ * completely only match identical statement sequences. This only holds if
+ * executions are deterministic, see {@link #isExecutionDeterministic()}.
+ *
+ * @param <T>
+ *            the type of the cached values
+ */
+public class TestPrefixCache<T> {
+
+	private class Entry {
+
+		/** The executed statements */
+		private final TestCase prefix;
+
+		/** Whether the test had no further statements */
+		private final boolean complete;
+
+		private final T value;
+
+		private Entry(TestCase prefix, boolean complete, T value) {
+			this.prefix = prefix;
+			this.complete = complete;
+			this.value = value;
+		}
+
+		private boolean matches(TestCase test) {
+			int length = prefix.size();
+			if (complete ? test.size() != length : test.size() < length)
+				return false;
+
+			for (int i = 0; i < length; i++) {
+				if (!prefix.getStatement(i).same(test.getStatement(i)))
+					return false;
+			}
+			return true;
+		}
+	}
+
+	/** Most recently used first */
+	private final LinkedList<Entry> entries = new LinkedList<>();
+
+	private final IntSupplier maxSize;
+
+	/**
+	 * @param maxSize
+	 *            the maximum number of entries, read whenever an entry is
+	 *            added
+	 */
+	public TestPrefixCache(IntSupplier maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @return whether executing the same statements again gives the same
+	 *         execution, i.e., static state is reset after each test and the
+	 *         runtime mocks replace non-deterministic calls (time, random
+	 *         numbers, file system)
+	 */
+	public static boolean isExecutionDeterministic() {
+		return Properties.RESET_STATIC_FIELDS && Properties.REPLACE_CALLS && Properties.VIRTUAL_FS;
+	}
+
+	/**
+	 * @param test
+	 * @return the value of the most recently used entry whose executed
+	 *         statements would be executed in the same way by {@code test},
+	 *         or {@code null}
+	 */
+	public synchronized T get(TestCase test) {
+		Iterator<Entry> iterator = entries.iterator();
+		while (iterator.hasNext()) {
+			Entry entry = iterator.next();
+			if (entry.matches(test)) {
+				iterator.remove();
+				entries.addFirst(entry);
+				return entry.value;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Adds an entry for the statements of {@code test} that were executed
+	 *
+	 * @param test
+	 *            the test as it was before the execution
+	 * @param result
+	 *            the result of the execution
+	 * @param value
+	 *            creates the value to cache from the executed statements
+	 */
+	public synchronized void put(TestCase test, ExecutionResult result, Function<TestCase, T> value) {
+		Integer firstException = result.getFirstPositionOfThrownException();
+		boolean stopped = firstException != null && Properties.BREAK_ON_EXCEPTION;
+		int length = stopped ? firstException + 1 : test.size();
+
+		TestCase prefix = test.clone();
+		prefix.chop(length);
+		entries.addFirst(new Entry(prefix, !stopped, value.apply(prefix)));
+
+		while (entries.size() > maxSize.getAsInt()) {
+			entries.removeLast();
+		}
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+}
@@ -95,6 +95,13 @@ class ClassReInitializeExecutor {
 		// className.__STATIC_RESET() exists
 		logger.debug("Resetting class " + className);
 
+		ClassResetter resetter = ClassResetter.getInstance();
+		if (Properties.SNAPSHOT_STATIC_STATE && resetter.restoreSnapshot(className)) {
+			// the snapshot only covers the static fields, not the runtime
+			Runtime.getInstance().resetRuntime();
+			return;
+		}
+
 		int mutationActive = MutationObserver.activeMutation;
 		MutationObserver.deactivateMutation();
 
@@ -105,15 +112,18 @@ class ClassReInitializeExecutor {
 		Runtime.getInstance().resetRuntime(); // it is important to initialize
 												// the VFS
 		boolean wasLoopCheckOn = LoopCounter.getInstance().isActivated();
+		boolean wasReset = false;
+		long start = System.nanoTime();
 
 		try {
-			Method resetMethod = ClassResetter.getInstance().getResetMethod(className);
+			Method resetMethod = resetter.getResetMethod(className);
 			if (resetMethod != null) {
 				LoopCounter.getInstance().setActive(false);
 				resetMethod.invoke(null, (Object[]) null);
+				wasReset = true;
 			}
 		} catch (Throwable e) {
-			ClassResetter.getInstance().logWarn(className,
+			resetter.logWarn(className,
 					e.getClass() + " thrown during execution of method  __STATIC_RESET() for class " + className + ", "
 							+ e.getCause());
 		} finally {
@@ -122,5 +132,10 @@ class ClassReInitializeExecutor {
 			MutationObserver.activateMutation(mutationActive);
 			LoopCounter.getInstance().setActive(wasLoopCheckOn);
 		}
+		resetter.addResetTime(className, System.nanoTime() - start);
+
+		if (wasReset && Properties.SNAPSHOT_STATIC_STATE) {
+			resetter.takeSnapshot(className);
+		}
 	}
 }
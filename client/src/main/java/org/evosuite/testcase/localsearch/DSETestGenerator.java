@@ -37,6 +37,7 @@ import org.evosuite.symbolic.PathCondition;
 import org.evosuite.symbolic.expr.Constraint;
 import org.evosuite.symbolic.expr.Expression;
 import org.evosuite.symbolic.expr.Variable;
+import org.evosuite.symbolic.solver.ConstraintSlicer;
 import org.evosuite.symbolic.solver.SolverCache;
 import org.evosuite.symbolic.solver.Solver;
 import org.evosuite.symbolic.solver.SolverFactory;
@@ -284,16 +285,20 @@ public class DSETestGenerator {
 	/**
 	 * Creates a Solver query give a branch condition
 	 * 
-	 * @param condition
-	 * @return
+	 * @param pc
+	 * @param conditionIndex
+	 *            the index of the branch condition to negate
+	 * @return the constraints of the negated path condition that the negated
+	 *         branch condition depends on
 	 */
-	private List<Constraint<?>> buildQuery(PathCondition pc, int conditionIndex) {
+	public static List<Constraint<?>> buildQuery(PathCondition pc, int conditionIndex) {
 		// negate target branch condition
 		PathCondition negatedPathCondition = pc.negate(conditionIndex);
 		// get constraints for negated path condition
 		List<Constraint<?>> query = negatedPathCondition.getConstraints();
-		// Compute cone of influence reduction
-		List<Constraint<?>> simplified_query = reduce(query);
+		// Only keep the constraints the negated branch condition depends on
+		List<Constraint<?>> simplified_query = ConstraintSlicer.slice(query);
+		DSEStats.getInstance().reportNewSlice(query.size(), simplified_query.size());
 
 		return simplified_query;
 	}
@@ -318,8 +323,17 @@ public class DSETestGenerator {
 		return false;
 	}
 
+	/**
+	 * Creates a copy of the test in which the primitive values are replaced
+	 * by the values of a solution
+	 * 
+	 * @param test
+	 * @param values
+	 *            a model of the solver, from variable names to values
+	 * @return
+	 */
 	@SuppressWarnings({ "rawtypes", "unchecked" })
-	private TestCase updateTest(TestCase test, Map<String, Object> values) {
+	public static TestCase updateTest(TestCase test, Map<String, Object> values) {
 
 		TestCase newTest = test.clone();
 
@@ -385,38 +399,6 @@ public class DSETestGenerator {
 
 	}
 
-	/**
-	 * Apply cone of influence reduction to constraints with respect to the last
-	 * constraint in the list
-	 * 
-	 * @param constraints
-	 * @return
-	 */
-	private List<Constraint<?>> reduce(List<Constraint<?>> constraints) {
-
-		Constraint<?> target = constraints.get(constraints.size() - 1);
-		Set<Variable<?>> dependencies = getVariables(target);
-
-		LinkedList<Constraint<?>> coi = new LinkedList<Constraint<?>>();
-		if (dependencies.size() <= 0)
-			return coi;
-
-		coi.add(target);
-
-		for (int i = constraints.size() - 2; i >= 0; i--) {
-			Constraint<?> constraint = constraints.get(i);
-			Set<Variable<?>> variables = getVariables(constraint);
-			for (Variable<?> var : dependencies) {
-				if (variables.contains(var)) {
-					dependencies.addAll(variables);
-					coi.addFirst(constraint);
-					break;
-				}
-			}
-		}
-		return coi;
-	}
-
 	/**
 	 * Get the statement that defines this variable
 	 * 
@@ -424,7 +406,7 @@ public class DSETestGenerator {
 	 * @param name
 	 * @return
 	 */
-	private PrimitiveStatement<?> getStatement(TestCase test, String name) {
+	private static PrimitiveStatement<?> getStatement(TestCase test, String name) {
 		for (Statement statement : test) {
 
 			if (statement instanceof PrimitiveStatement<?>) {
@@ -435,19 +417,6 @@ public class DSETestGenerator {
 		return null;
 	}
 
-	/**
-	 * Determine the set of variable referenced by this constraint
-	 * 
-	 * @param constraint
-	 * @return
-	 */
-	private Set<Variable<?>> getVariables(Constraint<?> constraint) {
-		Set<Variable<?>> variables = new HashSet<Variable<?>>();
-		getVariables(constraint.getLeftOperand(), variables);
-		getVariables(constraint.getRightOperand(), variables);
-		return variables;
-	}
-
 	/**
 	 * Recursively determine constraints in expression
 	 * 
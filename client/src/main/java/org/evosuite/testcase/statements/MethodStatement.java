@@ -254,7 +254,7 @@ public class MethodStatement extends EntityWithParametersStatement {
 						throw new EvosuiteError(e);
 					}
 
-					Object ret = method.getMethod().invoke(callee_object, inputs);
+					Object ret = method.invoke(callee_object, inputs);
 					// Try exact return type
 					/*
 					 * TODO: Sometimes we do want to cast an Object to String etc...
@@ -21,8 +21,10 @@ package org.evosuite.testsuite;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.evosuite.Properties;
@@ -49,6 +51,12 @@ public abstract class AbstractTestSuiteChromosome<T extends ExecutableChromosome
 	protected List<T> tests = new ArrayList<T>();
 	protected ChromosomeFactory<T> testChromosomeFactory;
 
+	/**
+	 * Aggregated values of the tests, by fitness function. Aggregates are
+	 * immutable, so they are shared with copies of this suite.
+	 */
+	private transient Map<TestSuiteFitnessFunction, TestSuiteAggregate> aggregates = null;
+
 	/**
 	 * only used for testing/debugging
 	 */
@@ -99,6 +107,23 @@ public abstract class AbstractTestSuiteChromosome<T extends ExecutableChromosome
         this.setNumberOfEvaluations(source.getNumberOfEvaluations());
         this.setKineticEnergy(source.getKineticEnergy());
         this.setNumCollisions(source.getNumCollisions());
+        if (source.aggregates != null) {
+        	this.aggregates = new IdentityHashMap<>(source.aggregates);
+        }
+	}
+
+	/**
+	 * @return the aggregate last computed for the fitness function, or null
+	 */
+	public TestSuiteAggregate getAggregate(TestSuiteFitnessFunction fitness) {
+		return aggregates == null ? null : aggregates.get(fitness);
+	}
+
+	public void setAggregate(TestSuiteFitnessFunction fitness, TestSuiteAggregate aggregate) {
+		if (aggregates == null) {
+			aggregates = new IdentityHashMap<>();
+		}
+		aggregates.put(fitness, aggregate);
 	}
 
 	/**
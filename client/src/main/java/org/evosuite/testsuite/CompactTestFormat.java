@@ -0,0 +1,179 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Constants and primitive encodings shared by {@link CompactTestWriter} and
+ * {@link CompactTestReader}.
+ * 
+ * <p>
+ * A file starts with {@link #MAGIC} and the format {@link #VERSION}, followed
+ * by a sequence of records. Each record starts with its tag:
+ * <ul>
+ * <li>{@link #RECORD_STRINGS}: strings that are added to the string table, so
+ * that later records refer to class names, method names and descriptors by
+ * their index only</li>
+ * <li>{@link #RECORD_TEST}: a length prefixed encoding of the statements of one
+ * test</li>
+ * <li>{@link #RECORD_SERIALIZED_TEST}: a length prefixed Java serialized
+ * test, for tests containing statements without a compact encoding</li>
+ * </ul>
+ * Tests are length prefixed so that a test which cannot be loaded any more
+ * (e.g. because the class under test changed) can be skipped.
+ * </p>
+ */
+final class CompactTestFormat {
+
+	static final byte[] MAGIC = { 'E', 'V', 'O', 'T' };
+
+	/** Increase whenever the encoding changes */
+	static final int VERSION = 1;
+
+	static final int RECORD_STRINGS = 1;
+	static final int RECORD_TEST = 2;
+	static final int RECORD_SERIALIZED_TEST = 3;
+
+	// Statements, also used as tags of constant values
+	static final int NULL = 1;
+	static final int BOOLEAN = 2;
+	static final int BYTE = 3;
+	static final int CHAR = 4;
+	static final int SHORT = 5;
+	static final int INT = 6;
+	static final int LONG = 7;
+	static final int FLOAT = 8;
+	static final int DOUBLE = 9;
+	static final int STRING = 10;
+	static final int ENUM = 11;
+	static final int CLASS = 12;
+	static final int CONSTRUCTOR = 13;
+	static final int METHOD = 14;
+	static final int FIELD = 15;
+	static final int ASSIGNMENT = 16;
+	static final int ARRAY = 17;
+
+	// Variable references
+	static final int REFERENCE_NONE = 0;
+	static final int REFERENCE_STATEMENT = 1;
+	static final int REFERENCE_ARRAY_INDEX = 2;
+	static final int REFERENCE_FIELD = 3;
+	static final int REFERENCE_NULL = 4;
+	static final int REFERENCE_CONSTANT = 5;
+
+	// Types
+	static final int TYPE_NONE = 0;
+	static final int TYPE_CLASS = 1;
+	static final int TYPE_PARAMETERIZED = 2;
+	static final int TYPE_WILDCARD = 3;
+	static final int TYPE_ARRAY = 4;
+
+	private CompactTestFormat() {
+	}
+
+	/**
+	 * Check whether the file was written by {@link CompactTestWriter}
+	 * 
+	 * @param file
+	 * @return false if the file does not exist or has a different format
+	 */
+	static boolean hasHeader(File file) {
+		if (!file.isFile()) {
+			return false;
+		}
+		byte[] header = new byte[MAGIC.length];
+		try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+			in.readFully(header);
+		} catch (IOException e) {
+			return false;
+		}
+		for (int i = 0; i < MAGIC.length; i++) {
+			if (header[i] != MAGIC[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static void writeVarInt(DataOutput out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	static int readVarInt(DataInput in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed variable length int");
+	}
+
+	static void writeVarLong(DataOutput out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte(((int) value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	static long readVarLong(DataInput in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 70; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed variable length long");
+	}
+
+	/** Zig-zag encoding keeps small negative numbers short */
+	static void writeSignedVarInt(DataOutput out, int value) throws IOException {
+		writeVarInt(out, (value << 1) ^ (value >> 31));
+	}
+
+	static int readSignedVarInt(DataInput in) throws IOException {
+		int value = readVarInt(in);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	static void writeSignedVarLong(DataOutput out, long value) throws IOException {
+		writeVarLong(out, (value << 1) ^ (value >> 63));
+	}
+
+	static long readSignedVarLong(DataInput in) throws IOException {
+		long value = readVarLong(in);
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
@@ -0,0 +1,450 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import static org.evosuite.testsuite.CompactTestFormat.*;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.statements.ArrayStatement;
+import org.evosuite.testcase.statements.AssignmentStatement;
+import org.evosuite.testcase.statements.ClassPrimitiveStatement;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.EnumPrimitiveStatement;
+import org.evosuite.testcase.statements.FieldStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.NullStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.BooleanPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.BytePrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.CharPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.DoublePrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.FloatPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.LongPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.ShortPrimitiveStatement;
+import org.evosuite.testcase.variable.ArrayIndex;
+import org.evosuite.testcase.variable.ArrayReference;
+import org.evosuite.testcase.variable.ConstantValue;
+import org.evosuite.testcase.variable.FieldReference;
+import org.evosuite.testcase.variable.NullReference;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.ParameterizedTypeImpl;
+import org.evosuite.utils.generic.GenericArrayTypeImpl;
+import org.evosuite.utils.generic.GenericClass;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericField;
+import org.evosuite.utils.generic.GenericMethod;
+import org.evosuite.utils.generic.WildcardTypeImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads tests written by {@link CompactTestWriter}. Classes are resolved with
+ * the given class loader; tests that refer to classes or members which do not
+ * exist any more are skipped.
+ */
+public class CompactTestReader implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(CompactTestReader.class);
+
+	private static final Map<String, Class<?>> primitiveClasses = new HashMap<>();
+
+	static {
+		for (Class<?> clazz : new Class<?>[] { boolean.class, byte.class, char.class,
+		        short.class, int.class, long.class, float.class, double.class,
+		        void.class }) {
+			primitiveClasses.put(clazz.getName(), clazz);
+		}
+	}
+
+	private final DataInputStream in;
+
+	private final ClassLoader loader;
+
+	/** The string table, index 0 stands for null */
+	private final List<String> strings = new ArrayList<>();
+
+	/** The test currently being decoded */
+	private DataInputStream data;
+
+	public CompactTestReader(InputStream stream, ClassLoader loader) throws IOException {
+		this.in = new DataInputStream(new BufferedInputStream(stream));
+		this.loader = loader;
+		strings.add(null);
+
+		byte[] header = new byte[MAGIC.length];
+		in.readFully(header);
+		for (int i = 0; i < MAGIC.length; i++) {
+			if (header[i] != MAGIC[i]) {
+				throw new IOException("Not a file of serialized tests");
+			}
+		}
+		int version = readVarInt(in);
+		if (version > VERSION) {
+			throw new IOException("Serialized tests have version " + version
+			        + ", but only up to " + VERSION + " is supported");
+		}
+	}
+
+	/**
+	 * Read the next test that can be loaded
+	 * 
+	 * @return null if there are no more tests
+	 * @throws IOException
+	 */
+	public TestChromosome read() throws IOException {
+		while (true) {
+			int record = in.read();
+			if (record < 0) {
+				return null;
+			}
+			switch (record) {
+			case RECORD_STRINGS:
+				readStrings();
+				break;
+			case RECORD_TEST:
+				data = new DataInputStream(new ByteArrayInputStream(readBytes()));
+				try {
+					TestChromosome test = new TestChromosome();
+					test.setTestCase(readTestCase());
+					return test;
+				} catch (Exception | LinkageError e) {
+					logger.warn("Skipping serialized test that cannot be loaded: " + e);
+				}
+				break;
+			case RECORD_SERIALIZED_TEST:
+				byte[] bytes = readBytes();
+				try (ObjectInputStream serialized = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+					TestChromosome test = (TestChromosome) serialized.readObject();
+					for (Statement statement : test.getTestCase()) {
+						statement.changeClassLoader(loader);
+					}
+					return test;
+				} catch (Exception | LinkageError e) {
+					logger.warn("Skipping serialized test that cannot be loaded: " + e);
+				}
+				break;
+			default:
+				throw new IOException("Unknown record " + record);
+			}
+		}
+	}
+
+	/**
+	 * Read all remaining tests
+	 * 
+	 * @return
+	 * @throws IOException
+	 */
+	public List<TestChromosome> readAll() throws IOException {
+		List<TestChromosome> tests = new ArrayList<>();
+		TestChromosome test;
+		while ((test = read()) != null) {
+			tests.add(test);
+		}
+		return tests;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	private void readStrings() throws IOException {
+		int number = readVarInt(in);
+		for (int i = 0; i < number; i++) {
+			int length = readVarInt(in);
+			char[] chars = new char[length];
+			for (int j = 0; j < length; j++) {
+				chars[j] = (char) readVarInt(in);
+			}
+			strings.add(new String(chars));
+		}
+	}
+
+	private byte[] readBytes() throws IOException {
+		byte[] bytes = new byte[readVarInt(in)];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	private TestCase readTestCase() throws Exception {
+		TestCase test = new DefaultTestCase();
+		int size = readVarInt(data);
+		for (int i = 0; i < size; i++) {
+			test.addStatement(readStatement(test));
+		}
+		return test;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Statement readStatement(TestCase test) throws Exception {
+		int tag = data.readByte();
+		Type type = readType();
+		Statement statement;
+		switch (tag) {
+		case BOOLEAN:
+		case BYTE:
+		case CHAR:
+		case SHORT:
+		case INT:
+		case LONG:
+		case FLOAT:
+		case DOUBLE:
+		case STRING:
+			statement = createPrimitiveStatement(test, tag, readValue(tag));
+			break;
+		case NULL:
+			statement = new NullStatement(test, type);
+			break;
+		case ENUM:
+			Class enumClass = loadClass(readString());
+			statement = new EnumPrimitiveStatement(test, Enum.valueOf(enumClass, readString()));
+			break;
+		case CLASS:
+			statement = new ClassPrimitiveStatement(test, (Class<?>) readType());
+			break;
+		case CONSTRUCTOR:
+			statement = new ConstructorStatement(test, readConstructor(), readReferences(test));
+			break;
+		case METHOD:
+			GenericMethod method = readMethod();
+			VariableReference callee = readReference(test);
+			statement = new MethodStatement(test, method, callee, readReferences(test));
+			break;
+		case FIELD:
+			GenericField field = readField();
+			statement = new FieldStatement(test, field, readReference(test));
+			break;
+		case ASSIGNMENT:
+			VariableReference target = readReference(test);
+			statement = new AssignmentStatement(test, target, readReference(test));
+			break;
+		case ARRAY:
+			int[] lengths = new int[readVarInt(data)];
+			for (int i = 0; i < lengths.length; i++) {
+				lengths[i] = readVarInt(data);
+			}
+			statement = new ArrayStatement(test, type, lengths);
+			break;
+		default:
+			throw new IOException("Unknown statement " + tag);
+		}
+
+		VariableReference retval = statement.getReturnValue();
+		if (!retval.getType().equals(type)) {
+			retval.setType(type);
+		}
+		return statement;
+	}
+
+	private static Statement createPrimitiveStatement(TestCase test, int tag, Object value) {
+		switch (tag) {
+		case BOOLEAN:
+			return new BooleanPrimitiveStatement(test, (Boolean) value);
+		case BYTE:
+			return new BytePrimitiveStatement(test, (Byte) value);
+		case CHAR:
+			return new CharPrimitiveStatement(test, (Character) value);
+		case SHORT:
+			return new ShortPrimitiveStatement(test, (Short) value);
+		case INT:
+			return new IntPrimitiveStatement(test, (Integer) value);
+		case LONG:
+			return new LongPrimitiveStatement(test, (Long) value);
+		case FLOAT:
+			return new FloatPrimitiveStatement(test, (Float) value);
+		case DOUBLE:
+			return new DoublePrimitiveStatement(test, (Double) value);
+		default:
+			return new StringPrimitiveStatement(test, (String) value);
+		}
+	}
+
+	private Object readValue(int tag) throws IOException {
+		switch (tag) {
+		case NULL:
+			return null;
+		case BOOLEAN:
+			return data.readBoolean();
+		case BYTE:
+			return data.readByte();
+		case CHAR:
+			return (char) readVarInt(data);
+		case SHORT:
+			return (short) readSignedVarInt(data);
+		case INT:
+			return readSignedVarInt(data);
+		case LONG:
+			return readSignedVarLong(data);
+		case FLOAT:
+			return data.readFloat();
+		case DOUBLE:
+			return data.readDouble();
+		case STRING:
+			return readString();
+		default:
+			throw new IOException("Unknown value " + tag);
+		}
+	}
+
+	private GenericConstructor readConstructor() throws Exception {
+		Type owner = readType();
+		Class<?> declaringClass = loadClass(readString());
+		String descriptor = readString();
+		for (Constructor<?> constructor : declaringClass.getDeclaredConstructors()) {
+			if (org.objectweb.asm.Type.getConstructorDescriptor(constructor).equals(descriptor)) {
+				GenericConstructor genericConstructor = new GenericConstructor(constructor, owner);
+				genericConstructor.setTypeParameters(readTypeParameterList());
+				return genericConstructor;
+			}
+		}
+		throw new NoSuchMethodException(declaringClass.getName() + ".<init>" + descriptor);
+	}
+
+	private GenericMethod readMethod() throws Exception {
+		Type owner = readType();
+		Class<?> declaringClass = loadClass(readString());
+		String descriptor = readString();
+		List<GenericClass> typeParameters = readTypeParameterList();
+		String name = readString();
+		for (Method method : declaringClass.getDeclaredMethods()) {
+			if (method.getName().equals(name)
+			        && org.objectweb.asm.Type.getMethodDescriptor(method).equals(descriptor)) {
+				GenericMethod genericMethod = new GenericMethod(method, owner);
+				genericMethod.setTypeParameters(typeParameters);
+				return genericMethod;
+			}
+		}
+		throw new NoSuchMethodException(declaringClass.getName() + "." + name + descriptor);
+	}
+
+	private List<GenericClass> readTypeParameterList() throws Exception {
+		int number = readVarInt(data);
+		List<GenericClass> typeParameters = new ArrayList<>(number);
+		for (int i = 0; i < number; i++) {
+			typeParameters.add(new GenericClass(readType()));
+		}
+		return typeParameters;
+	}
+
+	private GenericField readField() throws Exception {
+		Type owner = readType();
+		Class<?> declaringClass = loadClass(readString());
+		return new GenericField(declaringClass.getDeclaredField(readString()), owner);
+	}
+
+	private List<VariableReference> readReferences(TestCase test) throws Exception {
+		int number = readVarInt(data);
+		List<VariableReference> references = new ArrayList<>(number);
+		for (int i = 0; i < number; i++) {
+			references.add(readReference(test));
+		}
+		return references;
+	}
+
+	private VariableReference readReference(TestCase test) throws Exception {
+		int tag = data.readByte();
+		switch (tag) {
+		case REFERENCE_NONE:
+			return null;
+		case REFERENCE_STATEMENT:
+			return test.getStatement(readVarInt(data)).getReturnValue();
+		case REFERENCE_ARRAY_INDEX:
+			ArrayReference array = (ArrayReference) readReference(test);
+			int number = readVarInt(data);
+			List<Integer> indices = new ArrayList<>(number);
+			for (int i = 0; i < number; i++) {
+				indices.add(readVarInt(data));
+			}
+			return new ArrayIndex(test, array, indices);
+		case REFERENCE_FIELD:
+			GenericField field = readField();
+			Type fieldType = readType();
+			return new FieldReference(test, field, fieldType, readReference(test));
+		case REFERENCE_NULL:
+			return new NullReference(test, readType());
+		case REFERENCE_CONSTANT:
+			Type type = readType();
+			return new ConstantValue(test, new GenericClass(type), readValue(data.readByte()));
+		default:
+			throw new IOException("Unknown variable reference " + tag);
+		}
+	}
+
+	private Type readType() throws Exception {
+		int tag = data.readByte();
+		switch (tag) {
+		case TYPE_NONE:
+			return null;
+		case TYPE_CLASS:
+			return loadClass(readString());
+		case TYPE_PARAMETERIZED:
+			Class<?> rawType = loadClass(readString());
+			Type ownerType = readType();
+			return new ParameterizedTypeImpl(rawType, readTypes(), ownerType);
+		case TYPE_WILDCARD:
+			Type[] upperBounds = readTypes();
+			return new WildcardTypeImpl(upperBounds, readTypes());
+		case TYPE_ARRAY:
+			return GenericArrayTypeImpl.createArrayType(readType());
+		default:
+			throw new IOException("Unknown type " + tag);
+		}
+	}
+
+	private Type[] readTypes() throws Exception {
+		Type[] types = new Type[readVarInt(data)];
+		for (int i = 0; i < types.length; i++) {
+			types[i] = readType();
+		}
+		return types;
+	}
+
+	private String readString() throws IOException {
+		return strings.get(readVarInt(data));
+	}
+
+	private Class<?> loadClass(String name) throws ClassNotFoundException {
+		Class<?> clazz = primitiveClasses.get(name);
+		if (clazz != null) {
+			return clazz;
+		}
+		return Class.forName(name, false, loader);
+	}
+}
@@ -0,0 +1,450 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import static org.evosuite.testsuite.CompactTestFormat.*;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.statements.ArrayStatement;
+import org.evosuite.testcase.statements.AssignmentStatement;
+import org.evosuite.testcase.statements.ClassPrimitiveStatement;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.EnumPrimitiveStatement;
+import org.evosuite.testcase.statements.FieldStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.NullStatement;
+import org.evosuite.testcase.statements.PrimitiveStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.BooleanPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.BytePrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.CharPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.DoublePrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.FloatPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.LongPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.ShortPrimitiveStatement;
+import org.evosuite.testcase.variable.ArrayIndex;
+import org.evosuite.testcase.variable.ArrayReference;
+import org.evosuite.testcase.variable.ConstantValue;
+import org.evosuite.testcase.variable.FieldReference;
+import org.evosuite.testcase.variable.NullReference;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.testcase.variable.VariableReferenceImpl;
+import org.evosuite.utils.generic.GenericAccessibleObject;
+import org.evosuite.utils.generic.GenericClass;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericField;
+import org.evosuite.utils.generic.GenericMethod;
+
+/**
+ * Writes tests in the compact binary format described in
+ * {@link CompactTestFormat}. Tests are written one at a time, so a writer can
+ * be used to stream a population to disk.
+ * 
+ * <p>
+ * Only the statements are encoded: coverage and fitness values are recomputed
+ * once a loaded test is executed. Tests with assertions, or with statements
+ * without a compact encoding (e.g. functional mocks), are stored with Java
+ * serialization instead, so that nothing of them is lost.
+ * </p>
+ */
+public class CompactTestWriter implements Closeable {
+
+	private static final Map<Class<?>, Integer> primitiveStatements = new HashMap<>();
+
+	static {
+		primitiveStatements.put(BooleanPrimitiveStatement.class, BOOLEAN);
+		primitiveStatements.put(BytePrimitiveStatement.class, BYTE);
+		primitiveStatements.put(CharPrimitiveStatement.class, CHAR);
+		primitiveStatements.put(ShortPrimitiveStatement.class, SHORT);
+		primitiveStatements.put(IntPrimitiveStatement.class, INT);
+		primitiveStatements.put(LongPrimitiveStatement.class, LONG);
+		primitiveStatements.put(FloatPrimitiveStatement.class, FLOAT);
+		primitiveStatements.put(DoublePrimitiveStatement.class, DOUBLE);
+		primitiveStatements.put(StringPrimitiveStatement.class, STRING);
+	}
+
+	private static final Map<Class<?>, Integer> constantValues = new HashMap<>();
+
+	static {
+		constantValues.put(Boolean.class, BOOLEAN);
+		constantValues.put(Byte.class, BYTE);
+		constantValues.put(Character.class, CHAR);
+		constantValues.put(Short.class, SHORT);
+		constantValues.put(Integer.class, INT);
+		constantValues.put(Long.class, LONG);
+		constantValues.put(Float.class, FLOAT);
+		constantValues.put(Double.class, DOUBLE);
+		constantValues.put(String.class, STRING);
+	}
+
+	/** Thrown if a test contains something without a compact encoding */
+	private static class NotEncodableException extends Exception {
+		private static final long serialVersionUID = 2520412325765281434L;
+
+		NotEncodableException(String message) {
+			super(message);
+		}
+	}
+
+	private final DataOutputStream out;
+
+	/** The test currently being encoded */
+	private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+	private final DataOutputStream data = new DataOutputStream(buffer);
+
+	/** Index of each string in the string table; 0 stands for null */
+	private final Map<String, Integer> strings = new HashMap<>();
+
+	/** Strings added to the table while encoding the current test */
+	private final List<String> newStrings = new ArrayList<>();
+
+	public CompactTestWriter(OutputStream stream) throws IOException {
+		out = new DataOutputStream(new BufferedOutputStream(stream));
+		out.write(MAGIC);
+		writeVarInt(out, VERSION);
+	}
+
+	/**
+	 * Append a test
+	 * 
+	 * @param test
+	 * @throws IOException
+	 */
+	public void write(TestChromosome test) throws IOException {
+		buffer.reset();
+		newStrings.clear();
+		try {
+			writeTestCase(test.getTestCase());
+		} catch (NotEncodableException e) {
+			for (String string : newStrings) {
+				strings.remove(string);
+			}
+			newStrings.clear();
+			buffer.reset();
+			try (ObjectOutputStream serialized = new ObjectOutputStream(buffer)) {
+				serialized.writeObject(test);
+			}
+			writeRecord(RECORD_SERIALIZED_TEST);
+			return;
+		}
+
+		if (!newStrings.isEmpty()) {
+			out.writeByte(RECORD_STRINGS);
+			writeVarInt(out, newStrings.size());
+			for (String string : newStrings) {
+				writeVarInt(out, string.length());
+				for (int i = 0; i < string.length(); i++) {
+					writeVarInt(out, string.charAt(i));
+				}
+			}
+		}
+		writeRecord(RECORD_TEST);
+	}
+
+	private void writeRecord(int record) throws IOException {
+		out.writeByte(record);
+		writeVarInt(out, buffer.size());
+		buffer.writeTo(out);
+	}
+
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+
+	private void writeTestCase(TestCase test) throws IOException, NotEncodableException {
+		if (test.hasAssertions())
+			throw new NotEncodableException("Assertions have no compact encoding");
+		writeVarInt(data, test.size());
+		for (Statement statement : test) {
+			writeStatement(statement);
+		}
+	}
+
+	private void writeStatement(Statement statement) throws IOException,
+	        NotEncodableException {
+		Class<?> kind = statement.getClass();
+		VariableReference retval = statement.getReturnValue();
+
+		if (primitiveStatements.containsKey(kind)) {
+			int tag = primitiveStatements.get(kind);
+			data.writeByte(tag);
+			writeType(retval.getType());
+			writeValue(tag, ((PrimitiveStatement<?>) statement).getValue());
+
+		} else if (kind == NullStatement.class) {
+			data.writeByte(NULL);
+			writeType(retval.getType());
+
+		} else if (kind == EnumPrimitiveStatement.class) {
+			Enum<?> value = ((EnumPrimitiveStatement<?>) statement).getValue();
+			if (value == null) {
+				throw new NotEncodableException("Enum statement without value");
+			}
+			data.writeByte(ENUM);
+			writeType(retval.getType());
+			writeString(((EnumPrimitiveStatement<?>) statement).getEnumClass().getName());
+			writeString(value.name());
+
+		} else if (kind == ClassPrimitiveStatement.class) {
+			data.writeByte(CLASS);
+			writeType(retval.getType());
+			writeType(((ClassPrimitiveStatement) statement).getValue());
+
+		} else if (kind == ConstructorStatement.class) {
+			ConstructorStatement constructorStatement = (ConstructorStatement) statement;
+			GenericConstructor constructor = constructorStatement.getConstructor();
+			data.writeByte(CONSTRUCTOR);
+			writeType(retval.getType());
+			writeAccessibleObject(constructor, constructor.getDescriptor());
+			writeReferences(constructorStatement.getParameterReferences());
+
+		} else if (kind == MethodStatement.class) {
+			MethodStatement methodStatement = (MethodStatement) statement;
+			GenericMethod method = methodStatement.getMethod();
+			data.writeByte(METHOD);
+			writeType(retval.getType());
+			writeAccessibleObject(method, method.getDescriptor());
+			writeString(method.getName());
+			writeReference(methodStatement.getCallee());
+			writeReferences(methodStatement.getParameterReferences());
+
+		} else if (kind == FieldStatement.class) {
+			FieldStatement fieldStatement = (FieldStatement) statement;
+			data.writeByte(FIELD);
+			writeType(retval.getType());
+			writeField(fieldStatement.getField());
+			writeReference(fieldStatement.getSource());
+
+		} else if (kind == AssignmentStatement.class) {
+			data.writeByte(ASSIGNMENT);
+			writeType(retval.getType());
+			writeReference(retval);
+			writeReference(((AssignmentStatement) statement).getValue());
+
+		} else if (kind == ArrayStatement.class) {
+			List<Integer> lengths = ((ArrayStatement) statement).getLengths();
+			data.writeByte(ARRAY);
+			writeType(retval.getType());
+			writeVarInt(data, lengths.size());
+			for (int length : lengths) {
+				writeVarInt(data, length);
+			}
+
+		} else {
+			throw new NotEncodableException("No compact encoding for " + kind.getName());
+		}
+	}
+
+	private void writeValue(int tag, Object value) throws IOException, NotEncodableException {
+		if (value == null) {
+			if (tag != STRING) {
+				throw new NotEncodableException("Primitive without value");
+			}
+			writeString(null);
+			return;
+		}
+		switch (tag) {
+		case BOOLEAN:
+			data.writeBoolean((Boolean) value);
+			break;
+		case BYTE:
+			data.writeByte((Byte) value);
+			break;
+		case CHAR:
+			writeVarInt(data, (Character) value);
+			break;
+		case SHORT:
+			writeSignedVarInt(data, (Short) value);
+			break;
+		case INT:
+			writeSignedVarInt(data, (Integer) value);
+			break;
+		case LONG:
+			writeSignedVarLong(data, (Long) value);
+			break;
+		case FLOAT:
+			data.writeFloat((Float) value);
+			break;
+		case DOUBLE:
+			data.writeDouble((Double) value);
+			break;
+		case STRING:
+			writeString((String) value);
+			break;
+		default:
+			throw new NotEncodableException("Unknown value tag " + tag);
+		}
+	}
+
+	/**
+	 * Owner type, declaring class, descriptor and instantiated type parameters.
+	 * Methods additionally need their name.
+	 */
+	private void writeAccessibleObject(GenericAccessibleObject<?> object, String descriptor)
+	        throws IOException {
+		writeType(object.getOwnerType());
+		writeString(object.getDeclaringClass().getName());
+		writeString(descriptor);
+		List<GenericClass> typeParameters = object.getTypeParameterClasses();
+		writeVarInt(data, typeParameters.size());
+		for (GenericClass typeParameter : typeParameters) {
+			writeType(typeParameter.getType());
+		}
+	}
+
+	private void writeField(GenericField field) throws IOException {
+		writeType(field.getOwnerType());
+		writeString(field.getField().getDeclaringClass().getName());
+		writeString(field.getName());
+	}
+
+	private void writeReferences(List<VariableReference> references) throws IOException,
+	        NotEncodableException {
+		writeVarInt(data, references.size());
+		for (VariableReference reference : references) {
+			writeReference(reference);
+		}
+	}
+
+	private void writeReference(VariableReference reference) throws IOException,
+	        NotEncodableException {
+		if (reference == null) {
+			data.writeByte(REFERENCE_NONE);
+
+		} else if (reference instanceof ArrayIndex) {
+			ArrayIndex index = (ArrayIndex) reference;
+			List<Integer> indices = index.getArrayIndices();
+			data.writeByte(REFERENCE_ARRAY_INDEX);
+			writeReference(index.getArray());
+			writeVarInt(data, indices.size());
+			for (int i : indices) {
+				writeVarInt(data, i);
+			}
+
+		} else if (reference instanceof FieldReference) {
+			FieldReference field = (FieldReference) reference;
+			data.writeByte(REFERENCE_FIELD);
+			writeField(field.getField());
+			writeType(field.getType());
+			writeReference(field.getSource());
+
+		} else if (reference instanceof NullReference) {
+			data.writeByte(REFERENCE_NULL);
+			writeType(reference.getType());
+
+		} else if (reference instanceof ConstantValue) {
+			Object value = ((ConstantValue) reference).getValue();
+			Integer tag = value == null ? Integer.valueOf(NULL) : constantValues.get(value.getClass());
+			if (tag == null) {
+				throw new NotEncodableException("Constant of type " + value.getClass().getName());
+			}
+			data.writeByte(REFERENCE_CONSTANT);
+			writeType(reference.getType());
+			data.writeByte(tag);
+			if (value != null) {
+				writeValue(tag, value);
+			}
+
+		} else if (reference.getClass() == VariableReferenceImpl.class
+		        || reference.getClass() == ArrayReference.class) {
+			data.writeByte(REFERENCE_STATEMENT);
+			writeVarInt(data, reference.getStPosition());
+
+		} else {
+			throw new NotEncodableException("Reference of type " + reference.getClass().getName());
+		}
+	}
+
+	/**
+	 * Type variables and captured types are stored as their erasure, as with
+	 * the Java serialization of {@link GenericClass}
+	 */
+	private void writeType(Type type) throws IOException {
+		if (type == null) {
+			data.writeByte(TYPE_NONE);
+		} else if (type instanceof Class<?>) {
+			data.writeByte(TYPE_CLASS);
+			writeString(((Class<?>) type).getName());
+		} else if (type instanceof ParameterizedType) {
+			ParameterizedType parameterizedType = (ParameterizedType) type;
+			data.writeByte(TYPE_PARAMETERIZED);
+			writeString(((Class<?>) parameterizedType.getRawType()).getName());
+			writeType(parameterizedType.getOwnerType());
+			writeTypes(parameterizedType.getActualTypeArguments());
+		} else if (type instanceof WildcardType) {
+			WildcardType wildcardType = (WildcardType) type;
+			data.writeByte(TYPE_WILDCARD);
+			writeTypes(wildcardType.getUpperBounds());
+			writeTypes(wildcardType.getLowerBounds());
+		} else if (type instanceof GenericArrayType) {
+			data.writeByte(TYPE_ARRAY);
+			writeType(((GenericArrayType) type).getGenericComponentType());
+		} else {
+			data.writeByte(TYPE_CLASS);
+			writeString(new GenericClass(type).getRawClass().getName());
+		}
+	}
+
+	private void writeTypes(Type[] types) throws IOException {
+		writeVarInt(data, types.length);
+		for (Type type : types) {
+			writeType(type);
+		}
+	}
+
+	private void writeString(String string) throws IOException {
+		if (string == null) {
+			writeVarInt(data, 0);
+			return;
+		}
+		Integer index = strings.get(string);
+		if (index == null) {
+			index = strings.size() + 1;
+			strings.put(string, index);
+			newStrings.add(string);
+		}
+		writeVarInt(data, index);
+	}
+}
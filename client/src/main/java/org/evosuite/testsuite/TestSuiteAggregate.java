@@ -0,0 +1,277 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Values of a test suite fitness function aggregated over the tests of a
+ * suite, e.g. the minimal distance of each branch.
+ *
+ * Each test contributes one {@link Contribution}, which is computed once per
+ * execution result and shared by the copies of the result. When a suite is
+ * evaluated again, {@link #update(List)} only removes the contributions of
+ * tests that were changed or removed and adds those of the new tests, instead
+ * of merging the contributions of all tests.
+ *
+ * An aggregate consists of channels, each mapping keys to values that are
+ * combined by minimum or sum. Aggregates are immutable, so they can be shared
+ * by the copies of a suite.
+ */
+public final class TestSuiteAggregate {
+
+	public enum Combination {
+		/** Minimum of the values of the tests */
+		MIN,
+		/** Sum of the values of the tests, keys with sum 0 are removed */
+		SUM
+	}
+
+	/**
+	 * The values of one execution result. A contribution must not be modified
+	 * after it was passed to {@link TestSuiteAggregate#update(List)}.
+	 */
+	public static final class Contribution {
+
+		private final List<Map<Object, Double>> channels;
+
+		public Contribution(int numChannels) {
+			channels = new ArrayList<Map<Object, Double>>(numChannels);
+			for (int i = 0; i < numChannels; i++) {
+				channels.add(new HashMap<Object, Double>());
+			}
+		}
+
+		/**
+		 * Keep the minimum of value and the current value of key
+		 */
+		public void min(int channel, Object key, double value) {
+			Map<Object, Double> values = channels.get(channel);
+			Double current = values.get(key);
+			if (current == null || value < current)
+				values.put(key, value);
+		}
+
+		/**
+		 * Add value to the current value of key
+		 */
+		public void add(int channel, Object key, double value) {
+			Map<Object, Double> values = channels.get(channel);
+			Double current = values.get(key);
+			values.put(key, current == null ? value : current + value);
+		}
+	}
+
+	private final Combination[] combinations;
+
+	/** Current contributions, a contribution occurs once per test it belongs to */
+	private final List<Contribution> contributions;
+
+	private final List<Map<Object, Double>> values;
+
+	/** For MIN channels: number of contributions with the minimal value of a key */
+	private final List<Map<Object, Integer>> ties;
+
+	public TestSuiteAggregate(Combination... combinations) {
+		this.combinations = combinations.clone();
+		this.contributions = new ArrayList<Contribution>();
+		this.values = new ArrayList<Map<Object, Double>>(combinations.length);
+		this.ties = new ArrayList<Map<Object, Integer>>(combinations.length);
+		for (int i = 0; i < combinations.length; i++) {
+			values.add(new HashMap<Object, Double>());
+			ties.add(new HashMap<Object, Integer>());
+		}
+	}
+
+	private TestSuiteAggregate(TestSuiteAggregate source, List<Contribution> contributions) {
+		this.combinations = source.combinations;
+		this.contributions = new ArrayList<Contribution>(contributions);
+		this.values = new ArrayList<Map<Object, Double>>(combinations.length);
+		this.ties = new ArrayList<Map<Object, Integer>>(combinations.length);
+		for (int i = 0; i < combinations.length; i++) {
+			values.add(new HashMap<Object, Double>(source.values.get(i)));
+			ties.add(new HashMap<Object, Integer>(source.ties.get(i)));
+		}
+	}
+
+	public Contribution newContribution() {
+		return new Contribution(combinations.length);
+	}
+
+	/**
+	 * @param contributions
+	 *            the contributions of all tests of the suite
+	 * @return the aggregate of the given contributions, computed from the
+	 *         difference to the contributions of this aggregate
+	 */
+	public TestSuiteAggregate update(List<Contribution> contributions) {
+		IdentityHashMap<Contribution, Integer> removed = new IdentityHashMap<Contribution, Integer>();
+		for (Contribution contribution : this.contributions) {
+			increment(removed, contribution, 1);
+		}
+		List<Contribution> added = new ArrayList<Contribution>();
+		for (Contribution contribution : contributions) {
+			if (!increment(removed, contribution, -1))
+				added.add(contribution);
+		}
+		if (added.isEmpty() && removed.isEmpty())
+			return this;
+
+		TestSuiteAggregate aggregate = new TestSuiteAggregate(this, contributions);
+		List<Set<Object>> dirty = new ArrayList<Set<Object>>(combinations.length);
+		for (int i = 0; i < combinations.length; i++) {
+			dirty.add(new HashSet<Object>());
+		}
+		for (Map.Entry<Contribution, Integer> entry : removed.entrySet()) {
+			for (int i = 0; i < entry.getValue(); i++) {
+				aggregate.remove(entry.getKey(), dirty);
+			}
+		}
+		for (Contribution contribution : added) {
+			aggregate.add(contribution, dirty);
+		}
+		for (int channel = 0; channel < combinations.length; channel++) {
+			for (Object key : dirty.get(channel)) {
+				aggregate.recompute(channel, key);
+			}
+		}
+		return aggregate;
+	}
+
+	/**
+	 * Count occurrences, removing entries that reach 0
+	 *
+	 * @return false if a negative count was requested for a missing entry
+	 */
+	private static boolean increment(IdentityHashMap<Contribution, Integer> counts, Contribution contribution,
+	                                 int delta) {
+		Integer count = counts.get(contribution);
+		int newCount = (count == null ? 0 : count) + delta;
+		if (newCount < 0)
+			return false;
+		if (newCount == 0)
+			counts.remove(contribution);
+		else
+			counts.put(contribution, newCount);
+		return true;
+	}
+
+	private void add(Contribution contribution, List<Set<Object>> dirty) {
+		for (int channel = 0; channel < combinations.length; channel++) {
+			Map<Object, Double> channelValues = values.get(channel);
+			for (Map.Entry<Object, Double> entry : contribution.channels.get(channel).entrySet()) {
+				Object key = entry.getKey();
+				double value = entry.getValue();
+				Double current = channelValues.get(key);
+				if (combinations[channel] == Combination.SUM) {
+					double sum = current == null ? value : current + value;
+					if (sum == 0.0)
+						channelValues.remove(key);
+					else
+						channelValues.put(key, sum);
+				} else if (dirty.get(channel).contains(key)) {
+					continue;
+				} else if (current == null || value < current) {
+					channelValues.put(key, value);
+					ties.get(channel).put(key, 1);
+				} else if (value == current) {
+					ties.get(channel).put(key, ties.get(channel).get(key) + 1);
+				}
+			}
+		}
+	}
+
+	private void remove(Contribution contribution, List<Set<Object>> dirty) {
+		for (int channel = 0; channel < combinations.length; channel++) {
+			Map<Object, Double> channelValues = values.get(channel);
+			for (Map.Entry<Object, Double> entry : contribution.channels.get(channel).entrySet()) {
+				Object key = entry.getKey();
+				double value = entry.getValue();
+				Double current = channelValues.get(key);
+				if (combinations[channel] == Combination.SUM) {
+					double sum = current == null ? -value : current - value;
+					if (sum == 0.0)
+						channelValues.remove(key);
+					else
+						channelValues.put(key, sum);
+				} else if (current != null && value == current && !dirty.get(channel).contains(key)) {
+					int count = ties.get(channel).get(key) - 1;
+					if (count == 0)
+						dirty.get(channel).add(key);
+					else
+						ties.get(channel).put(key, count);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The last contribution with the minimal value of key was removed, so the
+	 * minimum has to be computed from all contributions
+	 */
+	private void recompute(int channel, Object key) {
+		Double minimum = null;
+		int count = 0;
+		for (Contribution contribution : contributions) {
+			Double value = contribution.channels.get(channel).get(key);
+			if (value == null)
+				continue;
+			if (minimum == null || value < minimum) {
+				minimum = value;
+				count = 1;
+			} else if (value.doubleValue() == minimum.doubleValue()) {
+				count++;
+			}
+		}
+		if (minimum == null) {
+			values.get(channel).remove(key);
+			ties.get(channel).remove(key);
+		} else {
+			values.get(channel).put(key, minimum);
+			ties.get(channel).put(key, count);
+		}
+	}
+
+	/**
+	 * @return the aggregated values of the channel
+	 */
+	public Map<Object, Double> getValues(int channel) {
+		return Collections.unmodifiableMap(values.get(channel));
+	}
+
+	/**
+	 * @return the aggregated value of the key, or null if no test has a value
+	 *         for it
+	 */
+	public Double getValue(int channel, Object key) {
+		return values.get(channel).get(key);
+	}
+
+	public int getNumberOfContributions() {
+		return contributions.size();
+	}
+}
@@ -21,7 +21,9 @@ package org.evosuite.testsuite;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiConsumer;
 
+import org.evosuite.Properties;
 import org.evosuite.ga.FitnessFunction;
 import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
 import org.evosuite.testcase.ExecutableChromosome;
@@ -113,6 +115,66 @@ public abstract class TestSuiteFitnessFunction extends
 
 
 
+	/**
+	 * Aggregate the contributions of the results of the tests of a suite.
+	 * 
+	 * The analyzer is called once for each result that was not analyzed by
+	 * this fitness function before, so it is where covered goals should be
+	 * recorded. Results with a timeout or a test exception are ignored. The
+	 * aggregate is updated from the previous aggregate of the suite, see
+	 * {@link Properties#INCREMENTAL_SUITE_FITNESS}.
+	 * 
+	 * @param suite
+	 * @param results
+	 *            the results of the tests of the suite
+	 * @param empty
+	 *            the aggregate of no tests
+	 * @param analyzer
+	 *            computes the contribution of a result
+	 * @return the aggregate of the results
+	 */
+	protected TestSuiteAggregate aggregate(AbstractTestSuiteChromosome<? extends ExecutableChromosome> suite,
+	        List<ExecutionResult> results, TestSuiteAggregate empty,
+	        BiConsumer<ExecutionResult, TestSuiteAggregate.Contribution> analyzer) {
+		boolean incremental = Properties.INCREMENTAL_SUITE_FITNESS;
+		List<TestSuiteAggregate.Contribution> contributions = new ArrayList<TestSuiteAggregate.Contribution>(
+		        results.size());
+		for (ExecutionResult result : results) {
+			if (result.hasTimeout() || result.hasTestException()) {
+				continue;
+			}
+			TestSuiteAggregate.Contribution contribution = incremental ? result.getContribution(this) : null;
+			if (contribution == null) {
+				contribution = empty.newContribution();
+				analyzer.accept(result, contribution);
+				if (incremental) {
+					result.setContribution(this, contribution);
+				}
+			}
+			contributions.add(contribution);
+		}
+
+		if (!incremental) {
+			return empty.update(contributions);
+		}
+		TestSuiteAggregate previous = suite.getAggregate(this);
+		TestSuiteAggregate aggregate = (previous == null ? empty : previous).update(contributions);
+		suite.setAggregate(this, aggregate);
+		return aggregate;
+	}
+
+	/**
+	 * @return true if any of the results has a timeout or a test exception
+	 */
+	protected static boolean hasTimeoutOrTestException(List<ExecutionResult> results) {
+		for (ExecutionResult result : results) {
+			if (result.hasTimeout() || result.hasTestException()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.evosuite.ga.FitnessFunction#isMaximizationFunction()
 	 */
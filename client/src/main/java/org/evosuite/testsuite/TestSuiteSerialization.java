@@ -19,6 +19,7 @@
  */
 package org.evosuite.testsuite;
 
+import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.statements.Statement;
@@ -47,21 +48,11 @@ public class TestSuiteSerialization {
             parent.mkdirs();
         }
 
-        try(ObjectOutputStream out = new DebuggingObjectOutputStream(new FileOutputStream(target));){
-            for(TestSuiteChromosome ts : list) {
-                for (TestChromosome tc : ts.getTestChromosomes()) {
-                    out.writeObject(tc);
-                }
-            }
-
-            out.flush();
-            out.close();
-        }catch (IOException e){
-            logger.error("Failed to open/handle "+target.getAbsolutePath()+" for writing: "+e.getMessage());
-            return false;
+        List<TestChromosome> tests = new ArrayList<>();
+        for(TestSuiteChromosome ts : list) {
+            tests.addAll(ts.getTestChromosomes());
         }
-
-        return true;
+        return writeTests(tests, target);
     }
     
     public static boolean saveTests(TestSuiteChromosome ts, File target) throws IllegalArgumentException{
@@ -70,8 +61,24 @@ public class TestSuiteSerialization {
             parent.mkdirs();
         }
 
+        return writeTests(ts.getTestChromosomes(), target);
+    }
+
+    private static boolean writeTests(List<TestChromosome> tests, File target) {
+        if(Properties.TEST_SERIALIZATION_FORMAT == Properties.TestSerializationFormat.COMPACT){
+            try(CompactTestWriter out = new CompactTestWriter(new FileOutputStream(target))){
+                for (TestChromosome tc : tests) {
+                    out.write(tc);
+                }
+            }catch (IOException e){
+                logger.error("Failed to open/handle "+target.getAbsolutePath()+" for writing: "+e.getMessage());
+                return false;
+            }
+            return true;
+        }
+
         try(ObjectOutputStream out = new DebuggingObjectOutputStream(new FileOutputStream(target));){
-        	for (TestChromosome tc : ts.getTestChromosomes()) {
+        	for (TestChromosome tc : tests) {
         		out.writeObject(tc);
             }
 
@@ -110,6 +117,16 @@ public class TestSuiteSerialization {
     public static List<TestChromosome> loadTests(File target) throws IllegalArgumentException{
         Inputs.checkNull(target);
 
+        if(CompactTestFormat.hasHeader(target)){
+            try(CompactTestReader in = new CompactTestReader(new FileInputStream(target),
+                    TestGenerationContext.getInstance().getClassLoaderForSUT())){
+                return in.readAll();
+            } catch (IOException e) {
+                logger.error("Failed to open/handle " + target.getAbsolutePath() + " for reading: " + e.getMessage());
+                return new ArrayList<>();
+            }
+        }
+
         List<TestChromosome> list = new ArrayList<>();
 
         try(ObjectInputStream in = new ObjectInputStream(new FileInputStream(target)) ){
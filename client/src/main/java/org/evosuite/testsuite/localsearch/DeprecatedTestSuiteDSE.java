@@ -41,8 +41,7 @@ import org.evosuite.symbolic.ConcolicExecution;
 import org.evosuite.symbolic.DSEStats;
 import org.evosuite.symbolic.expr.Comparator;
 import org.evosuite.symbolic.expr.Constraint;
-import org.evosuite.symbolic.expr.Expression;
-import org.evosuite.symbolic.expr.Variable;
+import org.evosuite.symbolic.solver.ConstraintSlicer;
 import org.evosuite.symbolic.solver.Solver;
 import org.evosuite.symbolic.solver.SolverCache;
 import org.evosuite.symbolic.solver.SolverFactory;
@@ -349,7 +348,8 @@ public class DeprecatedTestSuiteDSE {
 		 */
 		if (size > 0) {
 			logger.debug("Calculating cone of influence for " + size + " constraints");
-			constraints = reduce(constraints);
+			constraints = ConstraintSlicer.slice(constraints);
+			DSEStats.getInstance().reportNewSlice(size, constraints.size());
 			logger.info("Reduced constraints from " + size + " to " + constraints.size());
 			// for (Constraint<?> c : constraints) {
 			// logger.info(c.toString());
@@ -468,63 +468,6 @@ public class DeprecatedTestSuiteDSE {
 		return null;
 	}
 
-	/**
-	 * Apply cone of influence reduction to constraints with respect to the last
-	 * constraint in the list
-	 * 
-	 * @param constraints
-	 * @return
-	 */
-	private List<Constraint<?>> reduce(List<Constraint<?>> constraints) {
-
-		Constraint<?> target = constraints.get(constraints.size() - 1);
-		Set<Variable<?>> dependencies = getVariables(target);
-
-		LinkedList<Constraint<?>> coi = new LinkedList<Constraint<?>>();
-		if (dependencies.size() <= 0)
-			return coi;
-
-		coi.add(target);
-
-		for (int i = constraints.size() - 2; i >= 0; i--) {
-			Constraint<?> constraint = constraints.get(i);
-			Set<Variable<?>> variables = getVariables(constraint);
-			for (Variable<?> var : dependencies) {
-				if (variables.contains(var)) {
-					dependencies.addAll(variables);
-					coi.addFirst(constraint);
-					break;
-				}
-			}
-		}
-		return coi;
-	}
-
-	/**
-	 * Determine the set of variable referenced by this constraint
-	 * 
-	 * @param constraint
-	 * @return
-	 */
-	private Set<Variable<?>> getVariables(Constraint<?> constraint) {
-		Set<Variable<?>> variables = new HashSet<Variable<?>>();
-		getVariables(constraint.getLeftOperand(), variables);
-		getVariables(constraint.getRightOperand(), variables);
-		return variables;
-	}
-
-	/**
-	 * Recursively determine constraints in expression
-	 * 
-	 * @param expr
-	 *            a {@link org.evosuite.symbolic.expr.Expression} object.
-	 * @param variables
-	 *            a {@link java.util.Set} object.
-	 */
-	private static void getVariables(Expression<?> expr, Set<Variable<?>> variables) {
-		variables.addAll(expr.getVariables());
-	}
-
 	private double getFitness(TestSuiteChromosome suite) {
 		for (FitnessFunction<? extends Chromosome> ff : objective.getFitnessFunctions()) {
 			TestSuiteFitnessFunction tff = (TestSuiteFitnessFunction) ff;
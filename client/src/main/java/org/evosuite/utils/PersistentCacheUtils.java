@@ -0,0 +1,236 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.evosuite.runtime.instrumentation.RuntimeInstrumentation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Helpers for the caches that EvoSuite keeps in the temporary directory and
+ * that are shared by all clients on the same machine: checksums of the
+ * build and of the classpath for the keys, and a bound on the size of a
+ * cache folder.
+ */
+public class PersistentCacheUtils {
+
+	private static final Logger logger = LoggerFactory.getLogger(PersistentCacheUtils.class);
+
+	private static String buildFingerprint = null;
+
+	/**
+	 * Adds a string to the digest, terminated so that consecutive values
+	 * cannot be confused
+	 */
+	public static void update(MessageDigest digest, String value) {
+		digest.update(value.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+	public static String toHex(byte[] digest) {
+		StringBuilder sb = new StringBuilder();
+		for (byte b : digest) {
+			sb.append(String.format("%02x", b));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Identifies the build of the client and runtime classes, including the
+	 * resources shipped with them, so that entries written by a different
+	 * version of EvoSuite are not used
+	 */
+	public static synchronized String getBuildFingerprint() {
+		if (buildFingerprint == null) {
+			StringBuilder sb = new StringBuilder();
+			appendLocation(sb, PersistentCacheUtils.class);
+			appendLocation(sb, RuntimeInstrumentation.class);
+			buildFingerprint = sb.toString();
+		}
+		return buildFingerprint;
+	}
+
+	/**
+	 * Identifies a resource by its location, size and modification time
+	 *
+	 * @param resource
+	 *            the URL of the resource, or {@code null} if it does not exist
+	 */
+	public static String getResourceFingerprint(URL resource) {
+		if (resource == null)
+			return "-";
+		try {
+			URLConnection connection = resource.openConnection();
+			String fingerprint = resource + ":" + connection.getContentLengthLong() + ":"
+			        + connection.getLastModified();
+			connection.getInputStream().close();
+			return fingerprint;
+		} catch (IOException e) {
+			return resource.toString();
+		}
+	}
+
+	/**
+	 * Adds the content of all entries of the classpath to the digest, so
+	 * that any change in the classpath leads to a different checksum. Jars
+	 * are identified by the checksum of their content. For directories we
+	 * only look at names, sizes and modification times of the files, as
+	 * reading them would take about as long as analyzing them.
+	 *
+	 * @param digest
+	 * @param classPath
+	 * @throws IOException
+	 */
+	public static void updateWithClassPath(MessageDigest digest, List<String> classPath)
+	        throws IOException {
+		for (String classPathEntry : classPath) {
+			update(digest, classPathEntry);
+			updateWithContent(digest, new File(classPathEntry));
+		}
+	}
+
+	private static void updateWithContent(MessageDigest digest, File file) throws IOException {
+		if (!file.exists()) {
+			update(digest, "-");
+		} else if (file.isDirectory()) {
+			File[] files = file.listFiles();
+			if (files == null)
+				return;
+			Arrays.sort(files);
+			for (File child : files) {
+				update(digest, child.getName());
+				if (child.isDirectory()) {
+					updateWithContent(digest, child);
+				} else {
+					update(digest, child.length() + ":" + child.lastModified());
+				}
+			}
+		} else {
+			CRC32 crc = new CRC32();
+			byte[] buffer = new byte[1 << 16];
+			try (InputStream input = new FileInputStream(file)) {
+				int read;
+				while ((read = input.read(buffer)) != -1) {
+					crc.update(buffer, 0, read);
+				}
+			}
+			update(digest, file.length() + ":" + crc.getValue());
+		}
+	}
+
+	/**
+	 * Marks a cache entry as recently used, so that it is evicted last
+	 */
+	public static void touch(File file) {
+		if (!file.setLastModified(System.currentTimeMillis()))
+			logger.debug("Cannot update modification time of {}", file);
+	}
+
+	/**
+	 * Deletes the least recently used entries of a cache folder until the
+	 * total size of the remaining ones is at most {@code maxBytes}. Other
+	 * clients may delete or add entries at the same time, so files that are
+	 * gone already are ignored.
+	 *
+	 * @param directory
+	 * @param maxBytes
+	 * @return the number of deleted entries
+	 */
+	public static int evictLeastRecentlyUsed(File directory, long maxBytes) {
+		File[] files = directory.listFiles(file -> file.isFile() && file.getName().endsWith(".bin"));
+		if (files == null)
+			return 0;
+
+		long total = 0;
+		List<File> entries = new ArrayList<>(files.length);
+		for (File file : files) {
+			total += file.length();
+			entries.add(file);
+		}
+		if (total <= maxBytes)
+			return 0;
+
+		entries.sort(Comparator.comparingLong(File::lastModified));
+		int deleted = 0;
+		for (File file : entries) {
+			if (total <= maxBytes)
+				break;
+			long length = file.length();
+			if (file.delete())
+				deleted++;
+			total -= length;
+		}
+		logger.info("Deleted {} entries from cache folder {}", deleted, directory);
+		return deleted;
+	}
+
+	private static void appendLocation(StringBuilder sb, Class<?> clazz) {
+		CodeSource source = clazz.getProtectionDomain().getCodeSource();
+		if (source == null || source.getLocation() == null) {
+			sb.append("-;");
+			return;
+		}
+		File location;
+		try {
+			location = new File(source.getLocation().toURI());
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			sb.append(source.getLocation()).append(';');
+			return;
+		}
+		sb.append(location.getAbsolutePath()).append(':');
+		if (location.isDirectory()) {
+			// Classes compiled during development: any change should count
+			sb.append(getNewestModification(location));
+		} else {
+			sb.append(location.length()).append(':').append(location.lastModified());
+		}
+		sb.append(';');
+	}
+
+	private static long getNewestModification(File directory) {
+		long newest = directory.lastModified();
+		File[] files = directory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				if (file.isDirectory())
+					newest = Math.max(newest, getNewestModification(file));
+				else
+					newest = Math.max(newest, file.lastModified());
+			}
+		}
+		return newest;
+	}
+}
@@ -26,6 +26,7 @@ import java.io.Serializable;
 import java.lang.reflect.*;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -449,6 +450,10 @@ public abstract class GenericAccessibleObject<T extends GenericAccessibleObject<
 			typeVariables.add(new GenericClass(parameter));
 	}
 
+	public List<GenericClass> getTypeParameterClasses() {
+		return Collections.unmodifiableList(typeVariables);
+	}
+
 	@Override
 	public abstract String toString();
 	
@@ -25,14 +25,17 @@ package org.evosuite.utils.generic;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.Arrays;
 import java.util.List;
 
+import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
 import org.evosuite.setup.TestClusterUtils;
 import org.evosuite.setup.TestUsageChecker;
@@ -51,6 +54,9 @@ public class GenericConstructor extends GenericAccessibleObject<GenericConstruct
 
 	private transient Constructor<?> constructor;
 
+	/** Method handle for {@link #newInstance}, recreated when the constructor changes */
+	private transient volatile InvocationHandles.Cached<Constructor<?>> invoker;
+
 	public GenericConstructor(Constructor<?> constructor, Class<?> clazz) {
 		super(new GenericClass(clazz));
 		this.constructor = constructor;
@@ -126,6 +132,43 @@ public class GenericConstructor extends GenericAccessibleObject<GenericConstruct
 		return constructor;
 	}
 
+	/**
+	 * Create a new instance with the same semantics as
+	 * {@link Constructor#newInstance(Object...)}, but through a cached method
+	 * handle where possible
+	 *
+	 * @param inputs
+	 *            the arguments
+	 * @return the new instance
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 *             if the constructor throws an exception
+	 */
+	public Object newInstance(Object[] inputs) throws InstantiationException,
+	        IllegalAccessException, InvocationTargetException {
+		MethodHandle handle = Properties.METHOD_HANDLE_INVOCATION ? getMethodHandle() : null;
+		// Let reflection report invalid arguments
+		if (handle == null || inputs.length != constructor.getParameterTypes().length) {
+			return constructor.newInstance(inputs);
+		}
+		try {
+			return (Object) handle.invokeExact(inputs);
+		} catch (Throwable t) {
+			throw new InvocationTargetException(t);
+		}
+	}
+
+	private MethodHandle getMethodHandle() {
+		InvocationHandles.Cached<Constructor<?>> cached = invoker;
+		if (cached == null || cached.member != constructor) {
+			cached = new InvocationHandles.Cached<Constructor<?>>(constructor,
+			        InvocationHandles.forConstructor(constructor));
+			invoker = cached;
+		}
+		return cached.handle;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.evosuite.utils.GenericAccessibleObject#getAccessibleObject()
 	 */
@@ -25,7 +25,9 @@ package org.evosuite.utils.generic;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
@@ -34,6 +36,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
 import org.evosuite.ga.ConstructionFailedException;
 import org.evosuite.runtime.util.Inputs;
@@ -54,6 +57,9 @@ public class GenericMethod extends GenericAccessibleObject<GenericMethod> {
 
 	private transient Method method;
 
+	/** Method handle for {@link #invoke}, recreated when the method changes */
+	private transient volatile InvocationHandles.Cached<Method> invoker;
+
 	public GenericMethod(Method method, GenericClass type) {
 		super(new GenericClass(type));
 		this.method = method;
@@ -99,6 +105,44 @@ public class GenericMethod extends GenericAccessibleObject<GenericMethod> {
 		return method;
 	}
 
+	/**
+	 * Invoke the method with the same semantics as
+	 * {@link Method#invoke(Object, Object...)}, but through a cached method
+	 * handle where possible
+	 *
+	 * @param callee
+	 *            the receiver, ignored for static methods
+	 * @param inputs
+	 *            the arguments
+	 * @return the return value, boxed if primitive, or null for void methods
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 *             if the method throws an exception
+	 */
+	public Object invoke(Object callee, Object[] inputs) throws IllegalAccessException,
+	        InvocationTargetException {
+		MethodHandle handle = Properties.METHOD_HANDLE_INVOCATION ? getMethodHandle() : null;
+		// Let reflection report invalid receivers and arguments
+		if (handle == null || inputs.length != method.getParameterTypes().length
+		        || (!isStatic() && !method.getDeclaringClass().isInstance(callee))) {
+			return method.invoke(callee, inputs);
+		}
+		try {
+			return (Object) handle.invokeExact(callee, inputs);
+		} catch (Throwable t) {
+			throw new InvocationTargetException(t);
+		}
+	}
+
+	private MethodHandle getMethodHandle() {
+		InvocationHandles.Cached<Method> cached = invoker;
+		if (cached == null || cached.member != method) {
+			cached = new InvocationHandles.Cached<Method>(method, InvocationHandles.forMethod(method));
+			invoker = cached;
+		}
+		return cached.handle;
+	}
+
 
 	@Override
 	public AccessibleObject getAccessibleObject() {
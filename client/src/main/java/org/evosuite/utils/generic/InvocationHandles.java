@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils.generic;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates the method handles used by {@link GenericMethod#invoke} and
+ * {@link GenericConstructor#newInstance} as a faster alternative to
+ * reflective invocation, see {@link org.evosuite.Properties#METHOD_HANDLE_INVOCATION}.
+ *
+ * Handles are only created for classes that are not loaded by the bootstrap
+ * class loader, so that caller sensitive JDK methods keep being called through
+ * reflection. If no handle can be created, null is returned and the callers
+ * fall back to reflection.
+ */
+class InvocationHandles {
+
+	private static final Logger logger = LoggerFactory.getLogger(InvocationHandles.class);
+
+	private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+	/** Type of method handles: (callee, arguments) -> result */
+	static final MethodType METHOD_TYPE = MethodType.methodType(Object.class,
+	                                                            Object.class,
+	                                                            Object[].class);
+
+	/** Type of constructor handles: (arguments) -> new instance */
+	static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class,
+	                                                                 Object[].class);
+
+	/**
+	 * Pairs a method handle with the reflective member it was created for, so
+	 * that a cached handle can be recognized as stale after the member was
+	 * replaced (e.g., after a change of class loader)
+	 */
+	static final class Cached<T> {
+
+		final T member;
+
+		final MethodHandle handle;
+
+		Cached(T member, MethodHandle handle) {
+			this.member = member;
+			this.handle = handle;
+		}
+	}
+
+	private InvocationHandles() {
+	}
+
+	/**
+	 * @return a handle of type {@link #METHOD_TYPE}, where the callee is
+	 *         ignored for static methods, or null
+	 */
+	static MethodHandle forMethod(Method method) {
+		if (!isApplicable(method.getDeclaringClass()))
+			return null;
+		try {
+			int numParameters = method.getParameterTypes().length;
+			MethodHandle handle = lookup.unreflect(method).asFixedArity();
+			if (Modifier.isStatic(method.getModifiers())) {
+				handle = handle.asType(MethodType.genericMethodType(numParameters));
+				handle = MethodHandles.dropArguments(handle, 0, Object.class);
+			} else {
+				handle = handle.asType(MethodType.genericMethodType(numParameters + 1));
+			}
+			return handle.asSpreader(Object[].class, numParameters).asType(METHOD_TYPE);
+		} catch (IllegalAccessException | RuntimeException e) {
+			logger.debug("Cannot create method handle for {}: {}", method, e.toString());
+			return null;
+		}
+	}
+
+	/**
+	 * @return a handle of type {@link #CONSTRUCTOR_TYPE}, or null
+	 */
+	static MethodHandle forConstructor(Constructor<?> constructor) {
+		Class<?> clazz = constructor.getDeclaringClass();
+		// Reflection reports these as errors, which we do not want to replicate
+		if (clazz.isEnum() || Modifier.isAbstract(clazz.getModifiers()) || !isApplicable(clazz))
+			return null;
+		try {
+			int numParameters = constructor.getParameterTypes().length;
+			MethodHandle handle = lookup.unreflectConstructor(constructor).asFixedArity();
+			handle = handle.asType(MethodType.genericMethodType(numParameters));
+			return handle.asSpreader(Object[].class, numParameters).asType(CONSTRUCTOR_TYPE);
+		} catch (IllegalAccessException | RuntimeException e) {
+			logger.debug("Cannot create constructor handle for {}: {}", constructor, e.toString());
+			return null;
+		}
+	}
+
+	private static boolean isApplicable(Class<?> clazz) {
+		return clazz.getClassLoader() != null;
+	}
+}
@@ -0,0 +1,224 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.archive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.coverage.method.MethodCoverageTestFitness;
+import org.evosuite.coverage.method.MethodNoExceptionCoverageTestFitness;
+import org.evosuite.coverage.method.MethodTraceCoverageTestFitness;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.TestFitnessFunction;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CoverageArchiveTest {
+
+  private CoverageArchive<TestFitnessFunction, TestChromosome> archive;
+
+  @Before
+  public void setUp() {
+    this.archive = new CoverageArchive<TestFitnessFunction, TestChromosome>();
+  }
+
+  @After
+  public void tearDown() {
+    Properties.getInstance().resetToDefaults();
+  }
+
+  private static TestChromosome createTest() {
+    TestChromosome test = new TestChromosome();
+    test.setTestCase(new DefaultTestCase());
+    return test;
+  }
+
+  private static List<TestFitnessFunction> createGoals(int numMethods) {
+    List<TestFitnessFunction> goals = new ArrayList<TestFitnessFunction>();
+    for (int i = 0; i < numMethods; i++) {
+      String method = "foo" + i + "()V";
+      goals.add(new MethodCoverageTestFitness("com.example.Foo", method));
+      goals.add(new MethodNoExceptionCoverageTestFitness("com.example.Foo", method));
+      goals.add(new MethodTraceCoverageTestFitness("com.example.Foo", method));
+    }
+    return goals;
+  }
+
+  @Test
+  public void testCoveredAndUncoveredTargets() {
+    List<TestFitnessFunction> goals = createGoals(2);
+    this.archive.addTargets(goals);
+    assertEquals(6, this.archive.getNumberOfTargets());
+    assertEquals(6, this.archive.getNumberOfUncoveredTargets());
+    assertTrue(this.archive.isArchiveEmpty());
+
+    TestChromosome test = createTest();
+    this.archive.updateArchive(goals.get(4), test, 0.0);
+    this.archive.updateArchive(goals.get(1), test, 0.0);
+    this.archive.updateArchive(goals.get(2), test, 1.0);
+
+    assertEquals(6, this.archive.getNumberOfTargets());
+    assertEquals(2, this.archive.getNumberOfCoveredTargets());
+    assertEquals(4, this.archive.getNumberOfUncoveredTargets());
+    assertEquals(2, this.archive.getNumberOfSolutions());
+    assertTrue(this.archive.hasSolution(goals.get(4)));
+    assertFalse(this.archive.hasSolution(goals.get(2)));
+    assertSame(test, this.archive.getSolution(goals.get(1)));
+
+    // covered targets are kept in the order they were covered
+    Iterator<TestFitnessFunction> covered = this.archive.getCoveredTargets().iterator();
+    assertSame(goals.get(4), covered.next());
+    assertSame(goals.get(1), covered.next());
+    assertFalse(covered.hasNext());
+
+    // uncovered targets are kept in the order they were added
+    List<TestFitnessFunction> uncovered =
+        new ArrayList<TestFitnessFunction>(this.archive.getUncoveredTargets());
+    assertEquals(4, uncovered.size());
+    assertSame(goals.get(0), uncovered.get(0));
+    assertSame(goals.get(2), uncovered.get(1));
+    assertSame(goals.get(3), uncovered.get(2));
+    assertSame(goals.get(5), uncovered.get(3));
+    assertTrue(this.archive.getUncoveredTargets().contains(goals.get(0)));
+    assertFalse(this.archive.getUncoveredTargets().contains(goals.get(1)));
+  }
+
+  @Test
+  public void testEqualGoalsAreTheSameTarget() {
+    this.archive.addTarget(new MethodCoverageTestFitness("com.example.Foo", "foo()V"));
+    MethodCoverageTestFitness copy = new MethodCoverageTestFitness("com.example.Foo", "foo()V");
+    assertTrue(this.archive.hasTarget(copy));
+    this.archive.addTarget(copy);
+    assertEquals(1, this.archive.getNumberOfTargets());
+
+    this.archive.updateArchive(copy, createTest(), 0.0);
+    assertEquals(1, this.archive.getNumberOfCoveredTargets());
+    assertTrue(this.archive.getCoveredTargets().contains(copy));
+  }
+
+  @Test
+  public void testShorterSolutionReplacesCurrent() {
+    TestFitnessFunction goal = new MethodCoverageTestFitness("com.example.Foo", "foo()V");
+    this.archive.addTarget(goal);
+
+    TestChromosome longer = createTest();
+    longer.getTestCase().addStatement(new IntPrimitiveStatement(longer.getTestCase(), 42));
+    TestChromosome shorter = createTest();
+
+    this.archive.updateArchive(goal, longer, 0.0);
+    this.archive.updateArchive(goal, shorter, 0.0);
+    assertSame(shorter, this.archive.getSolution(goal));
+    assertEquals(1, this.archive.getSolutions().size());
+  }
+
+  @Test
+  public void testMergeArchiveAndSolution() {
+    List<TestFitnessFunction> goals = createGoals(1);
+    this.archive.addTargets(goals);
+    TestChromosome test1 = createTest();
+    TestChromosome test2 = createTest();
+    this.archive.updateArchive(goals.get(0), test1, 0.0);
+    this.archive.updateArchive(goals.get(1), test1, 0.0);
+    this.archive.updateArchive(goals.get(2), test2, 0.0);
+    test1.getTestCase().addCoveredGoal(goals.get(0));
+    test1.getTestCase().addCoveredGoal(goals.get(1));
+    test2.getTestCase().addCoveredGoal(goals.get(2));
+
+    TestSuiteChromosome merged = this.archive.mergeArchiveAndSolution(new TestSuiteChromosome());
+    assertEquals(2, merged.size());
+  }
+
+  /**
+   * Repeated archive updates of goals of several criteria, as done after each test execution
+   * when the test archive is enabled
+   */
+  @Test
+  public void testRepeatedUpdatesOfManyGoals() {
+    List<TestFitnessFunction> goals = createGoals(500);
+    this.archive.addTargets(goals);
+    TestChromosome test = createTest();
+
+    for (int round = 0; round < 3; round++) {
+      for (int i = 0; i < goals.size(); i++) {
+        this.archive.updateArchive(goals.get(i), test, i % 2 == 0 ? 0.0 : 1.0);
+      }
+      assertEquals(goals.size() / 2, this.archive.getNumberOfUncoveredTargets());
+    }
+
+    assertEquals(goals.size(), this.archive.getNumberOfTargets());
+    assertEquals(goals.size() / 2, this.archive.getNumberOfCoveredTargets());
+    assertEquals(goals.size() / 2, this.archive.getUncoveredTargets().size());
+    for (int i = 0; i < goals.size(); i++) {
+      assertEquals(i % 2 == 0, this.archive.hasSolution(goals.get(i)));
+      assertEquals(i % 2 != 0, this.archive.getUncoveredTargets().contains(goals.get(i)));
+    }
+  }
+
+  /**
+   * @return nanoseconds per update of the given number of rounds of updates of all goals
+   */
+  private static long timeUpdates(int numMethods, int rounds) {
+    CoverageArchive<TestFitnessFunction, TestChromosome> archive =
+        new CoverageArchive<TestFitnessFunction, TestChromosome>();
+    List<TestFitnessFunction> goals = createGoals(numMethods);
+    archive.addTargets(goals);
+    TestChromosome test = createTest();
+
+    long start = System.nanoTime();
+    for (int round = 0; round < rounds; round++) {
+      for (int i = 0; i < goals.size(); i++) {
+        archive.updateArchive(goals.get(i), test, i % 2 == 0 ? 0.0 : 1.0);
+      }
+      archive.getNumberOfUncoveredTargets();
+    }
+    long duration = System.nanoTime() - start;
+
+    assertEquals(goals.size() / 2, archive.getNumberOfCoveredTargets());
+    return duration / (rounds * goals.size());
+  }
+
+  /**
+   * Archive updates of a large number of goals of several criteria, as done after each test
+   * execution when the test archive is enabled. The cost of an update must not grow with the
+   * number of goals. Only runs with -Devosuite.benchmarks=true.
+   */
+  @Test
+  public void testArchiveUpdateCost() {
+    Assume.assumeTrue(Boolean.getBoolean("evosuite.benchmarks"));
+
+    timeUpdates(2000, 50); // warm up
+    long few = timeUpdates(500, 50);
+    long many = timeUpdates(2000, 50);
+    assertTrue(String.format("%d ns per update of 500 methods, %d ns per update of 2000 methods", few,
+        many), many <= 2 * few);
+  }
+}
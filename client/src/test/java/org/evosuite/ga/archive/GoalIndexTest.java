@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.archive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class GoalIndexTest {
+
+  @Test
+  public void testIdsAreDense() {
+    GoalIndex<String> index = new GoalIndex<String>();
+    assertEquals(0, index.register("a"));
+    assertEquals(1, index.register("b"));
+    assertEquals(0, index.register("a"));
+    assertEquals(2, index.size());
+    assertEquals("b", index.getGoal(1));
+  }
+
+  @Test
+  public void testEqualInstancesHaveSameId() {
+    GoalIndex<String> index = new GoalIndex<String>();
+    String goal = "goal";
+    index.register(goal);
+    String copy = new String(goal);
+    assertEquals(0, index.getId(copy));
+    assertEquals(0, index.register(copy));
+    assertSame(goal, index.getGoal(0));
+  }
+
+  @Test
+  public void testUnknownGoal() {
+    GoalIndex<String> index = new GoalIndex<String>();
+    index.register("a");
+    assertEquals(-1, index.getId("b"));
+    index.clear();
+    assertEquals(-1, index.getId("a"));
+    assertEquals(0, index.size());
+  }
+}
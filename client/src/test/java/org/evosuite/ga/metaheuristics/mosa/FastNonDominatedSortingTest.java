@@ -0,0 +1,245 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.metaheuristics.mosa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.evosuite.ga.DummyChromosome;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.metaheuristics.mosa.comparators.MOSADominanceComparator;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class FastNonDominatedSortingTest {
+
+	private static class DummyGoal extends FitnessFunction<DummyChromosome> {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public double getFitness(DummyChromosome individual) {
+			throw new IllegalStateException("Fitness values are set by the test");
+		}
+
+		@Override
+		public boolean isMaximizationFunction() {
+			return false;
+		}
+	}
+
+	private static Set<FitnessFunction<DummyChromosome>> createGoals(int numGoals) {
+		Set<FitnessFunction<DummyChromosome>> goals = new LinkedHashSet<>();
+		for (int i = 0; i < numGoals; i++)
+			goals.add(new DummyGoal());
+		return goals;
+	}
+
+	/**
+	 * Fitness values with many ties, as for goals with the same approach level
+	 */
+	private static List<DummyChromosome> createPopulation(Random random, int size,
+			Set<FitnessFunction<DummyChromosome>> goals, int numValues) {
+		List<DummyChromosome> population = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			DummyChromosome chromosome = new DummyChromosome(i);
+			for (FitnessFunction<DummyChromosome> goal : goals)
+				chromosome.setFitness(goal, random.nextInt(numValues) / (double) numValues);
+			population.add(chromosome);
+		}
+		return population;
+	}
+
+	/**
+	 * The classic O(M N^2) algorithm on the dominance comparator, as it was
+	 * implemented before
+	 */
+	@SuppressWarnings("unchecked")
+	private static List<List<DummyChromosome>> referenceFronts(List<DummyChromosome> solutions,
+			Set<FitnessFunction<DummyChromosome>> goals) {
+		MOSADominanceComparator<DummyChromosome> comparator = new MOSADominanceComparator<>(goals);
+		int n = solutions.size();
+		int[] dominateMe = new int[n];
+		List<Integer>[] iDominate = new List[n];
+		List<Integer>[] front = new List[n + 1];
+		for (int i = 0; i < front.length; i++)
+			front[i] = new LinkedList<>();
+		for (int p = 0; p < n; p++)
+			iDominate[p] = new LinkedList<>();
+
+		for (int p = 0; p < n - 1; p++) {
+			for (int q = p + 1; q < n; q++) {
+				int flag = comparator.compare(solutions.get(p), solutions.get(q));
+				if (flag == -1) {
+					iDominate[p].add(q);
+					dominateMe[q]++;
+				} else if (flag == 1) {
+					iDominate[q].add(p);
+					dominateMe[p]++;
+				}
+			}
+		}
+		for (int p = 0; p < n; p++) {
+			if (dominateMe[p] == 0)
+				front[0].add(p);
+		}
+		int i = 0;
+		while (front[i].size() != 0) {
+			i++;
+			for (Integer p : front[i - 1]) {
+				Iterator<Integer> it = iDominate[p].iterator();
+				while (it.hasNext()) {
+					int index = it.next();
+					if (--dominateMe[index] == 0)
+						front[i].add(index);
+				}
+			}
+		}
+		List<List<DummyChromosome>> fronts = new ArrayList<>();
+		for (int j = 0; j < i; j++) {
+			List<DummyChromosome> f = new ArrayList<>();
+			for (Integer index : front[j])
+				f.add(solutions.get(index));
+			fronts.add(f);
+		}
+		return fronts;
+	}
+
+	private static void assertSameFronts(List<List<DummyChromosome>> expected,
+			FastNonDominatedSorting<DummyChromosome> ranking) {
+		assertEquals(expected.size(), ranking.getNumberOfSubfronts());
+		for (int i = 0; i < expected.size(); i++) {
+			List<DummyChromosome> front = ranking.getSubfront(i);
+			assertEquals(expected.get(i).size(), front.size());
+			for (int j = 0; j < front.size(); j++) {
+				assertSame(expected.get(i).get(j), front.get(j));
+				assertEquals(i + 1, front.get(j).getRank());
+			}
+		}
+	}
+
+	@Test
+	public void testSimpleFronts() {
+		Set<FitnessFunction<DummyChromosome>> goals = createGoals(2);
+		Iterator<FitnessFunction<DummyChromosome>> it = goals.iterator();
+		FitnessFunction<DummyChromosome> goal1 = it.next();
+		FitnessFunction<DummyChromosome> goal2 = it.next();
+
+		double[][] values = { { 1, 1 }, { 0, 2 }, { 0, 0 }, { 2, 0 }, { 2, 2 } };
+		List<DummyChromosome> population = new ArrayList<>();
+		for (int i = 0; i < values.length; i++) {
+			DummyChromosome chromosome = new DummyChromosome(i);
+			chromosome.setFitness(goal1, values[i][0]);
+			chromosome.setFitness(goal2, values[i][1]);
+			population.add(chromosome);
+		}
+
+		FastNonDominatedSorting<DummyChromosome> ranking = new FastNonDominatedSorting<>();
+		ranking.computeRankingAssignment(population, goals);
+		assertEquals(3, ranking.getNumberOfSubfronts());
+		assertEquals(1, ranking.getSubfront(0).size());
+		assertSame(population.get(2), ranking.getSubfront(0).get(0));
+		assertEquals(3, ranking.getSubfront(1).size());
+		assertSame(population.get(4), ranking.getSubfront(2).get(0));
+		assertEquals(Double.MAX_VALUE, population.get(4).getDistance(), 0.0);
+	}
+
+	@Test
+	public void testSameFrontsAsClassicAlgorithm() {
+		Random random = new Random(42);
+		for (int round = 0; round < 50; round++) {
+			Set<FitnessFunction<DummyChromosome>> goals = createGoals(1 + random.nextInt(20));
+			List<DummyChromosome> population = createPopulation(random, 1 + random.nextInt(60), goals,
+					1 + random.nextInt(5));
+
+			FastNonDominatedSorting<DummyChromosome> ranking = new FastNonDominatedSorting<>();
+			ranking.computeRankingAssignment(population, goals);
+			assertSameFronts(referenceFronts(population, goals), ranking);
+		}
+	}
+
+	@Test
+	public void testNoGoals() {
+		Random random = new Random(42);
+		Set<FitnessFunction<DummyChromosome>> goals = createGoals(0);
+		List<DummyChromosome> population = createPopulation(random, 10, goals, 1);
+		FastNonDominatedSorting<DummyChromosome> ranking = new FastNonDominatedSorting<>();
+		ranking.computeRankingAssignment(population, goals);
+		assertEquals(1, ranking.getNumberOfSubfronts());
+		assertEquals(10, ranking.getSubfront(0).size());
+	}
+
+	/**
+	 * Ranking of the union of parents and offspring with many uncovered goals
+	 */
+	@Test
+	public void testLargePopulation() {
+		Random random = new Random(0);
+		Set<FitnessFunction<DummyChromosome>> goals = createGoals(500);
+		List<DummyChromosome> population = createPopulation(random, 200, goals, 10);
+
+		FastNonDominatedSorting<DummyChromosome> ranking = new FastNonDominatedSorting<>();
+		ranking.computeRankingAssignment(population, goals);
+		assertSameFronts(referenceFronts(population, goals), ranking);
+	}
+
+	/**
+	 * Time of the classic and the matrix-based ranking of the union of
+	 * parents and offspring with many uncovered goals. Only runs with
+	 * -Devosuite.benchmarks=true.
+	 */
+	@Test
+	public void testRankingTime() {
+		Assume.assumeTrue(Boolean.getBoolean("evosuite.benchmarks"));
+		Random random = new Random(0);
+		Set<FitnessFunction<DummyChromosome>> goals = createGoals(500);
+		List<DummyChromosome> population = createPopulation(random, 200, goals, 10);
+		final int rounds = 20;
+
+		FastNonDominatedSorting<DummyChromosome> ranking = new FastNonDominatedSorting<>();
+		for (int i = 0; i < rounds; i++) { // warm up
+			referenceFronts(population, goals);
+			ranking.computeRankingAssignment(population, goals);
+		}
+
+		long start = System.nanoTime();
+		for (int i = 0; i < rounds; i++)
+			referenceFronts(population, goals);
+		long classic = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (int i = 0; i < rounds; i++)
+			ranking.computeRankingAssignment(population, goals);
+		long matrix = System.nanoTime() - start;
+
+		assertSameFronts(referenceFronts(population, goals), ranking);
+		assertTrue(String.format("%d solutions, %d goals: classic %d us, matrix %d us per ranking",
+				population.size(), goals.size(), classic / rounds / 1000, matrix / rounds / 1000), matrix <= classic);
+	}
+}
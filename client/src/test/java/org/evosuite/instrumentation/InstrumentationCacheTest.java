@@ -0,0 +1,173 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.evosuite.Properties;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.runtime.LoopCounter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+
+import com.examples.with.different.packagename.ArrayStack;
+
+public class InstrumentationCacheTest {
+
+	private File originalDirectory;
+
+	private File directory;
+
+	@Before
+	public void setUp() throws IOException {
+		Properties.getInstance().resetToDefaults();
+		LoopCounter.getInstance().reset();
+		originalDirectory = InstrumentationCache.getInstance().getDirectory();
+		directory = Files.createTempDirectory("EvoSuite_instrumentation_test").toFile();
+		InstrumentationCache.getInstance().setDirectory(directory);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		InstrumentationCache.getInstance().setDirectory(originalDirectory);
+		FileUtils.deleteDirectory(directory);
+		Properties.getInstance().resetToDefaults();
+		LoopCounter.getInstance().reset();
+	}
+
+	@Test
+	public void testEntryRoundTrip() throws IOException {
+		byte[] bytes = { 1, 2, 3, 4, 5 };
+		InstrumentationCache.Entry entry = InstrumentationCache.read(
+		        InstrumentationCache.write(new InstrumentationCache.Entry(bytes, 7, 3)));
+		assertArrayEquals(bytes, entry.getBytes());
+		assertEquals(7, entry.getFirstLoopIndex());
+		assertEquals(3, entry.getNumLoops());
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidHeader() throws IOException {
+		InstrumentationCache.read(new byte[] { 'C', 'A', 'F', 'E', 0, 0, 0, 1 });
+	}
+
+	@Test(expected = IOException.class)
+	public void testTruncatedEntry() throws IOException {
+		byte[] data = InstrumentationCache.write(new InstrumentationCache.Entry(new byte[100], 0, 0));
+		InstrumentationCache.read(Arrays.copyOf(data, data.length - 10));
+	}
+
+	@Test
+	public void testLoopIndices() {
+		InstrumentationCache.Entry withoutLoops = new InstrumentationCache.Entry(new byte[0], 5, 0);
+		assertTrue(withoutLoops.isValidFor(0));
+		assertTrue(withoutLoops.isValidFor(5));
+
+		InstrumentationCache.Entry withLoops = new InstrumentationCache.Entry(new byte[0], 5, 2);
+		assertTrue(withLoops.isValidFor(5));
+		assertFalse(withLoops.isValidFor(0));
+	}
+
+	@Test
+	public void testMissingEntry() {
+		InstrumentationCache cache = InstrumentationCache.getInstance();
+		assertNull(cache.get(cache.getKey("Foo", new byte[] { 1 }), 0));
+	}
+
+	@Test
+	public void testClassPathChangesKey() throws IOException {
+		File classPath = Files.createTempDirectory("EvoSuite_instrumentation_cp").toFile();
+		File otherClassPath = Files.createTempDirectory("EvoSuite_instrumentation_cp").toFile();
+		try {
+			ClassPathHandler.getInstance().changeTargetClassPath(new String[] { classPath.getAbsolutePath() });
+			InstrumentationCache cache = InstrumentationCache.getInstance();
+			String key = cache.getKey("Foo", new byte[] { 1 });
+			assertEquals(key, cache.getKey("Foo", new byte[] { 1 }));
+
+			// Same class, but its superclass might be different now
+			Files.write(new File(otherClassPath, "Bar.class").toPath(), new byte[] { 2 });
+			ClassPathHandler.getInstance().changeTargetClassPath(new String[] { otherClassPath.getAbsolutePath() });
+			assertFalse(key.equals(cache.getKey("Foo", new byte[] { 1 })));
+		} finally {
+			ClassPathHandler.resetSingleton();
+			FileUtils.deleteDirectory(classPath);
+			FileUtils.deleteDirectory(otherClassPath);
+		}
+	}
+
+	@Test
+	public void testCachedInstrumentation() throws IOException {
+		String className = ArrayStack.class.getName().replace('.', '/');
+		byte[] original;
+		try (InputStream in = getClass().getClassLoader().getResourceAsStream(className + ".class")) {
+			original = IOUtils.toByteArray(in);
+		}
+		InstrumentationCache cache = InstrumentationCache.getInstance();
+		int hits = cache.getNumberOfHits();
+		ClassLoader loader = getClass().getClassLoader();
+
+		byte[] instrumented = new BytecodeInstrumentation().transformBytes(loader, className,
+		        new ClassReader(original));
+		int numLoops = LoopCounter.getInstance().peekNewIndex();
+		assertTrue(numLoops > 0);
+		assertEquals(hits, cache.getNumberOfHits());
+		assertEquals(1, directory.list().length);
+
+		// A new client assigns the same loop indices
+		LoopCounter.getInstance().reset();
+		byte[] cached = new BytecodeInstrumentation().transformBytes(loader, className,
+		        new ClassReader(original));
+		assertEquals(hits + 1, cache.getNumberOfHits());
+		assertArrayEquals(instrumented, cached);
+		// Loop indices are still assigned when the cached bytes are used
+		assertEquals(numLoops, LoopCounter.getInstance().peekNewIndex());
+
+		// Other loop indices, the cached bytes cannot be used
+		byte[] shifted = new BytecodeInstrumentation().transformBytes(loader, className,
+		        new ClassReader(original));
+		assertEquals(hits + 1, cache.getNumberOfHits());
+		assertFalse(Arrays.equals(instrumented, shifted));
+	}
+
+	@Test
+	public void testDisabled() throws IOException {
+		Properties.CACHE_INSTRUMENTATION = false;
+		String className = ArrayStack.class.getName().replace('.', '/');
+		try (InputStream in = getClass().getClassLoader().getResourceAsStream(className + ".class")) {
+			assertNotNull(new BytecodeInstrumentation().transformBytes(getClass().getClassLoader(), className,
+			        new ClassReader(IOUtils.toByteArray(in))));
+		}
+		assertEquals(0, directory.list().length);
+	}
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.junit;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+public class InMemoryJavaFileManagerTest {
+
+	private JavaCompiler compiler;
+
+	@Before
+	public void init() {
+		compiler = ToolProvider.getSystemJavaCompiler();
+		Assume.assumeNotNull(compiler);
+	}
+
+	@Test
+	public void testCompileInMemory() throws Exception {
+		String code = "package foo; public class Bar { public Object get() { return new Object() { public String toString() { return \"baz\"; } }; } }";
+		JavaFileObject source = InMemoryJavaFileManager.createSource("foo.Bar", code);
+
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try (InMemoryJavaFileManager fileManager = new InMemoryJavaFileManager(
+		        compiler.getStandardFileManager(diagnostics, null, null))) {
+			boolean compiled = compiler.getTask(null, fileManager, diagnostics, null, null,
+			                                    Arrays.asList(source)).call();
+			Assert.assertTrue(compiled);
+
+			Map<String, byte[]> classes = fileManager.getCompiledClasses();
+			Assert.assertEquals(2, classes.size());
+			Assert.assertTrue(classes.containsKey("foo.Bar"));
+			Assert.assertTrue(classes.containsKey("foo.Bar$1"));
+
+			ByteArrayClassLoader loader = new ByteArrayClassLoader(classes);
+			Object bar = loader.loadClass("foo.Bar").newInstance();
+			Object anonymous = bar.getClass().getMethod("get").invoke(bar);
+			Assert.assertEquals("baz", anonymous.toString());
+		}
+	}
+
+	@Test
+	public void testDiagnosticsAreReportedOnFailingUnit() throws Exception {
+		JavaFileObject valid = InMemoryJavaFileManager.createSource("foo.Valid",
+		        "package foo; public class Valid { }");
+		JavaFileObject invalid = InMemoryJavaFileManager.createSource("foo.Invalid",
+		        "package foo; public class Invalid { int x = \"not an int\"; }");
+
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try (InMemoryJavaFileManager fileManager = new InMemoryJavaFileManager(
+		        compiler.getStandardFileManager(diagnostics, null, null))) {
+			boolean compiled = compiler.getTask(null, fileManager, diagnostics, null, null,
+			                                    Arrays.asList(valid, invalid)).call();
+			Assert.assertFalse(compiled);
+
+			Assert.assertFalse(diagnostics.getDiagnostics().isEmpty());
+			for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+				if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+					Assert.assertSame(invalid, diagnostic.getSource());
+				}
+			}
+		}
+	}
+
+	private static class ByteArrayClassLoader extends ClassLoader {
+
+		private final Map<String, byte[]> classes;
+
+		public ByteArrayClassLoader(Map<String, byte[]> classes) {
+			super(ByteArrayClassLoader.class.getClassLoader());
+			this.classes = classes;
+		}
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			byte[] bytecode = classes.get(name);
+			if (bytecode == null) {
+				throw new ClassNotFoundException(name);
+			}
+			return defineClass(name, bytecode, 0, bytecode.length);
+		}
+	}
+}
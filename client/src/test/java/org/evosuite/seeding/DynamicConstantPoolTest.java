@@ -0,0 +1,223 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.seeding;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.evosuite.Properties;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class DynamicConstantPoolTest {
+
+	@After
+	public void resetProperties() {
+		Properties.getInstance().resetToDefaults();
+		ConstantPoolManager.getInstance().reset();
+	}
+
+	@Test
+	public void testRingKeepsDistinctValues() {
+		PrimitiveConstantRing ring = new PrimitiveConstantRing(3, 1);
+		assertTrue(ring.add(1));
+		assertFalse(ring.add(1));
+		assertTrue(ring.add(2));
+		assertEquals(2, ring.size());
+	}
+
+	@Test
+	public void testRingReplacesOldestValue() {
+		PrimitiveConstantRing ring = new PrimitiveConstantRing(3, 1);
+		for (int i = 0; i < 5; i++) {
+			ring.add(i);
+		}
+		assertEquals(3, ring.size());
+		assertEquals(2, ring.get(0));
+		assertEquals(3, ring.get(1));
+		assertEquals(4, ring.get(2));
+		// evicted values can come back
+		assertTrue(ring.add(0));
+	}
+
+	@Test
+	public void testRingSampling() {
+		PrimitiveConstantRing ring = new PrimitiveConstantRing(2, 4);
+		ring.add(1);
+		ring.add(2);
+		// full: only every 4th value is considered
+		assertFalse(ring.add(3));
+		assertFalse(ring.add(4));
+		assertFalse(ring.add(5));
+		assertTrue(ring.add(6));
+	}
+
+	@Test
+	public void testConcurrentAdds() throws Exception {
+		final PrimitiveConstantRing ring = new PrimitiveConstantRing(50, 1);
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			final int offset = t * 100000;
+			Thread thread = new Thread(() -> {
+				try {
+					for (int i = 0; i < 100000; i++) {
+						ring.add(offset + i);
+					}
+				} catch (Throwable e) {
+					failure.set(e);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(null, failure.get());
+		assertEquals(50, ring.size());
+	}
+
+	@Test
+	public void testStringRing() {
+		StringConstantRing ring = new StringConstantRing(2, 1);
+		assertTrue(ring.add("foo"));
+		assertFalse(ring.add(new String("foo")));
+		assertTrue(ring.add("bar"));
+		assertTrue(ring.add("zoo"));
+		assertEquals("bar", ring.get(0));
+		assertEquals("zoo", ring.get(1));
+	}
+
+	@Test
+	public void testFloatingPointValues() {
+		DynamicConstantPool pool = new DynamicConstantPool();
+		pool.addDouble(-0.0);
+		pool.addFloat(Float.NaN);
+		Set<Double> doubles = new HashSet<>();
+		Set<Float> floats = new HashSet<>();
+		for (int i = 0; i < 200; i++) {
+			doubles.add(pool.getRandomDouble());
+			floats.add(pool.getRandomFloat());
+		}
+		// same notion of equality as Double.equals: 0.0 and -0.0 differ
+		assertEquals(2, doubles.size());
+		assertTrue(doubles.contains(-0.0));
+		assertTrue(floats.contains(Float.NaN));
+	}
+
+	@Test
+	public void testRestrictPool() {
+		Properties.RESTRICT_POOL = true;
+		Properties.MAX_INT = 10;
+		DynamicConstantPool pool = new DynamicConstantPool();
+		pool.addInt(100);
+		pool.add(Integer.valueOf(200));
+		for (int i = 0; i < 100; i++) {
+			assertEquals(0, pool.getRandomInt());
+		}
+	}
+
+	@Test
+	public void testBoxedAndPrimitiveValuesAreEqual() {
+		DynamicConstantPool pool = new DynamicConstantPool();
+		pool.add(Long.valueOf(42L));
+		pool.addLong(42L);
+		Set<Long> values = new HashSet<>();
+		for (int i = 0; i < 200; i++) {
+			values.add(pool.getRandomLong());
+		}
+		assertEquals(2, values.size());
+	}
+
+	private static Set<Integer> probeAndSample() {
+		ConstantPoolManager manager = ConstantPoolManager.getInstance();
+		manager.reset();
+		for (int i = 0; i < 100000; i++) {
+			// values as in a loop comparing its counter
+			manager.addDynamicConstant(i % 1000);
+			manager.addDynamicConstant(1000);
+		}
+		Set<Integer> values = new HashSet<>();
+		for (int i = 0; i < 1000; i++) {
+			values.add(manager.getDynamicConstantPool().getRandomInt());
+		}
+		return values;
+	}
+
+	@Test
+	public void testProbesAddToPool() {
+		Set<Integer> values = probeAndSample();
+		assertTrue(values.size() > 1);
+		for (int value : values) {
+			assertTrue(value >= 0 && value <= 1000);
+		}
+	}
+
+	@Test
+	public void testProbesWithoutSeeding() {
+		Properties.DYNAMIC_POOL = 0.0;
+		Set<Integer> values = probeAndSample();
+		// only the value every pool starts with
+		assertEquals(1, values.size());
+		assertTrue(values.contains(0));
+	}
+
+	private static long probe(int iterations) {
+		ConstantPoolManager manager = ConstantPoolManager.getInstance();
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			// values as in a loop comparing its counter
+			manager.addDynamicConstant(i % 1000);
+			manager.addDynamicConstant(1000);
+		}
+		return System.nanoTime() - start;
+	}
+
+	/**
+	 * Cost of the probes added at every integer comparison, with and without
+	 * dynamic seeding. Only runs with -Devosuite.benchmarks=true.
+	 */
+	@Test
+	public void testProbeCost() {
+		Assume.assumeTrue(Boolean.getBoolean("evosuite.benchmarks"));
+		final int iterations = 1000000;
+
+		ConstantPoolManager.getInstance().reset();
+		probe(iterations); // warm up
+		long seeding = probe(iterations);
+
+		Properties.DYNAMIC_POOL = 0.0;
+		ConstantPoolManager.getInstance().reset();
+		probe(iterations);
+		long noSeeding = probe(iterations);
+
+		assertTrue(String.format("%d probes, seeding: %d ns/probe, no seeding: %d ns/probe", 2 * iterations,
+				seeding / (2 * iterations), noSeeding / (2 * iterations)), noSeeding <= seeding);
+	}
+}
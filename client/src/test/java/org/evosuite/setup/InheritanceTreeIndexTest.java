@@ -0,0 +1,168 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.setup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.thoughtworks.xstream.XStream;
+
+public class InheritanceTreeIndexTest {
+
+	private static InheritanceTree createTree() {
+		InheritanceTree tree = new InheritanceTree();
+		tree.addSuperclass("foo/A", "java/lang/Object", 0);
+		tree.registerAbstractClass("foo/A");
+		tree.addAnalyzedMethod("foo.A", "foo", "()V");
+		tree.addSuperclass("foo/B", "foo/A", 0);
+		tree.addInterface("foo/B", "foo/I");
+		tree.registerInterface("foo/I");
+		tree.addAnalyzedMethod("foo.B", "foo", "()V");
+		tree.addAnalyzedMethod("foo.B", "bar", "(Ljava/lang/String;)I");
+		return tree;
+	}
+
+	private static void assertSameTree(InheritanceTree expected, InheritanceTree actual) {
+		Assert.assertEquals(expected.getAllClasses(), actual.getAllClasses());
+		for (String className : expected.getAllClasses()) {
+			Assert.assertEquals(expected.getSubclasses(className), actual.getSubclasses(className));
+			Assert.assertEquals(expected.getSuperclasses(className), actual.getSuperclasses(className));
+			Assert.assertEquals(expected.isInterface(className), actual.isInterface(className));
+			Assert.assertEquals(expected.isAbstractClass(className), actual.isAbstractClass(className));
+			Assert.assertEquals(expected.isClassDefined(className), actual.isClassDefined(className));
+		}
+	}
+
+	private static byte[] toBytes(InheritanceTree tree) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		InheritanceTreeIndex.write(tree, out);
+		return out.toByteArray();
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		InheritanceTree tree = createTree();
+		InheritanceTree copy = InheritanceTreeIndex.read(new ByteArrayInputStream(toBytes(tree)));
+
+		assertSameTree(tree, copy);
+		Assert.assertTrue(copy.isInterface("foo.I"));
+		Assert.assertTrue(copy.isAbstractClass("foo.A"));
+		Assert.assertTrue(copy.isMethodDefined("foo.B", "bar", "(Ljava/lang/String;)I"));
+		Assert.assertFalse(copy.isMethodDefined("foo.A", "bar", "(Ljava/lang/String;)I"));
+	}
+
+	@Test
+	public void testMappedFile() throws IOException {
+		InheritanceTree tree = createTree();
+		File file = File.createTempFile("inheritance", ".bin");
+		file.deleteOnExit();
+		try {
+			InheritanceTreeIndex.write(tree, file);
+			assertSameTree(tree, InheritanceTreeIndex.read(file));
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidHeader() throws IOException {
+		InheritanceTreeIndex.read(ByteBuffer.wrap("<org.evosuite.setup.InheritanceTree>".getBytes()));
+	}
+
+	@Test(expected = IOException.class)
+	public void testTruncatedIndex() throws IOException {
+		byte[] bytes = toBytes(createTree());
+		InheritanceTreeIndex.read(ByteBuffer.wrap(bytes, 0, bytes.length / 2));
+	}
+
+	/**
+	 * The index has to describe the same tree as the XML it replaces, for a
+	 * tree with many classes sharing packages, interfaces and methods
+	 */
+	@Test
+	public void testLargeTreeMatchesXml() throws IOException {
+		InheritanceTree tree = createLargeTree(2000);
+
+		XStream xstream = createXStream();
+		String xml = xstream.toXML(tree);
+		byte[] index = toBytes(tree);
+
+		InheritanceTree fromXml = (InheritanceTree) xstream.fromXML(xml);
+		InheritanceTree fromIndex = InheritanceTreeIndex.read(ByteBuffer.wrap(index));
+
+		assertSameTree(fromXml, fromIndex);
+		Assert.assertTrue(fromIndex.isMethodDefined("pkg7.Class1907", "method9", "(I)Ljava/lang/String;"));
+		Assert.assertTrue(index.length < xml.length());
+	}
+
+	private static InheritanceTree createLargeTree(int numClasses) {
+		InheritanceTree tree = new InheritanceTree();
+		for (int i = 0; i < numClasses; i++) {
+			String className = "pkg" + (i % 100) + "/Class" + i;
+			tree.addSuperclass(className, i < 100 ? "java/lang/Object" : "pkg" + (i % 100) + "/Class" + (i - 100), 0);
+			tree.addInterface(className, "pkg/Interface" + (i % 50));
+			for (int j = 0; j < 10; j++) {
+				tree.addAnalyzedMethod(className.replace('/', '.'), "method" + j, "(I)Ljava/lang/String;");
+			}
+		}
+
+		return tree;
+	}
+
+	private static XStream createXStream() {
+		XStream xstream = new XStream();
+		XStream.setupDefaultSecurity(xstream);
+		xstream.allowTypesByWildcard(new String[] {"org.evosuite.**", "org.jgrapht.**"});
+		return xstream;
+	}
+
+	/**
+	 * Compares the time to load a tree of the size of the JDK inheritance
+	 * tree from XML and from the index. Only runs with
+	 * -Devosuite.benchmarks=true.
+	 */
+	@Test
+	public void testLoadingTime() throws IOException {
+		Assume.assumeTrue(Boolean.getBoolean("evosuite.benchmarks"));
+		InheritanceTree tree = createLargeTree(20000);
+		XStream xstream = createXStream();
+		String xml = xstream.toXML(tree);
+		byte[] index = toBytes(tree);
+
+		long start = System.currentTimeMillis();
+		InheritanceTree fromXml = (InheritanceTree) xstream.fromXML(xml);
+		long xmlTime = System.currentTimeMillis() - start;
+
+		start = System.currentTimeMillis();
+		InheritanceTree fromIndex = InheritanceTreeIndex.read(ByteBuffer.wrap(index));
+		long indexTime = System.currentTimeMillis() - start;
+
+		Assert.assertEquals(fromXml.getNumClasses(), fromIndex.getNumClasses());
+		Assert.assertTrue("XML: " + xml.length() + " chars, loaded in " + xmlTime + "ms, index: " + index.length
+				+ " bytes, loaded in " + indexTime + "ms", indexTime <= xmlTime);
+	}
+}
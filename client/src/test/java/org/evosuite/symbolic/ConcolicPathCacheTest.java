@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testcase.variable.VariableReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.concolic.TestCase1;
+
+public class ConcolicPathCacheTest {
+
+	@Before
+	public void setUp() {
+		TestCaseExecutor.getInstance().newObservers();
+		TestCaseExecutor.initExecutor();
+		Properties.CLIENT_ON_THREAD = true;
+		Properties.PRINT_TO_SYSTEM = false;
+		Properties.TIMEOUT = 5000;
+		Properties.CONCOLIC_TIMEOUT = 5000000;
+		Properties.DSE_PATH_CACHE = true;
+		ConcolicPathCache.getInstance().clear();
+		DSEStats.clear();
+	}
+
+	@After
+	public void tearDown() {
+		TestGenerationContext.getInstance().resetContext();
+		Properties.getInstance().resetToDefaults();
+		DSEStats.clear();
+	}
+
+	private static DefaultTestCase buildTestCase1(int value0, int value1) throws NoSuchMethodException {
+		TestCaseBuilder tc = new TestCaseBuilder();
+		VariableReference int0 = tc.appendIntPrimitive(value0);
+		VariableReference int1 = tc.appendIntPrimitive(value1);
+		Method method = TestCase1.class.getMethod("test", int.class, int.class);
+		tc.appendMethod(null, method, int0, int1);
+		return tc.getDefaultTestCase();
+	}
+
+	@Test
+	public void testIdenticalTestIsNotExecutedAgain() throws NoSuchMethodException {
+		List<BranchCondition> first = ConcolicExecution.executeConcolic(buildTestCase1(179, 179));
+		assertEquals(1, first.size());
+		assertEquals(1, ConcolicPathCache.getInstance().size());
+
+		List<BranchCondition> second = ConcolicExecution.executeConcolic(buildTestCase1(179, 179));
+		assertEquals(first.size(), second.size());
+		assertSame(first.get(0), second.get(0));
+		assertEquals(1, DSEStats.getInstance().getNumberOfConcolicExecutions());
+		assertEquals(1, DSEStats.getInstance().getNumberOfSavedConcolicExecutions());
+	}
+
+	@Test
+	public void testChangedValueIsExecutedAgain() throws NoSuchMethodException {
+		ConcolicExecution.executeConcolic(buildTestCase1(179, 179));
+		List<BranchCondition> pathCondition = ConcolicExecution.executeConcolic(buildTestCase1(179, -374));
+		assertEquals(1, pathCondition.size());
+		assertEquals(2, DSEStats.getInstance().getNumberOfConcolicExecutions());
+		assertEquals(0, DSEStats.getInstance().getNumberOfSavedConcolicExecutions());
+		assertEquals(2, ConcolicPathCache.getInstance().size());
+	}
+
+	private void checkBypassed() throws NoSuchMethodException {
+		ConcolicExecution.executeConcolic(buildTestCase1(179, 179));
+		ConcolicExecution.executeConcolic(buildTestCase1(179, 179));
+		assertEquals(2, DSEStats.getInstance().getNumberOfConcolicExecutions());
+		assertEquals(0, ConcolicPathCache.getInstance().size());
+	}
+
+	@Test
+	public void testBypassedWithoutStaticReset() throws NoSuchMethodException {
+		Properties.RESET_STATIC_FIELDS = false;
+		checkBypassed();
+	}
+
+	@Test
+	public void testBypassedWithoutReplacedCalls() throws NoSuchMethodException {
+		Properties.REPLACE_CALLS = false;
+		checkBypassed();
+	}
+
+	@Test
+	public void testBypassedWithoutVirtualFileSystem() throws NoSuchMethodException {
+		Properties.VIRTUAL_FS = false;
+		checkBypassed();
+	}
+
+	@Test
+	public void testDisabled() throws NoSuchMethodException {
+		Properties.DSE_PATH_CACHE = false;
+		ConcolicExecution.executeConcolic(buildTestCase1(179, 179));
+		ConcolicExecution.executeConcolic(buildTestCase1(179, 179));
+		assertEquals(2, DSEStats.getInstance().getNumberOfConcolicExecutions());
+		assertEquals(0, ConcolicPathCache.getInstance().size());
+	}
+}
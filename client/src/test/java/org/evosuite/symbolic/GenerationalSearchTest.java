@@ -0,0 +1,222 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.Properties.Criterion;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.coverage.branch.BranchCoverageSuiteFitness;
+import org.evosuite.ga.localsearch.DefaultLocalSearchObjective;
+import org.evosuite.ga.localsearch.LocalSearchObjective;
+import org.evosuite.ga.stoppingconditions.MaxTimeStoppingCondition;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.evosuite.testsuite.localsearch.TestSuiteLocalSearch;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.symbolic.Foo;
+
+public class GenerationalSearchTest {
+
+	private static final long DEFAULT_LOCAL_SEARCH_BUDGET = Properties.LOCAL_SEARCH_BUDGET;
+	private static final Properties.LocalSearchBudgetType DEFAULT_LOCAL_SEARCH_BUDGET_TYPE = Properties.LOCAL_SEARCH_BUDGET_TYPE;
+	private static final Properties.SolverType DEFAULT_DSE_SOLVER = Properties.DSE_SOLVER;
+	private static final Properties.DSEType DEFAULT_LOCAL_SEARCH_DSE = Properties.LOCAL_SEARCH_DSE;
+	private static final double DEFAULT_DSE_PROBABILITY = Properties.DSE_PROBABILITY;
+	private static final int DEFAULT_DSE_SOLVER_THREADS = Properties.DSE_SOLVER_THREADS;
+
+	@Before
+	public void init() {
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		Properties.DSE_SOLVER = Properties.SolverType.EVOSUITE_SOLVER;
+		Properties.CRITERION = new Properties.Criterion[] { Criterion.BRANCH };
+		Properties.TARGET_CLASS = Foo.class.getName();
+	}
+
+	@After
+	public void restoreProperties() {
+		Properties.LOCAL_SEARCH_BUDGET = DEFAULT_LOCAL_SEARCH_BUDGET;
+		Properties.LOCAL_SEARCH_BUDGET_TYPE = DEFAULT_LOCAL_SEARCH_BUDGET_TYPE;
+		Properties.DSE_SOLVER = DEFAULT_DSE_SOLVER;
+		Properties.DSE_PROBABILITY = DEFAULT_DSE_PROBABILITY;
+		Properties.LOCAL_SEARCH_DSE = DEFAULT_LOCAL_SEARCH_DSE;
+		Properties.DSE_SOLVER_THREADS = DEFAULT_DSE_SOLVER_THREADS;
+	}
+
+	/**
+	 * <code>
+	 * int int0 = 10;
+	 * int int1 = 10;
+	 * int int2 = 10;
+	 * Foo.bar(int0,int1,int2);
+	 * </code>
+	 */
+	private static DefaultTestCase buildTestCase0() throws NoSuchMethodException, ClassNotFoundException {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference int0 = builder.appendIntPrimitive(10);
+		VariableReference int1 = builder.appendIntPrimitive(10);
+		VariableReference int2 = builder.appendIntPrimitive(10);
+		Class<?> fooClass = TestGenerationContext.getInstance().getClassLoaderForSUT()
+				.loadClass(Properties.TARGET_CLASS);
+		Method barMethod = fooClass.getMethod("bar", int.class, int.class, int.class);
+		builder.appendMethod(null, barMethod, int0, int1, int2);
+		return builder.getDefaultTestCase();
+	}
+
+	private static MaxTimeStoppingCondition getStoppingCondition(long seconds) {
+		MaxTimeStoppingCondition stoppingCondition = new MaxTimeStoppingCondition();
+		stoppingCondition.setLimit(seconds);
+		stoppingCondition.reset();
+		return stoppingCondition;
+	}
+
+	private static TestSuiteChromosome search() throws NoSuchMethodException, ClassNotFoundException {
+		GenerationalSearch search = new GenerationalSearch(getStoppingCondition(60));
+		search.addInitialTest(buildTestCase0());
+		List<TestCase> tests = search.search();
+		assertEquals(0, search.getWorklistSize());
+
+		TestSuiteChromosome suite = new TestSuiteChromosome();
+		for (TestCase test : tests) {
+			suite.addTest(test);
+		}
+		return suite;
+	}
+
+	@Test
+	public void testSearch() throws NoSuchMethodException, ClassNotFoundException {
+		TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(Properties.TARGET_CLASS);
+
+		TestSuiteChromosome suite = search();
+
+		BranchCoverageSuiteFitness branchCoverageSuiteFitness = new BranchCoverageSuiteFitness();
+		suite.addFitness(branchCoverageSuiteFitness);
+		branchCoverageSuiteFitness.getFitness(suite);
+
+		assertTrue(suite.getNumOfCoveredGoals() >= 7);
+		assertTrue(suite.size() >= 4);
+	}
+
+	@Test
+	public void testConcurrentSolvers() throws NoSuchMethodException, ClassNotFoundException {
+		Properties.DSE_SOLVER_THREADS = 4;
+		TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(Properties.TARGET_CLASS);
+
+		TestSuiteChromosome suite = search();
+
+		BranchCoverageSuiteFitness branchCoverageSuiteFitness = new BranchCoverageSuiteFitness();
+		suite.addFitness(branchCoverageSuiteFitness);
+		branchCoverageSuiteFitness.getFitness(suite);
+
+		assertTrue(suite.getNumOfCoveredGoals() >= 7);
+		assertTrue(suite.size() >= 4);
+	}
+
+	/**
+	 * @return the suite the DSE local search generates from the same initial
+	 *         test as the generational search
+	 */
+	private static TestSuiteChromosome localSearch() throws NoSuchMethodException, ClassNotFoundException {
+		Properties.LOCAL_SEARCH_BUDGET = Integer.MAX_VALUE;
+		Properties.LOCAL_SEARCH_BUDGET_TYPE = Properties.LocalSearchBudgetType.TESTS;
+		Properties.DSE_PROBABILITY = 1.0;
+		Properties.LOCAL_SEARCH_DSE = Properties.DSEType.SUITE;
+
+		BranchCoverageSuiteFitness localSearchFitness = new BranchCoverageSuiteFitness();
+		TestSuiteChromosome localSearchSuite = new TestSuiteChromosome();
+		localSearchSuite.addFitness(localSearchFitness);
+		TestChromosome testChromosome0 = new TestChromosome();
+		testChromosome0.setTestCase(buildTestCase0());
+		localSearchSuite.addTest(testChromosome0);
+		localSearchFitness.getFitness(localSearchSuite);
+
+		LocalSearchObjective<TestSuiteChromosome> localSearchObjective = new DefaultLocalSearchObjective<>();
+		localSearchObjective.addFitnessFunction(localSearchFitness);
+		TestSuiteLocalSearch localSearch = new TestSuiteLocalSearch();
+		boolean improved;
+		do {
+			improved = localSearch.doSearch(localSearchSuite, localSearchObjective);
+		} while (improved);
+
+		localSearchFitness.getFitness(localSearchSuite);
+		return localSearchSuite;
+	}
+
+	/**
+	 * The generational search has to cover at least the goals the DSE local
+	 * search covers on the same initial test
+	 */
+	@Test
+	public void testCoversAtLeastLocalSearchGoals() throws NoSuchMethodException, ClassNotFoundException {
+		TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(Properties.TARGET_CLASS);
+
+		TestSuiteChromosome generationalSuite = search();
+
+		BranchCoverageSuiteFitness generationalFitness = new BranchCoverageSuiteFitness();
+		generationalSuite.addFitness(generationalFitness);
+		generationalFitness.getFitness(generationalSuite);
+		int generationalGoals = generationalSuite.getNumOfCoveredGoals();
+
+		int localSearchGoals = localSearch().getNumOfCoveredGoals();
+
+		assertTrue(generationalGoals >= localSearchGoals);
+	}
+
+	/**
+	 * Compares the covered goals per minute of the generational search with
+	 * those of the DSE local search on the same initial test. Only runs with
+	 * -Devosuite.benchmarks=true.
+	 */
+	@Test
+	public void testCoveragePerMinute() throws NoSuchMethodException, ClassNotFoundException {
+		Assume.assumeTrue(Boolean.getBoolean("evosuite.benchmarks"));
+		TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(Properties.TARGET_CLASS);
+
+		long startTime = System.nanoTime();
+		TestSuiteChromosome generationalSuite = search();
+		long generationalTime = System.nanoTime() - startTime;
+
+		BranchCoverageSuiteFitness generationalFitness = new BranchCoverageSuiteFitness();
+		generationalSuite.addFitness(generationalFitness);
+		generationalFitness.getFitness(generationalSuite);
+		double generationalRate = generationalSuite.getNumOfCoveredGoals() * 6e10 / generationalTime;
+
+		startTime = System.nanoTime();
+		TestSuiteChromosome localSearchSuite = localSearch();
+		long localSearchTime = System.nanoTime() - startTime;
+		double localSearchRate = localSearchSuite.getNumOfCoveredGoals() * 6e10 / localSearchTime;
+
+		assertTrue(String.format("Generational search: %.0f goals/min, local search: %.0f goals/min",
+				generationalRate, localSearchRate), generationalRate >= localSearchRate);
+	}
+}
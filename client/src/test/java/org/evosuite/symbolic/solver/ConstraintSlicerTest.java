@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.vm.ConstraintFactory;
+import org.junit.Test;
+
+public class ConstraintSlicerTest {
+
+	private static IntegerVariable var(String name, long value) {
+		return new IntegerVariable(name, value, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	@Test
+	public void testIndependentConstraintsAreRemoved() {
+		IntegerVariable a = var("slice_a", 1);
+		IntegerVariable b = var("slice_b", 2);
+		Constraint<?> c0 = ConstraintFactory.lt(a, new IntegerConstant(10));
+		Constraint<?> c1 = ConstraintFactory.eq(b, new IntegerConstant(2));
+		Constraint<?> c2 = ConstraintFactory.gte(a, new IntegerConstant(0));
+
+		List<Constraint<?>> slice = ConstraintSlicer.slice(Arrays.<Constraint<?>> asList(c0, c1, c2));
+		assertEquals(Arrays.<Constraint<?>> asList(c0, c2), slice);
+	}
+
+	@Test
+	public void testTransitiveDependencies() {
+		IntegerVariable a = var("transitive_a", 1);
+		IntegerVariable b = var("transitive_b", 1);
+		IntegerVariable c = var("transitive_c", 3);
+		Constraint<?> c0 = ConstraintFactory.eq(a, b);
+		// only depends on the target through c0, which comes before it
+		Constraint<?> c1 = ConstraintFactory.lt(b, new IntegerConstant(5));
+		Constraint<?> c2 = ConstraintFactory.eq(c, new IntegerConstant(3));
+		Constraint<?> c3 = ConstraintFactory.gte(a, new IntegerConstant(0));
+
+		List<Constraint<?>> slice = ConstraintSlicer.slice(Arrays.<Constraint<?>> asList(c0, c1, c2, c3));
+		assertEquals(Arrays.<Constraint<?>> asList(c0, c1, c3), slice);
+	}
+
+	@Test
+	public void testTargetWithoutVariables() {
+		IntegerVariable a = var("constant_a", 1);
+		Constraint<?> c0 = ConstraintFactory.lt(a, new IntegerConstant(10));
+		Constraint<?> c1 = ConstraintFactory.eq(new IntegerConstant(1), new IntegerConstant(2));
+
+		assertTrue(ConstraintSlicer.slice(Arrays.<Constraint<?>> asList(c0, c1)).isEmpty());
+		assertTrue(ConstraintSlicer.slice(new ArrayList<Constraint<?>>()).isEmpty());
+	}
+}
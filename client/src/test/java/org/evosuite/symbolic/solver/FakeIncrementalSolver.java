@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal SMT-LIB solver used to test {@link IncrementalSolverProcess}. It
+ * keeps a stack of assertions and answers check-sat with unsat if an assertion
+ * contains <code>false</code>. The model contains the number of assertions on
+ * the stack. Assertions containing <code>crash</code> terminate the process,
+ * <code>slow</code> and <code>hang</code> delay the answer to check-sat.
+ */
+public class FakeIncrementalSolver {
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+		PrintStream out = System.out;
+		List<List<String>> levels = new ArrayList<List<String>>();
+		levels.add(new ArrayList<String>());
+
+		String line;
+		while ((line = in.readLine()) != null) {
+			line = line.trim();
+			if (line.startsWith("(push")) {
+				levels.add(new ArrayList<String>());
+			} else if (line.startsWith("(pop")) {
+				int n = Integer.parseInt(line.substring(4, line.length() - 1).trim());
+				if (n >= levels.size()) {
+					out.println("(error \"cannot pop " + n + " levels\")");
+				} else {
+					for (int i = 0; i < n; i++) {
+						levels.remove(levels.size() - 1);
+					}
+				}
+			} else if (line.startsWith("(assert")) {
+				if (line.contains("crash"))
+					System.exit(1);
+				levels.get(levels.size() - 1).add(line);
+			} else if (line.equals("(check-sat)")) {
+				boolean sat = true;
+				for (List<String> level : levels) {
+					for (String assertion : level) {
+						if (assertion.contains("hang"))
+							Thread.sleep(60000);
+						if (assertion.contains("slow"))
+							Thread.sleep(500);
+						if (assertion.contains("false"))
+							sat = false;
+					}
+				}
+				out.println(sat ? "sat" : "unsat");
+			} else if (line.equals("(get-model)")) {
+				int assertions = 0;
+				for (List<String> level : levels) {
+					assertions += level.size();
+				}
+				out.println("(model (define-fun assertions () Int " + assertions + "))");
+			} else if (line.startsWith("(echo")) {
+				out.println(line.substring(line.indexOf('"') + 1, line.lastIndexOf('"')));
+			}
+			out.flush();
+		}
+	}
+}
@@ -0,0 +1,207 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class IncrementalSolverProcessTest {
+
+	private static final long TIMEOUT = 10000;
+
+	private static int preambles = 0;
+
+	@After
+	public void tearDown() {
+		IncrementalSolverProcess.shutdownAll();
+	}
+
+	/**
+	 * @return the command line running {@link FakeIncrementalSolver}
+	 */
+	private static String getCommand() throws Exception {
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		String classes = new File(FakeIncrementalSolver.class.getProtectionDomain().getCodeSource().getLocation()
+				.toURI()).getAbsolutePath();
+		String command = java + " -cp " + classes + " " + FakeIncrementalSolver.class.getName();
+		// the command line is split at white spaces
+		Assume.assumeTrue(command.split("\\s+").length == 4);
+		return command;
+	}
+
+	/**
+	 * @return a process that is not shared with other tests
+	 */
+	private static IncrementalSolverProcess newProcess() throws Exception {
+		return IncrementalSolverProcess.getInstance(getCommand(), "(set-info :source test" + (preambles++) + ")\n");
+	}
+
+	private static String checkSat(IncrementalSolverProcess process, String... assertions) throws Exception {
+		return checkSat(process, TIMEOUT, assertions);
+	}
+
+	private static String checkSat(IncrementalSolverProcess process, long timeout, String... assertions)
+			throws Exception {
+		Map<String, String> declarations = new LinkedHashMap<String, String>();
+		List<String> asserts = new ArrayList<String>();
+		for (String assertion : assertions) {
+			declarations.put(assertion, "(declare-fun " + assertion + " () Bool)");
+			asserts.add("(assert " + assertion + ")");
+		}
+		return process.checkSat(Collections.<String> emptyList(), declarations, asserts, timeout);
+	}
+
+	private static String sat(int assertions) {
+		return "sat\n(model (define-fun assertions () Int " + assertions + "))\n";
+	}
+
+	@Test
+	public void testSharedPrefixIsReused() throws Exception {
+		IncrementalSolverProcess process = newProcess();
+		assertEquals(sat(2), checkSat(process, "a", "b"));
+		assertEquals(0, process.getNumberOfReusedAssertions());
+
+		assertEquals(sat(3), checkSat(process, "a", "b", "c"));
+		assertEquals(2, process.getNumberOfReusedAssertions());
+
+		// pops b and c
+		assertEquals("unsat\n", checkSat(process, "a", "false"));
+		assertEquals(3, process.getNumberOfReusedAssertions());
+
+		// the model shows that false was popped again
+		assertEquals(sat(2), checkSat(process, "a", "b"));
+		assertEquals(4, process.getNumberOfReusedAssertions());
+		assertEquals(4, process.getNumberOfQueries());
+	}
+
+	@Test
+	public void testRestartAfterCrash() throws Exception {
+		IncrementalSolverProcess process = newProcess();
+		assertEquals(sat(1), checkSat(process, "a"));
+		try {
+			checkSat(process, "a", "crash");
+			fail("Expected the process to terminate");
+		} catch (IOException e) {
+			// expected
+		}
+		assertEquals(sat(2), checkSat(process, "a", "b"));
+		// nothing is left of the levels of the crashed process
+		assertEquals(1, process.getNumberOfReusedAssertions());
+	}
+
+	@Test
+	public void testRestartAfterTimeout() throws Exception {
+		IncrementalSolverProcess process = newProcess();
+		assertEquals(sat(1), checkSat(process, "a"));
+		try {
+			checkSat(process, 100, "a", "hang");
+			fail("Expected a timeout");
+		} catch (SolverTimeoutException e) {
+			// expected
+		}
+		assertEquals(sat(2), checkSat(process, "a", "b"));
+		assertEquals(1, process.getNumberOfReusedAssertions());
+	}
+
+	@Test
+	public void testInterruptedCallerKeepsProcess() throws Exception {
+		final IncrementalSolverProcess process = newProcess();
+		assertEquals(sat(1), checkSat(process, "a"));
+		final Thread caller = Thread.currentThread();
+		Thread interrupter = new Thread() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(100);
+				} catch (InterruptedException e) {
+					return;
+				}
+				caller.interrupt();
+			}
+		};
+		interrupter.start();
+		try {
+			assertEquals(sat(2), checkSat(process, "a", "slow"));
+			interrupter.join();
+			assertTrue(Thread.interrupted());
+		} finally {
+			interrupter.interrupt();
+			Thread.interrupted();
+		}
+		assertEquals(sat(3), checkSat(process, "a", "slow", "b"));
+		// the process was not restarted
+		assertEquals(3, process.getNumberOfReusedAssertions());
+	}
+
+	@Test
+	public void testConcurrentCallers() throws Exception {
+		final IncrementalSolverProcess process = newProcess();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Void>> futures = new ArrayList<Future<Void>>();
+			for (int t = 0; t < 4; t++) {
+				final String own = "t" + t;
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						for (int i = 0; i < 20; i++) {
+							assertEquals(sat(3), checkSat(process, "a", own, "x" + i));
+							assertEquals("unsat\n", checkSat(process, "a", own, "false"));
+						}
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(160, process.getNumberOfQueries());
+		assertTrue(process.getNumberOfReusedAssertions() >= 159);
+	}
+
+	@Test
+	public void testSameCommandSharesProcess() throws Exception {
+		IncrementalSolverProcess process = IncrementalSolverProcess.getInstance(getCommand(), "(set-logic QF_LIA)\n");
+		assertEquals(sat(1), checkSat(process, "a"));
+		assertTrue(process == IncrementalSolverProcess.getInstance(getCommand(), "(set-logic QF_LIA)\n"));
+		assertTrue(process != IncrementalSolverProcess.getInstance(getCommand(), "(set-logic QF_NIA)\n"));
+		assertEquals(1, process.getNumberOfQueries());
+	}
+}
@@ -0,0 +1,249 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.evosuite.Properties;
+import org.evosuite.Properties.SolverType;
+import org.evosuite.symbolic.ConstraintTypeCounter;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.vm.ConstraintFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PortfolioSolverTest {
+
+	private static final int DEFAULT_ROUTING_RACES = Properties.DSE_PORTFOLIO_ROUTING_RACES;
+
+	private final AtomicInteger slowCalls = new AtomicInteger();
+
+	private final CountDownLatch slowInterrupted = new CountDownLatch(1);
+
+	private final Solver fastSolver = new Solver() {
+		@Override
+		public SolverResult solve(Collection<Constraint<?>> constraints) {
+			return SolverResult.newSAT(Collections.<String, Object> singletonMap("x", 1L));
+		}
+	};
+
+	private final Solver slowSolver = new Solver() {
+		@Override
+		public SolverResult solve(Collection<Constraint<?>> constraints) throws SolverTimeoutException {
+			slowCalls.incrementAndGet();
+			try {
+				Thread.sleep(60000);
+			} catch (InterruptedException e) {
+				slowInterrupted.countDown();
+				throw new SolverTimeoutException();
+			}
+			return SolverResult.newUNSAT();
+		}
+	};
+
+	private final Solver givingUpSolver = new Solver() {
+		@Override
+		public SolverResult solve(Collection<Constraint<?>> constraints) {
+			return SolverResult.newIncompleteUNSAT();
+		}
+	};
+
+	private final Solver failingSolver = new Solver() {
+		@Override
+		public SolverResult solve(Collection<Constraint<?>> constraints) throws SolverErrorException {
+			throw new SolverErrorException("failed");
+		}
+	};
+
+	@Before
+	public void setUp() {
+		PortfolioSolver.clearStatistics();
+	}
+
+	@After
+	public void tearDown() {
+		Properties.DSE_PORTFOLIO_ROUTING_RACES = DEFAULT_ROUTING_RACES;
+		PortfolioSolver.clearStatistics();
+	}
+
+	private static List<Constraint<?>> query() {
+		IntegerVariable x = new IntegerVariable("x", 0, Long.MIN_VALUE, Long.MAX_VALUE);
+		return Arrays.<Constraint<?>> asList(ConstraintFactory.eq(x, new IntegerConstant(1)));
+	}
+
+	private PortfolioSolver portfolio(Function<SolverType, Solver> solvers) {
+		return new PortfolioSolver(Arrays.asList(SolverType.Z3_SOLVER, SolverType.EVOSUITE_SOLVER), solvers);
+	}
+
+	@Test
+	public void testFirstAnswerWins() throws Exception {
+		Properties.DSE_PORTFOLIO_ROUTING_RACES = 0;
+		PortfolioSolver solver = portfolio(type -> type == SolverType.Z3_SOLVER ? fastSolver : slowSolver);
+
+		List<Constraint<?>> query = query();
+		SolverResult result = solver.solve(query);
+		assertTrue(result.isSAT());
+		assertEquals(1L, result.getValue("x"));
+
+		// The slow AVM is cancelled
+		assertTrue(slowInterrupted.await(10, TimeUnit.SECONDS));
+
+		int key = ConstraintTypeCounter.getKey(query);
+		assertEquals(1, PortfolioSolver.getNumberOfRaces(key));
+		assertEquals(1, PortfolioSolver.getNumberOfWins(key, SolverType.Z3_SOLVER));
+		assertEquals(0, PortfolioSolver.getNumberOfWins(key, SolverType.EVOSUITE_SOLVER));
+	}
+
+	@Test
+	public void testExternalSolverIsNotInterrupted() throws Exception {
+		Properties.DSE_PORTFOLIO_ROUTING_RACES = 0;
+		final AtomicBoolean interrupted = new AtomicBoolean();
+		final CountDownLatch finished = new CountDownLatch(1);
+		Solver externalSolver = new Solver() {
+			@Override
+			public SolverResult solve(Collection<Constraint<?>> constraints) {
+				try {
+					Thread.sleep(200);
+				} catch (InterruptedException e) {
+					interrupted.set(true);
+				}
+				finished.countDown();
+				return SolverResult.newUNSAT();
+			}
+		};
+		PortfolioSolver solver = portfolio(type -> type == SolverType.EVOSUITE_SOLVER ? fastSolver : externalSolver);
+
+		assertTrue(solver.solve(query()).isSAT());
+		assertTrue(finished.await(10, TimeUnit.SECONDS));
+		assertFalse(interrupted.get());
+	}
+
+	@Test
+	public void testFailingSolverDoesNotWin() throws Exception {
+		Properties.DSE_PORTFOLIO_ROUTING_RACES = 0;
+		PortfolioSolver solver = portfolio(type -> type == SolverType.EVOSUITE_SOLVER ? fastSolver : failingSolver);
+
+		assertTrue(solver.solve(query()).isSAT());
+		assertEquals(1, PortfolioSolver.getNumberOfWins(ConstraintTypeCounter.getKey(query()),
+				SolverType.EVOSUITE_SOLVER));
+	}
+
+	@Test
+	public void testIncompleteUNSATDoesNotWin() throws Exception {
+		Properties.DSE_PORTFOLIO_ROUTING_RACES = 0;
+		Solver delayedSolver = new Solver() {
+			@Override
+			public SolverResult solve(Collection<Constraint<?>> constraints) throws SolverTimeoutException {
+				try {
+					Thread.sleep(200);
+				} catch (InterruptedException e) {
+					throw new SolverTimeoutException();
+				}
+				return fastSolver.solve(constraints);
+			}
+		};
+		PortfolioSolver solver = portfolio(type -> type == SolverType.EVOSUITE_SOLVER ? givingUpSolver
+				: delayedSolver);
+
+		assertTrue(solver.solve(query()).isSAT());
+		int key = ConstraintTypeCounter.getKey(query());
+		assertEquals(1, PortfolioSolver.getNumberOfWins(key, SolverType.Z3_SOLVER));
+		assertEquals(0, PortfolioSolver.getNumberOfWins(key, SolverType.EVOSUITE_SOLVER));
+	}
+
+	@Test
+	public void testIncompleteUNSATIsReturnedIfNothingElseIsFound() throws Exception {
+		Properties.DSE_PORTFOLIO_ROUTING_RACES = 0;
+		PortfolioSolver solver = portfolio(type -> type == SolverType.EVOSUITE_SOLVER ? givingUpSolver
+				: failingSolver);
+
+		SolverResult result = solver.solve(query());
+		assertTrue(result.isUNSAT());
+		assertTrue(result.isIncomplete());
+		assertEquals(0, PortfolioSolver.getNumberOfRaces(ConstraintTypeCounter.getKey(query())));
+	}
+
+	@Test(expected = SolverErrorException.class)
+	public void testAllSolversFail() throws Exception {
+		PortfolioSolver solver = portfolio(type -> failingSolver);
+		solver.solve(query());
+	}
+
+	@Test
+	public void testRoutingAfterRaces() throws Exception {
+		Properties.DSE_PORTFOLIO_ROUTING_RACES = 2;
+		PortfolioSolver solver = portfolio(type -> type == SolverType.Z3_SOLVER ? fastSolver : slowSolver);
+
+		solver.solve(query());
+		solver.solve(query());
+		int racesWithSlowSolver = slowCalls.get();
+
+		// Only the fastest solver is asked now, so there is no further race
+		solver.solve(query());
+		int key = ConstraintTypeCounter.getKey(query());
+		assertEquals(2, PortfolioSolver.getNumberOfRaces(key));
+		assertEquals(2, PortfolioSolver.getNumberOfWins(key, SolverType.Z3_SOLVER));
+		assertTrue(slowCalls.get() <= racesWithSlowSolver);
+	}
+
+	@Test
+	public void testRoutedFailureRacesAllSolvers() throws Exception {
+		Properties.DSE_PORTFOLIO_ROUTING_RACES = 1;
+		// Z3 wins the first race
+		portfolio(type -> type == SolverType.Z3_SOLVER ? fastSolver : slowSolver).solve(query());
+
+		// and fails on the routed query, so that both solvers race again
+		PortfolioSolver solver = portfolio(type -> type == SolverType.Z3_SOLVER ? failingSolver : fastSolver);
+		assertTrue(solver.solve(query()).isSAT());
+		int key = ConstraintTypeCounter.getKey(query());
+		assertEquals(2, PortfolioSolver.getNumberOfRaces(key));
+		assertEquals(1, PortfolioSolver.getNumberOfWins(key, SolverType.EVOSUITE_SOLVER));
+	}
+
+	@Test
+	public void testUnavailableSolversAreSkipped() {
+		String z3Path = Properties.Z3_PATH;
+		String cvc4Path = Properties.CVC4_PATH;
+		try {
+			Properties.Z3_PATH = null;
+			Properties.CVC4_PATH = null;
+			// Falls back to the EvoSuite solver instead of failing
+			new PortfolioSolver(Arrays.asList(SolverType.Z3_SOLVER, SolverType.CVC4_SOLVER));
+		} finally {
+			Properties.Z3_PATH = z3Path;
+			Properties.CVC4_PATH = cvc4Path;
+		}
+	}
+}
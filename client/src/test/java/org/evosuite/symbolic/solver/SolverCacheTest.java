@@ -0,0 +1,217 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.Properties;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.vm.ConstraintFactory;
+import org.junit.Test;
+
+public class SolverCacheTest {
+
+	/**
+	 * Returns the concrete values of the variables, or UNSAT if the
+	 * constraints contain an x != x constraint
+	 */
+	private static class CountingSolver extends Solver {
+
+		int calls = 0;
+
+		@Override
+		public SolverResult solve(Collection<Constraint<?>> constraints) {
+			calls++;
+			Map<String, Object> model = new HashMap<String, Object>();
+			for (Constraint<?> constraint : constraints) {
+				if (constraint.getLeftOperand().equals(constraint.getRightOperand()))
+					return SolverResult.newUNSAT();
+				model.putAll(getConcreteValues(constraint.getVariables()));
+			}
+			return SolverResult.newSAT(model);
+		}
+	}
+
+	private static IntegerVariable var(String name, long value) {
+		return new IntegerVariable(name, value, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	private static void solveLessThan(Solver solver, String name, int bound) {
+		List<Constraint<?>> query = new ArrayList<Constraint<?>>();
+		query.add(ConstraintFactory.lt(var(name, 0), new IntegerConstant(bound)));
+		assertTrue(SolverCache.getInstance().solve(solver, query).isSAT());
+	}
+
+	private static void appendLine(File file, String line) throws IOException {
+		Files.write(file.toPath(), (line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+	}
+
+	@Test
+	public void testNormalizationIgnoresOrderAndNames() {
+		IntegerVariable a = var("norm_a", 1);
+		IntegerVariable b = var("norm_b", 2);
+		List<Constraint<?>> first = new ArrayList<Constraint<?>>();
+		first.add(ConstraintFactory.lt(a, new IntegerConstant(10)));
+		first.add(ConstraintFactory.eq(b, new IntegerConstant(2)));
+
+		IntegerVariable c = var("norm_c", 1);
+		IntegerVariable d = var("norm_d", 2);
+		List<Constraint<?>> second = new ArrayList<Constraint<?>>();
+		second.add(ConstraintFactory.eq(d, new IntegerConstant(2)));
+		second.add(ConstraintFactory.lt(c, new IntegerConstant(10)));
+
+		assertEquals(NormalizedConstraints.normalize(first).getKey(),
+		             NormalizedConstraints.normalize(second).getKey());
+
+		List<Constraint<?>> third = new ArrayList<Constraint<?>>();
+		third.add(ConstraintFactory.eq(d, new IntegerConstant(3)));
+		third.add(ConstraintFactory.lt(c, new IntegerConstant(10)));
+		assertNotEquals(NormalizedConstraints.normalize(first).getKey(),
+		                NormalizedConstraints.normalize(third).getKey());
+	}
+
+	@Test
+	public void testRenamedQueryIsHit() {
+		CountingSolver solver = new CountingSolver();
+		IntegerVariable x = var("renamed_x", 3);
+		List<Constraint<?>> first = new ArrayList<Constraint<?>>();
+		first.add(ConstraintFactory.lt(x, new IntegerConstant(5)));
+		SolverResult result = SolverCache.getInstance().solve(solver, first);
+		assertTrue(result.isSAT());
+
+		IntegerVariable y = var("renamed_y", 0);
+		List<Constraint<?>> second = new ArrayList<Constraint<?>>();
+		second.add(ConstraintFactory.lt(y, new IntegerConstant(5)));
+		result = SolverCache.getInstance().solve(solver, second);
+		assertEquals(1, solver.calls);
+		assertTrue(result.isSAT());
+		assertEquals(3L, result.getValue("renamed_y"));
+	}
+
+	@Test
+	public void testIncompleteUNSATIsNotCached() {
+		final int[] calls = new int[1];
+		Solver solver = new Solver() {
+			@Override
+			public SolverResult solve(Collection<Constraint<?>> constraints) {
+				calls[0]++;
+				return SolverResult.newIncompleteUNSAT();
+			}
+		};
+		IntegerVariable x = var("incomplete_x", 1);
+		List<Constraint<?>> query = new ArrayList<Constraint<?>>();
+		query.add(ConstraintFactory.eq(x, new IntegerConstant(7)));
+		int unsats = SolverCache.getInstance().getNumberOfUNSATs();
+		assertTrue(SolverCache.getInstance().solve(solver, query).isUNSAT());
+		assertTrue(SolverCache.getInstance().solve(solver, query).isUNSAT());
+		assertEquals(2, calls[0]);
+		assertEquals(unsats, SolverCache.getInstance().getNumberOfUNSATs());
+	}
+
+	@Test
+	public void testUNSATSubsetAnswersSuperset() {
+		CountingSolver solver = new CountingSolver();
+		IntegerVariable x = var("subsumed_x", 1);
+		List<Constraint<?>> unsat = new ArrayList<Constraint<?>>();
+		unsat.add(ConstraintFactory.neq(x, x));
+		assertTrue(SolverCache.getInstance().solve(solver, unsat).isUNSAT());
+
+		IntegerVariable y = var("subsumed_y", 1);
+		List<Constraint<?>> superset = new ArrayList<Constraint<?>>();
+		superset.add(ConstraintFactory.eq(y, new IntegerConstant(1)));
+		superset.add(ConstraintFactory.neq(x, x));
+		int hits = SolverCache.getInstance().getNumberOfSubsumptionHits();
+		assertTrue(SolverCache.getInstance().solve(solver, superset).isUNSAT());
+		assertEquals(1, solver.calls);
+		assertEquals(hits + 1, SolverCache.getInstance().getNumberOfSubsumptionHits());
+	}
+
+	@Test
+	public void testCacheFileIsBounded() throws IOException {
+		File file = File.createTempFile("solver_cache", ".txt");
+		String fileName = Properties.SOLVER_CACHE_FILE;
+		int size = Properties.SOLVER_CACHE_SIZE;
+		try {
+			appendLine(file, "UNSAT\tbounded_key\tbounded_conjunct");
+			appendLine(file, "UNSAT\tbounded_key\tbounded_conjunct");
+			Properties.SOLVER_CACHE_FILE = file.getPath();
+			Properties.SOLVER_CACHE_SIZE = 3;
+
+			CountingSolver solver = new CountingSolver();
+			for (int i = 0; i < 5; i++)
+				solveLessThan(solver, "bounded_x", 1000 + i);
+			appendLine(file, "UNSAT\tbounded_other\tbounded_conjunct");
+			SolverCache.getInstance().saveCacheFile();
+
+			List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+			assertEquals(3, lines.size());
+			assertEquals(3, new HashSet<String>(lines).size());
+			for (String line : lines)
+				assertTrue(line.startsWith("SAT\t"));
+		} finally {
+			Properties.SOLVER_CACHE_FILE = fileName;
+			Properties.SOLVER_CACHE_SIZE = size;
+			file.delete();
+			new File(file.getPath() + ".lock").delete();
+		}
+	}
+
+	@Test
+	public void testCacheFileKeepsResultsOfOtherProcesses() throws IOException {
+		File file = File.createTempFile("solver_cache", ".txt");
+		String fileName = Properties.SOLVER_CACHE_FILE;
+		try {
+			appendLine(file, "UNSAT\tmerged_key\tmerged_conjunct");
+			Properties.SOLVER_CACHE_FILE = file.getPath();
+
+			CountingSolver solver = new CountingSolver();
+			solveLessThan(solver, "merged_x", 2000);
+			appendLine(file, "UNSAT\tmerged_other\tmerged_conjunct");
+			SolverCache.getInstance().saveCacheFile();
+
+			List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+			assertEquals(3, lines.size());
+			assertTrue(lines.contains("UNSAT\tmerged_key\tmerged_conjunct"));
+			assertTrue(lines.contains("UNSAT\tmerged_other\tmerged_conjunct"));
+			assertEquals(1, solver.calls);
+		} finally {
+			Properties.SOLVER_CACHE_FILE = fileName;
+			file.delete();
+			new File(file.getPath() + ".lock").delete();
+		}
+	}
+}
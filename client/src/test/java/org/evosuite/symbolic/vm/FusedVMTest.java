@@ -0,0 +1,159 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.vm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.dse.IVM;
+import org.evosuite.dse.VM;
+import org.evosuite.symbolic.BranchCondition;
+import org.evosuite.symbolic.ConcolicExecution;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testcase.variable.VariableReference;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.concolic.TestCase47;
+
+public class FusedVMTest {
+
+	private static final Class<?>[] LISTENERS = { CallVM.class, JumpVM.class, HeapVM.class, LocalsVM.class,
+			ArithmeticVM.class, OtherVM.class, SymbolicFunctionVM.class };
+
+	@Before
+	public void initializeExecutor() {
+		TestCaseExecutor.getInstance().newObservers();
+		TestCaseExecutor.initExecutor();
+		Properties.CLIENT_ON_THREAD = true;
+		Properties.PRINT_TO_SYSTEM = false;
+		Properties.TIMEOUT = 5000;
+		Properties.CONCOLIC_TIMEOUT = 5000000;
+	}
+
+	@After
+	public void resetStaticVariables() {
+		TestGenerationContext.getInstance().resetContext();
+		Properties.getInstance().resetToDefaults();
+	}
+
+	@Test
+	public void testAllHandledCallbacksAreForwarded() {
+		for (Method callback : IVM.class.getMethods()) {
+			for (Class<?> listener : LISTENERS) {
+				try {
+					listener.getDeclaredMethod(callback.getName(), callback.getParameterTypes());
+				} catch (NoSuchMethodException e) {
+					continue;
+				}
+				try {
+					FusedVM.class.getDeclaredMethod(callback.getName(), callback.getParameterTypes());
+				} catch (NoSuchMethodException e) {
+					fail(callback + " is handled by " + listener.getSimpleName() + " but not forwarded by FusedVM");
+				}
+			}
+		}
+	}
+
+	private static DefaultTestCase buildTestCase47() throws NoSuchMethodException {
+		TestCaseBuilder tc = new TestCaseBuilder();
+		VariableReference char0 = tc.appendCharPrimitive('\u0007');
+		VariableReference char1 = tc.appendCharPrimitive('\t');
+		VariableReference char2 = tc.appendCharPrimitive('\u0015');
+		VariableReference char3 = tc.appendCharPrimitive('\u0015');
+
+		Method method = TestCase47.class.getMethod("test", char.class, char.class, char.class, char.class);
+		tc.appendMethod(null, method, char0, char1, char2, char3);
+		return tc.getDefaultTestCase();
+	}
+
+	@Test
+	public void testSamePathConditionAsSeparateListeners() throws NoSuchMethodException {
+		Properties.DSE_FUSED_LISTENERS = false;
+		List<BranchCondition> expected = ConcolicExecution.executeConcolic(buildTestCase47());
+
+		Properties.DSE_FUSED_LISTENERS = true;
+		List<BranchCondition> actual = ConcolicExecution.executeConcolic(buildTestCase47());
+
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getConstraint().toString(), actual.get(i).getConstraint().toString());
+		}
+	}
+
+	@Test
+	public void testSameCallbacksAsSeparateListeners() throws NoSuchMethodException {
+		Properties.DSE_FUSED_LISTENERS = false;
+		ConcolicExecution.executeConcolic(buildTestCase47());
+		int expected = VM.getInstance().getNrCallbacksPath();
+
+		Properties.DSE_FUSED_LISTENERS = true;
+		ConcolicExecution.executeConcolic(buildTestCase47());
+		assertEquals(expected, VM.getInstance().getNrCallbacksPath());
+	}
+
+	/**
+	 * @return callbacks per second
+	 */
+	private static double measureCallbacks(int executions) throws NoSuchMethodException {
+		long callbacks = 0;
+		long time = 0;
+		for (int i = 0; i < executions; i++) {
+			DefaultTestCase test = buildTestCase47();
+			long start = System.nanoTime();
+			ConcolicExecution.executeConcolic(test);
+			time += System.nanoTime() - start;
+			callbacks += VM.getInstance().getNrCallbacksPath();
+		}
+		return callbacks / (time / 1e9);
+	}
+
+	/**
+	 * Instrumented instructions per second of concolic execution, with
+	 * separate and with fused listeners. Only runs with
+	 * -Devosuite.benchmarks=true.
+	 */
+	@Test
+	public void testCallbacksPerSecond() throws NoSuchMethodException {
+		Assume.assumeTrue(Boolean.getBoolean("evosuite.benchmarks"));
+		final int executions = 50;
+
+		Properties.DSE_FUSED_LISTENERS = false;
+		measureCallbacks(executions); // warm up
+		double separate = measureCallbacks(executions);
+
+		Properties.DSE_FUSED_LISTENERS = true;
+		measureCallbacks(executions);
+		double fused = measureCallbacks(executions);
+
+		assertTrue(String.format("Concolic execution: %.0f callbacks/s with separate listeners, %.0f callbacks/s with fused listener",
+				separate, fused), fused >= separate);
+	}
+}
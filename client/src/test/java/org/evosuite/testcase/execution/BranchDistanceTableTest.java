@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+public class BranchDistanceTableTest {
+
+	private static final double DELTA = 0.0;
+
+	@Test
+	public void testMinimumAndSum() {
+		BranchDistanceTable table = new BranchDistanceTable(4);
+		table.update(2, 3.0, 0.0);
+		table.update(2, 1.0, 2.0);
+
+		assertTrue(table.isReached(2));
+		assertFalse(table.isReached(1));
+		assertEquals(1.0, table.getTrueDistance(2), DELTA);
+		assertEquals(0.0, table.getFalseDistance(2), DELTA);
+		assertEquals(4.0, table.getTrueDistanceSum(2), DELTA);
+		assertEquals(2.0, table.getFalseDistanceSum(2), DELTA);
+	}
+
+	@Test
+	public void testGrowsBeyondCapacity() {
+		BranchDistanceTable table = new BranchDistanceTable(1);
+		table.update(100, 1.0, 0.0);
+		assertTrue(table.isReached(100));
+		assertEquals(1, table.getNumReached());
+		assertEquals(100, table.getReachedBranch(0));
+	}
+
+	@Test
+	public void testMapsKeepReachOrder() {
+		BranchDistanceTable table = new BranchDistanceTable(10);
+		table.update(7, 1.0, 0.0);
+		table.update(3, 0.0, 2.0);
+
+		Map<Integer, Double> trueDistances = table.getTrueDistances();
+		assertEquals(2, trueDistances.size());
+		assertEquals(7, (int) trueDistances.keySet().iterator().next());
+		assertEquals(2.0, table.getFalseDistances().get(3), DELTA);
+	}
+
+	@Test
+	public void testClearAndClone() {
+		BranchDistanceTable table = new BranchDistanceTable(10);
+		table.update(5, 1.0, 0.0);
+		BranchDistanceTable copy = table.clone();
+		table.clear();
+
+		assertFalse(table.isReached(5));
+		assertEquals(0, table.getNumReached());
+		assertTrue(copy.isReached(5));
+
+		table.update(5, 4.0, 0.0);
+		assertEquals(4.0, table.getTrueDistance(5), DELTA);
+		assertEquals(1.0, copy.getTrueDistance(5), DELTA);
+	}
+}
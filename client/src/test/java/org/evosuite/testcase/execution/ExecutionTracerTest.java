@@ -0,0 +1,148 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExecutionTracerTest {
+
+	private ExecutorService threads;
+
+	@Before
+	public void setUp() {
+		threads = Executors.newFixedThreadPool(2);
+	}
+
+	@After
+	public void tearDown() {
+		threads.shutdownNow();
+	}
+
+	private static Callable<Integer> executeStatements(final int number) {
+		return new Callable<Integer>() {
+			@Override
+			public Integer call() {
+				ExecutionTracer tracer = ExecutionTracer.bindNewInstanceToCurrentThread();
+				try {
+					ExecutionTracer.enable();
+					ExecutionTracer.setThread(Thread.currentThread());
+					for (int i = 0; i < number; i++) {
+						ExecutionTracer.statementExecuted();
+					}
+					return tracer.getNumStatementsExecuted();
+				} finally {
+					ExecutionTracer.unbindCurrentThread();
+				}
+			}
+		};
+	}
+
+	@Test
+	public void testThreadBoundTracersRecordSeparately() throws Exception {
+		Future<Integer> first = threads.submit(executeStatements(1000));
+		Future<Integer> second = threads.submit(executeStatements(10));
+		assertEquals(1000, first.get().intValue());
+		assertEquals(10, second.get().intValue());
+	}
+
+	@Test
+	public void testOtherThreadsAreIgnored() throws Exception {
+		Future<Integer> result = threads.submit(new Callable<Integer>() {
+			@Override
+			public Integer call() throws Exception {
+				ExecutionTracer tracer = ExecutionTracer.bindNewInstanceToCurrentThread();
+				try {
+					ExecutionTracer.enable();
+					ExecutionTracer.setThread(Thread.currentThread());
+					// inherits the tracer, but is not the thread it records
+					Thread spawned = new Thread(new Runnable() {
+						@Override
+						public void run() {
+							ExecutionTracer.statementExecuted();
+						}
+					});
+					spawned.start();
+					spawned.join();
+					ExecutionTracer.statementExecuted();
+					return tracer.getNumStatementsExecuted();
+				} finally {
+					ExecutionTracer.unbindCurrentThread();
+				}
+			}
+		});
+		assertEquals(1, result.get().intValue());
+	}
+
+	@Test
+	public void testSurvivingThreadKeepsOldTrace() throws Exception {
+		Future<int[]> result = threads.submit(new Callable<int[]>() {
+			@Override
+			public int[] call() throws Exception {
+				ExecutionTracer old = ExecutionTracer.bindNewInstanceToCurrentThread();
+				try {
+					ExecutionTracer.enable();
+					final CountDownLatch started = new CountDownLatch(1);
+					final AtomicBoolean stop = new AtomicBoolean(false);
+					Thread survivor = new Thread(new Runnable() {
+						@Override
+						public void run() {
+							ExecutionTracer.setThread(Thread.currentThread());
+							started.countDown();
+							while (!stop.get()) {
+								ExecutionTracer.statementExecuted();
+							}
+						}
+					});
+					survivor.start();
+					started.await();
+
+					ExecutionTracer tracer = ExecutionTracer.leaveToSurvivingThread();
+					int before = old.getNumStatementsExecuted();
+					Thread.sleep(50);
+					ExecutionTracer.statementExecuted();
+					stop.set(true);
+					survivor.join();
+
+					assertTrue(ExecutionTracer.getExecutionTracer() == tracer);
+					assertTrue(ExecutionTracer.isEnabled());
+					return new int[] { before, old.getNumStatementsExecuted(), tracer.getNumStatementsExecuted() };
+				} finally {
+					ExecutionTracer.unbindCurrentThread();
+				}
+			}
+		});
+		int[] statements = result.get();
+		// the survivor only writes to the old trace
+		assertTrue(statements[1] > statements[0]);
+		assertEquals(1, statements[2]);
+	}
+}
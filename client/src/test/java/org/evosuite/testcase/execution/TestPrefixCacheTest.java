@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.evosuite.Properties;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.DefaultTestCase;
+import org.junit.After;
+import org.junit.Test;
+
+public class TestPrefixCacheTest {
+
+	@After
+	public void tearDown() {
+		Properties.getInstance().resetToDefaults();
+	}
+
+	private static DefaultTestCase createTest(int... values) {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		for (int value : values) {
+			builder.appendIntPrimitive(value);
+		}
+		return builder.getDefaultTestCase();
+	}
+
+	private static ExecutionResult createResult(DefaultTestCase test, Integer exceptionPosition) {
+		ExecutionResult result = new ExecutionResult(test);
+		if (exceptionPosition != null) {
+			result.reportNewThrownException(exceptionPosition, new IllegalStateException());
+		}
+		return result;
+	}
+
+	@Test
+	public void testStatementsAfterExceptionAreIgnored() {
+		Properties.BREAK_ON_EXCEPTION = true;
+		TestPrefixCache<String> cache = new TestPrefixCache<>(() -> 10);
+		DefaultTestCase test = createTest(1, 2, 3);
+		cache.put(test, createResult(test, 1), prefix -> "prefix of " + prefix.size());
+
+		assertEquals("prefix of 2", cache.get(createTest(1, 2)));
+		assertEquals("prefix of 2", cache.get(createTest(1, 2, 7, 8)));
+		assertNull(cache.get(createTest(1, 5, 3)));
+		assertNull(cache.get(createTest(1)));
+	}
+
+	@Test
+	public void testCompleteTestOnlyMatchesIdenticalTest() {
+		TestPrefixCache<String> cache = new TestPrefixCache<>(() -> 10);
+		DefaultTestCase test = createTest(4, 5);
+		cache.put(test, createResult(test, null), prefix -> "complete");
+
+		assertEquals("complete", cache.get(createTest(4, 5)));
+		assertNull(cache.get(createTest(4, 5, 6)));
+		assertNull(cache.get(createTest(4)));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedIsEvicted() {
+		TestPrefixCache<String> cache = new TestPrefixCache<>(() -> 2);
+		for (int i = 0; i < 2; i++) {
+			DefaultTestCase test = createTest(i);
+			cache.put(test, createResult(test, null), prefix -> "old");
+		}
+		assertEquals(2, cache.size());
+		cache.get(createTest(0));
+
+		DefaultTestCase test = createTest(2);
+		cache.put(test, createResult(test, null), prefix -> "new");
+		assertEquals(2, cache.size());
+		assertNull(cache.get(createTest(1)));
+		assertEquals("new", cache.get(createTest(2)));
+	}
+}
@@ -0,0 +1,212 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.Properties;
+import org.evosuite.Properties.TestSerializationFormat;
+import org.evosuite.assertion.PrimitiveAssertion;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.statements.ArrayStatement;
+import org.evosuite.testcase.statements.AssignmentStatement;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.EnumPrimitiveStatement;
+import org.evosuite.testcase.statements.FieldStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.NullStatement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.DoublePrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.LongPrimitiveStatement;
+import org.evosuite.testcase.variable.ArrayIndex;
+import org.evosuite.testcase.variable.ArrayReference;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericField;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompactTestSerializationTest {
+
+	private static final int NUMBER_OF_TESTS = 500;
+
+	private static TestChromosome createTest(int seed) throws Exception {
+		TestCase test = new DefaultTestCase();
+		VariableReference string = test.addStatement(new StringPrimitiveStatement(test, "foo" + seed));
+		VariableReference builder = test.addStatement(new ConstructorStatement(test,
+		        new GenericConstructor(StringBuilder.class.getConstructor(String.class), StringBuilder.class),
+		        asList(string)));
+		VariableReference value = test.addStatement(new IntPrimitiveStatement(test, seed - 250));
+		GenericMethod append = new GenericMethod(StringBuilder.class.getMethod("append", int.class),
+		        StringBuilder.class);
+		test.addStatement(new MethodStatement(test, append, builder, asList(value)));
+		test.addStatement(new LongPrimitiveStatement(test, -seed * 1000000007L));
+		test.addStatement(new DoublePrimitiveStatement(test, seed / 3.0));
+		test.addStatement(new EnumPrimitiveStatement<TimeUnit>(test, TimeUnit.SECONDS));
+		test.addStatement(new NullStatement(test, Object.class));
+		test.addStatement(new FieldStatement(test,
+		        new GenericField(Integer.class.getField("MAX_VALUE"), Integer.class), null));
+		ArrayReference array = (ArrayReference) test.addStatement(new ArrayStatement(test, int[].class, 3));
+		test.addStatement(new AssignmentStatement(test, new ArrayIndex(test, array, 1), value));
+
+		TestChromosome chromosome = new TestChromosome();
+		chromosome.setTestCase(test);
+		return chromosome;
+	}
+
+	private static List<VariableReference> asList(VariableReference reference) {
+		List<VariableReference> list = new ArrayList<>();
+		list.add(reference);
+		return list;
+	}
+
+	private static List<TestChromosome> createTests() throws Exception {
+		List<TestChromosome> tests = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_TESTS; i++) {
+			tests.add(createTest(i));
+		}
+		return tests;
+	}
+
+	private static byte[] writeCompact(List<TestChromosome> tests) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (CompactTestWriter out = new CompactTestWriter(bytes)) {
+			for (TestChromosome test : tests) {
+				out.write(test);
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	private static List<TestChromosome> readCompact(byte[] bytes) throws IOException {
+		try (CompactTestReader in = new CompactTestReader(new ByteArrayInputStream(bytes),
+		        CompactTestSerializationTest.class.getClassLoader())) {
+			return in.readAll();
+		}
+	}
+
+	private static byte[] writeJava(List<TestChromosome> tests) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			for (TestChromosome test : tests) {
+				out.writeObject(test);
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		List<TestChromosome> tests = new ArrayList<>();
+		tests.add(createTest(1));
+		tests.add(createTest(2));
+
+		List<TestChromosome> copies = readCompact(writeCompact(tests));
+		Assert.assertEquals(tests.size(), copies.size());
+		for (int i = 0; i < tests.size(); i++) {
+			Assert.assertEquals(tests.get(i).getTestCase().toCode(), copies.get(i).getTestCase().toCode());
+		}
+	}
+
+	@Test
+	public void testExtremeValues() throws Exception {
+		TestCase test = new DefaultTestCase();
+		test.addStatement(new IntPrimitiveStatement(test, Integer.MIN_VALUE));
+		test.addStatement(new LongPrimitiveStatement(test, Long.MAX_VALUE));
+		test.addStatement(new DoublePrimitiveStatement(test, Double.NaN));
+		test.addStatement(new StringPrimitiveStatement(test, "\ud800 unpaired surrogate"));
+		TestChromosome chromosome = new TestChromosome();
+		chromosome.setTestCase(test);
+
+		List<TestChromosome> tests = new ArrayList<>();
+		tests.add(chromosome);
+		TestCase copy = readCompact(writeCompact(tests)).get(0).getTestCase();
+		Assert.assertEquals(test.toCode(), copy.toCode());
+		Assert.assertEquals("\ud800 unpaired surrogate",
+		        ((StringPrimitiveStatement) copy.getStatement(3)).getValue());
+	}
+
+	@Test
+	public void testNotAFileOfTests() {
+		try {
+			readCompact(new byte[] { 1, 2, 3, 4, 5 });
+			Assert.fail();
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	private static List<TestChromosome> saveAndLoad(TestChromosome test, TestSerializationFormat format)
+	        throws IOException {
+		TestSerializationFormat defaultFormat = Properties.TEST_SERIALIZATION_FORMAT;
+		File file = File.createTempFile("evosuite_serialization", ".ser");
+		try {
+			Properties.TEST_SERIALIZATION_FORMAT = format;
+			TestSuiteChromosome suite = new TestSuiteChromosome();
+			suite.addTest(test);
+			Assert.assertTrue(TestSuiteSerialization.saveTests(suite, file));
+			return TestSuiteSerialization.loadTests(file);
+		} finally {
+			Properties.TEST_SERIALIZATION_FORMAT = defaultFormat;
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testAssertionsSurviveRoundTrip() throws Exception {
+		TestChromosome test = createTest(1);
+		PrimitiveAssertion assertion = new PrimitiveAssertion();
+		VariableReference value = test.getTestCase().getStatement(2).getReturnValue();
+		assertion.setSource(value);
+		assertion.setValue(-249);
+		test.getTestCase().getStatement(2).addAssertion(assertion);
+		String code = test.getTestCase().toCode();
+		Assert.assertTrue(code.contains("assertEquals"));
+
+		for (TestSerializationFormat format : TestSerializationFormat.values()) {
+			List<TestChromosome> copies = saveAndLoad(test, format);
+			Assert.assertEquals(1, copies.size());
+			Assert.assertTrue(copies.get(0).getTestCase().hasAssertions());
+			Assert.assertEquals(format.toString(), code, copies.get(0).getTestCase().toCode());
+		}
+	}
+
+	@Test
+	public void testSmallerThanJavaSerialization() throws Exception {
+		List<TestChromosome> tests = createTests();
+		byte[] compact = writeCompact(tests);
+		List<TestChromosome> compactTests = readCompact(compact);
+		Assert.assertEquals(tests.size(), compactTests.size());
+		Assert.assertEquals(tests.get(NUMBER_OF_TESTS - 1).getTestCase().toCode(),
+		        compactTests.get(NUMBER_OF_TESTS - 1).getTestCase().toCode());
+		Assert.assertTrue(compact.length < writeJava(tests).length);
+	}
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.evosuite.testsuite.TestSuiteAggregate.Combination;
+import org.evosuite.testsuite.TestSuiteAggregate.Contribution;
+import org.junit.Test;
+
+public class TestSuiteAggregateTest {
+
+	private static final int MIN = 0;
+
+	private static final int SUM = 1;
+
+	private static TestSuiteAggregate empty() {
+		return new TestSuiteAggregate(Combination.MIN, Combination.SUM);
+	}
+
+	private static Contribution contribution(TestSuiteAggregate aggregate, int key, double distance) {
+		Contribution contribution = aggregate.newContribution();
+		contribution.min(MIN, key, distance);
+		contribution.add(SUM, key, 1);
+		return contribution;
+	}
+
+	@Test
+	public void testRemovingMinimumRecomputesKey() {
+		TestSuiteAggregate empty = empty();
+		Contribution a = contribution(empty, 1, 0.5);
+		Contribution b = contribution(empty, 1, 0.2);
+		Contribution c = contribution(empty, 2, 0.7);
+
+		TestSuiteAggregate first = empty.update(Arrays.asList(a, b, c));
+		assertEquals(0.2, first.getValue(MIN, 1), 0.0);
+		assertEquals(2.0, first.getValue(SUM, 1), 0.0);
+
+		TestSuiteAggregate second = first.update(Arrays.asList(a, c));
+		assertEquals(0.5, second.getValue(MIN, 1), 0.0);
+		assertEquals(1.0, second.getValue(SUM, 1), 0.0);
+
+		TestSuiteAggregate third = second.update(Arrays.asList(c));
+		assertNull(third.getValue(MIN, 1));
+		assertNull(third.getValue(SUM, 1));
+		assertEquals(0.7, third.getValue(MIN, 2), 0.0);
+
+		// aggregates are not modified by updates
+		assertEquals(0.2, first.getValue(MIN, 1), 0.0);
+	}
+
+	@Test
+	public void testTiesAndDuplicates() {
+		TestSuiteAggregate empty = empty();
+		Contribution a = contribution(empty, 1, 0.3);
+		Contribution b = contribution(empty, 1, 0.3);
+
+		TestSuiteAggregate both = empty.update(Arrays.asList(a, b, a));
+		assertEquals(3.0, both.getValue(SUM, 1), 0.0);
+
+		TestSuiteAggregate withoutA = both.update(Arrays.asList(b));
+		assertEquals(0.3, withoutA.getValue(MIN, 1), 0.0);
+		assertEquals(1.0, withoutA.getValue(SUM, 1), 0.0);
+
+		assertSame(withoutA, withoutA.update(Arrays.asList(b)));
+	}
+
+	@Test
+	public void testIncrementalUpdatesMatchFullAggregation() {
+		Random random = new Random(42);
+		TestSuiteAggregate empty = empty();
+		List<Contribution> pool = new ArrayList<Contribution>();
+		for (int i = 0; i < 30; i++) {
+			Contribution contribution = empty.newContribution();
+			for (int key = 0; key < 10; key++) {
+				if (random.nextBoolean()) {
+					contribution.min(MIN, key, random.nextInt(4) / 4.0);
+					contribution.add(SUM, key, 1 + random.nextInt(3));
+				}
+			}
+			pool.add(contribution);
+		}
+
+		TestSuiteAggregate aggregate = empty;
+		for (int round = 0; round < 200; round++) {
+			List<Contribution> suite = new ArrayList<Contribution>();
+			int size = random.nextInt(10);
+			for (int i = 0; i < size; i++) {
+				suite.add(pool.get(random.nextInt(pool.size())));
+			}
+			aggregate = aggregate.update(suite);
+			TestSuiteAggregate expected = empty.update(suite);
+			assertEquals(expected.getValues(MIN), aggregate.getValues(MIN));
+			assertEquals(expected.getValues(SUM), aggregate.getValues(SUM));
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PersistentCacheUtilsTest {
+
+	private File directory;
+
+	@Before
+	public void createDirectory() throws IOException {
+		directory = Files.createTempDirectory("cache").toFile();
+	}
+
+	@After
+	public void deleteDirectory() throws IOException {
+		FileUtils.deleteDirectory(directory);
+	}
+
+	private File createEntry(String name, int size, long lastModified) throws IOException {
+		File file = new File(directory, name);
+		Files.write(file.toPath(), new byte[size]);
+		Assert.assertTrue(file.setLastModified(lastModified));
+		return file;
+	}
+
+	@Test
+	public void testEvictLeastRecentlyUsed() throws IOException {
+		long now = System.currentTimeMillis();
+		File oldest = createEntry("a.bin", 100, now - 30000);
+		File used = createEntry("b.bin", 100, now - 20000);
+		File newest = createEntry("c.bin", 100, now - 10000);
+		File other = createEntry("d.tmp", 1000, now - 40000);
+
+		Assert.assertEquals(0, PersistentCacheUtils.evictLeastRecentlyUsed(directory, 300));
+
+		PersistentCacheUtils.touch(used);
+		Assert.assertEquals(2, PersistentCacheUtils.evictLeastRecentlyUsed(directory, 150));
+		Assert.assertFalse(oldest.exists());
+		Assert.assertFalse(newest.exists());
+		Assert.assertTrue(used.exists());
+		Assert.assertTrue(other.exists());
+	}
+
+	@Test
+	public void testClassPathChecksum() throws Exception {
+		File jar = createEntry("lib.jar", 10, System.currentTimeMillis());
+		String before = checksum(jar);
+		Assert.assertEquals(before, checksum(jar));
+
+		Files.write(jar.toPath(), new byte[] { 1, 2, 3 });
+		Assert.assertFalse(before.equals(checksum(jar)));
+	}
+
+	private static String checksum(File classPathEntry) throws Exception {
+		MessageDigest digest = MessageDigest.getInstance("SHA-1");
+		PersistentCacheUtils.updateWithClassPath(digest, Arrays.asList(classPathEntry.getAbsolutePath()));
+		return PersistentCacheUtils.toHex(digest.digest());
+	}
+}
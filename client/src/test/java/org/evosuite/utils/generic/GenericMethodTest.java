@@ -22,6 +22,7 @@ package org.evosuite.utils.generic;
 
 import org.junit.Assert;
 import org.junit.Test;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
@@ -134,4 +135,60 @@ public class GenericMethodTest {
         Class<?> upper = (Class<?>) wt.getUpperBounds()[0];
         Assert.assertEquals(Object.class,upper);
     }
-}
\ No newline at end of file
+
+    public static class E {
+        private final int value;
+        public E(int value){ this.value = value;}
+        public static long add(long x, int y){ return x + y;}
+        public int get(){ return value;}
+        public void fail(){ throw new IllegalStateException();}
+        public int count(String... values){ return values.length;}
+    }
+
+    @Test
+    public void testInvokeStaticWithWidening() throws Exception {
+        GenericMethod gm = new GenericMethod(E.class.getMethod("add", long.class, int.class), E.class);
+        Assert.assertEquals(7L, gm.invoke(null, new Object[]{3, 4}));
+    }
+
+    @Test
+    public void testInvokeInstance() throws Exception {
+        GenericMethod gm = new GenericMethod(E.class.getMethod("get"), E.class);
+        Assert.assertEquals(42, gm.invoke(new E(42), new Object[0]));
+    }
+
+    @Test
+    public void testInvokeVarargs() throws Exception {
+        GenericMethod gm = new GenericMethod(E.class.getMethod("count", String[].class), E.class);
+        Assert.assertEquals(2, gm.invoke(new E(0), new Object[]{new String[]{"a", "b"}}));
+    }
+
+    @Test
+    public void testInvokeWrapsExceptions() throws Exception {
+        GenericMethod gm = new GenericMethod(E.class.getMethod("fail"), E.class);
+        try {
+            gm.invoke(new E(0), new Object[0]);
+            Assert.fail();
+        } catch (InvocationTargetException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testInvokeWrongReceiver() throws Exception {
+        GenericMethod gm = new GenericMethod(E.class.getMethod("get"), E.class);
+        try {
+            gm.invoke("foo", new Object[0]);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            //expected, as with reflection
+        }
+    }
+
+    @Test
+    public void testNewInstance() throws Exception {
+        GenericConstructor gc = new GenericConstructor(E.class.getConstructor(int.class), E.class);
+        Object e = gc.newInstance(new Object[]{5});
+        Assert.assertEquals(5, ((E) e).get());
+    }
+}
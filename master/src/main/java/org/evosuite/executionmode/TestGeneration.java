@@ -451,8 +451,31 @@ public class TestGeneration {
 		}
 
 		handler.setBaseDir(EvoSuite.base_dir_path);
-		
-		if (handler.startProcess(newArgs)) {
+
+		/*
+		 * In island mode, several clients search in parallel on the same class,
+		 * each with its own seed. The first client is handled by 'handler',
+		 * and merges the tests of the others at the end of the search
+		 */
+		int numberOfClients = Properties.CLIENT_ON_THREAD ? 1 : Math.max(1, Properties.NUM_PARALLEL_CLIENTS);
+		List<ExternalProcessHandler> parallelHandlers = new ArrayList<>();
+		boolean started;
+		if (numberOfClients == 1) {
+			started = handler.startProcess(newArgs);
+		} else {
+			LoggingUtils.getEvoLogger().info("* Starting " + numberOfClients + " parallel clients");
+			MasterServices.getInstance().getMasterNode().setNumberOfExpectedClients(numberOfClients);
+			long seed = Properties.RANDOM_SEED != null ? Properties.RANDOM_SEED : System.currentTimeMillis();
+			started = handler.startProcess(getParallelClientCommand(newArgs, 0, seed));
+			for (int index = 1; started && index < numberOfClients; index++) {
+				ExternalProcessHandler parallelHandler = new ExternalProcessHandler();
+				parallelHandler.setBaseDir(EvoSuite.base_dir_path);
+				parallelHandlers.add(parallelHandler);
+				started = parallelHandler.startProcess(getParallelClientCommand(newArgs, index, seed));
+			}
+		}
+
+		if (started) {
 
 			Set<ClientNodeRemote> clients = null;
 			try {
@@ -493,6 +516,10 @@ public class TestGeneration {
 			LoggingUtils.getEvoLogger().info("* Could not connect to client process");
 		}
 
+		for (ExternalProcessHandler parallelHandler : parallelHandlers) {
+			parallelHandler.killProcess();
+		}
+
 		boolean hasFailed = false;
 		
 		if (Properties.NEW_STATISTICS) {
@@ -535,6 +562,37 @@ public class TestGeneration {
 		return results;
 	}
 
+	/**
+	 * The command line of the client with the given index among the clients
+	 * searching in parallel. Each client gets its own seed and, if
+	 * island_algorithms is set, its own algorithm.
+	 * 
+	 * @param command  the command line of a single client, ending with the main class
+	 */
+	private static String[] getParallelClientCommand(String[] command, int index, long seed) {
+		String algorithm = null;
+		if (Properties.ISLAND_ALGORITHMS.length > 0) {
+			algorithm = Properties.ISLAND_ALGORITHMS[index % Properties.ISLAND_ALGORITHMS.length].trim().toUpperCase();
+		}
+
+		List<String> parallelCommand = new ArrayList<>();
+		for (int i = 0; i < command.length - 1; i++) {
+			String arg = command[i];
+			if (arg.startsWith("-Drandom_seed=") || arg.startsWith("-Dclient_index=")
+					|| (algorithm != null && arg.startsWith("-Dalgorithm="))) {
+				continue;
+			}
+			parallelCommand.add(arg);
+		}
+		parallelCommand.add("-Dclient_index=" + index);
+		parallelCommand.add("-Drandom_seed=" + (seed + index));
+		if (algorithm != null) {
+			parallelCommand.add("-Dalgorithm=" + algorithm);
+		}
+		parallelCommand.add(command[command.length - 1]);
+		return parallelCommand.toArray(new String[parallelCommand.size()]);
+	}
+
 	private static void handleClassPath(List<String> cmdLine) {
 		String classPath = ClassPathHandler.getInstance().getEvoSuiteClassPath();
 		String projectCP = ClassPathHandler.getInstance().getTargetProjectClasspath();
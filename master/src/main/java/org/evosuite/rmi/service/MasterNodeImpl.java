@@ -36,6 +36,7 @@ import org.evosuite.ga.Chromosome;
 import org.evosuite.result.TestGenerationResult;
 import org.evosuite.statistics.SearchStatistics;
 import org.evosuite.statistics.RuntimeVariable;
+import org.evosuite.testcase.TestChromosome;
 import org.evosuite.utils.Listener;
 import org.evosuite.utils.LoggingUtils;
 import org.slf4j.Logger;
@@ -50,6 +51,14 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
 	private final Registry registry;
 	private final Set<ClientNodeRemote> clients;
 
+	/**
+	 * The clients by RMI identifier, used to forward tests among clients
+	 * searching in parallel
+	 */
+	private final Map<String, ClientNodeRemote> clientsByIdentifier;
+
+	private volatile int numberOfExpectedClients = 1;
+
 	protected final Collection<Listener<ClientStateInformation>> listeners = Collections.synchronizedList(new ArrayList<Listener<ClientStateInformation>>());
 
 	/**
@@ -64,6 +73,7 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
 
 	public MasterNodeImpl(Registry registry) {
 		clients = new CopyOnWriteArraySet<ClientNodeRemote>();
+		clientsByIdentifier = new ConcurrentHashMap<String, ClientNodeRemote>();
 		clientStates = new ConcurrentHashMap<String, ClientState>();
 		clientStateInformation = new ConcurrentHashMap<String, ClientStateInformation>();
 		this.registry = registry;
@@ -86,6 +96,7 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
 			return;
 		}
 		synchronized (clients) {
+			clientsByIdentifier.put(clientRmiIdentifier, node);
 			clients.add(node);
 			clients.notifyAll();
 		}
@@ -98,7 +109,8 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
 		// To be on the safe side
 		information.setState(state);
 		clientStateInformation.put(clientRmiIdentifier, information);
-		fireEvent(information);
+		if (isReportingClient(clientRmiIdentifier))
+			fireEvent(information);
 	}
 
 	@Override
@@ -130,13 +142,8 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
 
 		long start = System.currentTimeMillis();
 
-		/*
-		 * TODO: this will be a parameter
-		 */
-		int numberOfExpectedClients = 1;
-
 		synchronized (clients) {
-			while (clients.size() != numberOfExpectedClients) {
+			while (clients.size() < numberOfExpectedClients) {
 				long elapsed = System.currentTimeMillis() - start;
 				long timeRemained = timeoutInMs - elapsed;
 				if (timeRemained <= 0) {
@@ -148,6 +155,20 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
 		}
 	}
 
+	@Override
+	public void setNumberOfExpectedClients(int numberOfExpectedClients) {
+		this.numberOfExpectedClients = numberOfExpectedClients;
+	}
+
+	/**
+	 * When several clients search in parallel on the same class, only the
+	 * first one reports statistics and results, after merging the tests of
+	 * the others
+	 */
+	private boolean isReportingClient(String clientRmiIdentifier) {
+		return numberOfExpectedClients == 1 || ClientNodeRemote.RMI_SERVICE_NAME.equals(clientRmiIdentifier);
+	}
+
 	@Override
 	public void cancelAllClients() {
 		for (ClientNodeRemote client : clients) {
@@ -163,12 +184,16 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
 
 	@Override
 	public void evosuite_collectStatistics(String clientRmiIdentifier, Chromosome individual) {
+		if (!isReportingClient(clientRmiIdentifier))
+			return;
 		SearchStatistics.getInstance().currentIndividual(clientRmiIdentifier, individual);
 	}
 
 	@Override
 	public void evosuite_collectStatistics(String clientRmiIdentifier, RuntimeVariable variable, Object value)
 	        throws RemoteException {
+		if (!isReportingClient(clientRmiIdentifier))
+			return;
 		SearchStatistics.getInstance().setOutputVariable(variable, value);
 	}
 
@@ -176,6 +201,8 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
 	public void evosuite_collectTestGenerationResult(
 			String clientRmiIdentifier, List<TestGenerationResult> results)
 			throws RemoteException {
+		if (!isReportingClient(clientRmiIdentifier))
+			return;
 		SearchStatistics.getInstance().addTestGenerationResult(results);
 		
 	}
@@ -183,6 +210,8 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
 	@Override
 	public void evosuite_flushStatisticsForClassChange(String clientRmiIdentifier)
 			throws RemoteException {
+		if (!isReportingClient(clientRmiIdentifier))
+			return;
 		SearchStatistics.getInstance().writeStatisticsForAnalysis();
 	}
 
@@ -192,6 +221,35 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
 		Properties.getInstance().setValue(propertyName, value);
 	}
 
+	@Override
+	public void evosuite_migrate(String clientRmiIdentifier, List<TestChromosome> migrants)
+			throws RemoteException {
+		for (Map.Entry<String, ClientNodeRemote> entry : clientsByIdentifier.entrySet()) {
+			if (entry.getKey().equals(clientRmiIdentifier))
+				continue;
+			try {
+				entry.getValue().immigrate(migrants);
+			} catch (RemoteException e) {
+				// the client might have finished already
+				logger.debug("Could not send migrants to client " + entry.getKey() + ": " + e.getMessage());
+			}
+		}
+	}
+
+	@Override
+	public void evosuite_collectFinalSolutions(String clientRmiIdentifier, List<TestChromosome> solutions)
+			throws RemoteException {
+		ClientNodeRemote first = clientsByIdentifier.get(ClientNodeRemote.RMI_SERVICE_NAME);
+		if (first == null || clientRmiIdentifier.equals(ClientNodeRemote.RMI_SERVICE_NAME)) {
+			return;
+		}
+		try {
+			first.collectFinalSolutions(clientRmiIdentifier, solutions);
+		} catch (RemoteException e) {
+			logger.warn("Could not send final tests of client " + clientRmiIdentifier + ": " + e.getMessage());
+		}
+	}
+
 	@Override
 	public void addListener(Listener<ClientStateInformation> listener) {
 		listeners.add(listener);
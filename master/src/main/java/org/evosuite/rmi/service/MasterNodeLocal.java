@@ -38,6 +38,11 @@ public interface MasterNodeLocal extends Listenable<ClientStateInformation>{
 	public Collection<ClientStateInformation> getCurrentStateInformation();
 
 	public Set<ClientNodeRemote> getClientsOnceAllConnected(long timeoutInMs) throws InterruptedException;
+
+	/**
+	 * Number of clients {@link #getClientsOnceAllConnected(long)} waits for, 1 by default
+	 */
+	public void setNumberOfExpectedClients(int numberOfExpectedClients);
 	
 	public void cancelAllClients();
 }
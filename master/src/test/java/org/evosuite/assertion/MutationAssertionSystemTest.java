@@ -27,16 +27,23 @@ import org.evosuite.EvoSuite;
 import org.evosuite.Properties;
 import org.evosuite.SystemTestBase;
 import org.evosuite.coverage.TestCoverageGoal;
+import org.evosuite.coverage.mutation.MutationPool;
 import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
+import org.evosuite.statistics.OutputVariable;
+import org.evosuite.statistics.RuntimeVariable;
+import org.evosuite.statistics.backend.DebugStatisticsBackend;
 import org.evosuite.strategy.TestGenerationStrategy;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestFitnessFunction;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 
 import org.junit.Ignore;
 
+import java.util.Map;
+
 /**
  * @author fraser
  * 
@@ -110,6 +117,150 @@ public class MutationAssertionSystemTest extends SystemTestBase {
 		}
 	}
 
+	private int countAssertions(TestSuiteChromosome suite) {
+		int assertions = 0;
+		for (TestCase test : suite.getTests()) {
+			assertions += test.getAssertions().size();
+		}
+		return assertions;
+	}
+
+	private TestSuiteChromosome generateSuiteWithSplitMutantExecution(boolean split) {
+		EvoSuite evosuite = new EvoSuite();
+
+		String targetClass = ExampleObserverClass.class.getCanonicalName();
+
+		String[] command = new String[] {
+				"-generateSuite", "-class", targetClass,
+				"-Djunit_tests=false", "-Dshow_progress=false",
+				"-Drandom_seed=42", "-Dminimize=false",
+				"-Dassertions=true", "-Dassertion_strategy=mutation",
+				"-Dsplit_mutant_execution=" + split };
+
+		Object result = evosuite.parseCommandLine(command);
+
+		GeneticAlgorithm<?> ga = getGAFromResult(result);
+		return (TestSuiteChromosome) ga.getBestIndividual();
+	}
+
+	/**
+	 * Assertions are generated both with and without only observing the part
+	 * of the mutant executions that can differ
+	 */
+	@Test
+	public void testSplitMutantExecution() {
+		TestSuiteChromosome fullSuite = generateSuiteWithSplitMutantExecution(false);
+		int fullAssertions = countAssertions(fullSuite);
+
+		resetStaticVariables();
+		setDefaultPropertiesForTestCases();
+
+		TestSuiteChromosome splitSuite = generateSuiteWithSplitMutantExecution(true);
+		int splitAssertions = countAssertions(splitSuite);
+
+		Assert.assertTrue(fullAssertions > 0);
+		Assert.assertTrue(splitAssertions > 0);
+	}
+
+	/**
+	 * Compares the wall-clock time of generating a suite with and without only
+	 * observing the part of the mutant executions that can differ. Only runs
+	 * with -Devosuite.benchmarks=true.
+	 */
+	@Test
+	public void testSplitMutantExecutionTime() {
+		Assume.assumeTrue(Boolean.getBoolean("evosuite.benchmarks"));
+
+		long start = System.currentTimeMillis();
+		TestSuiteChromosome fullSuite = generateSuiteWithSplitMutantExecution(false);
+		long fullTime = System.currentTimeMillis() - start;
+		Assert.assertTrue(countAssertions(fullSuite) > 0);
+
+		resetStaticVariables();
+		setDefaultPropertiesForTestCases();
+
+		start = System.currentTimeMillis();
+		TestSuiteChromosome splitSuite = generateSuiteWithSplitMutantExecution(true);
+		long splitTime = System.currentTimeMillis() - start;
+		Assert.assertTrue(countAssertions(splitSuite) > 0);
+
+		Assert.assertTrue("Split mutant executions took " + splitTime + "ms, full mutant executions took "
+				+ fullTime + "ms", splitTime <= fullTime);
+	}
+
+	private TestSuiteChromosome generateSuiteWithBatchMutantExecution(boolean batch) {
+		EvoSuite evosuite = new EvoSuite();
+
+		String targetClass = ExampleObserverClass.class.getCanonicalName();
+		Properties.OUTPUT_VARIABLES = RuntimeVariable.MutationScore + "," + RuntimeVariable.Mutant_Executions;
+
+		String[] command = new String[] {
+				"-generateSuite", "-class", targetClass,
+				"-Djunit_tests=false", "-Dshow_progress=false",
+				"-Drandom_seed=42", "-Dminimize=false",
+				"-Dassertions=true", "-Dassertion_strategy=mutation",
+				"-Dbatch_mutant_execution=" + batch };
+
+		Object result = evosuite.parseCommandLine(command);
+
+		GeneticAlgorithm<?> ga = getGAFromResult(result);
+		return (TestSuiteChromosome) ga.getBestIndividual();
+	}
+
+	private double getOutputValue(RuntimeVariable variable) {
+		Map<String, OutputVariable<?>> map = DebugStatisticsBackend.getLatestWritten();
+		Assert.assertNotNull(map);
+		OutputVariable<?> output = map.get(variable.toString());
+		Assert.assertNotNull(output);
+		return ((Number) output.getValue()).doubleValue();
+	}
+
+	/**
+	 * Skipping the mutants a test did not infect must not need more mutant
+	 * executions
+	 */
+	@Test
+	public void testBatchMutantExecution() {
+		TestSuiteChromosome fullSuite = generateSuiteWithBatchMutantExecution(false);
+		double fullExecutions = getOutputValue(RuntimeVariable.Mutant_Executions);
+		Assert.assertTrue(countAssertions(fullSuite) > 0);
+
+		resetStaticVariables();
+		setDefaultPropertiesForTestCases();
+
+		TestSuiteChromosome batchSuite = generateSuiteWithBatchMutantExecution(true);
+		double batchExecutions = getOutputValue(RuntimeVariable.Mutant_Executions);
+
+		Assert.assertTrue(countAssertions(batchSuite) > 0);
+		Assert.assertTrue(batchExecutions <= fullExecutions);
+	}
+
+	/**
+	 * Compares the number of mutant executions needed per killed mutant with
+	 * and without skipping the mutants a test did not infect. Only runs with
+	 * -Devosuite.benchmarks=true.
+	 */
+	@Test
+	public void testBatchMutantExecutionsPerKilledMutant() {
+		Assume.assumeTrue(Boolean.getBoolean("evosuite.benchmarks"));
+
+		generateSuiteWithBatchMutantExecution(false);
+		double fullExecutions = getOutputValue(RuntimeVariable.Mutant_Executions);
+		double fullKilled = getOutputValue(RuntimeVariable.MutationScore) * MutationPool.getMutantCounter();
+
+		resetStaticVariables();
+		setDefaultPropertiesForTestCases();
+
+		generateSuiteWithBatchMutantExecution(true);
+		double batchExecutions = getOutputValue(RuntimeVariable.Mutant_Executions);
+		double batchKilled = getOutputValue(RuntimeVariable.MutationScore) * MutationPool.getMutantCounter();
+
+		double fullPerKilled = fullExecutions / Math.max(1.0, fullKilled);
+		double batchPerKilled = batchExecutions / Math.max(1.0, batchKilled);
+		Assert.assertTrue("Batched: " + batchPerKilled + " mutant executions per killed mutant, unbatched: "
+				+ fullPerKilled, batchPerKilled <= fullPerKilled);
+	}
+
 	@Test
 	public void testsAssertionsAreGeneratedForWrapperTypes() {
 
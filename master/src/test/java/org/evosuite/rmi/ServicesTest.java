@@ -20,10 +20,15 @@
 package org.evosuite.rmi;
 
 
+import java.util.Collections;
+import java.util.List;
+
 import org.evosuite.Properties;
 import org.evosuite.rmi.service.ClientNodeLocal;
 import org.evosuite.rmi.service.ClientState;
 import org.evosuite.rmi.service.MasterNodeLocal;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestChromosome;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -32,15 +37,23 @@ import org.junit.Test;
 public class ServicesTest {
 
 	private int currentPort;
+
+	private int numParallelClients;
+
+	private int clientIndex;
 	
 	@Before
 	public void init(){
 		currentPort = Properties.PROCESS_COMMUNICATION_PORT;
+		numParallelClients = Properties.NUM_PARALLEL_CLIENTS;
+		clientIndex = Properties.CLIENT_INDEX;
 	}
 	
 	@After
 	public void tearDown(){
 		Properties.PROCESS_COMMUNICATION_PORT = currentPort;
+		Properties.NUM_PARALLEL_CLIENTS = numParallelClients;
+		Properties.CLIENT_INDEX = clientIndex;
 	}
 	
 	@Test
@@ -64,4 +77,46 @@ public class ServicesTest {
 		Assert.assertTrue("summary="+summary,summary.contains(ClientState.STARTED.toString()));
 	}
 	
+
+	@Test
+	public void testMigrationBetweenParallelClients() throws Exception{
+		MasterServices master = new MasterServices();
+		master.startRegistry();
+		master.registerServices();
+		master.getMasterNode().setNumberOfExpectedClients(2);
+
+		Properties.PROCESS_COMMUNICATION_PORT = master.getRegistryPort();
+		Properties.NUM_PARALLEL_CLIENTS = 2;
+
+		Properties.CLIENT_INDEX = 0;
+		ClientServices first = new ClientServices();
+		Assert.assertTrue(first.registerServices());
+
+		Properties.CLIENT_INDEX = 1;
+		ClientServices second = new ClientServices();
+		Assert.assertTrue(second.registerServices());
+
+		Assert.assertEquals(2, master.getMasterNode().getClientsOnceAllConnected(10000).size());
+
+		TestChromosome test = new TestChromosome();
+		test.setTestCase(new DefaultTestCase());
+		List<TestChromosome> tests = Collections.singletonList(test);
+
+		// migrants are sent asynchronously
+		second.getClientNode().emigrate(tests);
+		List<TestChromosome> immigrants = first.getClientNode().pollImmigrants();
+		long end = System.currentTimeMillis() + 10000;
+		while (immigrants.isEmpty() && System.currentTimeMillis() < end) {
+			Thread.sleep(50);
+			immigrants = first.getClientNode().pollImmigrants();
+		}
+		Assert.assertEquals(1, immigrants.size());
+		Assert.assertTrue(second.getClientNode().pollImmigrants().isEmpty());
+
+		// final tests only go to the first client
+		second.getClientNode().sendFinalSolutions(tests);
+		Assert.assertEquals(1, first.getClientNode().waitForFinalSolutions(1, 10000).size());
+		first.getClientNode().sendFinalSolutions(tests);
+		Assert.assertTrue(second.getClientNode().waitForFinalSolutions(1, 100).isEmpty());
+	}
 }
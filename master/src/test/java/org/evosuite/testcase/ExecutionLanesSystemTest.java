@@ -0,0 +1,263 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.evosuite.EvoSuite;
+import org.evosuite.Properties;
+import org.evosuite.Properties.StoppingCondition;
+import org.evosuite.SystemTestBase;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.coverage.io.output.OutputCoverageSuiteFitness;
+import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
+import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
+import org.evosuite.instrumentation.InstrumentingClassLoader;
+import org.evosuite.setup.DependencyAnalysis;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.execution.ExecutionLanes;
+import org.evosuite.testcase.execution.ExecutionObserver;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.Scope;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.Calculator;
+
+/**
+ * Executing tests on several lanes has to give the same results as executing
+ * them one after the other
+ */
+public class ExecutionLanesSystemTest extends SystemTestBase {
+
+	@After
+	public void stopLanes() {
+		ExecutionLanes.pullDown();
+	}
+
+	private List<DefaultTestCase> createTests() throws Exception {
+		Properties.TARGET_CLASS = Calculator.class.getCanonicalName();
+		InstrumentingClassLoader classLoader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+		Class<?> sut = classLoader.loadClass(Properties.TARGET_CLASS);
+		List<String> classpath = new ArrayList<>();
+		String cp = System.getProperty("user.dir") + "/target/test-classes";
+		classpath.add(cp);
+		ClassPathHandler.getInstance().addElementToTargetProjectClassPath(cp);
+		DependencyAnalysis.analyzeClass(Properties.TARGET_CLASS, classpath);
+
+		List<DefaultTestCase> tests = new ArrayList<>();
+		String[] methods = { "mul", "div", "add", "sub" };
+		for (int x = -2; x <= 2; x++) {
+			for (int y = -1; y <= 1; y++) {
+				TestCaseBuilder builder = new TestCaseBuilder();
+				VariableReference int0 = builder.appendIntPrimitive(x);
+				VariableReference int1 = builder.appendIntPrimitive(y);
+				// div by zero ends the test at different positions
+				for (int i = 0; i <= (x + 2) % methods.length; i++) {
+					Method method = sut.getMethod(methods[(x + y + 2 + i) % methods.length], int.class, int.class);
+					builder.appendMethod(null, method, int0, int1);
+				}
+				tests.add(builder.getDefaultTestCase());
+			}
+		}
+		return tests;
+	}
+
+	private static void assertSameExecution(ExecutionResult expected, ExecutionResult actual) {
+		Assert.assertEquals(expected.getExecutedStatements(), actual.getExecutedStatements());
+		Assert.assertEquals(expected.getPositionsWhereExceptionsWereThrown(),
+				actual.getPositionsWhereExceptionsWereThrown());
+		Assert.assertEquals(expected.getTrace().getCoveredLines(), actual.getTrace().getCoveredLines());
+		Assert.assertEquals(expected.getTrace().getCoveredMethods(), actual.getTrace().getCoveredMethods());
+		Assert.assertEquals(expected.getTrace().getPredicateExecutionCount(),
+				actual.getTrace().getPredicateExecutionCount());
+		Assert.assertEquals(expected.getTrace().getTrueDistances(), actual.getTrace().getTrueDistances());
+		Assert.assertEquals(expected.getTrace().getFalseDistances(), actual.getTrace().getFalseDistances());
+	}
+
+	private void checkLanes(int lanes) throws Exception {
+		List<DefaultTestCase> tests = createTests();
+
+		List<ExecutionResult> serialResults = new ArrayList<>();
+		for (DefaultTestCase test : tests) {
+			serialResults.add(TestCaseExecutor.runTest(test));
+		}
+
+		Properties.EXECUTION_LANES = lanes;
+		List<TestChromosome> chromosomes = new ArrayList<>();
+		for (DefaultTestCase test : tests) {
+			TestChromosome chromosome = new TestChromosome();
+			chromosome.setTestCase(test.clone());
+			chromosomes.add(chromosome);
+		}
+		ExecutionLanes.getInstance().execute(chromosomes);
+
+		for (int i = 0; i < tests.size(); i++) {
+			TestChromosome chromosome = chromosomes.get(i);
+			Assert.assertFalse(chromosome.isChanged());
+			assertSameExecution(serialResults.get(i), chromosome.getLastExecutionResult());
+		}
+	}
+
+	@Test
+	public void testTwoLanes() throws Exception {
+		checkLanes(2);
+	}
+
+	@Test
+	public void testFourLanes() throws Exception {
+		checkLanes(4);
+	}
+
+	@Test
+	public void testMoreLanesThanTests() throws Exception {
+		checkLanes(32);
+	}
+
+	private static TestSuiteChromosome createSuite(List<DefaultTestCase> tests) {
+		TestSuiteChromosome suite = new TestSuiteChromosome();
+		for (DefaultTestCase test : tests) {
+			suite.addTest(test.clone());
+		}
+		return suite;
+	}
+
+	@Test
+	public void testOutputCoverageMatches() throws Exception {
+		List<DefaultTestCase> tests = createTests();
+		Properties.CRITERION = new Properties.Criterion[] { Properties.Criterion.OUTPUT };
+		Properties.TEST_ARCHIVE = false;
+		// registers an observer on the test executor
+		OutputCoverageSuiteFitness fitness = new OutputCoverageSuiteFitness();
+
+		TestSuiteChromosome serialSuite = createSuite(tests);
+		double serialFitness = fitness.getFitness(serialSuite);
+
+		Properties.EXECUTION_LANES = 4;
+		TestSuiteChromosome laneSuite = createSuite(tests);
+		ExecutionLanes.preExecute(Collections.singletonList(laneSuite), Collections.singletonList(fitness));
+		for (TestChromosome test : laneSuite.getTestChromosomes()) {
+			Assert.assertFalse(test.isChanged());
+		}
+		double laneFitness = fitness.getFitness(laneSuite);
+
+		Assert.assertTrue(serialSuite.getNumOfCoveredGoals(fitness) > 0);
+		Assert.assertEquals(serialSuite.getNumOfCoveredGoals(fitness), laneSuite.getNumOfCoveredGoals(fitness));
+		Assert.assertEquals(serialFitness, laneFitness, 0.0);
+	}
+
+	@Test
+	public void testObserverThatCannotBeCopied() throws Exception {
+		List<DefaultTestCase> tests = createTests();
+		TestCaseExecutor.getInstance().addObserver(new ExecutionObserver() {
+			@Override
+			public void output(int position, String output) {
+			}
+
+			@Override
+			public void beforeStatement(Statement statement, Scope scope) {
+			}
+
+			@Override
+			public void afterStatement(Statement statement, Scope scope, Throwable exception) {
+			}
+
+			@Override
+			public void testExecutionFinished(ExecutionResult r, Scope s) {
+			}
+
+			@Override
+			public void clear() {
+			}
+		});
+
+		Properties.EXECUTION_LANES = 4;
+		TestSuiteChromosome suite = createSuite(tests);
+		ExecutionLanes.getInstance().execute(suite.getTestChromosomes());
+
+		// left to be executed one after the other
+		for (TestChromosome test : suite.getTestChromosomes()) {
+			Assert.assertNull(test.getLastExecutionResult());
+		}
+	}
+
+	/**
+	 * @return executed tests per second of a search with the given number of
+	 *         lanes
+	 */
+	private double runWithLanes(int lanes, int budget) {
+		Properties.EXECUTION_LANES = lanes;
+		Properties.STOPPING_CONDITION = StoppingCondition.MAXTIME;
+		Properties.SEARCH_BUDGET = budget;
+		Properties.MINIMIZE = false;
+		Properties.ASSERTIONS = false;
+
+		EvoSuite evosuite = new EvoSuite();
+		String targetClass = Calculator.class.getCanonicalName();
+		Properties.TARGET_CLASS = targetClass;
+		String[] command = new String[] { "-generateSuite", "-class", targetClass };
+
+		Object result = evosuite.parseCommandLine(command);
+		long executed = MaxTestsStoppingCondition.getNumExecutedTests();
+
+		GeneticAlgorithm<?> ga = getGAFromResult(result);
+		TestSuiteChromosome best = (TestSuiteChromosome) ga.getBestIndividual();
+		Assert.assertEquals("Non-optimal coverage with " + lanes + " lanes: ", 1d, best.getCoverage(), 0.001);
+		Assert.assertTrue(executed > 0);
+
+		ExecutionLanes.pullDown();
+		resetStaticVariables();
+		setDefaultPropertiesForTestCases();
+		return (double) executed / budget;
+	}
+
+	/**
+	 * Runs the same search with 1, 2, 4 and 8 execution lanes. Up to the
+	 * number of available processors, more lanes must not execute fewer
+	 * tests per second than one lane. Only runs with
+	 * -Devosuite.benchmarks=true.
+	 */
+	@Test
+	public void testThroughput() {
+		Assume.assumeTrue(Boolean.getBoolean("evosuite.benchmarks"));
+		final int budget = 10;
+
+		double single = runWithLanes(1, budget);
+		StringBuilder throughputs = new StringBuilder("tests/sec with 1 lane: " + single);
+		boolean faster = true;
+		for (int lanes = 2; lanes <= 8; lanes *= 2) {
+			double throughput = runWithLanes(lanes, budget);
+			throughputs.append(", " + lanes + " lanes: " + throughput);
+			if (lanes <= Runtime.getRuntime().availableProcessors() && throughput < single)
+				faster = false;
+		}
+		Assert.assertTrue(throughputs.toString(), faster);
+	}
+}
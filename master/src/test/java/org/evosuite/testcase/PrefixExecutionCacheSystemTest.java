@@ -0,0 +1,162 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase;
+
+import java.lang.reflect.Method;
+
+import org.evosuite.EvoSuite;
+import org.evosuite.Properties;
+import org.evosuite.SystemTestBase;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.coverage.io.output.OutputObserver;
+import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
+import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
+import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.execution.ExecutionObserver;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.PrefixExecutionCache;
+import org.evosuite.testcase.execution.Scope;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.Calculator;
+import com.examples.with.different.packagename.ImplicitExplicitException;
+
+public class PrefixExecutionCacheSystemTest extends SystemTestBase {
+
+	@Test
+	public void testCachedPrefixes() {
+		Properties.PREFIX_EXECUTION_CACHE = true;
+
+		EvoSuite evosuite = new EvoSuite();
+		String targetClass = ImplicitExplicitException.class.getCanonicalName();
+		Properties.TARGET_CLASS = targetClass;
+		String[] command = new String[] { "-generateSuite", "-class", targetClass };
+
+		Object result = evosuite.parseCommandLine(command);
+		GeneticAlgorithm<?> ga = getGAFromResult(result);
+		TestSuiteChromosome best = (TestSuiteChromosome) ga.getBestIndividual();
+		Assert.assertEquals("Non-optimal coverage: ", 1d, best.getCoverage(), 0.001);
+
+		// Every call of directExplicitDeclared ends the execution, whatever follows
+		Assert.assertTrue(PrefixExecutionCache.getInstance().getHitRate() > 0);
+		Assert.assertTrue(PrefixExecutionCache.getInstance().getSavedStatements() > 0);
+	}
+
+	private static DefaultTestCase createDivisionByZero(Class<?> sut, String lastMethod) throws Exception {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference int0 = builder.appendIntPrimitive(1);
+		VariableReference int1 = builder.appendIntPrimitive(0);
+		// a return value for the output observer
+		builder.appendMethod(null, sut.getMethod("add", int.class, int.class), int0, int1);
+		builder.appendMethod(null, sut.getMethod("div", int.class, int.class), int0, int1);
+		builder.appendMethod(null, sut.getMethod(lastMethod, int.class, int.class), int0, int1);
+		return builder.getDefaultTestCase();
+	}
+
+	@Test
+	public void testHitsCountAsExecutions() throws Exception {
+		Properties.PREFIX_EXECUTION_CACHE = true;
+		Properties.RESET_STATIC_FIELDS = true;
+		Properties.REPLACE_CALLS = true;
+		Properties.VIRTUAL_FS = true;
+		Properties.TARGET_CLASS = Calculator.class.getCanonicalName();
+		Class<?> sut = TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(Properties.TARGET_CLASS);
+		PrefixExecutionCache.getInstance().clear();
+
+		ExecutionResult first = TestCaseExecutor.runTest(createDivisionByZero(sut, "add"));
+		int executed = first.getExecutedStatements();
+		Assert.assertTrue(executed < 5);
+
+		long savedStatements = PrefixExecutionCache.getInstance().getSavedStatements();
+		long tests = MaxTestsStoppingCondition.getNumExecutedTests();
+		int testsExecuted = TestCaseExecutor.testsExecuted;
+		long statements = MaxStatementsStoppingCondition.getNumExecutedStatements();
+
+		// Only differs after the exception
+		ExecutionResult second = TestCaseExecutor.runTest(createDivisionByZero(sut, "mul"));
+		Assert.assertEquals(savedStatements + executed, PrefixExecutionCache.getInstance().getSavedStatements());
+		Assert.assertEquals(executed, second.getExecutedStatements());
+
+		Assert.assertEquals(tests + 1, MaxTestsStoppingCondition.getNumExecutedTests());
+		Assert.assertEquals(testsExecuted + 1, TestCaseExecutor.testsExecuted);
+		Assert.assertEquals(statements + executed, MaxStatementsStoppingCondition.getNumExecutedStatements());
+	}
+
+	private Class<?> setUpCache() throws Exception {
+		Properties.PREFIX_EXECUTION_CACHE = true;
+		Properties.RESET_STATIC_FIELDS = true;
+		Properties.REPLACE_CALLS = true;
+		Properties.VIRTUAL_FS = true;
+		Properties.TARGET_CLASS = Calculator.class.getCanonicalName();
+		PrefixExecutionCache.getInstance().clear();
+		return TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(Properties.TARGET_CLASS);
+	}
+
+	@Test
+	public void testOutputGoalsAreReused() throws Exception {
+		Class<?> sut = setUpCache();
+		TestCaseExecutor.getInstance().addObserver(new OutputObserver());
+
+		ExecutionResult first = TestCaseExecutor.runTest(createDivisionByZero(sut, "add"));
+		Assert.assertFalse(first.getOutputGoals().isEmpty());
+
+		long savedStatements = PrefixExecutionCache.getInstance().getSavedStatements();
+		ExecutionResult second = TestCaseExecutor.runTest(createDivisionByZero(sut, "mul"));
+		Assert.assertTrue(PrefixExecutionCache.getInstance().getSavedStatements() > savedStatements);
+		Assert.assertEquals(first.getOutputGoals(), second.getOutputGoals());
+	}
+
+	@Test
+	public void testObserversOutsideOfResultsDisableCache() throws Exception {
+		Class<?> sut = setUpCache();
+		TestCaseExecutor.getInstance().addObserver(new ExecutionObserver() {
+			@Override
+			public void output(int position, String output) {
+			}
+
+			@Override
+			public void beforeStatement(Statement statement, Scope scope) {
+			}
+
+			@Override
+			public void afterStatement(Statement statement, Scope scope, Throwable exception) {
+			}
+
+			@Override
+			public void testExecutionFinished(ExecutionResult r, Scope s) {
+			}
+
+			@Override
+			public void clear() {
+			}
+		});
+
+		TestCaseExecutor.runTest(createDivisionByZero(sut, "add"));
+		long savedStatements = PrefixExecutionCache.getInstance().getSavedStatements();
+		TestCaseExecutor.runTest(createDivisionByZero(sut, "mul"));
+		Assert.assertEquals(savedStatements, PrefixExecutionCache.getInstance().getSavedStatements());
+	}
+}
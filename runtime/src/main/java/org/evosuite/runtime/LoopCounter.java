@@ -37,6 +37,18 @@ public class LoopCounter {
 
     private static final LoopCounter singleton = new LoopCounter();
 
+    /**
+     * Counters bound to the threads of a parallel execution lane, see
+     * {@link #bindNewInstanceToCurrentThread()}. Threads spawned by the SUT inherit
+     * the counter of the thread that created them.
+     */
+    private static final InheritableThreadLocal<LoopCounter> threadInstance = new InheritableThreadLocal<>();
+
+    /**
+     * Avoid the thread local lookup unless some thread has its own counter
+     */
+    private static volatile boolean hasThreadInstances = false;
+
     private boolean activated = true;
     
     /**
@@ -50,9 +62,37 @@ public class LoopCounter {
     }
 
     public static LoopCounter getInstance(){
+        if(hasThreadInstances){
+            LoopCounter bound = threadInstance.get();
+            if(bound != null){
+                return bound;
+            }
+        }
         return singleton;
     }
 
+    /**
+     * Give the current thread (and all threads it will create) its own loop counters,
+     * so that tests executed concurrently on different threads do not count each
+     * others' iterations
+     *
+     * @return the counter bound to the current thread
+     */
+    public static LoopCounter bindNewInstanceToCurrentThread(){
+        LoopCounter counter = new LoopCounter();
+        counter.activated = singleton.activated;
+        threadInstance.set(counter);
+        hasThreadInstances = true;
+        return counter;
+    }
+
+    /**
+     * Make the current thread use the shared loop counters again
+     */
+    public static void unbindCurrentThread(){
+        threadInstance.remove();
+    }
+
     public void reset(){
         counters.clear();
     }
@@ -71,12 +111,27 @@ public class LoopCounter {
      *
      * @return the next valid index for a new loop
      */
-    public int getNewIndex(){
+    public synchronized int getNewIndex(){
+        if(this != singleton){
+            // indices are assigned at instrumentation time, and have to be unique for all threads
+            return singleton.getNewIndex();
+        }
         int index = counters.size();
         counters.add(0l);
         return index;
     }
 
+    /**
+     * @return the index {@link #getNewIndex()} would return next, without
+     *         assigning it
+     */
+    public synchronized int peekNewIndex(){
+        if(this != singleton){
+            return singleton.peekNewIndex();
+        }
+        return counters.size();
+    }
+
 
     /**
      * This is added directly in the instrumented CUT after each loop statement
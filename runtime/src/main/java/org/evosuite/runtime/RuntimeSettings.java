@@ -75,6 +75,12 @@ public class RuntimeSettings {
      */
     public static boolean resetStaticState = false;
 
+    /**
+     * Should classes be reset by restoring a snapshot of their static state
+     * taken after the first reset, rather than executing __STATIC_RESET again?
+     */
+    public static boolean snapshotStaticState = false;
+
 
     /**
      * How is the sandbox configured?
@@ -0,0 +1,217 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.classhandling;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.InvokeDynamicInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+
+/**
+ * Conservative check whether the class initializer of a class only changes
+ * the static fields of that class. Only then a {@link StaticStateSnapshot}
+ * of these fields is equivalent to running the initializer again.
+ *
+ * <p>
+ * The original bytecode of <code>&lt;clinit&gt;</code> and of all methods of
+ * the class it calls is inspected. The initializer is rejected if it
+ * <ul>
+ * <li>writes static fields of other classes, or instance fields outside of
+ * the constructors of the class,</li>
+ * <li>reads static fields of other classes that do not hold immutable values,
+ * or final static fields of the class that hold mutable objects, which are
+ * not part of the snapshot,</li>
+ * <li>calls methods of other classes that are not known to be free of side
+ * effects on existing objects.</li>
+ * </ul>
+ * Arrays can then only be obtained from the fields of the class or be newly
+ * created, so writing to them is allowed.
+ */
+final class ClassInitializerAnalyzer {
+
+	/**
+	 * Classes whose methods neither have side effects beyond the receiver and
+	 * the arguments, nor return objects other code can reach
+	 */
+	private static final Set<String> PURE_CLASSES = new HashSet<>(Arrays.asList(
+			"java/lang/String", "java/lang/StringBuilder", "java/lang/Integer", "java/lang/Long",
+			"java/lang/Short", "java/lang/Byte", "java/lang/Character", "java/lang/Boolean",
+			"java/lang/Double", "java/lang/Float", "java/lang/Math", "java/lang/StrictMath",
+			"java/lang/Enum", "java/math/BigInteger", "java/math/BigDecimal", "java/util/Arrays"));
+
+	/**
+	 * Classes whose constructors only initialize the new object
+	 */
+	private static final Set<String> PURE_CONSTRUCTORS = new HashSet<>(Arrays.asList(
+			"java/lang/Object", "java/util/ArrayList", "java/util/LinkedList", "java/util/HashMap",
+			"java/util/LinkedHashMap", "java/util/TreeMap", "java/util/HashSet", "java/util/LinkedHashSet",
+			"java/util/TreeSet"));
+
+	/**
+	 * Types of fields of other classes that can be read safely
+	 */
+	private static final Set<String> IMMUTABLE_TYPES = new HashSet<>(Arrays.asList(
+			"Ljava/lang/String;", "Ljava/lang/Integer;", "Ljava/lang/Long;", "Ljava/lang/Short;",
+			"Ljava/lang/Byte;", "Ljava/lang/Character;", "Ljava/lang/Boolean;", "Ljava/lang/Double;",
+			"Ljava/lang/Float;", "Ljava/math/BigInteger;", "Ljava/math/BigDecimal;", "Ljava/lang/Class;"));
+
+	private final ClassNode classNode;
+
+	private final Set<String> visited = new HashSet<>();
+
+	private ClassInitializerAnalyzer(ClassNode classNode) {
+		this.classNode = classNode;
+	}
+
+	/**
+	 * @param clazz
+	 * @return {@code true} if the class initializer of {@code clazz} provably
+	 *         has no effect outside of the static fields of {@code clazz}
+	 */
+	public static boolean hasNoExternalSideEffects(Class<?> clazz) {
+		String resource = clazz.getName().replace('.', '/') + ".class";
+		ClassLoader loader = clazz.getClassLoader();
+		ClassNode classNode = new ClassNode();
+		try (InputStream in = loader == null ? ClassLoader.getSystemResourceAsStream(resource)
+				: loader.getResourceAsStream(resource)) {
+			if (in == null) {
+				return false;
+			}
+			new ClassReader(in).accept(classNode, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+		} catch (IOException | RuntimeException e) {
+			return false;
+		}
+
+		ClassInitializerAnalyzer analyzer = new ClassInitializerAnalyzer(classNode);
+		MethodNode clinit = analyzer.getMethod("<clinit>", "()V");
+		return clinit == null || analyzer.isSafe(clinit);
+	}
+
+	private MethodNode getMethod(String name, String desc) {
+		for (MethodNode method : classNode.methods) {
+			if (method.name.equals(name) && method.desc.equals(desc)) {
+				return method;
+			}
+		}
+		return null;
+	}
+
+	private FieldNode getField(String name) {
+		for (FieldNode field : classNode.fields) {
+			if (field.name.equals(name)) {
+				return field;
+			}
+		}
+		return null;
+	}
+
+	private boolean isSafe(MethodNode method) {
+		if (!visited.add(method.name + method.desc)) {
+			return true;
+		}
+		if (method.instructions.size() == 0) {
+			// abstract or native
+			return false;
+		}
+		boolean isConstructor = method.name.equals("<init>");
+		for (AbstractInsnNode insn = method.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+			switch (insn.getOpcode()) {
+			case Opcodes.PUTSTATIC:
+				if (!((FieldInsnNode) insn).owner.equals(classNode.name)) {
+					return false;
+				}
+				break;
+			case Opcodes.PUTFIELD:
+				if (!isConstructor || !((FieldInsnNode) insn).owner.equals(classNode.name)) {
+					return false;
+				}
+				break;
+			case Opcodes.GETSTATIC:
+				if (!isSafeToRead((FieldInsnNode) insn)) {
+					return false;
+				}
+				break;
+			case Opcodes.INVOKESTATIC:
+			case Opcodes.INVOKESPECIAL:
+			case Opcodes.INVOKEVIRTUAL:
+			case Opcodes.INVOKEINTERFACE:
+				if (!isSafeToCall((MethodInsnNode) insn)) {
+					return false;
+				}
+				break;
+			case Opcodes.INVOKEDYNAMIC:
+				if (!((InvokeDynamicInsnNode) insn).bsm.getOwner().equals("java/lang/invoke/StringConcatFactory")) {
+					return false;
+				}
+				break;
+			default:
+				break;
+			}
+		}
+		return true;
+	}
+
+	private boolean isSafeToRead(FieldInsnNode insn) {
+		if (isImmutableType(insn.desc)) {
+			return true;
+		}
+		if (!insn.owner.equals(classNode.name)) {
+			return false;
+		}
+		// Final fields are not part of the snapshot, so their objects must
+		// not be changed
+		FieldNode field = getField(insn.name);
+		return field != null && (field.access & Opcodes.ACC_FINAL) == 0;
+	}
+
+	private boolean isSafeToCall(MethodInsnNode insn) {
+		if (insn.owner.equals(classNode.name)) {
+			MethodNode target = getMethod(insn.name, insn.desc);
+			return target != null && isSafe(target);
+		}
+		if (insn.owner.startsWith("[")) {
+			return insn.name.equals("clone");
+		}
+		if (PURE_CLASSES.contains(insn.owner)) {
+			return true;
+		}
+		if (insn.name.equals("<init>")) {
+			return PURE_CONSTRUCTORS.contains(insn.owner);
+		}
+		return insn.owner.equals("java/lang/Class") && insn.name.equals("desiredAssertionStatus");
+	}
+
+	private static boolean isImmutableType(String desc) {
+		int sort = Type.getType(desc).getSort();
+		return (sort != Type.OBJECT && sort != Type.ARRAY) || IMMUTABLE_TYPES.contains(desc);
+	}
+}
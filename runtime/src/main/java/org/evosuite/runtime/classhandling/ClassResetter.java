@@ -23,7 +23,9 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.evosuite.runtime.*;
@@ -36,6 +38,8 @@ import org.slf4j.LoggerFactory;
 /**
  * This class resets the static fields of a given class by invoking the <clinit> class initializer.
  * In order to re-invoke the <clinit> this is duplicated with the method name "__STATIC_RESET".
+ * If {@link RuntimeSettings#snapshotStaticState} is set, the static state after the first reset
+ * is kept in a {@link StaticStateSnapshot} when possible, and later resets restore that instead.
  * 
  * @author galeotti
  *
@@ -58,8 +62,20 @@ public class ClassResetter {
 	
 	private final Map<ClassLoader, Map<String, Method>> resetMethodCache;
 
+	/**
+	 * A {@code null} value means that no snapshot can be taken for the class
+	 */
+	private final Map<ClassLoader, Map<String, StaticStateSnapshot>> snapshotCache;
+
+	/**
+	 * Total time in nanoseconds spent resetting each class
+	 */
+	private final Map<String, Long> resetTimes;
+
 	private ClassResetter(){
 		resetMethodCache = new HashMap<>();
+		snapshotCache = new HashMap<>();
+		resetTimes = new LinkedHashMap<>();
 	}
 
 	/**
@@ -122,6 +138,75 @@ public class ClassResetter {
 		return resetMethodCache.get(loader).get(classNameWithDots);
 	}
 
+	/**
+	 * Restore the static state of a class from the snapshot taken after its
+	 * first reset
+	 *
+	 * @param classNameWithDots
+	 * @return {@code false} if there is no snapshot, and the class has to be
+	 *         reset with <code>__STATIC_RESET</code>
+	 */
+	public synchronized boolean restoreSnapshot(String classNameWithDots) {
+		Map<String, StaticStateSnapshot> snapshots = snapshotCache.get(loader);
+		StaticStateSnapshot snapshot = snapshots == null ? null : snapshots.get(classNameWithDots);
+		if (snapshot == null) {
+			return false;
+		}
+
+		long start = java.lang.System.nanoTime();
+		try {
+			snapshot.restore();
+		} catch (Throwable t) {
+			logWarn(classNameWithDots, t.getClass() + " thrown while restoring static state of class "
+					+ classNameWithDots + ", using " + STATIC_RESET + "() instead");
+			snapshots.put(classNameWithDots, null);
+			return false;
+		}
+		addResetTime(classNameWithDots, java.lang.System.nanoTime() - start);
+		return true;
+	}
+
+	/**
+	 * Take a snapshot of the static state of a class. This has to be called
+	 * right after <code>__STATIC_RESET</code> was executed successfully, and
+	 * has no effect if it was already called for the class before.
+	 *
+	 * @param classNameWithDots
+	 */
+	public synchronized void takeSnapshot(String classNameWithDots) {
+		Map<String, StaticStateSnapshot> snapshots = snapshotCache.get(loader);
+		if (snapshots == null) {
+			snapshots = new HashMap<>();
+			snapshotCache.put(loader, snapshots);
+		}
+		if (snapshots.containsKey(classNameWithDots)) {
+			return;
+		}
+
+		StaticStateSnapshot snapshot = null;
+		try {
+			snapshot = StaticStateSnapshot.take(loader.loadClass(classNameWithDots));
+		} catch (ClassNotFoundException | LinkageError e) {
+			logger.debug("Cannot load class {} for static state snapshot: {}", classNameWithDots, e.toString());
+		}
+		if (snapshot == null) {
+			logger.debug("Static state of class {} cannot be restored from a snapshot", classNameWithDots);
+		}
+		snapshots.put(classNameWithDots, snapshot);
+	}
+
+	public synchronized void addResetTime(String classNameWithDots, long nanoseconds) {
+		Long time = resetTimes.get(classNameWithDots);
+		resetTimes.put(classNameWithDots, time == null ? nanoseconds : time + nanoseconds);
+	}
+
+	/**
+	 * @return the total time in nanoseconds spent resetting each class so far
+	 */
+	public synchronized Map<String, Long> getResetTimes() {
+		return Collections.unmodifiableMap(new LinkedHashMap<>(resetTimes));
+	}
+
 	/**
 	 * Invoke the duplicated version of class initializar <clinit> 
 	 *  
@@ -136,6 +221,12 @@ public class ClassResetter {
 			throw new IllegalStateException("No specified loader");
 		}
 		
+		if(RuntimeSettings.snapshotStaticState && restoreSnapshot(classNameWithDots)) {
+			// the snapshot only covers the static fields, not the runtime
+			org.evosuite.runtime.Runtime.getInstance().resetRuntime();
+			return;
+		}
+
 		Method m = getResetMethod(classNameWithDots);
 		if(m == null) {
             return;
@@ -148,6 +239,8 @@ public class ClassResetter {
 		InstrumentingAgent.activate();
 		org.evosuite.runtime.Runtime.getInstance().resetRuntime();
 		boolean wasLoopCheckOn = LoopCounter.getInstance().isActivated();
+		boolean wasReset = false;
+		long start = java.lang.System.nanoTime();
 
 		try {
 			if(!safe){
@@ -155,6 +248,7 @@ public class ClassResetter {
 			}
 			LoopCounter.getInstance().setActive(false);
 			m.invoke(null, (Object[]) null);
+			wasReset = true;
 		} catch (IllegalAccessException | IllegalArgumentException e) {
             logger.error(""+e,e);
         } catch (NoClassDefFoundError e){
@@ -176,6 +270,11 @@ public class ClassResetter {
 			}
 			LoopCounter.getInstance().setActive(wasLoopCheckOn);
 		}
+		addResetTime(classNameWithDots, java.lang.System.nanoTime() - start);
+
+		if(wasReset && RuntimeSettings.snapshotStaticState) {
+			takeSnapshot(classNameWithDots);
+		}
 
 		InstrumentingAgent.deactivate();
 	}
@@ -0,0 +1,173 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.classhandling;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The values of the static fields of a class right after its class
+ * initializer was executed. Restoring a snapshot writes these values back
+ * directly, which is much cheaper than executing <code>__STATIC_RESET</code>
+ * again for classes with expensive initializers (e.g., lookup tables).
+ *
+ * <p>
+ * A snapshot can only be taken if restoring it is equivalent to running the
+ * class initializer again, i.e., if all the fields the reset would assign
+ * contain immutable values or arrays of immutable values that are not shared
+ * between fields. Arrays are copied both when the snapshot is taken and when
+ * it is restored, so that tests cannot modify the snapshot.
+ *
+ * <p>
+ * A snapshot only covers the class itself. Classes whose initializer might
+ * change anything else (static fields of other classes, objects reachable
+ * from them, files,...) are rejected by {@link ClassInitializerAnalyzer}.
+ */
+public final class StaticStateSnapshot {
+
+	private final MethodHandle[] setters;
+
+	private final Object[] values;
+
+	private StaticStateSnapshot(MethodHandle[] setters, Object[] values) {
+		this.setters = setters;
+		this.values = values;
+	}
+
+	/**
+	 * @param clazz
+	 * @return a snapshot of the current static state of {@code clazz}, or
+	 *         {@code null} if restoring a snapshot would not be equivalent to
+	 *         re-running the class initializer
+	 */
+	public static StaticStateSnapshot take(Class<?> clazz) {
+		if (!ClassInitializerAnalyzer.hasNoExternalSideEffects(clazz)) {
+			return null;
+		}
+
+		List<MethodHandle> setters = new ArrayList<>();
+		List<Object> values = new ArrayList<>();
+		Map<Object, Object> seenArrays = new IdentityHashMap<>();
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+		try {
+			for (Field field : clazz.getDeclaredFields()) {
+				int modifiers = field.getModifiers();
+				if (!Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || isIgnored(field.getName())) {
+					// Not assigned by __STATIC_RESET either
+					continue;
+				}
+				field.setAccessible(true);
+				Object value = field.get(null);
+				if (!isSnapshotable(value, seenArrays)) {
+					return null;
+				}
+				setters.add(lookup.unreflectSetter(field));
+				values.add(copy(value));
+			}
+		} catch (IllegalAccessException | RuntimeException | LinkageError e) {
+			return null;
+		}
+
+		return new StaticStateSnapshot(setters.toArray(new MethodHandle[setters.size()]), values.toArray());
+	}
+
+	/**
+	 * Writes the values of the snapshot back into the static fields
+	 *
+	 * @throws Throwable
+	 *             if a field cannot be written
+	 */
+	public void restore() throws Throwable {
+		for (int i = 0; i < setters.length; i++) {
+			setters[i].invoke(copy(values[i]));
+		}
+	}
+
+	/**
+	 * @return the number of fields in this snapshot
+	 */
+	public int size() {
+		return setters.length;
+	}
+
+	/**
+	 * Same exclusions as in the creation of <code>__STATIC_RESET</code>
+	 */
+	private static boolean isIgnored(String fieldName) {
+		return fieldName.startsWith("__cobertura") || fieldName.startsWith("$jacoco") || fieldName.startsWith("$VRc");
+	}
+
+	private static boolean isSnapshotable(Object value, Map<Object, Object> seenArrays) {
+		if (value == null || isImmutable(value)) {
+			return true;
+		}
+		if (!value.getClass().isArray()) {
+			return false;
+		}
+		// Aliasing between fields would be lost when copying
+		if (seenArrays.put(value, value) != null) {
+			return false;
+		}
+		if (value.getClass().getComponentType().isPrimitive()) {
+			return true;
+		}
+		for (int i = 0; i < Array.getLength(value); i++) {
+			if (!isSnapshotable(Array.get(value, i), seenArrays)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isImmutable(Object value) {
+		return value instanceof String || value instanceof Integer || value instanceof Long
+				|| value instanceof Short || value instanceof Byte || value instanceof Character
+				|| value instanceof Boolean || value instanceof Double || value instanceof Float
+				|| value.getClass() == BigInteger.class || value.getClass() == BigDecimal.class
+				|| value instanceof Class
+				|| value instanceof Enum;
+	}
+
+	private static Object copy(Object value) {
+		if (value == null || !value.getClass().isArray()) {
+			return value;
+		}
+		int length = Array.getLength(value);
+		Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+		if (value.getClass().getComponentType().isPrimitive()) {
+			System.arraycopy(value, 0, copy, 0, length);
+		} else {
+			for (int i = 0; i < length; i++) {
+				Array.set(copy, i, copy(Array.get(value, i)));
+			}
+		}
+		return copy;
+	}
+}
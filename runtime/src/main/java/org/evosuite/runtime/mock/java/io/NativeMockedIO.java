@@ -60,6 +60,28 @@ public class NativeMockedIO {
 		return b; 
 	}
 
+	/**
+	 * Read up to {@code len} bytes at once, advancing the position by the
+	 * number of bytes read
+	 * 
+	 * @return the number of bytes read, or -1 at the end of the file
+	 */
+	public static int read(String path, AtomicInteger position, byte b[], int off, int len) throws IOException{
+		VFile vf = NativeMockedIO.getFileForReading(path);
+		if(vf==null){
+			throw new MockIOException();
+		}
+		
+		VirtualFileSystem.getInstance().throwSimuledIOExceptionIfNeeded(path);
+		
+		int read = vf.readBytes(position.get(), b, off, len);
+		if(read > 0){
+			position.addAndGet(read);
+		}
+		
+		return read; 
+	}
+
 	
 	public static VFile getFileForWriting(String path){
 		FSObject target = VirtualFileSystem.getInstance().findFSObject(path);
@@ -19,8 +19,7 @@
  */
 package org.evosuite.runtime.vfs;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Representation of a virtual file
@@ -31,44 +30,77 @@ import java.util.List;
 public class VFile extends FSObject{
 
 	/**
-	 * the actual data contained in file as a list of bytes
+	 * Size of each chunk of data. Files grow one chunk at a time, so that
+	 * appending does not copy the whole content
 	 */
-	private final List<Byte> data;
+	private static final int CHUNK_SIZE = 4096;
+
+	/**
+	 * the actual data contained in file, as chunks of {@link #CHUNK_SIZE} bytes.
+	 * All bytes after {@link #size} are 0
+	 */
+	private byte[][] chunks;
+
+	/**
+	 * number of bytes in the file
+	 */
+	private int size;
 
 	public VFile(String path, VFolder parent) {
 		super(path, parent);
 
 		//TODO might need a better type of data structure supporting multi-threading
-		data = new ArrayList<Byte>(1024);
+		chunks = new byte[1][];
+		size = 0;
 	}
 
-	public void eraseData(){
-		data.clear();
+	public synchronized void eraseData(){
+		chunks = new byte[1][];
+		size = 0;
 	}
 
 	public synchronized int getDataSize(){
-		return data.size();
+		return size;
 	}
 
 
 	public synchronized void setLength(int newLength){
 
-		/*
-		 * Note: this implementation is not particularly efficient...
-		 * but setLength is rarely called
-		 */
-
-		while(newLength > data.size()){
-			data.add((byte)0);
+		if(newLength >= size){
+			ensureCapacity(newLength);
+			size = newLength;
+			return;
 		}
 
 		if(newLength==0){
-			data.clear();
+			eraseData();
 			return;
 		}
-		
-		while(data.size() > newLength){
-			data.remove(data.size()-1);
+
+		/*
+		 * drop the chunks that are not needed any more, and clear the
+		 * remaining bytes of the last one, so that they read as 0 if the
+		 * file grows again
+		 */
+		int lastChunk = (newLength - 1) / CHUNK_SIZE;
+		for(int i=lastChunk+1; i<chunks.length; i++){
+			chunks[i] = null;
+		}
+		if(chunks[lastChunk] != null){
+			Arrays.fill(chunks[lastChunk], newLength - lastChunk * CHUNK_SIZE, CHUNK_SIZE, (byte)0);
+		}
+		size = newLength;
+	}
+
+	private void ensureCapacity(int length){
+		int neededChunks = (length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		if(neededChunks > chunks.length){
+			chunks = Arrays.copyOf(chunks, Math.max(neededChunks, chunks.length * 2));
+		}
+		for(int i=0; i<neededChunks; i++){
+			if(chunks[i] == null){
+				chunks[i] = new byte[CHUNK_SIZE];
+			}
 		}
 	}
 
@@ -82,15 +114,49 @@ public class VFile extends FSObject{
 			throw new IllegalArgumentException("Position in the file cannot be negative");
 		}
 
-		if(position >= data.size()){
+		if(position >= size){
 			return -1; //this represent the end of the stream
 		}
 
-		return data.get(position) & 0xFF;
+		return chunks[position / CHUNK_SIZE][position % CHUNK_SIZE] & 0xFF;
+	}
+
+	/**
+	 * Copy up to {@code len} bytes starting at {@code position} into {@code b}
+	 *
+	 * @return the number of bytes read, or -1 if {@code position} is at or
+	 *         after the end of the file and {@code len} is not 0
+	 */
+	public synchronized int readBytes(int position, byte b[], int off, int len) throws IllegalArgumentException{
+		if(position<0){
+			throw new IllegalArgumentException("Position in the file cannot be negative");
+		}
+		if(off<0 || len<0 || len > b.length - off){
+			throw new IndexOutOfBoundsException();
+		}
+
+		if(len==0){
+			return 0;
+		}
+
+		if(position >= size){
+			return -1; //this represent the end of the stream
+		}
+
+		int toRead = Math.min(len, size - position);
+		int read = 0;
+		while(read < toRead){
+			int offsetInChunk = (position + read) % CHUNK_SIZE;
+			int n = Math.min(toRead - read, CHUNK_SIZE - offsetInChunk);
+			System.arraycopy(chunks[(position + read) / CHUNK_SIZE], offsetInChunk, b, off + read, n);
+			read += n;
+		}
+
+		return read;
 	}
 
 	public synchronized int writeBytes(byte b[], int off, int len){
-		return writeBytes(data.size(),b,off,len);
+		return writeBytes(size,b,off,len);
 	}
 
 	
@@ -104,20 +170,23 @@ public class VFile extends FSObject{
 			return 0;
 		}
 
-		if(position >= data.size()){
+		if(position >= size){
 			setLength(position);
 		}
 
+		int toWrite = Math.max(0, Math.min(len, b.length - off));
+		if(toWrite > 0){
+			ensureCapacity(position + toWrite);
+		}
+
 		int written = 0;
-		for(int i=off; i<b.length & (i-off)<len; i++){
-			if(position < data.size()){
-				data.set(position,(b[i]));
-			} else {
-				data.add(b[i]);
-			}
-			position++;
-			written++;
+		while(written < toWrite){
+			int offsetInChunk = (position + written) % CHUNK_SIZE;
+			int n = Math.min(toWrite - written, CHUNK_SIZE - offsetInChunk);
+			System.arraycopy(b, off + written, chunks[(position + written) / CHUNK_SIZE], offsetInChunk, n);
+			written += n;
 		}
+		size = Math.max(size, position + written);
 
 		setLastModified(getCurrentTimeMillis());
 
@@ -59,6 +59,18 @@ public final class VirtualFileSystem {
 	 */
 	private static final VirtualFileSystem singleton = new VirtualFileSystem();
 
+	/**
+	 * File systems bound to the threads of a parallel execution lane, see
+	 * {@link #bindNewInstanceToCurrentThread()}. Threads spawned by the SUT
+	 * inherit the file system of the thread that created them.
+	 */
+	private static final InheritableThreadLocal<VirtualFileSystem> threadInstance = new InheritableThreadLocal<>();
+
+	/**
+	 * Avoid the thread local lookup unless some thread has its own file system
+	 */
+	private static volatile boolean hasThreadInstances = false;
+
 	/**
 	 * The root of the VFS
 	 * 
@@ -119,9 +131,37 @@ public final class VirtualFileSystem {
 	 * @return
 	 */
 	public static VirtualFileSystem getInstance() {
+		if (hasThreadInstances) {
+			VirtualFileSystem bound = threadInstance.get();
+			if (bound != null) {
+				return bound;
+			}
+		}
 		return singleton;
 	}
 
+	/**
+	 * Give the current thread (and all threads it will create) its own, empty
+	 * file system, so that tests executed concurrently on different threads do
+	 * not see each others' files
+	 * 
+	 * @return the file system bound to the current thread
+	 */
+	public static VirtualFileSystem bindNewInstanceToCurrentThread() {
+		VirtualFileSystem vfs = new VirtualFileSystem();
+		vfs.init();
+		threadInstance.set(vfs);
+		hasThreadInstances = true;
+		return vfs;
+	}
+
+	/**
+	 * Make the current thread use the shared file system again
+	 */
+	public static void unbindCurrentThread() {
+		threadInstance.remove();
+	}
+
 	/**
 	 * Reset the internal state of this singleton
 	 */
@@ -0,0 +1,140 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.classhandling;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StaticStateSnapshotTest {
+
+    private static class LookupTable {
+        static int counter = 1;
+        static String name = "foo";
+        static int[] table = {1, 2, 3};
+        static String[][] names = {{"a", "b"}, {"c"}};
+    }
+
+    private static class MutableState {
+        static int counter = 0;
+        static List<String> values = new ArrayList<>();
+    }
+
+    private static class AliasedArrays {
+        static int[] first = new int[2];
+        static int[] second = first;
+    }
+
+    private static class FinalState {
+        static final List<String> values = new ArrayList<>();
+    }
+
+    private static class OtherClassState {
+        static int counter = LookupTable.counter;
+        static {
+            LookupTable.counter = 0;
+        }
+    }
+
+    private static class OtherClassArray {
+        static int size = 0;
+        static {
+            LookupTable.table[0] = 0;
+        }
+    }
+
+    private static class ExternalCall {
+        static long time = System.currentTimeMillis();
+    }
+
+    private static class HelperMethod {
+        static int[] squares = computeSquares(4);
+
+        private static int[] computeSquares(int n) {
+            int[] result = new int[n];
+            for (int i = 0; i < n; i++) {
+                result[i] = Math.multiplyExact(i, i);
+            }
+            return result;
+        }
+    }
+
+    @Test
+    public void testRestoreImmutableValues() throws Throwable {
+        StaticStateSnapshot snapshot = StaticStateSnapshot.take(LookupTable.class);
+        Assert.assertNotNull(snapshot);
+        Assert.assertEquals(4, snapshot.size());
+
+        LookupTable.counter = 42;
+        LookupTable.name = null;
+        LookupTable.table[0] = 17;
+        LookupTable.names[1][0] = "x";
+        snapshot.restore();
+
+        Assert.assertEquals(1, LookupTable.counter);
+        Assert.assertEquals("foo", LookupTable.name);
+        Assert.assertArrayEquals(new int[]{1, 2, 3}, LookupTable.table);
+        Assert.assertEquals("c", LookupTable.names[1][0]);
+
+        // the restored arrays must not be the ones in the snapshot
+        LookupTable.table[0] = 17;
+        snapshot.restore();
+        Assert.assertEquals(1, LookupTable.table[0]);
+    }
+
+    @Test
+    public void testMutableValue() {
+        Assert.assertNull(StaticStateSnapshot.take(MutableState.class));
+    }
+
+    @Test
+    public void testAliasedArrays() {
+        Assert.assertNull(StaticStateSnapshot.take(AliasedArrays.class));
+    }
+
+    @Test
+    public void testInitializerChangesOtherClass() {
+        Assert.assertNull(StaticStateSnapshot.take(OtherClassState.class));
+        Assert.assertNull(StaticStateSnapshot.take(OtherClassArray.class));
+    }
+
+    @Test
+    public void testInitializerCallsOtherClass() {
+        Assert.assertNull(StaticStateSnapshot.take(ExternalCall.class));
+    }
+
+    @Test
+    public void testInitializerCallsOwnMethod() throws Throwable {
+        StaticStateSnapshot snapshot = StaticStateSnapshot.take(HelperMethod.class);
+        Assert.assertNotNull(snapshot);
+        HelperMethod.squares[3] = 0;
+        snapshot.restore();
+        Assert.assertArrayEquals(new int[]{0, 1, 4, 9}, HelperMethod.squares);
+    }
+
+    @Test
+    public void testFinalFieldsAreIgnored() {
+        StaticStateSnapshot snapshot = StaticStateSnapshot.take(FinalState.class);
+        Assert.assertNotNull(snapshot);
+        Assert.assertEquals(0, snapshot.size());
+    }
+}
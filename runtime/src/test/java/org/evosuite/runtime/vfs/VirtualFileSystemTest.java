@@ -29,6 +29,7 @@ import org.evosuite.runtime.mock.MockFramework;
 import org.evosuite.runtime.mock.java.io.MockFile;
 import org.evosuite.runtime.mock.java.io.MockFileInputStream;
 import org.evosuite.runtime.mock.java.io.MockFileOutputStream;
+import org.evosuite.runtime.mock.java.io.MockRandomAccessFile;
 import org.evosuite.runtime.vfs.VirtualFileSystem;
 import org.junit.After;
 import org.junit.Assert;
@@ -131,6 +132,73 @@ public class VirtualFileSystemTest {
 		Assert.assertEquals(0,buffer[3]);
 	}
 	
+	@Test
+	public void testReadAfterWriteOfLargeFile() throws IOException{
+		
+		File file = MockFile.createTempFile("foo", ".tmp");
+		
+		byte[] data = new byte[100_000];
+		for(int i=0; i<data.length; i++){
+			data[i] = (byte) (i * 31);
+		}
+		MockFileOutputStream out = new MockFileOutputStream(file);
+		out.write(data, 0, 10);
+		out.write(data, 10, data.length - 10);
+		out.close();
+		Assert.assertEquals(data.length, file.length());
+		
+		MockFileInputStream in = new MockFileInputStream(file);
+		byte[] buffer = new byte[data.length + 5];
+		int count = in.read(buffer, 5, buffer.length - 5);
+		Assert.assertEquals(data.length, count);
+		Assert.assertEquals(-1, in.read(buffer));
+		Assert.assertEquals(0, in.read(buffer, 0, 0));
+		in.close();
+		Assert.assertArrayEquals(data, Arrays.copyOfRange(buffer, 5, buffer.length));
+	}
+	
+	@Test
+	public void testShrinkAndGrowFile() throws IOException{
+		
+		File file = MockFile.createTempFile("foo", ".tmp");
+		
+		byte[] data = new byte[10_000];
+		Arrays.fill(data, (byte) 7);
+		MockRandomAccessFile raf = new MockRandomAccessFile(file, "rw");
+		raf.write(data);
+		raf.setLength(5_000);
+		raf.setLength(9_000);
+		Assert.assertEquals(5_000, raf.getFilePointer());
+		
+		raf.seek(0);
+		byte[] buffer = new byte[10_000];
+		Assert.assertEquals(9_000, raf.read(buffer));
+		Assert.assertEquals(7, buffer[4_999]);
+		Assert.assertEquals(0, buffer[5_000]);
+		Assert.assertEquals(0, buffer[8_999]);
+		Assert.assertEquals(-1, raf.read(buffer));
+		raf.close();
+	}
+	
+	@Test
+	public void testReadWithSimulatedIOException() throws IOException{
+		
+		File file = MockFile.createTempFile("foo", ".tmp");
+		MockFileOutputStream out = new MockFileOutputStream(file);
+		out.write(new byte[]{1,2,3});
+		out.close();
+		
+		MockFileInputStream in = new MockFileInputStream(file);
+		VirtualFileSystem.getInstance().setShouldAllThrowIOExceptions();
+		try{
+			in.read(new byte[3]);
+			Assert.fail();
+		} catch(IOException e){
+			//expected
+		}
+		in.close();
+	}
+	
 	@Test
 	public void testReadingNonExistingFile() throws IOException{
 		String fileName = "this_file_should_not_exist";